@@ -0,0 +1,90 @@
+package UML.benchmarks;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/17/2026
+    Purpose: Compares adding a diagram one element at a time against adding it as one batch with Store.addClasses.
+ */
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import UML.model.Class;
+import UML.model.Method;
+import UML.model.Parameter;
+import UML.model.RelationshipType;
+import UML.model.Store;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BulkLoadBenchmark
+{
+    //The number of classes in the diagram.
+    @Param({"100"})
+    public int classCount;
+
+    //The number of methods in each class.
+    @Param({"10", "100", "1000"})
+    public int methodCount;
+
+    /**
+     * Adds each class, method and relationship through the usual checked methods.
+     */
+    @Benchmark
+    public Store oneByOne()
+    {
+        Store store = new Store();
+        ArrayList<String> params = new ArrayList<String>();
+        params.add("int a");
+        for(int count = 0; count < classCount; count++)
+        {
+            String name = "Class" + count;
+            store.addClass(name);
+            for(int method = 0; method < methodCount; method++)
+            {
+                store.addMethod(name, "void", "method" + method, params, "public");
+            }
+            if(count > 0)
+                store.addRelationship(name, "Class" + (count - 1), RelationshipType.AGGREGATION);
+        }
+        return store;
+    }
+
+    /**
+     * Builds the same classes directly, the way the loader does, and adds them in one batch.
+     */
+    @Benchmark
+    public Store batch()
+    {
+        Store store = new Store();
+        ArrayList<Class> classes = new ArrayList<Class>();
+        for(int count = 0; count < classCount; count++)
+        {
+            Class aClass = new Class("Class" + count);
+            for(int method = 0; method < methodCount; method++)
+            {
+                ArrayList<Parameter> params = new ArrayList<Parameter>();
+                params.add(new Parameter("int", "a"));
+                aClass.getMethods().add(new Method("void", "method" + method, params, "public"));
+            }
+            if(count > 0)
+                aClass.getRelationshipsToOther().put("Class" + (count - 1), RelationshipType.AGGREGATION);
+            classes.add(aClass);
+        }
+        store.addClasses(classes);
+        return store;
+    }
+}
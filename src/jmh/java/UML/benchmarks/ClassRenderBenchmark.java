@@ -0,0 +1,125 @@
+package UML.benchmarks;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/17/2026
+    Purpose: Measures rebuilding and zooming the GUI when the classes have many fields and methods,
+    where each panel needs its class's toString().
+ */
+import java.awt.event.MouseWheelEvent;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import UML.controllers.Controller;
+import UML.controllers.ScrollWheelController;
+import UML.model.RelationshipType;
+import UML.model.Store;
+import UML.views.GraphicalView;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ClassRenderBenchmark
+{
+    //The number of classes in the diagram.
+    @Param({"20"})
+    public int classCount;
+
+    //The number of fields, and of methods, in each class.
+    @Param({"10", "100", "1000"})
+    public int memberCount;
+
+    private Store store;
+
+    private Controller controller;
+
+    private GraphicalView view;
+
+    private ScrollWheelController wheel;
+
+    @Setup
+    public void setup()
+    {
+        store = new Store();
+        ArrayList<String> params = new ArrayList<String>();
+        params.add("int a");
+        params.add("String b");
+        for(int count = 0; count < classCount; count++)
+        {
+            String name = "Class" + count;
+            store.addClass(name);
+            for(int member = 0; member < memberCount; member++)
+            {
+                store.addField(name, "int", "field" + member, "private");
+                store.addMethod(name, "void", "method" + member, params, "public");
+            }
+            if(count > 0)
+                store.addRelationship(name, "Class" + (count - 1), RelationshipType.AGGREGATION);
+        }
+
+        //The draw panel works without a window, so no screen is needed.
+        view = new GraphicalView();
+        view.makeDrawPanel();
+        controller = new Controller(store, view);
+        controller.rebuild();
+        wheel = new ScrollWheelController(store, view, controller);
+        //Start zoomed out, so the benchmark changes the scale without showing and hiding the panels.
+        view.getDrawPanel().setZoomLevel(-1, null);
+    }
+
+    /**
+     * Removes every panel and builds them all again, as undo, redo and load do.
+     */
+    @Benchmark
+    public Object rebuild()
+    {
+        for(String key : view.getPanels().keySet())
+        {
+            view.deleteClass(key);
+        }
+        controller.rebuild();
+        return view.getPanels();
+    }
+
+    /**
+     * Zooms out one notch and back in. The panels are left alone, and painting the result is measured in PaintBenchmark.
+     */
+    @Benchmark
+    public Object zoom()
+    {
+        wheel.mouseWheelMoved(notch(1));
+        wheel.applyZoom();
+        wheel.mouseWheelMoved(notch(-1));
+        wheel.applyZoom();
+        return view.getPanels();
+    }
+
+    /**
+     * Only builds the strings of every class, without any Swing work.
+     */
+    @Benchmark
+    public Object classStrings()
+    {
+        return store.stringOfClasses();
+    }
+
+    private MouseWheelEvent notch(int rotation)
+    {
+        return new MouseWheelEvent(view.getDrawPanel(), MouseWheelEvent.MOUSE_WHEEL, 0, 0, 500, 500, 500, 500, 0, false,
+            MouseWheelEvent.WHEEL_UNIT_SCROLL, 1, rotation);
+    }
+}
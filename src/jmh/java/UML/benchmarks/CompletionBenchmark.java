@@ -0,0 +1,152 @@
+package UML.benchmarks;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/18/2026
+    Purpose: Measures what the command line does for tab completion after each command, the completion index
+    following one edit against building the whole completer again from the store as was done before, and
+    how long a completion takes in a large diagram.
+ */
+import static org.jline.builtins.Completers.TreeCompleter.node;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jline.builtins.Completers.TreeCompleter;
+import org.jline.reader.impl.completer.StringsCompleter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import UML.controllers.CompletionIndex;
+import UML.model.Class;
+import UML.model.DiagramGenerator;
+import UML.model.Field;
+import UML.model.Method;
+import UML.model.Parameter;
+import UML.model.Store;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CompletionBenchmark
+{
+    //The number of classes in the diagram.
+    @Param({"1000", "10000"})
+    public int classCount;
+
+    private Store store;
+    private CompletionIndex index;
+    private String edited;
+    private int count;
+
+    @Setup
+    public void setup()
+    {
+        store = new DiagramGenerator(42, classCount).generate();
+        index = new CompletionIndex(store);
+        store.addListener(index);
+        edited = DiagramGenerator.className(classCount / 2);
+    }
+
+    /**
+     * Builds the completer from the whole store, as the command line did after every command.
+     */
+    @Benchmark
+    public Object rebuildCompleter()
+    {
+        StringsCompleter classes = new StringsCompleter(store.getClassList());
+        boolean hasFields = false;
+        boolean hasMethods = false;
+        for(Class c : store.getClassStore())
+        {
+            hasFields |= !c.getFields().isEmpty();
+            hasMethods |= !c.getMethods().isEmpty();
+        }
+        if(!hasFields && !hasMethods)
+            return classes;
+        StringsCompleter accesses = new StringsCompleter("public", "private", "protected");
+        StringsCompleter types = new StringsCompleter("String", "boolean", "char", "double", "float", "int", "short", "size_t", "unsigned");
+        //The members offered were those of the class named in the last command.
+        Class edit = store.findClass(edited);
+        ArrayList<String> fields = new ArrayList<String>();
+        for(Field f : edit.getFields())
+        {
+            fields.add(f.getName());
+        }
+        ArrayList<String> methods = new ArrayList<String>();
+        ArrayList<String> params = new ArrayList<String>();
+        for(Method m : edit.getMethods())
+        {
+            String described = m.getAccessString() + " " + m.getType() + " " + m.getName();
+            for(Parameter param : m.getParams())
+            {
+                described += " " + param.toString();
+                params.add(param.toString());
+            }
+            methods.add(described);
+        }
+        return new TreeCompleter(node("addc"), node("renamec", node(classes)),
+                node("deletec", node(classes)), node("addf", node(classes, node(accesses, node(types)))),
+                node("renamef", node(classes, node(new StringsCompleter(fields)))),
+                node("deletef", node(classes, node(new StringsCompleter(fields)))),
+                node("changeft", node(classes, node(new StringsCompleter(fields), node(types)))),
+                node("changefa", node(classes, node(new StringsCompleter(fields), node(accesses)))),
+                node("addm", node(classes, node(accesses, node(types)))),
+                node("renamem", node(classes, node(new StringsCompleter(methods)))),
+                node("deletem", node(classes, node(new StringsCompleter(methods)))),
+                node("changemt", node(classes, node(new StringsCompleter(methods), node(types)))),
+                node("changema", node(classes, node(new StringsCompleter(methods), node(accesses)))),
+                node("addp", node(classes, node(new StringsCompleter(methods)))),
+                node("deletep", node(classes, node(new StringsCompleter(methods), node(new StringsCompleter(params))))),
+                node("addr", node(classes, node(classes, node(new StringsCompleter("Aggregation", "Composition",
+                        "Generalization", "Realization"))))),
+                node("deleter", node(classes, node(classes))),
+                node("help", "exit", "showgui", "save", "load", "generate", "convert", "undo", "redo", "displayr"),
+                node("display", node(classes)));
+    }
+
+    /**
+     * Tells the index about an edit to a class, then completes a field of that class, which gathers its
+     * members again.
+     */
+    @Benchmark
+    public List<String> followEdit()
+    {
+        index.addField(edited, "int", "field", "private");
+        return index.complete(Arrays.asList("deletef", edited, ""), 2, "");
+    }
+
+    /**
+     * Completes a class name that about a ninth of the classes start with.
+     */
+    @Benchmark
+    public List<String> completeClass()
+    {
+        return index.complete(Arrays.asList("display", "Class1"), 1, "Class1");
+    }
+
+    /**
+     * Renames a class back and forth in the store, with the index following it.
+     */
+    @Benchmark
+    public boolean renameClass()
+    {
+        String from = (count & 1) == 0 ? edited : "Renamed";
+        String to = (count & 1) == 0 ? "Renamed" : edited;
+        count++;
+        return store.renameClass(from, to);
+    }
+}
@@ -0,0 +1,121 @@
+package UML.benchmarks;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/18/2026
+    Purpose: Measures listing the classes and relationships of a large diagram on the command line, building
+    the whole listing as one string as display and displayr did before against writing it a line at a time.
+ */
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import UML.controllers.Pager;
+import UML.model.ClassSnapshot;
+import UML.model.DiagramGenerator;
+import UML.model.RelationshipType;
+import UML.model.Snapshot;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DisplayBenchmark
+{
+    //The number of classes in the diagram.
+    @Param({"1000", "10000"})
+    public int classCount;
+
+    private Snapshot snapshot;
+    //Stands in for the terminal, encoding the text but keeping none of it.
+    private PrintWriter out;
+
+    @Setup
+    public void setup()
+    {
+        DiagramGenerator generator = new DiagramGenerator(42, classCount);
+        generator.setRelationshipsPerClass(2);
+        snapshot = generator.generate().getSnapshot();
+        out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(OutputStream.nullOutputStream())));
+    }
+
+    /**
+     * Lists the class names as one string, as display did.
+     */
+    @Benchmark
+    public void buildClassList()
+    {
+        String classes = "";
+        for (ClassSnapshot c : snapshot.getClasses())
+        {
+            classes += "Class Name: " + c.getName() + "\n";
+        }
+        out.println(classes);
+        out.flush();
+    }
+
+    /**
+     * Lists the class names a line at a time.
+     */
+    @Benchmark
+    public void streamClassList()
+    {
+        Pager pager = new Pager(out, 0, () -> -1);
+        for (ClassSnapshot c : snapshot.getClasses())
+        {
+            pager.println("Class Name: " + c.getName());
+        }
+        pager.flush();
+    }
+
+    /**
+     * Lists the relationships as one string, as displayr did.
+     */
+    @Benchmark
+    public void buildRelationships()
+    {
+        String relationships = "";
+        for (ClassSnapshot c : snapshot.getClasses())
+        {
+            for (Map.Entry<String, RelationshipType> entry : c.getRelationshipsToOther().entrySet())
+            {
+                relationships += c.getName() + " ==" + entry.getValue() + "==> " + entry.getKey() + "\n";
+            }
+        }
+        out.println(relationships);
+        out.flush();
+    }
+
+    /**
+     * Lists the relationships a line at a time.
+     */
+    @Benchmark
+    public void streamRelationships()
+    {
+        Pager pager = new Pager(out, 0, () -> -1);
+        for (ClassSnapshot c : snapshot.getClasses())
+        {
+            for (Map.Entry<String, RelationshipType> entry : c.getRelationshipsToOther().entrySet())
+            {
+                pager.println(c.getName() + " ==" + entry.getValue() + "==> " + entry.getKey());
+            }
+        }
+        pager.flush();
+    }
+}
@@ -0,0 +1,103 @@
+package UML.benchmarks;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/17/2026
+    Purpose: Measures how long the GUI takes to catch up after one edit as the diagram grows.
+ */
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import UML.controllers.Controller;
+import UML.model.RelationshipType;
+import UML.model.Store;
+import UML.views.GraphicalView;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class GuiEditBenchmark
+{
+    //The number of classes in the diagram.
+    @Param({"10", "100", "1000"})
+    public int classCount;
+
+    private Controller controller;
+
+    private GraphicalView view;
+
+    //The class that gets edited, picked from the middle so it has relationships both ways.
+    private String edited;
+
+    @Setup
+    public void setup()
+    {
+        Store store = new Store();
+        ArrayList<String> params = new ArrayList<String>();
+        params.add("int a");
+        for(int count = 0; count < classCount; count++)
+        {
+            String name = "Class" + count;
+            store.addClass(name);
+            store.addField(name, "int", "field", "private");
+            store.addMethod(name, "void", "method", params, "public");
+            if(count > 0)
+                store.addRelationship(name, "Class" + (count - 1), RelationshipType.AGGREGATION);
+        }
+        edited = "Class" + (classCount / 2);
+
+        //The draw panel works without a window, so no screen is needed.
+        view = new GraphicalView();
+        view.makeDrawPanel();
+        controller = new Controller(store, view);
+        controller.rebuild();
+    }
+
+    /**
+     * Adds and removes a field, updating only the edited panel each time.
+     */
+    @Benchmark
+    public Object incrementalEdit()
+    {
+        controller.createField(edited, "int", "extra", "public");
+        controller.deleteField(edited, "extra");
+        controller.getStateController().clearUndo();
+        return view.getPanels();
+    }
+
+    /**
+     * The old approach: after the same edit, remove every panel and build them all again.
+     */
+    @Benchmark
+    public Object fullRebuild()
+    {
+        controller.getStore().addField(edited, "int", "extra", "public");
+        rebuildAll();
+        controller.getStore().deleteField(edited, "extra");
+        rebuildAll();
+        return view.getPanels();
+    }
+
+    private void rebuildAll()
+    {
+        for(String key : view.getPanels().keySet())
+        {
+            view.deleteClass(key);
+        }
+        controller.rebuild();
+    }
+}
@@ -0,0 +1,176 @@
+package UML.benchmarks;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/17/2026
+    Purpose: Measures the paths most edits go through, from the model to the file and the screen, on diagrams
+    of 10, 1k and 10k generated classes, so runs before and after a change can be compared from the JSON results.
+ */
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.json.simple.parser.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import UML.controllers.Controller;
+import UML.controllers.SaveAndLoad;
+import UML.model.Class;
+import UML.model.DiagramGenerator;
+import UML.model.Parameter;
+import UML.model.Store;
+import UML.views.DrawPanel;
+import UML.views.GraphicalView;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class HotPathBenchmark
+{
+    //The number of classes in the diagram.
+    @Param({"10", "1000", "10000"})
+    public int classCount;
+
+    //How many classes a row of the diagram has.
+    private static final int COLUMNS = 100;
+
+    //The seed the diagram is generated from, the same for every run.
+    private static final long SEED = 42;
+
+    private Store store;
+
+    private Controller controller;
+
+    private GraphicalView view;
+
+    private SaveAndLoad saver;
+
+    //The file the saves write to.
+    private String saveFile;
+
+    //A saved copy of the diagram for the loads to read.
+    private String loadFile;
+
+    //The class the method benchmark adds to, and the method it adds.
+    private Class edited;
+    private ArrayList<Parameter> params;
+
+    private BufferedImage image;
+
+    private Graphics2D graphics;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        DiagramGenerator generator = new DiagramGenerator(SEED, classCount);
+        generator.setColumns(COLUMNS);
+        store = generator.generate();
+        edited = store.findClass(DiagramGenerator.className(classCount / 2));
+        params = new ArrayList<Parameter>();
+        params.add(new Parameter("int", "a"));
+
+        saver = new SaveAndLoad(store, null, null);
+        saveFile = File.createTempFile("uml-save", ".json").getPath();
+        loadFile = File.createTempFile("uml-load", ".json").getPath();
+        saver.save(loadFile);
+
+        //The draw panel works without a window, so the GUI paths run headless onto an image.
+        view = new GraphicalView();
+        view.makeDrawPanel();
+        controller = new Controller(store, view);
+        controller.rebuild();
+        view.getDrawPanel().setSize(COLUMNS * 250, (classCount / COLUMNS + 1) * 400);
+        image = new BufferedImage(800, 800, BufferedImage.TYPE_INT_RGB);
+        graphics = image.createGraphics();
+        graphics.setClip(0, 0, 800, 800);
+    }
+
+    @TearDown
+    public void cleanUp()
+    {
+        graphics.dispose();
+        new File(saveFile).delete();
+        new File(loadFile).delete();
+    }
+
+    /**
+     * Deep copies the store.
+     */
+    @Benchmark
+    public Object storeClone()
+    {
+        return store.clone();
+    }
+
+    /**
+     * Adds a method to a class and deletes it again, so the class stays the same size.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public boolean addMethod()
+    {
+        edited.addMethod("int", "added", params, "public");
+        return edited.deleteMethod("int", "added", params, "public");
+    }
+
+    /**
+     * Saves the diagram as JSON.
+     */
+    @Benchmark
+    public File save() throws IOException
+    {
+        return saver.save(saveFile);
+    }
+
+    /**
+     * Loads the diagram from JSON into an empty store.
+     */
+    @Benchmark
+    public Store load() throws IOException, ParseException
+    {
+        Store loaded = new Store();
+        new SaveAndLoad(loaded, null, null).load(loadFile);
+        return loaded;
+    }
+
+    /**
+     * Removes every panel and builds them all again, as undo, redo and load do.
+     */
+    @Benchmark
+    public Object rebuild()
+    {
+        for(String key : view.getPanels().keySet())
+        {
+            view.deleteClass(key);
+        }
+        controller.rebuild();
+        return view.getPanels();
+    }
+
+    /**
+     * Paints the background and relationship lines of the top left 800 by 800 pixels.
+     */
+    @Benchmark
+    public BufferedImage paintComponent()
+    {
+        DrawPanel dp = view.getDrawPanel();
+        dp.paintComponent(graphics);
+        return image;
+    }
+}
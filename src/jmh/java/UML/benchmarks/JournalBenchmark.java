@@ -0,0 +1,98 @@
+package UML.benchmarks;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/17/2026
+    Purpose: Measures what journaling adds to an edit, which should stay the same however big the diagram
+    is, against the explicit save the journal makes less necessary.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import UML.controllers.EditJournal;
+import UML.controllers.SaveAndLoad;
+import UML.model.DiagramGenerator;
+import UML.model.Store;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JournalBenchmark
+{
+    //The number of classes in the diagram.
+    @Param({"1000", "50000"})
+    public int classCount;
+
+    //Whether the store is journaled.
+    @Param({"false", "true"})
+    public boolean journaled;
+
+    private Store store;
+
+    private EditJournal journal;
+
+    private File journalFile;
+
+    private File saveFile;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        store = new DiagramGenerator(42, classCount).generate();
+        saveFile = File.createTempFile("uml-journal", ".umlb");
+        new SaveAndLoad(store, null, null).save(saveFile.getPath());
+        if(journaled)
+        {
+            journalFile = File.createTempFile("uml", ".journal");
+            journal = new EditJournal(journalFile);
+            journal.start(saveFile);
+            store.setJournal(journal);
+        }
+    }
+
+    @TearDown
+    public void cleanUp()
+    {
+        if(journal != null)
+        {
+            journal.close();
+            journalFile.delete();
+        }
+        saveFile.delete();
+    }
+
+    /**
+     * Adds a field and takes it away again, the smallest pair of edits.
+     */
+    @Benchmark
+    public boolean editField()
+    {
+        store.addField("Class0", "int", "journaled", "private");
+        return store.deleteField("Class0", "journaled");
+    }
+
+    /**
+     * Saves the whole diagram, which is what keeping edits safe cost without the journal.
+     */
+    @Benchmark
+    public File save() throws IOException
+    {
+        return new SaveAndLoad(store, null, null).save(saveFile.getPath());
+    }
+}
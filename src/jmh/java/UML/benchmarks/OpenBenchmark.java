@@ -0,0 +1,85 @@
+package UML.benchmarks;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/17/2026
+    Purpose: Measures the time from opening a diagram file to its first paint, with the classes drawn by the
+    draw panel, for a JSON file read in full against a binary file opened through its class directory.
+ */
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.json.simple.parser.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import UML.controllers.Controller;
+import UML.controllers.SaveAndLoad;
+import UML.model.DiagramGenerator;
+import UML.model.Store;
+import UML.views.GraphicalView;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx4g"})
+public class OpenBenchmark
+{
+    //The number of classes in the diagram.
+    @Param({"5000", "50000"})
+    public int classCount;
+
+    //The extension of the file opened, which picks its format.
+    @Param({".json", ".umlb"})
+    public String format;
+
+    //The saved diagram.
+    private String file;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        file = File.createTempFile("uml-open", format).getPath();
+        new SaveAndLoad(new DiagramGenerator(42, classCount).generate(), null, null).save(file);
+    }
+
+    @TearDown
+    public void cleanUp()
+    {
+        new File(file).delete();
+    }
+
+    /**
+     * Opens the file into a new view and paints the top left 800 by 800 pixels.
+     */
+    @Benchmark
+    public BufferedImage openAndPaint() throws IOException, ParseException
+    {
+        GraphicalView view = new GraphicalView();
+        view.makeDrawPanel();
+        view.setRetainedMode(true);
+        Controller controller = new Controller(new Store(), view);
+        controller.load(file);
+        view.getDrawPanel().setSize(25000, (classCount / 100 + 1) * 400);
+        BufferedImage image = new BufferedImage(800, 800, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setClip(0, 0, 800, 800);
+        view.getDrawPanel().paint(graphics);
+        graphics.dispose();
+        return image;
+    }
+}
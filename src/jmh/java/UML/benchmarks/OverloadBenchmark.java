@@ -0,0 +1,74 @@
+package UML.benchmarks;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/17/2026
+    Purpose: Measures editing one method in a class that has many overloads of it.
+ */
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import UML.model.Class;
+import UML.model.Parameter;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class OverloadBenchmark
+{
+    //The number of overloads of the method in the class.
+    @Param({"10", "100", "1000"})
+    public int overloadCount;
+
+    private Class aClass;
+
+    //The parameters of the overload that gets edited.
+    private ArrayList<Parameter> params;
+
+    @Setup
+    public void setup()
+    {
+        aClass = new Class("Overloaded");
+        for(int count = 0; count < overloadCount; count++)
+        {
+            ArrayList<Parameter> overload = new ArrayList<Parameter>();
+            overload.add(new Parameter("Type" + count, "value"));
+            aClass.addMethod("void", "run", overload, "public");
+        }
+        params = new ArrayList<Parameter>();
+        params.add(new Parameter("Type" + (overloadCount / 2), "value"));
+    }
+
+    /**
+     * Renames one overload and back again.
+     */
+    @Benchmark
+    public boolean renameOverload()
+    {
+        aClass.renameMethod("void", "run", params, "public", "walk");
+        return aClass.renameMethod("void", "walk", params, "public", "run");
+    }
+
+    /**
+     * Tries to add an overload that is already there.
+     */
+    @Benchmark
+    public boolean addDuplicate()
+    {
+        return aClass.addMethod("void", "run", params, "public");
+    }
+}
@@ -0,0 +1,192 @@
+package UML.benchmarks;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/17/2026
+    Purpose: Measures painting a window sized part of the draw panel, on its own, right after a panel is dragged
+    and right after a zoom, with 100 or 1000 classes and about one or ten relationships each. The average and longest frame of each iteration are printed as well.
+ */
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JPanel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import UML.controllers.Controller;
+import UML.controllers.ScrollWheelController;
+import UML.model.RelationshipType;
+import UML.model.Store;
+import UML.views.DrawPanel;
+import UML.views.GraphicalView;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PaintBenchmark
+{
+    //The number of classes in the diagram.
+    @Param({"100", "1000"})
+    public int classCount;
+
+    //How many of the classes before it each class is related to.
+    @Param({"1", "10"})
+    public int edgesPerClass;
+
+    //The number of fields, and of methods, in each class.
+    @Param({"2"})
+    public int memberCount;
+
+    private GraphicalView view;
+
+    private BufferedImage image;
+
+    private Graphics2D graphics;
+
+    //The part of the draw panel a window shows.
+    private Rectangle window;
+
+    //The panel moved by the drag benchmarks.
+    private JPanel dragged;
+
+    //Which way the dragged panel moves next, so it stays in place over many runs.
+    private int step = 1;
+
+    //Zooms the draw panel for the zoom benchmark.
+    private ScrollWheelController wheel;
+
+    @Setup
+    public void setup()
+    {
+        Store store = new Store();
+        ArrayList<String> params = new ArrayList<String>();
+        params.add("int a");
+        for(int count = 0; count < classCount; count++)
+        {
+            String name = "Class" + count;
+            store.addClass(name);
+            store.moveClass(name, (count % 40) * 250, (count / 40) * 400);
+            for(int member = 0; member < memberCount; member++)
+            {
+                store.addField(name, "int", "field" + member, "private");
+                store.addMethod(name, "void", "method" + member, params, "public");
+            }
+            for(int edge = 1; edge <= edgesPerClass && edge <= count; edge++)
+            {
+                store.addRelationship(name, "Class" + (count - edge), RelationshipType.AGGREGATION);
+            }
+        }
+
+        //The draw panel works without a window, so no screen is needed.
+        view = new GraphicalView();
+        view.makeDrawPanel();
+        Controller controller = new Controller(store, view);
+        controller.rebuild();
+        wheel = new ScrollWheelController(store, view, controller);
+        view.getDrawPanel().setSize(10000, 10000);
+        image = new BufferedImage(800, 800, BufferedImage.TYPE_INT_RGB);
+        graphics = image.createGraphics();
+        //Paint the part a scrolled window would show around a panel partway into the diagram.
+        dragged = view.getPanels().get("Class" + (classCount / 2));
+        int left = dragged.getX() - 200;
+        int top = dragged.getY() - 200;
+        window = new Rectangle(left, top, 800, 800);
+        graphics.translate(-left, -top);
+        graphics.setClip(window);
+        view.getDrawPanel().paintComponent(graphics);
+    }
+
+    @TearDown
+    public void cleanUp()
+    {
+        graphics.dispose();
+    }
+
+    /**
+     * Paints the background and the relationship lines inside the window.
+     */
+    @Benchmark
+    public BufferedImage paint()
+    {
+        view.getDrawPanel().paintComponent(graphics);
+        return image;
+    }
+
+    /**
+     * Moves one panel a pixel, as a drag does, then paints the whole window with its class panels.
+     */
+    @Benchmark
+    public BufferedImage dragWholeWindow()
+    {
+        dragged.setLocation(dragged.getX() + step, dragged.getY());
+        step = -step;
+        view.getDrawPanel().paint(graphics);
+        return image;
+    }
+
+    /**
+     * Moves one panel a pixel, then paints only the area the move dirtied.
+     */
+    @Benchmark
+    public BufferedImage dragDirtyRegion()
+    {
+        Rectangle oldBounds = dragged.getBounds();
+        dragged.setLocation(dragged.getX() + step, dragged.getY());
+        step = -step;
+        DrawPanel dp = view.getDrawPanel();
+        graphics.setClip(dp.panelMoved(dragged.getName(), oldBounds).intersection(window));
+        dp.paint(graphics);
+        graphics.setClip(window);
+        return image;
+    }
+
+    /**
+     * Zooms out one notch and paints the window, then zooms back in and paints it again.
+     */
+    @Benchmark
+    public BufferedImage zoom()
+    {
+        DrawPanel dp = view.getDrawPanel();
+        //Start zoomed out, so the panels are hidden once and the runs only change the scale.
+        if(!dp.isZoomed())
+            dp.setZoomLevel(-1, null);
+        wheel.mouseWheelMoved(new MouseWheelEvent(dp, MouseWheelEvent.MOUSE_WHEEL, 0, 0, 400, 400, 1, false, MouseWheelEvent.WHEEL_UNIT_SCROLL, 1, 1));
+        wheel.applyZoom();
+        dp.paint(graphics);
+        wheel.mouseWheelMoved(new MouseWheelEvent(dp, MouseWheelEvent.MOUSE_WHEEL, 0, 0, 400, 400, 1, false, MouseWheelEvent.WHEEL_UNIT_SCROLL, 1, -1));
+        wheel.applyZoom();
+        dp.paint(graphics);
+        return image;
+    }
+
+    @Setup(Level.Iteration)
+    public void resetFrames()
+    {
+        view.getDrawPanel().resetFrameTimes();
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportFrames()
+    {
+        DrawPanel dp = view.getDrawPanel();
+        System.out.println("Frames: " + dp.getFrameCount() + ", average " + dp.getAverageFrameMillis() + " ms, longest " + dp.getLongestFrameMillis() + " ms");
+    }
+}
@@ -0,0 +1,112 @@
+package UML.benchmarks;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/17/2026
+    Purpose: Measures renaming and deleting a class with many relationships through the controller and the GUI,
+    including the repaint after, which should cost the same however many other classes and relationships the
+    diagram has.
+ */
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import UML.controllers.Controller;
+import UML.model.DiagramGenerator;
+import UML.model.RelationshipType;
+import UML.model.Store;
+import UML.views.GraphicalView;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RelationshipGraphBenchmark
+{
+    //The number of classes in the diagram.
+    @Param({"1000", "20000"})
+    public int classCount;
+
+    //How many relationships the edited class has.
+    private static final int DEGREE = 100;
+
+    private Controller controller;
+
+    private GraphicalView view;
+
+    private BufferedImage image;
+
+    private Graphics2D graphics;
+
+    @Setup
+    public void setup()
+    {
+        Store store = new DiagramGenerator(42, classCount).generate();
+        store.addClass("Hub");
+        for(int count = 0; count < DEGREE; count++)
+        {
+            store.addRelationship("Hub", DiagramGenerator.className(count * (classCount / DEGREE)), RelationshipType.AGGREGATION);
+        }
+        view = new GraphicalView();
+        view.makeDrawPanel();
+        controller = new Controller(store, view);
+        controller.rebuild();
+        view.getDrawPanel().setSize(10000, 10000);
+        image = new BufferedImage(800, 800, BufferedImage.TYPE_INT_RGB);
+        graphics = image.createGraphics();
+        graphics.setClip(0, 0, 800, 800);
+        view.getDrawPanel().paintComponent(graphics);
+    }
+
+    @TearDown
+    public void cleanUp()
+    {
+        graphics.dispose();
+    }
+
+    /**
+     * Renames the class and back.
+     */
+    @Benchmark
+    public Object rename()
+    {
+        controller.renameClass("Hub", "Renamed");
+        view.getDrawPanel().paintComponent(graphics);
+        controller.renameClass("Renamed", "Hub");
+        view.getDrawPanel().paintComponent(graphics);
+        controller.getStateController().clearUndo();
+        return image;
+    }
+
+    /**
+     * Deletes the class, then makes it again with the same relationships.
+     */
+    @Benchmark
+    public Object deleteAndAddBack()
+    {
+        controller.deleteClass("Hub");
+        view.getDrawPanel().paintComponent(graphics);
+        controller.createClass("Hub");
+        for(int count = 0; count < DEGREE; count++)
+        {
+            controller.addRelationship("Hub", DiagramGenerator.className(count * (classCount / DEGREE)), RelationshipType.AGGREGATION);
+        }
+        view.getDrawPanel().paintComponent(graphics);
+        controller.getStateController().clearUndo();
+        return image;
+    }
+}
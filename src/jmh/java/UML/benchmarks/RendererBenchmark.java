@@ -0,0 +1,140 @@
+package UML.benchmarks;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/17/2026
+    Purpose: Compares classes built as Swing panels with classes drawn by the draw panel itself,
+    for building the diagram, painting a window of it and dragging a class.
+ */
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JPanel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import UML.controllers.Controller;
+import UML.model.DiagramGenerator;
+import UML.model.Store;
+import UML.views.DrawPanel;
+import UML.views.GraphicalView;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RendererBenchmark
+{
+    //The number of classes in the diagram.
+    @Param({"5000"})
+    public int classCount;
+
+    //True to draw the classes on the draw panel, false to build a Swing panel for each.
+    @Param({"false", "true"})
+    public boolean retained;
+
+    private Controller controller;
+
+    private GraphicalView view;
+
+    private BufferedImage image;
+
+    private Graphics2D graphics;
+
+    //The part of the draw panel a window shows.
+    private Rectangle window;
+
+    //The class moved by the drag benchmark.
+    private JPanel dragged;
+
+    //Which way the dragged class moves next, so it stays in place over many runs.
+    private int step = 1;
+
+    @Setup
+    public void setup()
+    {
+        DiagramGenerator generator = new DiagramGenerator(42, classCount);
+        generator.setFieldsPerClass(2);
+        generator.setMethodsPerClass(2);
+        generator.setParamRange(1, 1);
+        generator.setColumns(70);
+        Store store = generator.generate();
+
+        //The draw panel works without a window, so no screen is needed.
+        view = new GraphicalView();
+        view.makeDrawPanel();
+        view.setRetainedMode(retained);
+        controller = new Controller(store, view);
+        controller.rebuild();
+        view.getDrawPanel().setSize(17500, 30000);
+        image = new BufferedImage(800, 800, BufferedImage.TYPE_INT_RGB);
+        graphics = image.createGraphics();
+        dragged = view.getPanels().get(DiagramGenerator.className(classCount / 2));
+        int left = dragged.getX() - 200;
+        int top = dragged.getY() - 200;
+        window = new Rectangle(left, top, 800, 800);
+        graphics.translate(-left, -top);
+        graphics.setClip(window);
+        view.getDrawPanel().paint(graphics);
+    }
+
+    @TearDown
+    public void cleanUp()
+    {
+        graphics.dispose();
+    }
+
+    /**
+     * Removes every class from the view and adds them all again, as undo, redo and load do.
+     */
+    @Benchmark
+    public Object rebuild()
+    {
+        for(String key : view.getPanels().keySet())
+        {
+            view.deleteClass(key);
+        }
+        controller.rebuild();
+        return view.getPanels();
+    }
+
+    /**
+     * Paints the window with its lines and classes.
+     */
+    @Benchmark
+    public BufferedImage paint()
+    {
+        view.getDrawPanel().paint(graphics);
+        return image;
+    }
+
+    /**
+     * Moves one class a pixel, then paints only the area the move dirtied.
+     */
+    @Benchmark
+    public BufferedImage drag()
+    {
+        Rectangle oldBounds = dragged.getBounds();
+        dragged.setLocation(dragged.getX() + step, dragged.getY());
+        step = -step;
+        DrawPanel dp = view.getDrawPanel();
+        graphics.setClip(dp.panelMoved(dragged.getName(), oldBounds).intersection(window));
+        dp.paint(graphics);
+        graphics.setClip(window);
+        return image;
+    }
+}
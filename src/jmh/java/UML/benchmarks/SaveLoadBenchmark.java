@@ -0,0 +1,166 @@
+package UML.benchmarks;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/17/2026
+    Purpose: Compares the streaming JSON save and load against building the whole document in memory,
+    and against the binary format. The size of each saved file is printed at setup.
+    Run with -prof gc to see bytes allocated per save or load. The peak heap of each iteration is printed as well.
+ */
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.json.simple.parser.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import UML.controllers.SaveAndLoad;
+import UML.model.RelationshipType;
+import UML.model.Store;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SaveLoadBenchmark
+{
+    //The number of classes in the diagram.
+    @Param({"1000", "10000"})
+    public int classCount;
+
+    private SaveAndLoad saver;
+    private TreeSaveAndLoad treeSaver;
+
+    //The file the saves write to.
+    private String saveFile;
+
+    //A saved copy of the diagram for the loads to read.
+    private String loadFile;
+
+    //The same for the binary format.
+    private String binarySaveFile;
+    private String binaryLoadFile;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        Store store = new Store();
+        ArrayList<String> params = new ArrayList<String>();
+        params.add("int a");
+        params.add("String b");
+        for(int count = 0; count < classCount; count++)
+        {
+            String name = "Class" + count;
+            store.addClass(name);
+            for(int field = 0; field < 5; field++)
+            {
+                store.addField(name, "int", "field" + field, "private");
+            }
+            for(int method = 0; method < 5; method++)
+            {
+                store.addMethod(name, "void", "method" + method, params, "public");
+            }
+            if(count > 0)
+                store.addRelationship(name, "Class" + (count - 1), RelationshipType.AGGREGATION);
+        }
+        saver = new SaveAndLoad(store, null, null);
+        treeSaver = new TreeSaveAndLoad(store);
+        saveFile = File.createTempFile("uml-save", ".json").getPath();
+        loadFile = File.createTempFile("uml-load", ".json").getPath();
+        saver.save(loadFile);
+        binarySaveFile = File.createTempFile("uml-save", ".umlb").getPath();
+        binaryLoadFile = File.createTempFile("uml-load", ".umlb").getPath();
+        saver.save(binaryLoadFile);
+        System.out.println("JSON file: " + new File(loadFile).length() + " bytes, binary file: "
+                + new File(binaryLoadFile).length() + " bytes");
+    }
+
+    @TearDown
+    public void cleanUp()
+    {
+        new File(saveFile).delete();
+        new File(loadFile).delete();
+        new File(binarySaveFile).delete();
+        new File(binaryLoadFile).delete();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPeak()
+    {
+        for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+        {
+            pool.resetPeakUsage();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportPeak()
+    {
+        long peak = 0;
+        for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+        {
+            if(pool.getType() == MemoryType.HEAP)
+                peak += pool.getPeakUsage().getUsed();
+        }
+        System.out.println("Peak heap: " + (peak / (1024 * 1024)) + " MB");
+    }
+
+    @Benchmark
+    public File streamSave() throws IOException
+    {
+        return saver.save(saveFile);
+    }
+
+    @Benchmark
+    public File treeSave() throws IOException
+    {
+        return treeSaver.saveTree(saveFile);
+    }
+
+    @Benchmark
+    public Store streamLoad() throws IOException, ParseException
+    {
+        Store loaded = new Store();
+        new SaveAndLoad(loaded, null, null).load(loadFile);
+        return loaded;
+    }
+
+    @Benchmark
+    public Store treeLoad() throws IOException, ParseException
+    {
+        Store loaded = new Store();
+        new TreeSaveAndLoad(loaded).loadTree(loadFile);
+        return loaded;
+    }
+
+    @Benchmark
+    public File binarySave() throws IOException
+    {
+        return saver.save(binarySaveFile);
+    }
+
+    @Benchmark
+    public Store binaryLoad() throws IOException, ParseException
+    {
+        Store loaded = new Store();
+        new SaveAndLoad(loaded, null, null).load(binaryLoadFile);
+        return loaded;
+    }
+}
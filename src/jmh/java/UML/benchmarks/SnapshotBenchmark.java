@@ -0,0 +1,86 @@
+package UML.benchmarks;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/17/2026
+    Purpose: Measures taking a copy of the model for a reader on another thread, a snapshot against the deep
+    clone that was used before, and what keeping the snapshot up to date adds to an edit.
+ */
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import UML.model.DiagramGenerator;
+import UML.model.RelationshipType;
+import UML.model.Store;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SnapshotBenchmark
+{
+    //The number of classes in the diagram.
+    @Param({"1000", "50000"})
+    public int classCount;
+
+    private Store store;
+
+    @Setup
+    public void setup()
+    {
+        store = new DiagramGenerator(42, classCount).generate();
+        //Once one has been asked for, every edit keeps the snapshot up to date.
+        store.getSnapshot();
+    }
+
+    /**
+     * Takes a snapshot for a reader.
+     */
+    @Benchmark
+    public Object snapshot()
+    {
+        return store.getSnapshot();
+    }
+
+    /**
+     * Takes a deep copy of the store for a reader, as autosave did before.
+     */
+    @Benchmark
+    public Object deepClone()
+    {
+        return store.clone();
+    }
+
+    /**
+     * Adds a field and takes it away again.
+     */
+    @Benchmark
+    public boolean editField()
+    {
+        store.addField("Class0", "int", "snapshot", "private");
+        return store.deleteField("Class0", "snapshot");
+    }
+
+    /**
+     * Relates two classes and takes the relationship away again, which changes both of them.
+     */
+    @Benchmark
+    public boolean editRelationship()
+    {
+        String other = DiagramGenerator.className(classCount - 1);
+        store.addRelationship("Class0", other, RelationshipType.REALIZATION);
+        return store.deleteRelationship("Class0", other);
+    }
+}
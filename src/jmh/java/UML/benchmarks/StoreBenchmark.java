@@ -0,0 +1,74 @@
+package UML.benchmarks;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler. 
+    Date: 10/17/2026
+    Purpose: Measures class lookups in the store as the number of classes grows.
+ */
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import UML.model.Class;
+import UML.model.Store;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StoreBenchmark
+{
+    //The number of classes in the store.
+    @Param({"10", "1000", "10000"})
+    public int classCount;
+
+    private Store store;
+
+    //Names looked up in turn so every lookup isn't the same class.
+    private String[] names;
+
+    private int next;
+
+    @Setup
+    public void setup()
+    {
+        store = new Store();
+        names = new String[classCount];
+        for(int count = 0; count < classCount; count++)
+        {
+            names[count] = "Class" + count;
+            store.addClass(names[count]);
+        }
+        next = 0;
+    }
+
+    /**
+     * Finds a class by name. Should cost the same whatever classCount is.
+     */
+    @Benchmark
+    public Class findClass()
+    {
+        next = (next + 1) % classCount;
+        return store.findClass(names[next]);
+    }
+
+    /**
+     * Finds the most recently added class, the worst case for a list scan.
+     */
+    @Benchmark
+    public Class findLastClass()
+    {
+        return store.findClass(names[classCount - 1]);
+    }
+}
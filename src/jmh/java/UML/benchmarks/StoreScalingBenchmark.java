@@ -0,0 +1,112 @@
+package UML.benchmarks;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/17/2026
+    Purpose: Measures filling in a large diagram from several threads at once, to see how edits to different
+    classes scale with the threads making them.
+ */
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import UML.model.DiagramGenerator;
+import UML.model.RelationshipType;
+import UML.model.Store;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StoreScalingBenchmark
+{
+    //The number of threads filling in the diagram.
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    //The number of classes in the diagram.
+    @Param({"2000"})
+    public int classCount;
+
+    private ExecutorService workers;
+    private Store store;
+
+    @Setup(Level.Trial)
+    public void startWorkers()
+    {
+        workers = Executors.newFixedThreadPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopWorkers()
+    {
+        workers.shutdown();
+    }
+
+    /**
+     * Starts each run from a store with the classes but nothing in them.
+     */
+    @Setup(Level.Invocation)
+    public void emptyClasses()
+    {
+        store = new Store();
+        for (int index = 0; index < classCount; index++)
+        {
+            store.addClass(DiagramGenerator.className(index));
+        }
+        store.getSnapshot();
+    }
+
+    /**
+     * Gives every class ten fields, five methods and a relationship to the next class, each thread taking
+     * its own share of the classes.
+     */
+    @Benchmark
+    public Store populate() throws Exception
+    {
+        ArrayList<Future<?>> done = new ArrayList<Future<?>>();
+        for (int worker = 0; worker < threads; worker++)
+        {
+            int first = worker;
+            done.add(workers.submit(() -> {
+                ArrayList<String> params = new ArrayList<String>();
+                params.add("int count");
+                for (int index = first; index < classCount; index += threads)
+                {
+                    String name = DiagramGenerator.className(index);
+                    for (int field = 0; field < 10; field++)
+                    {
+                        store.addField(name, "int", "field" + field, "private");
+                    }
+                    for (int method = 0; method < 5; method++)
+                    {
+                        store.addMethod(name, "void", "method" + method, params, "public");
+                    }
+                    store.addRelationship(name, DiagramGenerator.className((index + 1) % classCount), RelationshipType.AGGREGATION);
+                }
+            }));
+        }
+        for (Future<?> worker : done)
+        {
+            worker.get();
+        }
+        return store;
+    }
+}
@@ -0,0 +1,377 @@
+package UML.benchmarks;
+/*
+    Author: Chris, Tyler, Drew.
+    Date: 09/17/2020
+    Purpose: The JSON save and load as they were before saving and loading streamed a class at a time. They
+    build or parse the whole document as JSON objects, and are kept here only to compare the streaming ones against.
+ */
+import java.awt.Dimension;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import UML.model.Class;
+import UML.model.Field;
+import UML.model.Method;
+import UML.model.RelationshipType;
+import UML.model.Store;
+
+public class TreeSaveAndLoad
+{
+    private Store store;
+
+    public TreeSaveAndLoad(Store s)
+    {
+        this.store = s;
+    }
+
+    /**
+     * Saves by building the whole document as JSON objects first.
+     */
+    public File saveTree(String fileName) throws IOException, FileNotFoundException
+    {
+        //the json file
+        File jsonFile;
+        //build the json object to be saved
+        JSONObject toBeSaved = buildObjectToSave();
+        //Write that to a file
+        jsonFile = writeToFile(fileName, toBeSaved);
+  
+        return jsonFile;
+    }
+
+    /**
+     * Loads by parsing the whole file into JSON objects first.
+     */
+    public File loadTree(String fileName) throws IOException, ParseException
+    {
+        File fileToLoad = new File(fileName);
+        try(FileReader fr = new FileReader(fileToLoad))
+        {
+            JSONParser parser = new JSONParser();
+            //Get the json object from the parser
+            JSONObject obj = (JSONObject)parser.parse(fr);
+            
+
+            //Get the classes array inside that json object
+            JSONArray classes = (JSONArray)obj.get("Classes");
+
+            //tell the main controller to create all the classes we need in the store
+            Object[] className = classObjectsToStore(classes);
+        
+            int i = 0;
+            for (Object jsonObject : classes) 
+            {
+                loadFields(jsonObject, (String)className[i]);
+                loadMethods(jsonObject, (String)className[i]);
+                loadRelationsTo(jsonObject, (String)className[i]);
+                loadRelationsFrom(jsonObject, (String)className[i]);
+                loadLocation(jsonObject, (String)className[i]);
+                i++;
+            }  
+        }
+        return fileToLoad;
+    }
+
+    private Object[] classObjectsToStore(JSONArray classes)
+    {
+        Object[] className = new Object[classes.size()];
+        int i = 0;
+        for(Object jsonObject : classes)
+        {
+            //Get the current json object, lots of casting ahead.
+            JSONObject jobct = (JSONObject)jsonObject;
+            className[i] = (String)jobct.get("ClassName");
+            //create the class from the name
+            store.addClass((String)className[i]);
+            i++;
+        }
+
+        return className;
+    }
+
+    /**
+     * Gets the JSON array of fields to be added to the class details object. 
+     */
+    private JSONArray getFieldArray(Class aClass)
+    {
+        Set<Field> fields = aClass.getFields();
+        //Create a JSONArray of the fields to be stored
+        JSONArray fieldsToBeAdded = new JSONArray();
+
+        for (Field f : fields) 
+        {
+            //Get the current fields and put in the JSONObject
+            String nameAndType = f.getAccessChar() + " " + f.getType() + " " + f.getName();
+            fieldsToBeAdded.add(nameAndType);
+        }
+
+        return fieldsToBeAdded;
+    }
+    /**
+     * Get the array of methods to be added to the class details object
+     */
+    private JSONArray getMethodArray(Class aClass)
+    {
+        Set<Method> methods = aClass.getMethods();
+        //Create a JSONArray of the fields to be stored
+        JSONArray methodsToBeAdded = new JSONArray();
+
+        //Add the methods to the json object
+        for (Method m : methods) 
+        {
+            JSONObject methObject = new JSONObject();
+            //Get the current fields and put in the JSONObject
+            String access = String.valueOf(m.getAccessChar());
+            String methodName = m.getName();
+            String methodType = m.getType();
+            ArrayList<String> params  = store.getMethodParamString(aClass.getName(), m.toString());
+
+            String methodString = access + " " + methodType + " " + methodName + "[ ";
+            for(String s : params)
+            {
+                methodString += s;
+                methodString += " ";
+            }
+            methodString += "]";
+            methodsToBeAdded.add(methodString);
+        }
+        return methodsToBeAdded;
+    }
+    /**
+     * Gets the JSON array of relationships to other classes to be added to the class details object. 
+     */
+    private JSONArray getRelationToArray(Class aClass)
+    {
+        //Add the relations to others
+        Map<String,RelationshipType> relationToOthers = aClass.getRelationshipsToOther();
+            
+        JSONArray relationsTo = new JSONArray();
+ 
+        for (Map.Entry<String, RelationshipType> relation : relationToOthers.entrySet()) 
+        {
+            String relationship = relation.getValue() + " " + relation.getKey();
+            relationsTo.add(relationship);
+        }
+        
+        return relationsTo;
+    }
+    /**
+     * Gets the JSON array of relationships from other classes to be added to the class details object. 
+     */
+    private JSONArray getRelationFromArray(Class aClass)
+    {
+        Map<String,RelationshipType> relationFromOthers = aClass.getRelationshipsFromOther();
+            
+        JSONArray relationsFrom = new JSONArray();
+        
+        for (Map.Entry<String, RelationshipType> relation : relationFromOthers.entrySet()) 
+        {
+            String relationship = relation.getValue() + " " + relation.getKey();
+            relationsFrom.add(relationship);
+        }
+        return relationsFrom;
+    }
+    /**
+     * Writes the json contents to file
+     */
+    private File writeToFile(String fileName, JSONObject toBeSaved) throws IOException
+    {
+        //Attempt to write the json data to passed in file name. IOExcetion on failure. 
+        //Append the .json format to name
+        //ensures we are not adding it if we don't need to
+        File jsonFile = new File(fileName);
+        FileWriter fw = new FileWriter(jsonFile);
+        fw.write(toBeSaved.toJSONString());
+        fw.flush();
+        fw.close();
+
+        return jsonFile;
+    }
+
+    /**
+     * Builds the json object to be written to file
+     */
+    private JSONObject buildObjectToSave()
+    {
+        ArrayList<Class> classesToSave = store.getClassStore();
+        JSONObject toBeSaved = new JSONObject();
+
+        //Store an arraylist of JSONObjects to be written to the file
+        ArrayList<JSONObject> classesToBeSaved = new ArrayList<JSONObject>();
+        
+        //Build the JSONObject from the elements of a class
+        for(Class aClass : classesToSave)
+        {
+            //Get the deails about the class    
+            JSONObject classDetails = new JSONObject();
+
+            //Add location of the class
+
+            Dimension location = aClass.getLocation();
+            JSONArray locationArray = new JSONArray();
+            locationArray.add(Integer.toString((int)location.getWidth()));
+            locationArray.add(Integer.toString((int)location.getHeight()));
+            classDetails.put("Location", locationArray);
+            
+            //Add the relations from others
+            JSONArray relationsFrom = getRelationFromArray(aClass);
+            classDetails.put("RelationshipFromOthers", relationsFrom);
+
+            //Add the relations to other  
+            JSONArray relationsTo = getRelationToArray(aClass);
+            classDetails.put("RelationshipToOthers",relationsTo);
+
+            //Create a JSONArray of the fields to be stored
+            JSONArray methodsToBeAdded = getMethodArray(aClass);
+            classDetails.put("Methods", methodsToBeAdded);
+
+            //Get the field array and add it to class details.
+            JSONArray fieldsToBeAdded = getFieldArray(aClass);
+            classDetails.put("Fields", fieldsToBeAdded);
+
+            //Get the current class name and put it in the JSONObject
+            String className = aClass.getName();
+            classDetails.put("ClassName", className); 
+
+            //Add the JSONArray to the JSONObject
+            classesToBeSaved.add(classDetails);
+        }
+        toBeSaved.put("Classes",classesToBeSaved);
+
+        return toBeSaved;
+    }
+
+    /**
+     * Loads fields from the JSON file.
+     */
+    private void loadFields(Object jsonObject, String className)
+    {
+        JSONObject jobct = (JSONObject)jsonObject;
+        Class aClass = store.findClass(className);
+        JSONArray jsonAttr = (JSONArray)jobct.get("Fields");
+        Iterator<String> it = jsonAttr.iterator();
+
+        while(it.hasNext())
+        {
+            String[] field = it.next().split(" ");
+            String access = "";
+            if(field[0].equals("+"))
+                access = "public";
+            else if(field[0].equals("-"))
+                access = "private";
+            else if(field[0].equals("*"))
+                access = "protected";
+            else
+                access = "public";
+            
+            aClass.addField(field[1], field[2], access);
+        }
+    }
+
+    /**
+     * Loads methods from the JSON file.
+     */
+    private void loadMethods(Object jsonObject, String className)
+    {
+        JSONObject jobct = (JSONObject)jsonObject;
+        Class aClass = store.findClass(className);
+
+        JSONArray jsonMethods = (JSONArray)jobct.get("Methods");
+        Iterator<String> it = jsonMethods.iterator();
+        
+        while(it.hasNext())
+        {
+            String nextElement = it.next().replace("[", "");
+            String[] methodString = nextElement.split(" ");
+            String access = methodString[0];
+            String accessStr = "";
+            if(methodString[0].equals("+"))
+                accessStr = "public";
+            else if(methodString[0].equals("-"))
+                accessStr = "private";
+            else if(methodString[0].equals("*"))
+                accessStr = "protected";
+            else
+                accessStr = "public";
+
+            String type = methodString[1];
+            String name = methodString[2];
+
+            ArrayList<String> params = new ArrayList<String>();
+            
+            for(int count = 3; count < methodString.length - 1; count += 2)
+            {
+                params.add(methodString[count] + " " + methodString[count + 1]);    
+            }
+            store.addMethod(className, type, name, params, accessStr);
+        }
+    }
+
+    /**
+     * Loads the relationships to other classes from the JSON file.
+     */
+    private void loadRelationsTo(Object jsonObject, String className)
+    {
+        JSONObject jobct = (JSONObject)jsonObject;
+        //Get the relationships to other class and add it to the correct class
+        JSONArray jsonRelationToOthers = (JSONArray)jobct.get("RelationshipToOthers");
+        Iterator<String> it = jsonRelationToOthers.iterator();
+        Class aClass = store.findClass(className);
+        while(it.hasNext())
+        {
+            String[] relationship = it.next().split(" ");
+            String relatedClassName = relationship[1];
+            Class relatedClass = store.findClass(relatedClassName);
+            aClass.addRelationshipToOther(RelationshipType.valueOf(relationship[0]), relatedClass);
+        }
+    }
+
+    /**
+     * Loads relationships from other classes from the JSON file.
+     */
+    private void loadRelationsFrom(Object jsonObject, String className)
+    {
+        JSONObject jobct = (JSONObject)jsonObject;
+        //Get the relationships to other class and add it to the correct class
+        JSONArray jsonRelationFromOthers = (JSONArray)jobct.get("RelationshipFromOthers");
+        Iterator<String> it = jsonRelationFromOthers.iterator();
+        Class aClass = store.findClass(className);
+        while(it.hasNext())
+        {
+            String[] relationship = it.next().split(" ");
+            String relatedClassName = relationship[1];
+            Class relatedClass = store.findClass(relatedClassName);
+            relatedClass.addRelationshipToOther(RelationshipType.valueOf(relationship[0]), aClass);
+        }
+    }
+
+    /**
+     * Loads location of a class.
+     */
+    private void loadLocation(Object jsonObject, String className)
+    {
+        JSONObject jobct = (JSONObject)jsonObject;
+        JSONArray arr = (JSONArray)jobct.get("Location");
+        Iterator<String> it = arr.iterator();
+        int[] toAdd = new int[2];
+        Class aClass = store.findClass(className);
+        for(int count = 0; count < 2; count++)
+        {
+            String str = it.next();
+            toAdd[count] = Integer.parseInt(str);
+        }
+        aClass.setLocation(new Dimension(toAdd[0], toAdd[1]));
+    }
+}
@@ -0,0 +1,84 @@
+package UML.benchmarks;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler. 
+    Date: 10/17/2026
+    Purpose: Compares recording one edit for undo against taking a full snapshot of the store.
+ */
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import UML.controllers.Edit;
+import UML.controllers.StateController;
+import UML.model.RelationshipType;
+import UML.model.Store;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class UndoBenchmark
+{
+    //The number of classes in the store.
+    @Param({"10", "1000", "2000"})
+    public int classCount;
+
+    private Store store;
+
+    private StateController stateController;
+
+    @Setup
+    public void setup()
+    {
+        store = new Store();
+        ArrayList<String> params = new ArrayList<String>();
+        params.add("int a");
+        for(int count = 0; count < classCount; count++)
+        {
+            String name = "Class" + count;
+            store.addClass(name);
+            store.addField(name, "int", "field", "private");
+            store.addMethod(name, "void", "method", params, "public");
+            if(count > 0)
+                store.addRelationship(name, "Class" + (count - 1), RelationshipType.AGGREGATION);
+        }
+        stateController = new StateController(store);
+    }
+
+    /**
+     * The old approach: clone the whole store before each edit.
+     */
+    @Benchmark
+    public Object snapshotEdit()
+    {
+        Object snapshot = store.clone();
+        store.addField("Class0", "int", "extra", "public");
+        store.deleteField("Class0", "extra");
+        return snapshot;
+    }
+
+    /**
+     * Record the edit itself, then undo it so the stacks stay small.
+     */
+    @Benchmark
+    public Object recordedEdit()
+    {
+        store.addField("Class0", "int", "extra", "public");
+        Edit edit = new Edit(s -> s.deleteField("Class0", "extra"), s -> s.addField("Class0", "int", "extra", "public"));
+        stateController.addEdit(edit);
+        return stateController.Undo();
+    }
+}
@@ -10,7 +10,12 @@ import UML.views.InterfaceChoiceView;
 import UML.views.CommandlineView;
 import UML.controllers.Controller;
 import UML.controllers.CLI;
+import UML.controllers.EditJournal;
 import java.util.Scanner;
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
 
 import javax.swing.UIManager;
 
@@ -38,10 +43,29 @@ public class UMLEditor
             //Adds the action lsiteners for the interface choice controller.
             c.addListener();
         }
+        else if(args[0].equals("cli") && args.length > 2 && args[1].equals("--script"))
+        {
+            //Runs the commands in a file, or in standard input if the file is -, then exits. The edit journal
+            //isn't opened, so unsaved edits from the last session are left for the next one to recover.
+            View v = new CommandlineView();
+            Controller c = new Controller(s, v);
+            try(BufferedReader script = args[2].equals("-")
+                    ? new BufferedReader(new InputStreamReader(System.in))
+                    : new BufferedReader(new FileReader(args[2])))
+            {
+                new CLI(s, v, c, script);
+            }
+            catch(IOException e)
+            {
+                v.showError("Could not read the script " + args[2] + ": " + e.getMessage());
+                System.exit(1);
+            }
+        }
         else if(args[0].equals("cli"))
         {
             View v = new CommandlineView();
             Controller c = new Controller(s, v);
+            c.openJournal(EditJournal.defaultFile());
             CLI cli = new CLI(s, v, c);
         }
         else if(args[0].equals("gui"))
@@ -50,6 +74,7 @@ public class UMLEditor
             Controller c = new Controller(s, v);
             v.start();
             c.addListeners();
+            c.openJournal(EditJournal.defaultFile());
         }
     }
 }
@@ -0,0 +1,199 @@
+package UML.controllers;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/17/2026
+    Purpose: Loads a diagram saved in the binary format written by BinaryDiagramWriter. Version 1 files are
+    read in full here. The strings are decoded once from the table, so classes sharing a type or name share
+    the same String, the one kept in the model's symbol table. The classes then go into the store in one
+    batch. Version 2 files are opened through MappedDiagram instead.
+ */
+import java.awt.Dimension;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+import UML.model.Class;
+import UML.model.Field;
+import UML.model.Method;
+import UML.model.Parameter;
+import UML.model.RelationshipType;
+import UML.model.Store;
+import UML.model.Symbols;
+
+public class BinaryDiagramReader
+{
+    // The store the classes are loaded into.
+    private Store store;
+    // The string table of the file being read.
+    private String[] strings;
+
+    /**
+     * Constructs a reader that loads into the given store.
+     */
+    public BinaryDiagramReader(Store store)
+    {
+        this.store = store;
+    }
+
+    /**
+     * Returns whether the bytes start like a binary diagram.
+     */
+    public static boolean isBinary(ByteBuffer in)
+    {
+        if(in.remaining() < BinaryDiagramWriter.MAGIC.length)
+            return false;
+        for(int count = 0; count < BinaryDiagramWriter.MAGIC.length; count++)
+        {
+            if(in.get(in.position() + count) != BinaryDiagramWriter.MAGIC[count])
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Reads a whole file's bytes into the store.
+     */
+    public void read(ByteBuffer in) throws IOException
+    {
+        read(in, null);
+    }
+
+    /**
+     * Reads the bytes mapped from a file into the store. Classes opened from a version 2 file remember where
+     * they are in it.
+     */
+    public void read(ByteBuffer in, File source) throws IOException
+    {
+        if(!isBinary(in))
+            throw new IOException("Not a binary diagram file.");
+        int start = in.position();
+        in.position(start + BinaryDiagramWriter.MAGIC.length);
+        try
+        {
+            int version = readVarint(in);
+            if(version > BinaryDiagramWriter.VERSION)
+                throw new IOException("The diagram file is version " + version + ", which is newer than this program.");
+            if(version == 2)
+            {
+                //Version 2 files are opened with only the class directory read, the rest loading as it is used.
+                in.position(start);
+                store.addClasses(new MappedDiagram(in, source).openClasses());
+                return;
+            }
+
+            strings = new String[readVarint(in)];
+            for(int count = 0; count < strings.length; count++)
+            {
+                byte[] bytes = new byte[readVarint(in)];
+                in.get(bytes);
+                strings[count] = Symbols.intern(new String(bytes, StandardCharsets.UTF_8));
+            }
+
+            int classCount = readVarint(in);
+            ArrayList<Class> classes = new ArrayList<Class>(classCount);
+            for(int count = 0; count < classCount; count++)
+            {
+                classes.add(readClass(in));
+            }
+            //The store checks for duplicates and links the relationships in one go.
+            store.addClasses(classes);
+        }
+        catch(BufferUnderflowException | ArrayIndexOutOfBoundsException | IllegalArgumentException e)
+        {
+            throw new IOException("The diagram file is damaged.", e);
+        }
+    }
+
+    /**
+     * Reads one class with its fields, methods and relationships.
+     */
+    private Class readClass(ByteBuffer in)
+    {
+        Class aClass = new Class(readString(in));
+        int x = readSigned(in);
+        int y = readSigned(in);
+        aClass.setLocation(new Dimension(x, y));
+
+        int fieldCount = readVarint(in);
+        for(int count = 0; count < fieldCount; count++)
+        {
+            String access = accessName(in.get());
+            String type = readString(in);
+            aClass.getFields().add(new Field(type, readString(in), access));
+        }
+
+        int methodCount = readVarint(in);
+        for(int count = 0; count < methodCount; count++)
+        {
+            String access = accessName(in.get());
+            String type = readString(in);
+            String name = readString(in);
+            int paramCount = readVarint(in);
+            ArrayList<Parameter> params = new ArrayList<Parameter>(paramCount);
+            for(int param = 0; param < paramCount; param++)
+            {
+                String paramType = readString(in);
+                params.add(new Parameter(paramType, readString(in)));
+            }
+            aClass.getMethods().add(new Method(type, name, params, access));
+        }
+
+        RelationshipType[] types = RelationshipType.values();
+        int relationCount = readVarint(in);
+        for(int count = 0; count < relationCount; count++)
+        {
+            String other = readString(in);
+            aClass.getRelationshipsToOther().put(other, types[in.get()]);
+        }
+        return aClass;
+    }
+
+    /**
+     * Turns the saved access character into the access name.
+     */
+    private static String accessName(byte access)
+    {
+        if(access == '-')
+            return "private";
+        else if(access == '*')
+            return "protected";
+        else
+            return "public";
+    }
+
+    /**
+     * Reads the number of a string and returns the string from the table.
+     */
+    private String readString(ByteBuffer in)
+    {
+        return strings[readVarint(in)];
+    }
+
+    /**
+     * Reads a zigzag encoded number that may be negative.
+     */
+    private static int readSigned(ByteBuffer in)
+    {
+        int value = readVarint(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Reads a number written seven bits at a time, low bits first.
+     */
+    private static int readVarint(ByteBuffer in)
+    {
+        int value = 0;
+        for(int shift = 0; shift < 32; shift += 7)
+        {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if(b >= 0)
+                return value;
+        }
+        throw new IllegalArgumentException("A number in the diagram file is too long.");
+    }
+}
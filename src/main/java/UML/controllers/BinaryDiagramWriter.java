@@ -0,0 +1,219 @@
+package UML.controllers;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/17/2026
+    Purpose: Writes the store in the compact binary format. Every name and type is written once in a string
+    table and referred to by its number after that. Counts and locations inside the class records are varints.
+    Version 2, the one written, starts with fixed size tables so a mapped file can be opened without reading
+    the records, and each class's members and relationships decoded only when they are first used:
+    *   "UMLB" version(1 byte) stringCount(int) classCount(int)
+    *   string offsets: one int per string, where its record starts
+    *   class directory: per class name x y membersOffset relationshipsOffset, all ints
+    *   string records: (length utf8bytes)...
+    *   members records: fieldCount (access type name)... methodCount (access type name paramCount (type name)...)...
+    *   relationships records: toCount (class relationType)... fromCount (class relationType)...
+    Ints are 4 bytes, high byte first, and offsets count from the start of the file. Each class lists its
+    relationships from others as well as to others, so it can load them without looking at the other classes.
+    Version 1 held the string table and then every class in one varint encoded run. It can still be read.
+ */
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import UML.model.Field;
+import UML.model.Method;
+import UML.model.Parameter;
+import UML.model.ReadableClass;
+import UML.model.RelationshipType;
+import UML.model.Store;
+
+public class BinaryDiagramWriter
+{
+    // The bytes every binary diagram starts with.
+    static final byte[] MAGIC = {'U', 'M', 'L', 'B'};
+    // The version written. Bump it when the layout changes and teach the reader the old one.
+    static final int VERSION = 2;
+    // Where the version 2 tables start, and the size of one class in the directory.
+    static final int HEADER_SIZE = 13;
+    static final int DIRECTORY_ENTRY_SIZE = 20;
+
+    // Where the file goes.
+    private OutputStream out;
+    // The number of each string in the table, in the order they were first used.
+    private Map<String, Integer> stringIds;
+    private ArrayList<String> strings;
+    // Advanced once per class written, if anything is following the save.
+    private Progress progress;
+
+    /**
+     * Constructs a writer around the given output. The caller should buffer and close it.
+     */
+    public BinaryDiagramWriter(OutputStream out)
+    {
+        this.out = out;
+        stringIds = new HashMap<String, Integer>();
+        strings = new ArrayList<String>();
+    }
+
+    /**
+     * Sets what follows how many of the classes have been written.
+     */
+    public void setProgress(Progress progress)
+    {
+        this.progress = progress;
+    }
+
+    /**
+     * Writes every class in the store as one file.
+     */
+    public void write(Store store) throws IOException
+    {
+        write(store.getClassStore());
+    }
+
+    /**
+     * Writes the classes as one file, such as the classes of a snapshot of the store.
+     */
+    public void write(List<? extends ReadableClass> classes) throws IOException
+    {
+        //The records are written to memory first, since the tables before them need the strings they use and where they start.
+        int[] nameIds = new int[classes.size()];
+        int[] memberOffsets = new int[classes.size()];
+        int[] relationshipOffsets = new int[classes.size()];
+        ByteArrayOutputStream members = new ByteArrayOutputStream();
+        ByteArrayOutputStream relationships = new ByteArrayOutputStream();
+        if(progress != null)
+            progress.setTotal(classes.size());
+        for(int count = 0; count < classes.size(); count++)
+        {
+            ReadableClass aClass = classes.get(count);
+            nameIds[count] = idOf(aClass.getName());
+            memberOffsets[count] = members.size();
+            writeMembers(members, aClass);
+            relationshipOffsets[count] = relationships.size();
+            writeRelationships(relationships, aClass.getRelationshipsToOther());
+            writeRelationships(relationships, aClass.getRelationshipsFromOther());
+            if(progress != null)
+                progress.advance(1);
+        }
+
+        ByteArrayOutputStream stringRecords = new ByteArrayOutputStream();
+        int[] stringOffsets = new int[strings.size()];
+        for(int count = 0; count < strings.size(); count++)
+        {
+            stringOffsets[count] = stringRecords.size();
+            byte[] bytes = strings.get(count).getBytes(StandardCharsets.UTF_8);
+            writeVarint(stringRecords, bytes.length);
+            stringRecords.write(bytes);
+        }
+
+        int stringStart = HEADER_SIZE + 4 * strings.size() + DIRECTORY_ENTRY_SIZE * classes.size();
+        int memberStart = stringStart + stringRecords.size();
+        int relationshipStart = memberStart + members.size();
+        DataOutputStream data = new DataOutputStream(out);
+        data.write(MAGIC);
+        data.writeByte(VERSION);
+        data.writeInt(strings.size());
+        data.writeInt(classes.size());
+        for(int offset : stringOffsets)
+        {
+            data.writeInt(stringStart + offset);
+        }
+        for(int count = 0; count < classes.size(); count++)
+        {
+            ReadableClass aClass = classes.get(count);
+            data.writeInt(nameIds[count]);
+            data.writeInt((int)aClass.getLocation().getWidth());
+            data.writeInt((int)aClass.getLocation().getHeight());
+            data.writeInt(memberStart + memberOffsets[count]);
+            data.writeInt(relationshipStart + relationshipOffsets[count]);
+        }
+        stringRecords.writeTo(data);
+        members.writeTo(data);
+        relationships.writeTo(data);
+        data.flush();
+    }
+
+    /**
+     * Writes the fields and methods of one class.
+     */
+    private void writeMembers(ByteArrayOutputStream body, ReadableClass aClass)
+    {
+        writeVarint(body, aClass.getFields().size());
+        for(Field f : aClass.getFields())
+        {
+            body.write(f.getAccessChar());
+            writeString(body, f.getType());
+            writeString(body, f.getName());
+        }
+
+        writeVarint(body, aClass.getMethods().size());
+        for(Method m : aClass.getMethods())
+        {
+            body.write(m.getAccessChar());
+            writeString(body, m.getType());
+            writeString(body, m.getName());
+            writeVarint(body, m.getParams().size());
+            for(Parameter p : m.getParams())
+            {
+                writeString(body, p.getType());
+                writeString(body, p.getName());
+            }
+        }
+    }
+
+    /**
+     * Writes one of a class's relationship maps as the other class and the relationship type.
+     */
+    private void writeRelationships(ByteArrayOutputStream body, Map<String, RelationshipType> relationships)
+    {
+        writeVarint(body, relationships.size());
+        for(Map.Entry<String, RelationshipType> relation : relationships.entrySet())
+        {
+            writeString(body, relation.getKey());
+            body.write(relation.getValue().ordinal());
+        }
+    }
+
+    /**
+     * Writes the number of a string, adding it to the table the first time it is seen.
+     */
+    private void writeString(ByteArrayOutputStream body, String string)
+    {
+        writeVarint(body, idOf(string));
+    }
+
+    /**
+     * Returns the number of a string in the table, adding it the first time it is seen.
+     */
+    private int idOf(String string)
+    {
+        Integer id = stringIds.get(string);
+        if(id == null)
+        {
+            id = strings.size();
+            stringIds.put(string, id);
+            strings.add(string);
+        }
+        return id;
+    }
+
+    /**
+     * Writes a number seven bits at a time, low bits first, with the top bit set on all but the last byte.
+     */
+    private static void writeVarint(ByteArrayOutputStream body, int value)
+    {
+        while((value & ~0x7F) != 0)
+        {
+            body.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        body.write(value);
+    }
+}
@@ -5,10 +5,12 @@ package UML.controllers;
     Date: 09/24/2020
     Purpose: Controls the actions taken when commands are used in the CLI.
  */
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.PrintWriter;
+import org.json.simple.parser.ParseException;
 import org.jline.reader.*;
 
-import org.jline.reader.impl.completer.StringsCompleter;
 import org.jline.reader.impl.DefaultParser;
 import org.jline.terminal.TerminalBuilder;
 import org.jline.terminal.Terminal;
@@ -17,13 +19,11 @@ import UML.model.*;
 import UML.model.Store;
 import UML.views.GraphicalView;
 import UML.views.View;
-import org.jline.builtins.Completers.TreeCompleter;
-import static org.jline.builtins.Completers.TreeCompleter.node;
 import org.jline.reader.LineReaderBuilder;
 import org.jline.reader.impl.history.DefaultHistory;
-import java.util.Set;
 import java.util.Stack;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 public class CLI {
     
@@ -42,8 +42,8 @@ public class CLI {
     //Reads input from the user
     private LineReader reader;
     
-    //handles tab completion
-    private Completer completer;
+    //Handles tab completion, following the store as it changes.
+    private CompletionIndex completer;
     
     //JLine's object to store the history from the CLI.
     private History history;
@@ -51,12 +51,6 @@ public class CLI {
     //The parser to parse input.
     private Parser parser;
 
-    //The acccess types that are defined.
-    private ArrayList<String> theAccesses;
-
-    //The developer and user defined types.
-    private ArrayList<String> theTypes;
-
     public CLI(Store s, View v, Controller c) {
         store = new Store();
         this.store = s;
@@ -64,43 +58,6 @@ public class CLI {
         this.controller = c;
         v.start();
 
-        //Initialize theAccesses.
-        theAccesses = new ArrayList<String>();
-        theAccesses.add("public");
-        theAccesses.add("private");
-        theAccesses.add("protected");
-
-        //Initialize theTypes.
-        theTypes = new ArrayList<String>();
-        theTypes.add("String");
-        theTypes.add("boolean");
-        theTypes.add("char");
-        theTypes.add("double");
-        theTypes.add("float");
-        theTypes.add("int");
-        theTypes.add("short");
-        theTypes.add("size_t");
-        theTypes.add("unsigned");
-
-        for(UML.model.Class theClass : store.getClassStore())
-        {
-            for(Method m : theClass.getMethods())
-            {
-                if(!theTypes.contains(m.getType()))
-                {
-                    theTypes.add(m.getType());
-                }
-            }
-            
-            for(Field f : theClass.getFields())
-            {
-                if(!theTypes.contains(f.getType()))
-                {
-                    theTypes.add(f.getType());
-                }
-            }
-        }
-
         try {
             terminal = TerminalBuilder.builder().system(true).build();
 
@@ -111,6 +68,16 @@ public class CLI {
         }
     }
 
+    /**
+     * Runs the commands in a script instead of reading them from the terminal, then returns.
+     */
+    public CLI(Store s, View v, Controller c, BufferedReader script) throws IOException {
+        this.store = s;
+        this.view = v;
+        this.controller = c;
+        scriptLoop(script);
+    }
+
     /**
      * As long as the user hasn't typed in exit, continue the app.
      */
@@ -120,7 +87,8 @@ public class CLI {
         // The parser
         parser = new DefaultParser();
 
-        completer = new TreeCompleter(node("addc", "exit", "help", "showgui", "load", "displayr"));
+        completer = new CompletionIndex(store);
+        store.addListener(completer);
 
         // Build the reader and it's options
         reader = LineReaderBuilder.builder().terminal(terminal).history(history).completer(completer).parser(parser)
@@ -134,9 +102,6 @@ public class CLI {
         reader.unsetOpt(LineReader.Option.INSERT_TAB);
         history.attach(reader);
 
-        // Make sure the correct tab completions are used.
-        makeReader();
-
         boolean go = true;
         while (go) {
             try {
@@ -145,11 +110,7 @@ public class CLI {
                 // Writer back completions to console.
                 terminal.writer().println(readLine);
                 terminal.flush();
-                //Prevents errors caused by the user adding commas and spaces in params.
-                readLine = readLine.replaceAll(",", " ");
-                readLine = readLine.replaceAll("  ", " ");
-                readLine = readLine.replaceAll("  ", " ");
-                String[] line = readLine.split(" ");
+                String[] line = split(readLine);
                 if (line[0].equals("showgui"))
                     go = false;
                 parse(line);
@@ -157,6 +118,60 @@ public class CLI {
                 go = false;
             }
         }
+        store.removeListener(completer);
+    }
+
+    /**
+     * Runs a script a line at a time as one batch, so each command doesn't print the class it changed
+     * or add to the undo history, and the whole script is undone as one edit.
+     * Blank lines and lines starting with # are skipped, and exit ends the script. A command that fails
+     * is reported with its line number and the script goes on. Prints how many commands ran and how fast.
+     */
+    private void scriptLoop(BufferedReader script) throws IOException {
+        long start = System.nanoTime();
+        int lineNumber = 0;
+        int commands = 0;
+        int edits = 0;
+        controller.beginBatch();
+        String readLine;
+        while ((readLine = script.readLine()) != null) {
+            lineNumber++;
+            String[] line = split(readLine.trim());
+            if (line[0].isEmpty() || line[0].startsWith("#"))
+                continue;
+            if (line[0].equals("exit"))
+                break;
+            commands++;
+            try {
+                if (line[0].equals("showgui")) {
+                    view.showError("Line " + lineNumber + ": showgui can't be used in a script.");
+                } else if (line[0].equals("undo") || line[0].equals("redo") || line[0].equals("load")) {
+                    //These replace what the batch so far would undo, so it is ended before them and started again after.
+                    edits += controller.endBatch(false);
+                    parse(line);
+                    controller.beginBatch();
+                } else {
+                    parse(line);
+                }
+            } catch (RuntimeException e) {
+                view.showError("Line " + lineNumber + ": " + readLine.trim() + ": " + e);
+            }
+        }
+        edits += controller.endBatch(false);
+        long nanos = Math.max(System.nanoTime() - start, 1);
+        view.display(String.format("Ran %d commands making %d changes in %d ms (%.0f commands per second).",
+                commands, edits, nanos / 1_000_000, commands * 1e9 / nanos));
+    }
+
+    /**
+     * Splits a command into its words.
+     */
+    private static String[] split(String readLine) {
+        //Prevents errors caused by the user adding commas and spaces in params.
+        readLine = readLine.replaceAll(",", " ");
+        readLine = readLine.replaceAll("  ", " ");
+        readLine = readLine.replaceAll("  ", " ");
+        return readLine.split(" ");
     }
 
     /**
@@ -204,6 +219,10 @@ public class CLI {
             deleteRelationship(line);
         } else if (line[0].equals("save")) {
             save(line);
+        } else if (line[0].equals("generate")) {
+            generate(line);
+        } else if (line[0].equals("convert")) {
+            convert(line);
         } else if (line[0].equals("chungus")) {
             chungus();
         } else if (line[0].equals(("load"))) {
@@ -219,7 +238,7 @@ public class CLI {
         } else if (line[0].equals(("redo"))) {
             redo();
         } else if (line[0].equals(("displayr"))) {
-            displayRelationships();
+            displayRelationships(line);
         } else {
             System.out.println("That is not a valid command.");
         }
@@ -263,8 +282,8 @@ public class CLI {
         GraphicalView v = new GraphicalView();
 
         StateController stateController = controller.getStateController();
-        Stack<Store> undoState = stateController.getUndoStack();
-        Stack<Store> redoState = stateController.getRedoStack();
+        Stack<Edit> undoState = stateController.getUndoStack();
+        Stack<Edit> redoState = stateController.getRedoStack();
         Store currentState = stateController.getCurrentState();
 
         Controller c = new Controller(store, v);
@@ -296,7 +315,6 @@ public class CLI {
     private void addClass(String[] args) {
         if (args.length == 2) {
             controller.createClass(args[1]);
-            makeReader();
         } else {
             view.showError("Invalid arguments for adding a class, please refer to help.");
         }
@@ -308,7 +326,6 @@ public class CLI {
     private void renameClass(String[] args) {
         if (args.length == 3) {
             controller.renameClass(args[1], args[2]);
-            makeReader();
         } else {
             view.showError("Invalid arguments for renaming a class, please refer to help.");
         }
@@ -320,7 +337,6 @@ public class CLI {
     private void deleteClass(String[] args) {
         if (args.length == 2) {
             controller.deleteClass(args[1]);
-            makeReader();
         } else {
             view.showError("Invalid arguments for deleting a class, please refer to help.");
         }
@@ -338,14 +354,6 @@ public class CLI {
     private void addField(String[] args) {
         if (args.length == 5 && store.findClass(args[1]) != null) {
             controller.createField(args[1], args[3], args[4], args[2]);
-
-            //Add type if new user-defined.
-            if(!theTypes.contains(args[3]))
-            {
-                theTypes.add(args[3]);
-            }
-
-            makeReader();
         } else {
             view.showError("Invalid arguments for adding a field, please refer to help.");
         }
@@ -357,7 +365,6 @@ public class CLI {
     private void renameField(String[] args) {
         if (args.length == 4 && store.findClass(args[1]) != null) {
             controller.renameField(args[1], args[2], args[3]);
-            makeReader();
         } else {
             view.showError("Invalid arguments for renaming a field, please refer to help.");
         }
@@ -369,14 +376,6 @@ public class CLI {
     private void changeFieldType(String args[]) {
         if (args.length == 4 && store.findClass(args[1]) != null) {
             controller.changeFieldType(args[1], args[2], args[3]);
-
-            //Add type if new user-defined.
-            if(!theTypes.contains(args[3]))
-            {
-                theTypes.add(args[3]);
-            }
-
-            makeReader();
         } else {
             view.showError("Invalid arguments for renaming a field, please refer to help.");
         }
@@ -388,7 +387,6 @@ public class CLI {
     private void deleteField(String[] args) {
         if (args.length == 3 && store.findClass(args[1]) != null) {
             controller.deleteField(args[1], args[2]);
-            makeReader();
         } else {
             view.showError("Invalid arguments for renaming a field, please refer to help.");
         }
@@ -400,7 +398,6 @@ public class CLI {
     private void changeFieldAccess(String[] args) {
         if (args.length == 3 || store.findClass(args[1]) != null) {
             controller.changeFieldAccess(args[1], args[2], args[3]);
-            makeReader();
         } else {
             view.showError("Invalid arguments for changing field access, please refer to help.");
         }
@@ -426,13 +423,6 @@ public class CLI {
 
             controller.createMethod(args[1], args[3], args[4], params, args[2]);
 
-            //Add type if new user-defined.
-            if(!theTypes.contains(args[3]))
-            {
-                theTypes.add(args[3]);
-            }
-
-            makeReader();
         }
     }
 
@@ -448,7 +438,6 @@ public class CLI {
             params.add(args[counter] + " " + args[counter + 1]);
         }
         controller.renameMethod(args[1], args[3], args[4], params, args[2], args[args.length - 1]);
-        makeReader();
     }
 
     /**
@@ -463,7 +452,6 @@ public class CLI {
             params.add(args[counter] + " " + args[counter + 1]);
         }
         controller.deleteMethod(args[1], args[3], args[4], params, args[2]);
-        makeReader();
     }
 
     /**
@@ -478,14 +466,6 @@ public class CLI {
             params.add(args[counter] + " " + args[counter + 1]);
         }
         controller.changeMethodType(args[1], args[3], args[4], params, args[2], args[args.length - 1]);
-
-        //Add type if new user-defined.
-        if(!theTypes.contains(args[args.length - 1]))
-        {
-            theTypes.add(args[args.length - 1]);
-        }
-
-        makeReader();
     }
 
     /**
@@ -500,7 +480,6 @@ public class CLI {
             params.add(args[counter] + " " + args[counter + 1]);
         }
         controller.changeMethodAccess(args[1], args[3], args[4], params, args[2], args[args.length - 1]);
-        makeReader();
     }
 
 
@@ -522,7 +501,6 @@ public class CLI {
         }
         controller.addParameter(args[1], args[3], args[4], params, args[2], args[args.length - 2],
                 args[args.length - 1]);
-        makeReader();
     }
 
     /**
@@ -539,7 +517,6 @@ public class CLI {
         }
         controller.deleteParameter(args[1], args[3], args[4], params, args[2], args[args.length - 2],
                 args[args.length - 1]);
-        makeReader();
     }
 
 
@@ -555,7 +532,6 @@ public class CLI {
     private void addRelationship(String[] args) {
         if (args.length == 4) {
             controller.addRelationship(args[1], args[2], RelationshipType.valueOf(args[3].toUpperCase()));
-            makeReader();
         } else {
             view.showError("Invalid arguments for adding a relationship, please refer to help.");
         }
@@ -567,7 +543,6 @@ public class CLI {
     private void deleteRelationship(String[] args) {
         if (args.length == 3) {
             controller.deleteRelationship(args[1], args[2]);
-
         } else {
             view.showError("Invalid arguments for removing a class, please refer to help.");
         }
@@ -584,9 +559,9 @@ public class CLI {
      */
     private void save(String[] args) {
         try {
-            if(!args[1].contains(".json"))
+            if(!SaveAndLoad.isDiagramFile(args[1]))
             {
-                view.showError("Must save as .json file");
+                view.showError("Must save as .json or .umlb file");
             }
             else
             {
@@ -604,15 +579,14 @@ public class CLI {
      */
     private void load(String[] args) {
         try {
-            if(!args[1].contains(".json"))
+            if(!SaveAndLoad.isDiagramFile(args[1]))
             {
-                view.showError("Must load a .json file");
+                view.showError("Must load a .json or .umlb file");
             }
             else
             {
                 controller.load(args[1]);
                 view.load();
-                makeReader();
             }
         } catch (Exception e) {
             e.printStackTrace();
@@ -620,6 +594,60 @@ public class CLI {
         }
     }
 
+    /**
+     * Writes a made-up diagram to a JSON or binary file, for trying out large diagrams. The seed and the
+     * numbers of fields, methods, parameters and relationships per class are optional.
+     */
+    private void generate(String[] args) {
+        try {
+            if(!SaveAndLoad.isDiagramFile(args[1]))
+            {
+                view.showError("Must save as .json or .umlb file");
+            }
+            else
+            {
+                int classCount = Integer.parseInt(args[2]);
+                long seed = args.length > 3 ? Long.parseLong(args[3]) : 0;
+                DiagramGenerator generator = new DiagramGenerator(seed, classCount);
+                if(args.length > 4)
+                    generator.setFieldsPerClass(Integer.parseInt(args[4]));
+                if(args.length > 5)
+                    generator.setMethodsPerClass(Integer.parseInt(args[5]));
+                if(args.length > 6)
+                    generator.setParamRange(0, Integer.parseInt(args[6]));
+                if(args.length > 7)
+                    generator.setRelationshipsPerClass(Double.parseDouble(args[7]));
+                new SaveAndLoad(generator.generate(), null, null).save(args[1]);
+                System.out.println("Generated " + classCount + " classes into " + args[1]);
+            }
+        } catch (IOException e) {
+            view.showError("Could not write " + args[1]);
+        } catch (Exception e) {
+            System.out.println("Invalid arguments");
+        }
+    }
+
+    /**
+     * Copies a diagram file into another format, picked by the extensions of the two files.
+     */
+    private void convert(String[] args) {
+        try {
+            if(!SaveAndLoad.isDiagramFile(args[1]) || !SaveAndLoad.isDiagramFile(args[2]))
+            {
+                view.showError("Can only convert between .json and .umlb files");
+            }
+            else
+            {
+                SaveAndLoad.convert(args[1], args[2]);
+                System.out.println("Converted " + args[1] + " to " + args[2]);
+            }
+        } catch (IOException | ParseException e) {
+            view.showError("Could not convert " + args[1]);
+        } catch (Exception e) {
+            System.out.println("Invalid arguments");
+        }
+    }
+
     /**
      * Prints a thicc boi.
      */
@@ -645,244 +673,173 @@ public class CLI {
 
 
 //================================================================================================================================================
-//Getters
+//
 //================================================================================================================================================
-
+ 
     /**
-     * Gets a list of field names.
+     * What a listing shows, read from the words after display or displayr.
      */
-    private ArrayList<String> getFieldNames(String className) {
-        UML.model.Class c = store.findClass(className);
-        Set<Field> fields = c.getFields();
-        ArrayList<String> toReturn = new ArrayList<String>();
-        for (Field f : fields) {
-            toReturn.add(f.getName());
-        }
-        return toReturn;
+    private static final class Listing {
+        //The class name or name pattern given, or null if there wasn't one.
+        String name;
+        //The only kind of relationship shown, or null for every kind.
+        RelationshipType type;
+        //The most classes or relationships shown.
+        int limit = Integer.MAX_VALUE;
+        //Shows each class in full rather than just its name.
+        boolean full;
+        //Waits for a key after each screenful.
+        boolean paged = true;
     }
 
     /**
-     * Gets a list of method strings.
+     * Reads the options of a listing: a class name or pattern, --full, --type relType, --limit n and --nopage.
+     * Returns null, having shown what was wrong, if they can't be read.
      */
-    private ArrayList<String> getMethodNames(String className) {
-        UML.model.Class c = store.findClass(className);
-        Set<Method> methods = c.getMethods();
-        ArrayList<String> toReturn = new ArrayList<String>();
-        for (Method m : methods) {
-            String toAdd = "";
-            toAdd += m.getAccessString() + " ";
-            toAdd += m.getType() + " ";
-            toAdd += m.getName();
-            if (!m.getParams().isEmpty()) {
-                toAdd += " ";
-                int count = 0;
-                for (Parameter param : m.getParams()) {
-                    toAdd += param.toString();
-                    count++;
-                    if (count != m.getParams().size())
-                        toAdd += " ";
+    private Listing readListing(String[] args) {
+        Listing listing = new Listing();
+        try {
+            for (int index = 1; index < args.length; index++) {
+                if (args[index].equals("--full")) {
+                    listing.full = true;
+                } else if (args[index].equals("--nopage")) {
+                    listing.paged = false;
+                } else if (args[index].equals("--limit")) {
+                    listing.limit = Integer.parseInt(args[++index]);
+                    if (listing.limit < 0)
+                        throw new IllegalArgumentException();
+                } else if (args[index].equals("--type")) {
+                    listing.type = RelationshipType.valueOf(args[++index].toUpperCase());
+                } else if (listing.name == null && !args[index].startsWith("--")) {
+                    listing.name = args[index];
+                } else {
+                    throw new IllegalArgumentException();
                 }
             }
-            toReturn.add(toAdd);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            view.showError("Invalid arguments for " + args[0] + ", please refer to help.");
+            return null;
         }
-        return toReturn;
+        return listing;
     }
 
     /**
-     * Gets a list of parameter strings.
+     * Returns a pattern for a class name where * matches any letters and ? matches one.
      */
-    private ArrayList<String> getParameters(String className) {
-        UML.model.Class c = store.findClass(className);
-        Set<Method> methods = c.getMethods();
-        ArrayList<String> toReturn = new ArrayList<String>();
-
-        for(Method m : methods)
-        {
-            for(Parameter param : m.getParams())
-            {
-                String toAdd = "";
-                toAdd += param.toString();
-                toReturn.add(toAdd);
-            }
+    private static Pattern globPattern(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (char c : glob.toCharArray()) {
+            if (c == '*')
+                regex.append(".*");
+            else if (c == '?')
+                regex.append('.');
+            else
+                regex.append(Pattern.quote(String.valueOf(c)));
         }
-        return toReturn;
+        return Pattern.compile(regex.toString());
     }
 
+    /**
+     * Returns a pager for a listing, on the terminal, or on standard output without pages for a script.
+     */
+    private Pager pager(boolean paged) {
+        if (terminal == null)
+            return new Pager(new PrintWriter(System.out), 0, () -> -1);
+        return Pager.forTerminal(terminal, paged);
+    }
 
-//================================================================================================================================================
-//
-//================================================================================================================================================
- 
     /**
-     * Displays a specified class.
+     * Writes a class the way it is printed after it changes, a line at a time. Returns false if the
+     * listing was stopped.
      */
-    private void display(String[] args) {
-        if (args.length == 1) 
-        {
-            //With no arguments display all the classes.
-            String classes = "";
-            for (UML.model.Class c : store.getClassStore()) 
-            {
-                classes += "Class Name: " + c.getName() + "\n";
-            }
-            view.display(classes);
+    private static boolean printClass(Pager pager, ClassSnapshot aClass) {
+        boolean going = pager.println("Class name: " + aClass.getName())
+                && pager.println("------------------------------")
+                && pager.println("Field Names: ");
+        for (Field f : aClass.getFields()) {
+            going = going && pager.println(f.toString());
         }
-        else 
-        {
-            //With arguments, display a specified class.
-            UML.model.Class aClass = store.findClass(args[1]);
-            if (aClass == null) 
-            {
-                view.showError("Class does not exist");
-            } 
-            else 
-            {
-                int stop = aClass.toString().indexOf("Relationships To Others: ");
-                view.display(aClass.toString().substring(0, stop - 32));
-            }
+        going = going && pager.println("------------------------------") && pager.println("Methods:  ");
+        for (Method m : aClass.getMethods()) {
+            going = going && pager.println(m.toString());
         }
+        return going && pager.println("");
     }
 
     /**
-     * Displays the current relationships between classes.
+     * Displays a class, or the names of the classes, written a line at a time. A name with * or ? in it
+     * lists the classes it matches, and --full shows each of them in full.
      */
-    private void displayRelationships()
-    {
-        String relationships = "";
-        for (UML.model.Class c : store.getClassStore()) 
-        {
-            for(Map.Entry<String, RelationshipType> entry : c.getRelationshipsToOther().entrySet())
-            {
-                relationships += c.getName() + " ==" + entry.getValue() + "==> " + entry.getKey() + "\n";
+    private void display(String[] args) {
+        Listing listing = readListing(args);
+        if (listing == null)
+            return;
+        //Read from a snapshot, which stays the same however long the display takes.
+        Snapshot snapshot = store.getSnapshot();
+        Pager pager = pager(listing.paged);
+        if (listing.name != null && listing.name.indexOf('*') < 0 && listing.name.indexOf('?') < 0) {
+            //With a class name, display that class.
+            ClassSnapshot aClass = snapshot.findClass(listing.name);
+            if (aClass == null)
+                view.showError("Class does not exist");
+            else
+                printClass(pager, aClass);
+            pager.flush();
+            return;
+        }
+        Pattern names = listing.name == null ? null : globPattern(listing.name);
+        int shown = 0;
+        int matched = 0;
+        for (ClassSnapshot c : snapshot.getClasses()) {
+            if (names != null && !names.matcher(c.getName()).matches())
+                continue;
+            matched++;
+            //Past the limit the classes are only counted.
+            if (shown < listing.limit) {
+                boolean going = listing.full ? printClass(pager, c) : pager.println("Class Name: " + c.getName());
+                if (!going)
+                    break;
+                shown++;
             }
         }
-        view.display(relationships);
+        if (shown < matched && !pager.isStopped())
+            pager.println("Showed " + shown + " of " + matched + " classes.");
+        pager.flush();
     }
 
     /**
-     * Makes a new completer and reader based on state of the model.
+     * Displays the relationships between classes, written a line at a time. A class name or pattern shows
+     * only the relationships of the classes it matches, at either end, and --type only those of one kind.
      */
-    private void makeReader() {
-        if (store.getClassStore().isEmpty()) {
-            completer = new TreeCompleter(node("addc", "exit", "help", "showgui", "save", "load", "undo", "redo"));
-        } else {
-            // Simulate an addc to allow node building to work in the case of loading a file
-            // from GUI.
-            history.add("addc " + store.getClassStore().get(0).getName());
-
-            StringsCompleter classes = new StringsCompleter(store.getClassList());
-            String[] str = reader.getHistory().get(reader.getHistory().last()).split(" ");
-
-            boolean hasFields = false;
-            // Check if the class store has fields.
-            for (UML.model.Class c : store.getClassStore()) {
-                if (!c.getFields().isEmpty())
-                    hasFields = true;
-            }
-
-            // Check if the class store has methods.
-            boolean hasMethods = false;
-            for (UML.model.Class c : store.getClassStore()) {
-                if (!c.getMethods().isEmpty())
-                    hasMethods = true;
-            }
-
-            
-            // Make String completers for access and type.
-            StringsCompleter accesses = new StringsCompleter(this.theAccesses);
-
-            StringsCompleter types = new StringsCompleter(this.theTypes);
-
-            if (str[0].equals("load") || (!hasFields && !hasMethods)) {
-                completer = new TreeCompleter(node("addc"), node("renamec", node(classes)),
-                        node("deletec", node(classes)), node("addf", node(classes, node(accesses, node(types)))),
-                        node("addm", node(classes, node(accesses, node(types)))),
-                        node("addr",
-                                node(classes,
-                                        node(classes,
-                                                node(new StringsCompleter("Aggregation", "Composition",
-                                                        "Generalization", "Realization"))))),
-                        node("deleter", node(classes, node(classes))),
-                        node("help", "exit", "showgui", "save", "load", "undo", "redo"),
-                        node("display", node(classes)));
-            } else if (!hasFields) {
-                completer = new TreeCompleter(node("addc"), node("renamec", node(classes)),
-                        node("deletec", node(classes)), node("addf", node(classes, node(accesses, node(types)))),
-                        node("addm", node(classes, node(accesses, node(types)))),
-                        node("renamem", node(classes, node(new StringsCompleter(getMethodNames(str[1]))))),
-                        node("deletem", node(classes, node(new StringsCompleter(getMethodNames(str[1]))))),
-                        node("changemt",
-                                node(classes, node(new StringsCompleter(getMethodNames(str[1])), node(types)))),
-                        node("changema",
-                                node(classes, node(new StringsCompleter(getMethodNames(str[1])), node(accesses)))),
-                        node("addp", node(classes, node(new StringsCompleter(getMethodNames(str[1]))))),
-                        node("deletep",
-                                node(classes,
-                                        node(new StringsCompleter(getMethodNames(str[1])),
-                                                node(new StringsCompleter(getParameters(str[1])))))),
-                        node("addr",
-                                node(classes,
-                                        node(classes,
-                                                node(new StringsCompleter("Aggregation", "Composition",
-                                                        "Generalization", "Realization"))))),
-                        node("deleter", node(classes, node(classes))),
-                        node("help", "exit", "showgui", "save", "load", "undo", "redo", "displayr"),
-                        node("display", node(classes)));
-            } else if (!hasMethods) {
-                completer = new TreeCompleter(node("addc"), node("renamec", node(classes)),
-                        node("deletec", node(classes)), node("addf", node(classes, node(accesses, node(types)))),
-                        node("addm", node(classes, node(accesses, node(types)))),
-                        node("renamef", node(classes, node(new StringsCompleter(getFieldNames(str[1]))))),
-                        node("deletef", node(classes, node(new StringsCompleter(getFieldNames(str[1]))))),
-                        node("changeft", node(classes, node(new StringsCompleter(getFieldNames(str[1])), node(types)))),
-                        node("changefa",
-                                node(classes, node(new StringsCompleter(getFieldNames(str[1])), node(accesses)))),
-                        node("addr",
-                                node(classes,
-                                        node(classes,
-                                                node(new StringsCompleter("Aggregation", "Composition",
-                                                        "Generalization", "Realization"))))),
-                        node("deleter", node(classes, node(classes))),
-                        node("help", "exit", "showgui", "save", "load", "undo", "redo", "displayr"),
-                        node("display", node(classes)));
-            } else {
-                completer = new TreeCompleter(node("addc"), node("renamec", node(classes)),
-                        node("deletec", node(classes)), node("addf", node(classes, node(accesses, node(types)))),
-                        node("renamef", node(classes, node(new StringsCompleter(getFieldNames(str[1]))))),
-                        node("deletef", node(classes, node(new StringsCompleter(getFieldNames(str[1]))))),
-                        node("changeft", node(classes, node(new StringsCompleter(getFieldNames(str[1])), node(types)))),
-                        node("changefa",
-                                node(classes, node(new StringsCompleter(getFieldNames(str[1])), node(accesses)))),
-                        node("addm", node(classes, node(accesses, node(types)))),
-                        node("renamem", node(classes, node(new StringsCompleter(getMethodNames(str[1]))))),
-                        node("deletem", node(classes, node(new StringsCompleter(getMethodNames(str[1]))))),
-                        node("changemt",
-                                node(classes, node(new StringsCompleter(getMethodNames(str[1])), node(types)))),
-                        node("changema",
-                                node(classes, node(new StringsCompleter(getMethodNames(str[1])), node(accesses)))),
-                        node("addp", node(classes, node(new StringsCompleter(getMethodNames(str[1]))))),
-                        node("deletep",
-                                node(classes,
-                                        node(new StringsCompleter(getMethodNames(str[1])),
-                                                node(new StringsCompleter(getParameters(str[1])))))),
-                        node("addr",
-                                node(classes,
-                                        node(classes,
-                                                node(new StringsCompleter("Aggregation", "Composition",
-                                                        "Generalization", "Realization"))))),
-                        node("deleter", node(classes, node(classes))),
-                        node("help", "exit", "showgui", "save", "load", "undo", "redo", "displayr"),
-                        node("display", node(classes)));
+    private void displayRelationships(String[] args)
+    {
+        Listing listing = readListing(args);
+        if (listing == null)
+            return;
+        Pattern names = listing.name == null ? null : globPattern(listing.name);
+        Pager pager = pager(listing.paged);
+        int shown = 0;
+        int matched = 0;
+        for (ClassSnapshot c : store.getSnapshot().getClasses()) 
+        {
+            if (pager.isStopped())
+                break;
+            boolean fromMatches = names == null || names.matcher(c.getName()).matches();
+            for(Map.Entry<String, RelationshipType> entry : c.getRelationshipsToOther().entrySet())
+            {
+                if (listing.type != null && entry.getValue() != listing.type)
+                    continue;
+                if (!fromMatches && !names.matcher(entry.getKey()).matches())
+                    continue;
+                matched++;
+                if (shown < listing.limit && pager.println(c.getName() + " ==" + entry.getValue() + "==> " + entry.getKey()))
+                    shown++;
+                else if (pager.isStopped())
+                    break;
             }
         }
-
-        //Make the new reader based on the new completer.
-        reader = LineReaderBuilder.builder().terminal(terminal).history(history).completer(completer).parser(parser)
-                .variable(LineReader.MENU_COMPLETE, true).build();
-
-        reader.option(LineReader.Option.COMPLETE_IN_WORD, true);
-        reader.option(LineReader.Option.RECOGNIZE_EXACT, true);
-        reader.option(LineReader.Option.CASE_INSENSITIVE, true);
-        reader.option(LineReader.Option.AUTO_REMOVE_SLASH, true);
+        if (shown < matched && !pager.isStopped())
+            pager.println("Showed " + shown + " of " + matched + " relationships.");
+        pager.flush();
     }
-}
\ No newline at end of file
+}
@@ -43,6 +43,9 @@ public class ClassClickController implements ActionListener
 	 */
 	public void actionPerformed(ActionEvent e)
 	{
+		//Nothing can be edited while a diagram is being saved or loaded.
+		if(controller.isBusy())
+			return;
 		String cmd = e.getActionCommand();
 		if(cmd.equals("Create"))
 		{
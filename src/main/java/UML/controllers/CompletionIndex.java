@@ -0,0 +1,502 @@
+package UML.controllers;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/18/2026
+    Purpose: Tab completion for the command line. The store tells the index about each change, so the class
+    names and types are kept in tries as they change instead of being gathered from the whole store after
+    every command. The fields, methods and parameters of a class are only gathered when they are first
+    completed, and are gathered again only after that class changes. The types of classes a loaded file hasn't
+    read yet are gathered from a snapshot the first time a type is completed, rather than reading the file then.
+ */
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import org.jline.reader.Candidate;
+import org.jline.reader.Completer;
+import org.jline.reader.LineReader;
+import org.jline.reader.ParsedLine;
+import org.jline.utils.AttributedString;
+
+import UML.model.Class;
+import UML.model.Field;
+import UML.model.IStore;
+import UML.model.Method;
+import UML.model.Parameter;
+import UML.model.ReadableClass;
+import UML.model.RelationshipType;
+import UML.model.Store;
+
+public class CompletionIndex implements Completer, IStore
+{
+    //The commands the command line understands.
+    private static final String[] COMMANDS = {"addc", "renamec", "deletec", "addf", "renamef", "deletef", "changeft",
+            "changefa", "addm", "renamem", "deletem", "changemt", "changema", "addp", "deletep", "addr", "deleter",
+            "display", "displayr", "help", "exit", "showgui", "save", "load", "generate", "convert", "undo", "redo"};
+
+    //The types offered before any are used.
+    private static final String[] BUILT_IN_TYPES = {"String", "boolean", "char", "double", "float", "int", "short",
+            "size_t", "unsigned"};
+
+    private static final String[] ACCESSES = {"public", "private", "protected"};
+
+    private static final String[] RELATIONSHIPS = {"Aggregation", "Composition", "Generalization", "Realization"};
+
+    //What is offered for each word of a command.
+    private enum Kind { COMMAND, CLASS, ACCESS, TYPE, FIELD, METHOD, PARAMETER, RELATIONSHIP }
+
+    /**
+     * The members of one class as they are offered for completion.
+     */
+    private static final class Members
+    {
+        final CompletionTrie fields = new CompletionTrie();
+        final CompletionTrie methods = new CompletionTrie();
+        //A parameter is offered once however many methods have it.
+        final CompletionTrie params = new CompletionTrie();
+    }
+
+    private final Store store;
+    private final CompletionTrie commands;
+    private final CompletionTrie classes;
+    private final CompletionTrie types;
+    private final CompletionTrie accesses;
+    private final CompletionTrie relationships;
+    //The members of the classes completed since they last changed.
+    private final HashMap<String, Members> members;
+    //Counts the changes to members, so members gathered from before a change aren't kept.
+    private long version;
+    //True while there are classes whose types haven't been added because they weren't loaded.
+    private boolean typesPending;
+
+    /**
+     * Makes the index from what is in the store now. It has to be added to the store's listeners to follow it.
+     */
+    public CompletionIndex(Store store)
+    {
+        this.store = store;
+        commands = trieOf(COMMANDS);
+        types = trieOf(BUILT_IN_TYPES);
+        accesses = trieOf(ACCESSES);
+        relationships = trieOf(RELATIONSHIPS);
+        classes = new CompletionTrie();
+        members = new HashMap<String, Members>();
+        for(Class aClass : store.getClassStore())
+        {
+            arrived(aClass);
+        }
+    }
+
+    private static CompletionTrie trieOf(String[] words)
+    {
+        CompletionTrie trie = new CompletionTrie();
+        for(String word : words)
+        {
+            trie.add(word);
+        }
+        return trie;
+    }
+
+    /**
+     * Adds the types of a class's fields, methods and parameters to the types offered.
+     */
+    private void addTypes(ReadableClass aClass)
+    {
+        for(Field f : aClass.getFields())
+        {
+            addType(f.getType());
+        }
+        for(Method m : aClass.getMethods())
+        {
+            addType(m.getType());
+            for(Parameter param : m.getParams())
+            {
+                addType(param.getType());
+            }
+        }
+    }
+
+    /**
+     * Adds a class that has just arrived, taking its types now if it is loaded, or leaving them until a type
+     * is completed if it isn't.
+     */
+    private void arrived(Class aClass)
+    {
+        classes.add(aClass.getName());
+        if(aClass.isLoaded())
+            addTypes(aClass);
+        else
+            typesPending = true;
+    }
+
+    /**
+     * Adds the types of every class from a snapshot, if some classes' types were left until now.
+     */
+    private void gatherPendingTypes()
+    {
+        synchronized(this)
+        {
+            if(!typesPending)
+                return;
+            //Classes that arrive while this gathers set it again.
+            typesPending = false;
+        }
+        //As with members, the store is read through a snapshot so it isn't waited on while the index is held.
+        for(ReadableClass aClass : store.getSnapshot().getClasses())
+        {
+            synchronized(this)
+            {
+                addTypes(aClass);
+            }
+        }
+    }
+
+    private void addType(String type)
+    {
+        if(!types.contains(type))
+            types.add(type);
+    }
+
+    /**
+     * Returns what is offered for a word of a command, or null if nothing is.
+     */
+    private static Kind kindOf(String command, int word)
+    {
+        if(word == 0)
+            return Kind.COMMAND;
+        if(word == 1)
+        {
+            switch(command)
+            {
+                case "renamec": case "deletec": case "display":
+                case "addf": case "renamef": case "deletef": case "changeft": case "changefa":
+                case "addm": case "renamem": case "deletem": case "changemt": case "changema":
+                case "addp": case "deletep": case "addr": case "deleter":
+                    return Kind.CLASS;
+                default:
+                    return null;
+            }
+        }
+        switch(command)
+        {
+            case "addf": case "addm":
+                return word == 2 ? Kind.ACCESS : word == 3 ? Kind.TYPE : null;
+            case "renamef": case "deletef":
+                return word == 2 ? Kind.FIELD : null;
+            case "changeft":
+                return word == 2 ? Kind.FIELD : word == 3 ? Kind.TYPE : null;
+            case "changefa":
+                return word == 2 ? Kind.FIELD : word == 3 ? Kind.ACCESS : null;
+            case "renamem": case "deletem": case "addp":
+                return word == 2 ? Kind.METHOD : null;
+            case "changemt":
+                return word == 2 ? Kind.METHOD : Kind.TYPE;
+            case "changema":
+                return word == 2 ? Kind.METHOD : Kind.ACCESS;
+            case "deletep":
+                return word == 2 ? Kind.METHOD : Kind.PARAMETER;
+            case "addr":
+                return word == 2 ? Kind.CLASS : word == 3 ? Kind.RELATIONSHIP : null;
+            case "deleter":
+                return word == 2 ? Kind.CLASS : null;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Returns the words that can finish the given word of a command, in alphabetical order. The class
+     * whose members are offered is the one named by the command's second word.
+     */
+    public List<String> complete(List<String> words, int wordIndex, String prefix)
+    {
+        String command = words.isEmpty() ? "" : words.get(0);
+        Kind kind = kindOf(command, wordIndex);
+        if(kind == null)
+            return new ArrayList<String>();
+        switch(kind)
+        {
+            case FIELD: case METHOD: case PARAMETER:
+                if(words.size() < 2)
+                    return new ArrayList<String>();
+                Members found = membersOf(words.get(1));
+                if(found == null)
+                    return new ArrayList<String>();
+                synchronized(this)
+                {
+                    CompletionTrie trie = kind == Kind.FIELD ? found.fields : kind == Kind.METHOD ? found.methods : found.params;
+                    return trie.startingWith(prefix);
+                }
+            default:
+                if(kind == Kind.TYPE)
+                    gatherPendingTypes();
+                synchronized(this)
+                {
+                    return trieFor(kind).startingWith(prefix);
+                }
+        }
+    }
+
+    private CompletionTrie trieFor(Kind kind)
+    {
+        switch(kind)
+        {
+            case COMMAND:
+                return commands;
+            case CLASS:
+                return classes;
+            case ACCESS:
+                return accesses;
+            case TYPE:
+                return types;
+            default:
+                return relationships;
+        }
+    }
+
+    @Override
+    public void complete(LineReader reader, ParsedLine line, List<Candidate> candidates)
+    {
+        String prefix = line.word().substring(0, Math.min(line.wordCursor(), line.word().length()));
+        for(String word : complete(line.words(), line.wordIndex(), prefix))
+        {
+            candidates.add(new Candidate(AttributedString.stripAnsi(word), word, null, null, null, null, true));
+        }
+    }
+
+    /**
+     * Returns the members of a class, gathering them if the class has changed since they were last asked
+     * for, or null if there is no such class.
+     */
+    private Members membersOf(String className)
+    {
+        long seen;
+        synchronized(this)
+        {
+            Members cached = members.get(className);
+            if(cached != null)
+                return cached;
+            if(!classes.contains(className))
+                return null;
+            seen = version;
+        }
+        //The class is read from a snapshot, not the store, so the store is never waited on while the index is held.
+        ReadableClass aClass = store.getSnapshot().findClass(className);
+        if(aClass == null)
+            return null;
+        Members gathered = new Members();
+        for(Field f : aClass.getFields())
+        {
+            gathered.fields.add(f.getName());
+        }
+        for(Method m : aClass.getMethods())
+        {
+            gathered.methods.add(describe(m));
+            for(Parameter param : m.getParams())
+            {
+                gathered.params.add(param.toString());
+            }
+        }
+        synchronized(this)
+        {
+            addTypes(aClass);
+            //Members gathered while the class was changing are used once but not kept.
+            if(version == seen)
+                members.put(className, gathered);
+        }
+        return gathered;
+    }
+
+    /**
+     * Returns a method as it is typed in a command: access, type, name, then each parameter's type and name.
+     */
+    private static String describe(Method m)
+    {
+        StringBuilder described = new StringBuilder();
+        described.append(m.getAccessString()).append(' ').append(m.getType()).append(' ').append(m.getName());
+        for(Parameter param : m.getParams())
+        {
+            described.append(' ').append(param.toString());
+        }
+        return described.toString();
+    }
+
+    /**
+     * Forgets the members of a class once it changes, so they are gathered again when next completed.
+     */
+    private void changed(String className)
+    {
+        version++;
+        members.remove(className);
+    }
+
+//================================================================================================================================================
+//Changes to the store
+//================================================================================================================================================
+
+    @Override
+    public synchronized boolean addClass(String name)
+    {
+        classes.add(name);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean deleteClass(String name)
+    {
+        classes.remove(name);
+        changed(name);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean renameClass(String oldName, String newName)
+    {
+        classes.remove(oldName);
+        classes.add(newName);
+        changed(oldName);
+        return true;
+    }
+
+    @Override
+    public boolean moveClass(String name, int x, int y)
+    {
+        return true;
+    }
+
+    @Override
+    public synchronized boolean addClasses(ArrayList<Class> added)
+    {
+        for(Class aClass : added)
+        {
+            arrived(aClass);
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized boolean restoreClass(Class aClass, int index)
+    {
+        arrived(aClass);
+        changed(aClass.getName());
+        return true;
+    }
+
+    @Override
+    public synchronized void setClassStore(ArrayList<Class> newStore)
+    {
+        classes.clear();
+        for(Class aClass : newStore)
+        {
+            arrived(aClass);
+        }
+        version++;
+        members.clear();
+    }
+
+    @Override
+    public synchronized boolean addField(String className, String type, String name, String access)
+    {
+        addType(type);
+        changed(className);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean renameField(String className, String oldName, String newName)
+    {
+        changed(className);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean deleteField(String className, String name)
+    {
+        changed(className);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean changeFieldType(String className, String name, String newType)
+    {
+        addType(newType);
+        changed(className);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean changeFieldAccess(String className, String name, String newAccess)
+    {
+        changed(className);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean addMethod(String className, String type, String name, ArrayList<String> params, String access)
+    {
+        addType(type);
+        changed(className);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean deleteMethod(String className, String type, String name, ArrayList<String> params, String access)
+    {
+        changed(className);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean renameMethod(String className, String type, String name, ArrayList<String> params, String access, String newName)
+    {
+        changed(className);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean changeMethodType(String className, String type, String name, ArrayList<String> params, String access, String newType)
+    {
+        addType(newType);
+        changed(className);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean changeMethodAccess(String className, String type, String name, ArrayList<String> params, String access, String newAccess)
+    {
+        changed(className);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean addParam(String className, String methodType, String methodName, ArrayList<String> params, String access, String paramType, String paramName)
+    {
+        addType(paramType);
+        changed(className);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean deleteParam(String className, String methodType, String methodName, ArrayList<String> params, String access, String paramType, String paramName)
+    {
+        changed(className);
+        return true;
+    }
+
+    @Override
+    public boolean addRelationship(String classFrom, String classTo, RelationshipType relation)
+    {
+        return true;
+    }
+
+    @Override
+    public boolean deleteRelationship(String classFrom, String classTo)
+    {
+        return true;
+    }
+
+    @Override
+    public void removeRelationships(Class aClass)
+    {
+    }
+}
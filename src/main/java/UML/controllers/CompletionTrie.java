@@ -0,0 +1,258 @@
+package UML.controllers;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/18/2026
+    Purpose: A set of words that can be searched by how they start, ignoring case, for tab completion.
+    A word added more than once stays until it has been removed as many times.
+ */
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class CompletionTrie
+{
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final Node root = new Node();
+    //The number of different words.
+    private int size;
+
+    /**
+     * One letter of a word, in lower case, with the letters that can follow it.
+     */
+    private static final class Node
+    {
+        //The next letters, in order, and the node for each.
+        char[] keys = NO_KEYS;
+        Node[] children = NO_CHILDREN;
+        int childCount;
+        //The words that end here as they were added, which differ only in case, and how many times each was.
+        String[] words;
+        int[] counts;
+        //The number of different words ending here or further down.
+        int below;
+
+        Node child(char key)
+        {
+            int index = Arrays.binarySearch(keys, 0, childCount, key);
+            return index < 0 ? null : children[index];
+        }
+
+        Node addChild(char key)
+        {
+            int index = Arrays.binarySearch(keys, 0, childCount, key);
+            if(index >= 0)
+                return children[index];
+            index = -index - 1;
+            if(childCount == keys.length)
+            {
+                int grown = Math.max(2, childCount * 2);
+                keys = Arrays.copyOf(keys, grown);
+                children = Arrays.copyOf(children, grown);
+            }
+            System.arraycopy(keys, index, keys, index + 1, childCount - index);
+            System.arraycopy(children, index, children, index + 1, childCount - index);
+            keys[index] = key;
+            Node child = new Node();
+            children[index] = child;
+            childCount++;
+            return child;
+        }
+
+        void removeChild(char key)
+        {
+            int index = Arrays.binarySearch(keys, 0, childCount, key);
+            System.arraycopy(keys, index + 1, keys, index, childCount - index - 1);
+            System.arraycopy(children, index + 1, children, index, childCount - index - 1);
+            childCount--;
+            children[childCount] = null;
+        }
+
+        int indexOf(String word)
+        {
+            if(words != null)
+            {
+                for(int index = 0; index < words.length; index++)
+                {
+                    if(words[index].equals(word))
+                        return index;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Returns the number of different words.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Removes every word.
+     */
+    public void clear()
+    {
+        root.keys = NO_KEYS;
+        root.children = NO_CHILDREN;
+        root.childCount = 0;
+        root.words = null;
+        root.counts = null;
+        root.below = 0;
+        size = 0;
+    }
+
+    /**
+     * Returns true if the word has been added, in the same case, and not removed since.
+     */
+    public boolean contains(String word)
+    {
+        Node node = find(word);
+        return node != null && node.indexOf(word) >= 0;
+    }
+
+    /**
+     * Adds a word. Returns true if it wasn't already there.
+     */
+    public boolean add(String word)
+    {
+        Node[] path = new Node[word.length() + 1];
+        Node node = root;
+        path[0] = node;
+        for(int index = 0; index < word.length(); index++)
+        {
+            node = node.addChild(Character.toLowerCase(word.charAt(index)));
+            path[index + 1] = node;
+        }
+        int found = node.indexOf(word);
+        if(found >= 0)
+        {
+            node.counts[found]++;
+            return false;
+        }
+        if(node.words == null)
+        {
+            node.words = new String[] {word};
+            node.counts = new int[] {1};
+        }
+        else
+        {
+            node.words = Arrays.copyOf(node.words, node.words.length + 1);
+            node.counts = Arrays.copyOf(node.counts, node.counts.length + 1);
+            node.words[node.words.length - 1] = word;
+            node.counts[node.counts.length - 1] = 1;
+        }
+        for(Node step : path)
+        {
+            step.below++;
+        }
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes a word once. Returns true if that was the last time it had been added, so it is gone.
+     */
+    public boolean remove(String word)
+    {
+        Node[] path = new Node[word.length() + 1];
+        Node node = root;
+        path[0] = node;
+        for(int index = 0; index < word.length() && node != null; index++)
+        {
+            node = node.child(Character.toLowerCase(word.charAt(index)));
+            path[index + 1] = node;
+        }
+        int found = node == null ? -1 : node.indexOf(word);
+        if(found < 0)
+            return false;
+        if(--node.counts[found] > 0)
+            return false;
+        if(node.words.length == 1)
+        {
+            node.words = null;
+            node.counts = null;
+        }
+        else
+        {
+            String[] words = new String[node.words.length - 1];
+            int[] counts = new int[words.length];
+            for(int from = 0, to = 0; from < node.words.length; from++)
+            {
+                if(from != found)
+                {
+                    words[to] = node.words[from];
+                    counts[to++] = node.counts[from];
+                }
+            }
+            node.words = words;
+            node.counts = counts;
+        }
+        //Nodes left with no words below them are cut off.
+        for(int index = path.length - 1; index >= 0; index--)
+        {
+            path[index].below--;
+            if(index > 0 && path[index].below == 0)
+                path[index - 1].removeChild(Character.toLowerCase(word.charAt(index - 1)));
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * Passes each word that starts with the prefix, ignoring case, to the action in alphabetical order.
+     */
+    public void forEachStartingWith(String prefix, Consumer<String> action)
+    {
+        Node node = find(prefix);
+        if(node != null)
+            visit(node, action);
+    }
+
+    /**
+     * Returns the words that start with the prefix, ignoring case, in alphabetical order.
+     */
+    public List<String> startingWith(String prefix)
+    {
+        Node node = find(prefix);
+        ArrayList<String> found = new ArrayList<String>(node == null ? 0 : node.below);
+        if(node != null)
+            visit(node, found::add);
+        return found;
+    }
+
+    /**
+     * Returns the node reached by following the letters of the prefix, or null if no word starts with it.
+     */
+    private Node find(String prefix)
+    {
+        Node node = root;
+        for(int index = 0; index < prefix.length() && node != null; index++)
+        {
+            node = node.child(Character.toLowerCase(prefix.charAt(index)));
+        }
+        return node;
+    }
+
+    /**
+     * Passes the words at and below a node to the action.
+     */
+    private static void visit(Node node, Consumer<String> action)
+    {
+        if(node.words != null)
+        {
+            for(String word : node.words)
+            {
+                action.accept(word);
+            }
+        }
+        for(int index = 0; index < node.childCount; index++)
+        {
+            visit(node.children[index], action);
+        }
+    }
+}
@@ -7,13 +7,21 @@ package UML.controllers;
  */
 import UML.model.RelationshipType;
 import UML.model.Class;
+import UML.model.Field;
+import UML.model.IStore;
+import UML.model.Snapshot;
 import UML.model.Store;
 import UML.views.*;
 import java.util.ArrayList;
 import java.io.File;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.Stack;
-import javax.swing.JPanel;
+import java.util.function.Consumer;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import java.awt.event.ActionListener;
 
 import java.io.IOException;
@@ -29,6 +37,29 @@ public class Controller implements IController
     private StateController stateController;
     // True if a GUI exists already, false otherwise.
     private boolean GUIExists;
+    // The listeners shared by the menus on every class panel.
+    private ActionListener[] panelListeners;
+    // The journal that keeps the edits made since the last save, or null if there is none.
+    private volatile EditJournal journal;
+    // What is being done in the background, such as "Loading", or null if nothing is.
+    private String busyTask;
+    // The save or load running on another thread, or null if there is none.
+    private SwingWorker<Void, Void> background;
+    // Set once the user cancels the save or load running in the background.
+    private boolean cancelRequested;
+    // How long the view is built for at a time when showing a whole diagram, so the window still responds in between.
+    private static final long CHUNK_NANOS = 16_000_000L;
+    // The edits made since beginBatch(), which are undone together, or null if no batch is running.
+    private ArrayList<Edit> batch;
+
+    /**
+     * Work done off the event thread, which reports how far it has got to the given progress.
+     */
+    private interface BackgroundWork<T>
+    {
+        T run(Progress progress) throws Exception;
+    }
+
     /**
      * Contructs a controller object.  Assigns action listeners to the correct buttons.
      */
@@ -80,7 +111,17 @@ public class Controller implements IController
 
     public void setStore(Store newStore)
     {
+        //The journal follows the store, starting again with the whole of the new one.
+        if(journal != null)
+        {
+            store.setJournal(null);
+            journal.start(newStore.getCurrentLoadedFile());
+            journal.setClassStore(newStore.getClassStore());
+            newStore.setJournal(journal);
+        }
         this.store = newStore;
+        stateController.setCurrentState(newStore);
+        panelListeners = null;
     }
 
     /**
@@ -137,12 +178,11 @@ public class Controller implements IController
     {
         try
         {
-            stateChange();
             boolean temp = store.addClass(name);  
             if (temp)
             {   
-                prepGUI();
-                rebuild();
+                stateChange(new Edit(s -> s.deleteClass(name), s -> s.addClass(name)));
+                addClassToView(store.findClass(name));
             }
             else
             {
@@ -166,12 +206,29 @@ public class Controller implements IController
         {
             try
             {
-                stateChange();
+                //Keep what is needed to put the class back exactly as it was.
+                int index = store.getClassStore().indexOf(aClass);
+                Map<String, RelationshipType> relationsTo = new HashMap<String, RelationshipType>(aClass.getRelationshipsToOther());
+                Map<String, RelationshipType> relationsFrom = new HashMap<String, RelationshipType>(aClass.getRelationshipsFromOther());
+                Set<String> related = relatedNames(aClass);
                 boolean temp = store.deleteClass(name);
                 if(temp)
                 {
-                    prepGUI();
-                    rebuild();
+                    stateChange(new Edit(s -> {
+                        s.restoreClass(aClass, index);
+                        for(Map.Entry<String, RelationshipType> entry : relationsTo.entrySet())
+                        {
+                            s.addRelationship(name, entry.getKey(), entry.getValue());
+                        }
+                        for(Map.Entry<String, RelationshipType> entry : relationsFrom.entrySet())
+                        {
+                            s.addRelationship(entry.getKey(), name, entry.getValue());
+                        }
+                    }, s -> s.deleteClass(name)));
+                    if(batch == null)
+                        view.deleteClass(name);
+                    related.remove(name);
+                    updateClasses(related);
                 }
             }
             catch (Exception e)
@@ -196,12 +253,15 @@ public class Controller implements IController
         {
             try
             {
-                stateChange();    
+                Set<String> related = relatedNames(oldClass);
                 boolean temp = store.renameClass(oldName, newName); 
                 if(temp)
                 {
-                    prepGUI();
-                    rebuild();
+                    stateChange(new Edit(s -> s.renameClass(newName, oldName), s -> s.renameClass(oldName, newName)));
+                    //The related classes show the new name in their relationships too.
+                    related.remove(oldName);
+                    updateClass(oldName, newName);
+                    updateClasses(related);
                 }
                 else
                 {
@@ -236,12 +296,11 @@ public class Controller implements IController
         {
             try
             {
-                stateChange();
                 boolean temp = store.addField(className, type, name, access);
                 if(temp)
                 {
-                    prepGUI();
-                    rebuild();
+                    stateChange(new Edit(s -> s.deleteField(className, name), s -> s.addField(className, type, name, access)));
+                    updateClass(className, className);
                 }
                 else
                 {
@@ -270,13 +329,13 @@ public class Controller implements IController
         {
             try 
             {
-                stateChange();
+                Field old = findField(aClass, name);
                 boolean temp = store.deleteField(className, name); 
             
                 if(temp)
                 {
-                    prepGUI();
-                    rebuild();
+                    stateChange(new Edit(s -> s.addField(className, old.getType(), name, old.getAccessString()), s -> s.deleteField(className, name)));
+                    updateClass(className, className);
                 }
                 else
                 {
@@ -305,13 +364,12 @@ public class Controller implements IController
         {
             try 
             {
-                stateChange();
                 boolean temp = store.renameField(className, oldName, newName);   
             
                 if(temp)
                 {
-                    prepGUI();
-                    rebuild();
+                    stateChange(new Edit(s -> s.renameField(className, newName, oldName), s -> s.renameField(className, oldName, newName)));
+                    updateClass(className, className);
                 }
                 else
                 {
@@ -340,13 +398,13 @@ public class Controller implements IController
         {  
             try
             {
-                stateChange();
+                Field old = findField(aClass, fieldName);
                 boolean temp = store.changeFieldType(className, fieldName, newType);
             
                 if(temp)
                 {
-                    prepGUI();
-                    rebuild();
+                    stateChange(new Edit(s -> s.changeFieldType(className, fieldName, old.getType()), s -> s.changeFieldType(className, fieldName, newType)));
+                    updateClass(className, className);
                 }
                 else
                 {
@@ -375,12 +433,12 @@ public class Controller implements IController
         {
             try
             {
-                stateChange();
+                Field old = findField(aClass, fieldName);
                 boolean temp = store.changeFieldAccess(className, fieldName, access); 
                 if(temp)
                 {
-                    prepGUI();
-                    rebuild();
+                    stateChange(new Edit(s -> s.changeFieldAccess(className, fieldName, old.getAccessString()), s -> s.changeFieldAccess(className, fieldName, access)));
+                    updateClass(className, className);
                 }
                 else
                 {
@@ -414,12 +472,11 @@ public class Controller implements IController
         {
             try
             {
-                stateChange();
                 boolean temp = store.addMethod(className, returnType, methodName, params, access);
                 if(temp)
                 {
-                    prepGUI();
-                    rebuild();
+                    stateChange(new Edit(s -> s.deleteMethod(className, returnType, methodName, params, access), s -> s.addMethod(className, returnType, methodName, params, access)));
+                    updateClass(className, className);
                 }
                 else
                 {
@@ -449,13 +506,12 @@ public class Controller implements IController
         {
             try
             {
-                stateChange();
                 boolean temp = store.deleteMethod(className, returnType, methodName, params, access);
             
                 if(temp)
                 {
-                    prepGUI();
-                    rebuild();
+                    stateChange(new Edit(s -> s.addMethod(className, returnType, methodName, params, access), s -> s.deleteMethod(className, returnType, methodName, params, access)));
+                    updateClass(className, className);
                 }
                 else
                 {
@@ -484,13 +540,12 @@ public class Controller implements IController
         {
             try
             {
-                stateChange();
                 boolean temp = store.renameMethod(className, returnType, methodName, params, access, newName);
              
                 if(temp)
                 {
-                    prepGUI();
-                    rebuild();
+                    stateChange(new Edit(s -> s.renameMethod(className, returnType, newName, params, access, methodName), s -> s.renameMethod(className, returnType, methodName, params, access, newName)));
+                    updateClass(className, className);
                 }
                 else
                 {
@@ -520,12 +575,11 @@ public class Controller implements IController
         {
             try
             {
-                stateChange();
                 boolean temp = store.changeMethodType(className, oldType, methodName, params, access, newType);
                 if(temp)
                 {
-                    prepGUI();
-                    rebuild();
+                    stateChange(new Edit(s -> s.changeMethodType(className, newType, methodName, params, access, oldType), s -> s.changeMethodType(className, oldType, methodName, params, access, newType)));
+                    updateClass(className, className);
                 }
 
                 else
@@ -552,17 +606,15 @@ public class Controller implements IController
     public void changeMethodAccess(String className, String type, String name, ArrayList<String> params, String access, String newAccess)
     {
         Class aClass = findClass(className);
-        stateChange();
         if(aClass != null)
         {
             try
             {
-                stateChange();
                 boolean temp = store.changeMethodAccess(className, type, name, params, access, newAccess);
                 if(temp)
                 {
-                    prepGUI();
-                    rebuild();
+                    stateChange(new Edit(s -> s.changeMethodAccess(className, type, name, params, newAccess, access), s -> s.changeMethodAccess(className, type, name, params, access, newAccess)));
+                    updateClass(className, className);
                 }
                 else
                 {
@@ -599,12 +651,14 @@ public class Controller implements IController
         {
             try
             {
-                stateChange();
                 boolean temp = store.addParam(className, methodType, methodName, params, access, paramType, paramName);
                 if(temp)
                 {
-                    prepGUI();
-                    rebuild();
+                    ArrayList<String> newParams = new ArrayList<String>(params);
+                    newParams.add(paramType + " " + paramName);
+                    stateChange(new Edit(s -> s.deleteParam(className, methodType, methodName, newParams, access, paramType, paramName),
+                                         s -> s.addParam(className, methodType, methodName, params, access, paramType, paramName)));
+                    updateClass(className, className);
                 }
                 else
                 {
@@ -634,12 +688,17 @@ public class Controller implements IController
         {
             try 
             {    
-                stateChange();
                 boolean temp = store.deleteParam(className, methodType, methodName, params, access, paramType, paramName);
                 if(temp)
                 {
-                    prepGUI();
-                    rebuild();
+                    ArrayList<String> newParams = new ArrayList<String>(params);
+                    newParams.remove(paramType + " " + paramName);
+                    //Swap the whole method back so the parameter returns to its original position.
+                    stateChange(new Edit(s -> {
+                        s.deleteMethod(className, methodType, methodName, newParams, access);
+                        s.addMethod(className, methodType, methodName, params, access);
+                    }, s -> s.deleteParam(className, methodType, methodName, params, access, paramType, paramName)));
+                    updateClass(className, className);
                 }
                 else
                 {
@@ -672,15 +731,17 @@ public class Controller implements IController
         Class toOld = findClass(to);
         try
         {
-            stateChange();
             boolean temp = store.addRelationship(from, to, relation);
             //If the relationship could not be deleted, give the user and error and do not change the state.
             if(!temp || fromOld == null || toOld == null)
                 view.showError("Relationship could not be created.  Make sure both classes exist or check that there is no existing relationships between those classes.");
             else 
             { 
-                prepGUI();
-                rebuild();
+                stateChange(new Edit(s -> s.deleteRelationship(from, to), s -> s.addRelationship(from, to, relation)));
+                updateClass(from, from);
+                updateClass(to, to);
+                if(batch == null)
+                    view.addRelationship(from, to, relation.toString());
             }
         }
         catch(IllegalArgumentException e)
@@ -697,17 +758,35 @@ public class Controller implements IController
     {
         Class fromOld = findClass(from);
         Class toOld = findClass(to);
+        String failed = "Relationship could not be deleted.  Make sure both classes exist or check that there is an existing relationships between those classes.";
+        if(fromOld == null || toOld == null)
+        {
+            view.showError(failed);
+            return;
+        }
         try
         {
-            stateChange();
+            //The relationship may have been created in either direction.
+            RelationshipType forward = fromOld.getRelationshipsToOther().get(to);
+            RelationshipType backward = toOld.getRelationshipsToOther().get(from);
             boolean temp = store.deleteRelationship(fromOld.getName(), toOld.getName()) || store.deleteRelationship(toOld.getName(), fromOld.getName());
             //If the relationship could not be deleted, give the user and error and do not change the state.
-            if(!temp || fromOld == null || toOld == null)
-                view.showError("Relationship could not be deleted.  Make sure both classes exist or check that there is an existing relationships between those classes.");
+            if(!temp)
+                view.showError(failed);
             else
             { 
-                prepGUI();
-                rebuild();
+                if(forward != null)
+                    stateChange(new Edit(s -> s.addRelationship(from, to, forward), s -> s.deleteRelationship(from, to)));
+                else
+                    stateChange(new Edit(s -> s.addRelationship(to, from, backward), s -> s.deleteRelationship(to, from)));
+                updateClass(from, from);
+                updateClass(to, to);
+                if(batch != null)
+                    return;
+                if(forward != null)
+                    view.deleteRelationship(from, to);
+                else
+                    view.deleteRelationship(to, from);
             }
         } 
         catch(Exception e)
@@ -722,9 +801,12 @@ public class Controller implements IController
     public void save(String fileName) throws IOException
     {
         SaveAndLoad sl = new SaveAndLoad(store, view, this);
-        
+        //A compaction still being written must not land on top of this save.
+        if(journal != null)
+            journal.flush();
         File currentFile = sl.save(fileName);
         store.setCurrentLoadedFile(currentFile);
+        moveJournal(currentFile, false);
     }
 
     /**
@@ -732,17 +814,289 @@ public class Controller implements IController
      */
     public void load(String fileName) throws IOException, ParseException
     {
-        stateChange();
+        //The file is read into a store of its own, so a file that can't be read leaves the diagram as it was.
+        Store loaded = new Store();
+        File currentFile = new SaveAndLoad(loaded, view, this).load(fileName);
         prepGUI();
-        //Also clear the class store.
-        store.getClassStore().clear();
-        //Load the specified file in the store.
-        SaveAndLoad sl = new SaveAndLoad(store, view, this);
-        File currentFile = sl.load(fileName);
-        store.setCurrentLoadedFile(currentFile);
+        useLoaded(loaded.getClassStore(), currentFile);
         rebuild();
     }
 
+    /**
+     * Saves on another thread, showing its progress in the view. Nothing can be edited until it finishes.
+     * Returns false if something else is already running in the background.
+     */
+    public boolean saveInBackground(String fileName)
+    {
+        //The save reads a snapshot, so the save thread never reads the live store.
+        Snapshot snapshot = store.getSnapshot();
+        return runInBackground("Saving", progress -> {
+            SaveAndLoad sl = new SaveAndLoad(store, view, this);
+            sl.setProgress(progress);
+            sl.setSnapshot(snapshot);
+            if(journal != null)
+                journal.flush();
+            return sl.save(fileName);
+        }, currentFile -> {
+            store.setCurrentLoadedFile(currentFile);
+            moveJournal(currentFile, false);
+            finishBackground();
+        });
+    }
+
+    /**
+     * Loads on another thread, showing its progress in the view, then shows the classes a piece at a time.
+     * Returns false if something else is already running in the background.
+     */
+    public boolean loadInBackground(String fileName)
+    {
+        return runInBackground("Loading", progress -> {
+            Store loaded = new Store();
+            SaveAndLoad sl = new SaveAndLoad(loaded, view, this);
+            sl.setProgress(progress);
+            loaded.setCurrentLoadedFile(sl.load(fileName));
+            return loaded;
+        }, loaded -> {
+            prepGUI();
+            useLoaded(loaded.getClassStore(), loaded.getCurrentLoadedFile());
+            rebuildInChunks("Showing");
+        });
+    }
+
+    /**
+     * Puts classes read from a file in place of the current ones, in a way that can be undone.
+     */
+    private void useLoaded(ArrayList<Class> after, File currentFile)
+    {
+        //The loaded classes are in their file already, so the journal starts again from it instead of recording them.
+        IStore listening = store.getJournal();
+        store.setJournal(null);
+        ArrayList<Class> before = store.getClassStore();
+        store.setClassStore(after);
+        store.setJournal(listening);
+        store.setCurrentLoadedFile(currentFile);
+        //Edits to the file that were never saved, such as after a crash, are put back on top of it.
+        int recovered = moveJournal(currentFile, true);
+        if(recovered > 0)
+            view.display("Recovered " + recovered + " unsaved edits.");
+        ArrayList<Class> now = store.getClassStore();
+        stateChange(new Edit(s -> s.setClassStore(before), s -> s.setClassStore(now)));
+    }
+
+    /**
+     * Starts the journal again from the given saved file, moving it beside that file first if it is kept
+     * somewhere else, so every diagram has a journal of its own. If recover is true, edits left in the journal
+     * beside the file that were never saved are put into the store and kept in the journal. Returns how many.
+     * A journal that can't be moved is only reported, and the one already open goes on being used.
+     */
+    private int moveJournal(File currentFile, boolean recover)
+    {
+        if(journal == null)
+            return 0;
+        File wanted = EditJournal.fileFor(currentFile);
+        if(wanted.equals(journal.getFile()))
+        {
+            journal.start(currentFile);
+            return 0;
+        }
+        EditJournal opened = null;
+        Store recovered = new Store();
+        int recoveredCount = 0;
+        try
+        {
+            opened = new EditJournal(wanted);
+            //Edits kept beside a file only apply to that file, even if it has been copied somewhere else.
+            if(recover && currentFile != null && currentFile.getAbsoluteFile().equals(opened.getBaseFile()))
+                recoveredCount = opened.recover(recovered);
+        }
+        catch(IOException | ParseException e)
+        {
+            if(opened != null)
+                opened.close();
+            view.showError("The edit journal could not be moved to " + wanted + ": " + e.getMessage());
+            journal.start(currentFile);
+            return 0;
+        }
+        //The edits in the old journal are in a file now or have been replaced, so it is left empty.
+        store.setJournal(null);
+        journal.start(null);
+        journal.close();
+        if(recoveredCount > 0)
+            store.setClassStore(recovered.getClassStore());
+        else
+            opened.start(currentFile);
+        journal = opened;
+        store.setJournal(journal);
+        return recoveredCount;
+    }
+
+    /**
+     * Runs work on another thread, then passes what it returned to whenDone on the event thread. whenDone
+     * must call finishBackground once the view is up to date. If the work fails or is cancelled, the error
+     * is shown and whenDone isn't called. Returns false if something else is already running.
+     */
+    private <T> boolean runInBackground(String task, BackgroundWork<T> work, Consumer<T> whenDone)
+    {
+        if(isBusy())
+        {
+            view.showError("Wait until " + busyTask.toLowerCase() + " has finished.");
+            return false;
+        }
+        busyTask = task;
+        cancelRequested = false;
+        view.showProgress(task, 0, true);
+        SwingWorker<Void, Void> worker = new SwingWorker<Void, Void>()
+        {
+            @Override
+            protected Void doInBackground()
+            {
+                T result = null;
+                String error = null;
+                try
+                {
+                    result = work.run(new Progress(this::setProgress));
+                }
+                catch(Exception e)
+                {
+                    error = e.getMessage() == null ? e.toString() : e.getMessage();
+                }
+                T done = result;
+                String failure = error;
+                //done() runs as soon as the worker is cancelled, so the work hands over when it has really stopped.
+                SwingUtilities.invokeLater(() -> {
+                    if(background != this)
+                        return;
+                    //Cancelling only interrupts the thread, so the work may have stopped with any kind of error.
+                    if(cancelRequested)
+                    {
+                        finishBackground();
+                        view.display(task + " was cancelled.");
+                    }
+                    else if(failure != null)
+                    {
+                        finishBackground();
+                        view.showError(task + " failed: " + failure);
+                    }
+                    else
+                        whenDone.accept(done);
+                });
+                return null;
+            }
+        };
+        worker.addPropertyChangeListener(event -> {
+            if(event.getPropertyName().equals("progress") && background == worker)
+                view.showProgress(task, (Integer)event.getNewValue(), true);
+        });
+        background = worker;
+        worker.execute();
+        return true;
+    }
+
+    /**
+     * Returns true while a save, load, undo or redo is running in the background. Nothing can be edited until it finishes.
+     */
+    public boolean isBusy()
+    {
+        return busyTask != null;
+    }
+
+    /**
+     * Cancels the save or load running in the background. The diagram stays as it was before it started.
+     */
+    public void cancelBackground()
+    {
+        if(background == null)
+            return;
+        cancelRequested = true;
+        //Work that never started won't hand over, so it is finished here instead.
+        boolean started = background.getState() != SwingWorker.StateValue.PENDING;
+        background.cancel(true);
+        if(!started)
+        {
+            view.display(busyTask + " was cancelled.");
+            finishBackground();
+        }
+    }
+
+    /**
+     * Lets the diagram be edited again once the work in the background is done.
+     */
+    private void finishBackground()
+    {
+        busyTask = null;
+        background = null;
+        view.hideProgress();
+    }
+
+    /**
+     * Starts keeping a journal of the edits in the given file, first recovering any edits left in it that
+     * were never saved, such as after a crash. Call it before any edits. Returns true if edits were
+     * recovered. The editor works without a journal, so one that can't be opened is only reported.
+     */
+    public boolean openJournal(File file)
+    {
+        try
+        {
+            EditJournal opened = new EditJournal(file);
+            int recovered = opened.recover(store);
+            if(recovered > 0)
+            {
+                store.setCurrentLoadedFile(opened.getBaseFile());
+                prepGUI();
+                rebuild();
+                view.display("Recovered " + recovered + " unsaved edits.");
+            }
+            else
+                opened.start(store.getCurrentLoadedFile());
+            journal = opened;
+            store.setJournal(journal);
+            //Anything not yet synced is written out when the program exits normally, wherever the journal has moved to.
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                EditJournal last = journal;
+                if(last != null)
+                    last.close();
+            }));
+            return recovered > 0;
+        }
+        catch(IOException | ParseException e)
+        {
+            view.showError("The edit journal could not be opened: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Stops keeping the journal, leaving the edits in it.
+     */
+    public void closeJournal()
+    {
+        if(journal != null)
+        {
+            store.setJournal(null);
+            journal.close();
+            journal = null;
+        }
+    }
+
+    /**
+     * Returns the journal of edits, or null if there is none.
+     */
+    public EditJournal getJournal()
+    {
+        return journal;
+    }
+
+    /**
+     * Records that a class was dragged to a new location so the move can be undone.
+     */
+    public void moveClass(String className, int oldX, int oldY, int newX, int newY)
+    {
+        if(store.moveClass(className, newX, newY))
+        {
+            stateChange(new Edit(s -> s.moveClass(className, oldX, oldY), s -> s.moveClass(className, newX, newY)));
+        }
+    }
+
     /**
      * Returns class if it exists, otherwise it throws an exception.
      */
@@ -755,12 +1109,37 @@ public class Controller implements IController
             return aClass;
     }
 
+    /**
+     * Returns the field with the given name in a class, or null if there isn't one.
+     */
+    private Field findField(Class aClass, String fieldName)
+    {
+        for(Field f : aClass.getFields())
+        {
+            if(f.getName().equals(fieldName))
+                return f;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the names of every class with a relationship to or from the given class.
+     */
+    private Set<String> relatedNames(Class aClass)
+    {
+        Set<String> names = new HashSet<String>(aClass.getRelationshipsToOther().keySet());
+        names.addAll(aClass.getRelationshipsFromOther().keySet());
+        return names;
+    }
+
     /**
      * Adds action listeners (used in GUIView for the menu bar).
      */
     public void addListeners()
     {
         view.addListeners(new FileClickController(store, view, this), new ClassClickController(store, view, this), new StateClickController(store, view, this));
+        //Zooming, and dragging on the draw panel, work before the first rebuild too.
+        view.addListener(new ScrollWheelController(store, view, this));
     }
 
     /**
@@ -774,29 +1153,89 @@ public class Controller implements IController
     /**
      * Changes the state of the model and view
      */
-    private void stateChange()
+    private void stateChange(Edit edit)
     { 
-        //When we change the state, we must add the old state to the undo state and increment the total number of stored states.
-        stateController.getRedoStack().clear();
-        stateController.addStateToUndo((Store)this.store.clone());
+        //Only the change itself is recorded, so the cost doesn't depend on the size of the diagram.
+        if(batch != null)
+        {
+            batch.add(edit);
+        }
+        else
+        {
+            stateController.setCurrentState(this.store);
+            stateController.addEdit(edit);
+        }
+        //Every edit is journaled as it is made, and a journal that has grown large is written into the saved file.
+        EditJournal current = journal;
+        if(current != null)
+        {
+            //The journal is written on another thread, so a problem with it is shown at the next edit.
+            IOException problem = current.takeProblem();
+            if(problem != null)
+                view.showError(problem.getMessage());
+            if(current.needsCompaction())
+                current.compact(store.getSnapshot());
+        }
     }
 
     /**
-     * Does a redo.
+     * Starts a batch of edits, such as a script. Until endBatch() the view isn't told about each edit, and
+     * the edits aren't put in the undo history one at a time.
      */
-    public void redo()
+    public void beginBatch()
     {
-        Stack<Store> redoStack = stateController.getRedoStack();
-        //If the redo stack is empty, tell the user they cannot perform a redo.
-        if(redoStack.isEmpty())
-            view.showError("Cannot redo");
-        else
+        if(batch == null)
+            batch = new ArrayList<Edit>();
+    }
+
+    /**
+     * Ends the batch, putting its edits in the undo history as one edit that undoes or redoes them all.
+     * The view is rebuilt once if showChanges is true. Returns how many edits the batch made.
+     */
+    public int endBatch(boolean showChanges)
+    {
+        ArrayList<Edit> edits = batch;
+        batch = null;
+        if(edits == null)
+            return 0;
+        if(!edits.isEmpty())
+        {
+            stateController.setCurrentState(this.store);
+            stateController.addEdit(new Edit(s -> {
+                for(int index = edits.size() - 1; index >= 0; index--)
+                {
+                    edits.get(index).undo(s);
+                }
+            }, s -> {
+                for(Edit edit : edits)
+                {
+                    edit.redo(s);
+                }
+            }));
+        }
+        if(showChanges)
         {
-            stateController.addStateToUndo((Store)this.store.clone());
-            this.store = stateController.Redo();
             prepGUI();
             rebuild();
         }
+        return edits.size();
+    }
+
+    /**
+     * Returns true while a batch of edits is running.
+     */
+    public boolean inBatch()
+    {
+        return batch != null;
+    }
+
+    /**
+     * Does a redo.
+     */
+    public void redo()
+    {
+        if(step(false))
+            rebuild();
     }
 
     /**
@@ -804,17 +1243,47 @@ public class Controller implements IController
     */
     public void undo()
     {
-        Stack<Store> undoStack = stateController.getUndoStack();
-        //If the undo stack is empty, tell the user they cannot perform a undo.
-        if(undoStack.isEmpty())
-            view.showError("Cannot undo");
-        else
-        {
-            stateController.addStateToRedo((Store)this.store.clone());
-            this.store = stateController.Undo();
-            prepGUI();
+        if(step(true))
             rebuild();
+    }
+
+    /**
+     * Does a redo, showing the classes again a piece at a time so the window keeps responding.
+     */
+    public void redoInBackground()
+    {
+        if(!isBusy() && step(false))
+            rebuildInChunks("Redoing");
+    }
+
+    /**
+     * Does an undo, showing the classes again a piece at a time so the window keeps responding.
+     */
+    public void undoInBackground()
+    {
+        if(!isBusy() && step(true))
+            rebuildInChunks("Undoing");
+    }
+
+    /**
+     * Does an undo, or a redo, and clears the view, or tells the user there is nothing to do.
+     * Returns whether there was anything to do.
+     */
+    private boolean step(boolean undo)
+    {
+        //If the stack is empty, tell the user they cannot perform an undo or redo.
+        if((undo ? stateController.getUndoStack() : stateController.getRedoStack()).isEmpty())
+        {
+            view.showError(undo ? "Cannot undo" : "Cannot redo");
+            return false;
         }
+        stateController.setCurrentState(this.store);
+        if(undo)
+            stateController.Undo();
+        else
+            stateController.Redo();
+        prepGUI();
+        return true;
     }
       
     /**
@@ -822,35 +1291,127 @@ public class Controller implements IController
     */
     public void rebuild()
     {
-        ActionListener[] listeners = new ActionListener[7];
-        //Create Listeners
-        listeners[0] = new CreateFieldController(store, view, this);
-        listeners[1] = new EditFieldController(store, view, this);
-        listeners[2]=  new CreateMethodController(store, view, this);
-        listeners[3] = new EditMethodController(store, view, this);
-        listeners[4] = new CreateRelationshipController(store, view, this);
-        listeners[5] = new DeleteRelationshipController(store,view, this);
-        listeners[6] = new EditClassController(store, view, this);
+        panelListeners = null;
 
         //Add the approprate panels and listeners to the view.
         for(Class c : store.getClassStore())
         {
-            view.createClass(c.toString(), (int)c.getLocation().getWidth(), (int)c.getLocation().getHeight());
-            view.addListener(new MouseClickAndDragController(store, view, this), c.toString());
-            for(int count = 0; count < 7; count++)
-            {
-                view.addPanelListener(listeners[count], c.toString());
-            }
+            addClassToView(c);
         }
 
         view.addListener(new ScrollWheelController (store, view, this));
-        //Add relationships to the view.
-        for(Class c : store.getClassStore())
+        //Add relationships to the view, going through each one once rather than each class's both ways.
+        store.getRelationshipGraph().forEachEdge((from, to, type) -> view.addRelationship(from.getName(), to.getName(), type.toString()));
+    }
+
+    /**
+     * Rebuilds the GUI like rebuild, but a slice of time at a time on the event thread, so the window is
+     * repainted and answers input in between. The diagram can't be edited until it finishes.
+     */
+    private void rebuildInChunks(String task)
+    {
+        busyTask = task;
+        panelListeners = null;
+        view.addListener(new ScrollWheelController(store, view, this));
+        ArrayList<Class> classes = new ArrayList<Class>(store.getClassStore());
+        //Every panel is added before any relationship, as rebuild does.
+        int steps = classes.size() * 2;
+        Runnable chunk = new Runnable()
         {
-            for(Map.Entry<String, RelationshipType> entry : c.getRelationshipsToOther().entrySet())
+            private int next;
+
+            @Override
+            public void run()
             {
-                view.addRelationship(c.toString(), store.findClass(entry.getKey()).toString(), entry.getValue().toString());
+                long stop = System.nanoTime() + CHUNK_NANOS;
+                while(next < steps && System.nanoTime() < stop)
+                {
+                    if(next < classes.size())
+                        addClassToView(classes.get(next));
+                    else
+                        addRelationshipsToView(classes.get(next - classes.size()));
+                    next++;
+                }
+                if(next < steps)
+                {
+                    view.showProgress(task, (int)((long)next * 100 / steps), false);
+                    SwingUtilities.invokeLater(this);
+                }
+                else
+                    finishBackground();
             }
+        };
+        //A small diagram is shown in the first chunk, straight away.
+        view.showProgress(task, 0, false);
+        chunk.run();
+    }
+
+    /**
+     * Adds the relationships from one class to the view.
+     */
+    private void addRelationshipsToView(Class c)
+    {
+        for(Map.Entry<String, RelationshipType> entry : c.getRelationshipsToOther().entrySet())
+        {
+            view.addRelationship(c.getName(), entry.getKey(), entry.getValue().toString());
+        }
+    }
+
+    /**
+     * Adds the panel for one class to the view along with its listeners.
+     */
+    private void addClassToView(Class c)
+    {
+        //A batch shows its classes when it ends.
+        if(batch != null)
+            return;
+        //The panel listeners hold no per class state, so every panel shares the same ones.
+        if(panelListeners == null)
+        {
+            panelListeners = new ActionListener[7];
+            panelListeners[0] = new CreateFieldController(store, view, this);
+            panelListeners[1] = new EditFieldController(store, view, this);
+            panelListeners[2] = new CreateMethodController(store, view, this);
+            panelListeners[3] = new EditMethodController(store, view, this);
+            panelListeners[4] = new CreateRelationshipController(store, view, this);
+            panelListeners[5] = new DeleteRelationshipController(store, view, this);
+            panelListeners[6] = new EditClassController(store, view, this);
+        }
+        //Panels are keyed by class name, which stays the same through every edit but a rename.
+        String name = c.getName();
+        int x = (int)c.getLocation().getWidth();
+        int y = (int)c.getLocation().getHeight();
+        //A class opened from a file without its details only loads them when the view first shows it.
+        if(c.isLoaded())
+            view.createClass(name, c.toString(), x, y);
+        else
+            view.createClass(name, c::toString, x, y);
+        view.addListener(new MouseClickAndDragController(store, view, this), name);
+        for(int count = 0; count < 7; count++)
+        {
+            view.addPanelListener(panelListeners[count], name);
+        }
+    }
+
+    /**
+     * Updates the panel of one class after an edit, rather than rebuilding every panel.
+     * The old name only differs from the class name after a rename.
+     */
+    private void updateClass(String oldName, String className)
+    {
+        if(batch != null)
+            return;
+        view.updateClass(oldName, className, store.findClass(className).toString());
+    }
+
+    /**
+     * Updates the panels of several classes by name.
+     */
+    private void updateClasses(Set<String> names)
+    {
+        for(String name : names)
+        {
+            updateClass(name, name);
         }
     }
 
@@ -860,12 +1421,6 @@ public class Controller implements IController
     private void prepGUI()
     {
         //If there are panels on the GUI, get red of them to prep for the new load.
-        if(view.getPanels() != null)
-        {
-            for(Map.Entry<String, JPanel> entry : view.getPanels().entrySet())
-            {
-                view.deleteClass(entry.getKey());
-            }
-        }
+        view.clearClasses();
     }
-}
\ No newline at end of file
+}
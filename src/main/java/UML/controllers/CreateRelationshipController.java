@@ -25,6 +25,9 @@ public class CreateRelationshipController implements ActionListener {
     @Override
     public void actionPerformed(ActionEvent e) 
     {
+        //Nothing can be edited while a diagram is being saved or loaded.
+        if(controller.isBusy())
+            return;
         String cmd = e.getActionCommand();
         String[] cmdArr = cmd.split(" ");
         String className = cmdArr[1];
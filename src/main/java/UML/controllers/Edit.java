@@ -0,0 +1,41 @@
+package UML.controllers;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/17/2026
+    Purpose: A single reversible change to the store, used for undo and redo.
+ */
+import java.util.function.Consumer;
+import UML.model.Store;
+
+public class Edit
+{
+    // Puts the store back the way it was before the change.
+    private Consumer<Store> undo;
+    // Applies the change to the store again.
+    private Consumer<Store> redo;
+
+    /**
+     * Constructs an edit from the actions that reverse and reapply it.
+     */
+    public Edit(Consumer<Store> undo, Consumer<Store> redo)
+    {
+        this.undo = undo;
+        this.redo = redo;
+    }
+
+    /**
+     * Reverses the edit on the given store.
+     */
+    public void undo(Store store)
+    {
+        undo.accept(store);
+    }
+
+    /**
+     * Reapplies the edit on the given store.
+     */
+    public void redo(Store store)
+    {
+        redo.accept(store);
+    }
+}
@@ -34,6 +34,9 @@ public class EditFieldController implements ActionListener
     @Override
     public void actionPerformed(ActionEvent e) 
     {
+        //Nothing can be edited while a diagram is being saved or loaded.
+        if(controller.isBusy())
+            return;
         String cmd = e.getActionCommand();
         String[] cmdArr = cmd.split(" ");
         String className = cmdArr[1];
@@ -0,0 +1,1039 @@
+package UML.controllers;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/17/2026
+    Purpose: A write ahead journal of every change made to the store since the diagram was last saved, so the
+    changes survive a crash. The store calls the same IStore method on the journal after each change. The
+    journal encodes the change as a small record right away, so its cost depends only on the size of the
+    change. A background thread appends the records to the file and syncs them to disk in batches. On the
+    next start, recover() loads the saved file the journal names and replays the records over it. Saving,
+    or compacting a journal that has grown large, writes the whole diagram and starts the journal again. A
+    compaction that fails leaves the journal as it was, and the controller shows the problem at the next edit.
+    *   "UMLJ" version(1 byte) baseFile(string) baseSize(long) baseModified(long)
+    *   records: length(varint) (operation arguments...) crc32(int)
+    Strings are a varint length and utf8 bytes. Numbers are zigzag varints. Longs and the crc are 8 and
+    4 bytes, high byte first. A record that is cut short or fails its crc ends the journal, since it is
+    the one that was being written when the program stopped. A whole class, as a load or an undo puts back,
+    keeps the parts it hasn't loaded yet from a mapped file as the file and where they are in it, so
+    journaling a diagram that was just opened costs no more than opening it did.
+ */
+import java.awt.Dimension;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.CRC32;
+
+import org.json.simple.parser.ParseException;
+
+import UML.model.Class;
+import UML.model.ClassSource;
+import UML.model.Field;
+import UML.model.IStore;
+import UML.model.Method;
+import UML.model.Parameter;
+import UML.model.RelationshipType;
+import UML.model.Snapshot;
+import UML.model.Store;
+
+public class EditJournal implements IStore, Closeable
+{
+    // The bytes every journal starts with.
+    static final byte[] MAGIC = {'U', 'M', 'L', 'J'};
+    static final int VERSION = 2;
+    // The least time between two syncs of the file, so changes made in quick succession share one sync.
+    static final long SYNC_MILLIS = 50;
+    // How many bytes of records make the journal worth compacting into the saved file.
+    static final long COMPACT_BYTES = 1 << 20;
+
+    // The operations, one per IStore method.
+    private static final int ADD_CLASS = 1;
+    private static final int DELETE_CLASS = 2;
+    private static final int RENAME_CLASS = 3;
+    private static final int MOVE_CLASS = 4;
+    private static final int ADD_CLASSES = 5;
+    private static final int RESTORE_CLASS = 6;
+    private static final int SET_CLASSES = 7;
+    private static final int ADD_FIELD = 8;
+    private static final int RENAME_FIELD = 9;
+    private static final int DELETE_FIELD = 10;
+    private static final int CHANGE_FIELD_TYPE = 11;
+    private static final int CHANGE_FIELD_ACCESS = 12;
+    private static final int ADD_METHOD = 13;
+    private static final int DELETE_METHOD = 14;
+    private static final int RENAME_METHOD = 15;
+    private static final int CHANGE_METHOD_TYPE = 16;
+    private static final int CHANGE_METHOD_ACCESS = 17;
+    private static final int ADD_PARAM = 18;
+    private static final int DELETE_PARAM = 19;
+    private static final int ADD_RELATIONSHIP = 20;
+    private static final int DELETE_RELATIONSHIP = 21;
+    private static final int REMOVE_RELATIONSHIPS = 22;
+
+    // The journal file, which stays locked while it is open so a second window can't write to it too.
+    private File file;
+    private FileChannel channel;
+    private FileLock lock;
+    // The saved file the records apply to, or null if the diagram has never been saved.
+    private File baseFile;
+    // True if the saved file changed since the journal started, so the records no longer apply to it.
+    private boolean stale;
+    // The records found when the journal was opened, until recover() replays them.
+    private ArrayList<byte[]> found;
+    // The bytes of records since the journal last started, to tell when it is worth compacting.
+    private long recordBytes;
+
+    // The work for the writer thread, in the order it was asked for.
+    private LinkedBlockingQueue<Task> queue;
+    private Thread writer;
+    // How many tasks have been queued, and how many of those the writer has finished.
+    private long queued;
+    private long finished;
+    // Why the writer stopped, if it failed. Nothing more is journaled after that.
+    private IOException failure;
+    // Whether the failure has been reported, so it is only reported once.
+    private boolean failureReported;
+    // Why the last compaction failed, until it is reported. The journal goes on from the saved file it had.
+    private IOException compactFailure;
+    private boolean closed;
+
+    /**
+     * One piece of work for the writer thread: a record to append, or starting the journal again from a
+     * saved file, first writing a snapshot to that file if there is one.
+     */
+    private static class Task
+    {
+        byte[] record;
+        File base;
+        Snapshot snapshot;
+        boolean close;
+    }
+
+    /**
+     * Opens the journal in the given file, creating it if needed, and reads the records already in it.
+     * Throws an IOException if another window has the journal open.
+     */
+    public EditJournal(File file) throws IOException
+    {
+        this.file = file.getAbsoluteFile();
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try
+        {
+            lock = channel.tryLock();
+        }
+        catch(OverlappingFileLockException e)
+        {
+            //Another window in this same program has it.
+            lock = null;
+        }
+        if(lock == null)
+        {
+            channel.close();
+            throw new IOException("The edit journal " + file + " is in use by another window.");
+        }
+        found = new ArrayList<byte[]>();
+        ByteBuffer in = ByteBuffer.allocate((int)channel.size());
+        channel.read(in, 0);
+        in.flip();
+        if(readHeader(in))
+        {
+            long end = readRecords(in);
+            channel.truncate(end);
+            channel.position(end);
+        }
+        else
+            writeHeader(null);
+
+        queue = new LinkedBlockingQueue<Task>();
+        writer = new Thread(this::writeLoop, "Edit journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Returns where the journal is kept when the editor is started normally, before any diagram is saved or loaded.
+     */
+    public static File defaultFile()
+    {
+        return fileFor(null);
+    }
+
+    /**
+     * Returns where the journal of a diagram saved in the given file is kept: beside it, so every diagram has
+     * a journal of its own. A diagram that has never been saved, given as null, keeps it in the home directory.
+     */
+    public static File fileFor(File saved)
+    {
+        if(saved == null)
+            return new File(System.getProperty("user.home"), ".uml-editor.journal");
+        File absolute = saved.getAbsoluteFile();
+        return new File(absolute.getParentFile(), "." + absolute.getName() + ".journal");
+    }
+
+    /**
+     * Returns the file the journal is kept in.
+     */
+    public File getFile()
+    {
+        return file;
+    }
+
+    /**
+     * Returns the saved file the journal's records apply to, or null if there is none.
+     */
+    public File getBaseFile()
+    {
+        return baseFile;
+    }
+
+    /**
+     * Puts the changes found in the journal when it was opened into the given empty store, on top of the
+     * saved file they apply to. Returns how many changes were replayed. Nothing is replayed, and the store
+     * is left alone, if there were none or the saved file has changed since, in which case they are dropped
+     * when the journal starts again. The journal keeps the replayed changes until the diagram is saved.
+     */
+    public int recover(Store store) throws IOException, ParseException
+    {
+        ArrayList<byte[]> records = found;
+        found = new ArrayList<byte[]>();
+        if(records.isEmpty() || stale)
+            return 0;
+        if(baseFile != null)
+            new SaveAndLoad(store, null, null).load(baseFile.getPath());
+        //The diagram files that classes in the records are still kept in, mapped once each.
+        HashMap<String, MappedDiagram> files = new HashMap<String, MappedDiagram>();
+        for(byte[] record : records)
+        {
+            try
+            {
+                replay(store, ByteBuffer.wrap(record), files);
+            }
+            catch(BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e)
+            {
+                throw new IOException("The edit journal is damaged.", e);
+            }
+        }
+        return records.size();
+    }
+
+    /**
+     * Starts the journal again from the given saved file, or from nothing if it is null, dropping every
+     * record so far. Call it once the store has been saved to or loaded from that file.
+     */
+    public void start(File base)
+    {
+        Task task = new Task();
+        task.base = base;
+        synchronized(this)
+        {
+            baseFile = base;
+            recordBytes = 0;
+        }
+        enqueue(task);
+    }
+
+    /**
+     * Returns whether enough has been journaled that the diagram is worth saving to its file again.
+     * A diagram that has never been saved has no file, so it is never compacted.
+     */
+    public synchronized boolean needsCompaction()
+    {
+        return baseFile != null && recordBytes >= COMPACT_BYTES;
+    }
+
+    /**
+     * Writes a snapshot of the store to the journal's saved file in the background, then starts the journal
+     * again from it. If the file can't be written, the journal goes on keeping every record since it last
+     * started, and takeProblem() reports it.
+     */
+    public void compact(Snapshot snapshot)
+    {
+        Task task = new Task();
+        task.snapshot = snapshot;
+        synchronized(this)
+        {
+            task.base = baseFile;
+            recordBytes = 0;
+        }
+        if(task.base != null)
+            enqueue(task);
+    }
+
+    /**
+     * Waits until everything journaled so far is on disk, including any compaction in progress.
+     */
+    public synchronized void flush() throws IOException
+    {
+        long target = queued;
+        try
+        {
+            while(finished < target && failure == null && writer.isAlive())
+                wait();
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        if(failure != null)
+        {
+            failureReported = true;
+            throw new IOException("The edit journal could not be written.", failure);
+        }
+    }
+
+    /**
+     * Returns what has gone wrong on the writer thread since this was last asked, or null if nothing has.
+     * That is either a compaction that failed, after which the journal carries on as before, or the journal
+     * failing to be written, after which nothing more is kept in it. Each is only returned once.
+     */
+    public synchronized IOException takeProblem()
+    {
+        if(failure != null && !failureReported)
+        {
+            failureReported = true;
+            return new IOException("The edit journal could not be written, so edits are no longer kept in case of a crash: "
+                + failure.getMessage(), failure);
+        }
+        IOException problem = compactFailure;
+        compactFailure = null;
+        return problem;
+    }
+
+    /**
+     * Writes out what is left, then closes and unlocks the journal file. The records stay in it.
+     */
+    @Override
+    public void close()
+    {
+        Task task = new Task();
+        task.close = true;
+        synchronized(this)
+        {
+            if(closed)
+                return;
+            enqueue(task);
+            closed = true;
+        }
+        try
+        {
+            writer.join();
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        try
+        {
+            channel.close();
+        }
+        catch(IOException e)
+        {
+            //The records were already synced, so nothing is lost.
+        }
+    }
+
+    /**
+     * Queues work for the writer, unless the journal is closed or has failed.
+     */
+    private synchronized void enqueue(Task task)
+    {
+        if(closed || failure != null)
+            return;
+        queued++;
+        queue.add(task);
+    }
+
+    /**
+     * Queues a finished record.
+     */
+    private void append(Record record)
+    {
+        Task task = new Task();
+        task.record = record.toByteArray();
+        synchronized(this)
+        {
+            recordBytes += task.record.length;
+        }
+        enqueue(task);
+    }
+
+//================================================================================================================================================
+//The writer thread
+//================================================================================================================================================
+
+    /**
+     * Appends the queued records, syncing once for every batch of them that comes in.
+     */
+    private void writeLoop()
+    {
+        ArrayList<Task> batch = new ArrayList<Task>();
+        long lastSync = 0;
+        boolean closing = false;
+        try
+        {
+            while(!closing)
+            {
+                batch.add(queue.take());
+                //Wait out the rest of the sync interval so that changes made meanwhile share the sync.
+                long wait = lastSync + SYNC_MILLIS - System.currentTimeMillis();
+                if(wait > 0)
+                    Thread.sleep(wait);
+                queue.drainTo(batch);
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                for(Task task : batch)
+                {
+                    if(task.record != null)
+                    {
+                        frame(out, task.record);
+                        continue;
+                    }
+                    writeOut(out);
+                    if(task.close)
+                        closing = true;
+                    else
+                    {
+                        if(task.snapshot != null)
+                        {
+                            try
+                            {
+                                SaveAndLoad saver = new SaveAndLoad(null, null, null);
+                                saver.setSnapshot(task.snapshot);
+                                saver.save(task.base.getPath());
+                            }
+                            catch(IOException | RuntimeException e)
+                            {
+                                //A save replaces the file only once it is whole, so the records still apply to it.
+                                compactFailed(task.base, e);
+                                continue;
+                            }
+                        }
+                        writeHeader(task.base);
+                    }
+                }
+                writeOut(out);
+                channel.force(false);
+                lastSync = System.currentTimeMillis();
+                finish(batch.size());
+                batch.clear();
+            }
+        }
+        catch(IOException e)
+        {
+            fail(e);
+        }
+        catch(InterruptedException e)
+        {
+            //Only happens if the program is stopping anyway.
+        }
+    }
+
+    /**
+     * Writes the records gathered so far to the end of the file.
+     */
+    private void writeOut(ByteArrayOutputStream out) throws IOException
+    {
+        ByteBuffer bytes = ByteBuffer.wrap(out.toByteArray());
+        while(bytes.hasRemaining())
+            channel.write(bytes);
+        out.reset();
+    }
+
+    /**
+     * Empties the file and writes the header for records that apply to the given saved file.
+     */
+    private void writeHeader(File base) throws IOException
+    {
+        Record header = new Record();
+        header.write(MAGIC, 0, MAGIC.length);
+        header.write(VERSION);
+        header.string(base == null ? "" : base.getAbsolutePath());
+        header.longValue(base == null ? 0 : base.length());
+        header.longValue(base == null ? 0 : base.lastModified());
+        channel.truncate(0);
+        channel.position(0);
+        writeOut(header);
+        channel.force(false);
+    }
+
+    /**
+     * Adds the length and crc to a record.
+     */
+    private static void frame(ByteArrayOutputStream out, byte[] record)
+    {
+        Record.varint(out, record.length);
+        out.write(record, 0, record.length);
+        CRC32 crc = new CRC32();
+        crc.update(record);
+        long value = crc.getValue();
+        for(int shift = 24; shift >= 0; shift -= 8)
+            out.write((int)(value >>> shift));
+    }
+
+    private synchronized void finish(int tasks)
+    {
+        finished += tasks;
+        notifyAll();
+    }
+
+    private synchronized void fail(IOException e)
+    {
+        failure = e;
+        notifyAll();
+    }
+
+    private synchronized void compactFailed(File base, Exception e)
+    {
+        compactFailure = new IOException("The edits could not be compacted into " + base
+            + ", so the edit journal keeps them instead: " + e.getMessage(), e);
+    }
+
+//================================================================================================================================================
+//Reading
+//================================================================================================================================================
+
+    /**
+     * Reads the header, returning false if the file doesn't start with one.
+     */
+    private boolean readHeader(ByteBuffer in)
+    {
+        try
+        {
+            for(byte b : MAGIC)
+            {
+                if(in.get() != b)
+                    return false;
+            }
+            if(in.get() != VERSION)
+                return false;
+            String base = readString(in);
+            long size = in.getLong();
+            long modified = in.getLong();
+            baseFile = base.isEmpty() ? null : new File(base);
+            stale = baseFile != null && (!baseFile.isFile() || baseFile.length() != size || baseFile.lastModified() != modified);
+            return true;
+        }
+        catch(BufferUnderflowException | IllegalArgumentException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Reads records up to the end of the file or the first damaged one. Returns where the good ones end.
+     */
+    private long readRecords(ByteBuffer in)
+    {
+        long end = in.position();
+        try
+        {
+            while(in.hasRemaining())
+            {
+                byte[] record = new byte[readVarint(in)];
+                in.get(record);
+                CRC32 crc = new CRC32();
+                crc.update(record);
+                if(in.getInt() != (int)crc.getValue())
+                    break;
+                found.add(record);
+                recordBytes += record.length;
+                end = in.position();
+            }
+        }
+        catch(BufferUnderflowException | IllegalArgumentException | NegativeArraySizeException e)
+        {
+            //A record cut short by the crash. Everything before it is good.
+        }
+        return end;
+    }
+
+    /**
+     * Applies one record to the store.
+     */
+    private static void replay(Store store, ByteBuffer in, Map<String, MappedDiagram> files) throws IOException
+    {
+        int operation = in.get();
+        switch(operation)
+        {
+            case ADD_CLASS:
+                store.addClass(readString(in));
+                break;
+            case DELETE_CLASS:
+                store.deleteClass(readString(in));
+                break;
+            case RENAME_CLASS:
+                store.renameClass(readString(in), readString(in));
+                break;
+            case MOVE_CLASS:
+                store.moveClass(readString(in), readSigned(in), readSigned(in));
+                break;
+            case ADD_CLASSES:
+                store.addClasses(readClasses(in, files));
+                break;
+            case RESTORE_CLASS:
+                store.restoreClass(readClass(in, files), readSigned(in));
+                break;
+            case SET_CLASSES:
+                store.setClassStore(readClasses(in, files));
+                break;
+            case ADD_FIELD:
+                store.addField(readString(in), readString(in), readString(in), readString(in));
+                break;
+            case RENAME_FIELD:
+                store.renameField(readString(in), readString(in), readString(in));
+                break;
+            case DELETE_FIELD:
+                store.deleteField(readString(in), readString(in));
+                break;
+            case CHANGE_FIELD_TYPE:
+                store.changeFieldType(readString(in), readString(in), readString(in));
+                break;
+            case CHANGE_FIELD_ACCESS:
+                store.changeFieldAccess(readString(in), readString(in), readString(in));
+                break;
+            case ADD_METHOD:
+                store.addMethod(readString(in), readString(in), readString(in), readStrings(in), readString(in));
+                break;
+            case DELETE_METHOD:
+                store.deleteMethod(readString(in), readString(in), readString(in), readStrings(in), readString(in));
+                break;
+            case RENAME_METHOD:
+                store.renameMethod(readString(in), readString(in), readString(in), readStrings(in), readString(in), readString(in));
+                break;
+            case CHANGE_METHOD_TYPE:
+                store.changeMethodType(readString(in), readString(in), readString(in), readStrings(in), readString(in), readString(in));
+                break;
+            case CHANGE_METHOD_ACCESS:
+                store.changeMethodAccess(readString(in), readString(in), readString(in), readStrings(in), readString(in), readString(in));
+                break;
+            case ADD_PARAM:
+                store.addParam(readString(in), readString(in), readString(in), readStrings(in), readString(in), readString(in), readString(in));
+                break;
+            case DELETE_PARAM:
+                store.deleteParam(readString(in), readString(in), readString(in), readStrings(in), readString(in), readString(in), readString(in));
+                break;
+            case ADD_RELATIONSHIP:
+                store.addRelationship(readString(in), readString(in), RelationshipType.values()[in.get()]);
+                break;
+            case DELETE_RELATIONSHIP:
+                store.deleteRelationship(readString(in), readString(in));
+                break;
+            case REMOVE_RELATIONSHIPS:
+                Class aClass = store.findClass(readString(in));
+                if(aClass != null)
+                    store.removeRelationships(aClass);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown change " + operation + " in the edit journal.");
+        }
+    }
+
+    private static ArrayList<Class> readClasses(ByteBuffer in, Map<String, MappedDiagram> files) throws IOException
+    {
+        int count = readVarint(in);
+        ArrayList<Class> classes = new ArrayList<Class>(count);
+        for(int aClass = 0; aClass < count; aClass++)
+            classes.add(readClass(in, files));
+        return classes;
+    }
+
+    /**
+     * Reads a whole class as Record.aClass wrote it. The parts still in a mapped file are opened from that
+     * file, which is mapped once for all the records in files.
+     */
+    private static Class readClass(ByteBuffer in, Map<String, MappedDiagram> files) throws IOException
+    {
+        String name = readString(in);
+        int x = readSigned(in);
+        Dimension location = new Dimension(x, readSigned(in));
+        Class aClass;
+        int[] pending = null;
+        if(in.get() == 0)
+            aClass = new Class(name);
+        else
+        {
+            String path = readString(in);
+            long size = in.getLong();
+            long modified = in.getLong();
+            pending = new int[] {readSigned(in), readSigned(in)};
+            MappedDiagram diagram = files.get(path);
+            if(diagram == null)
+            {
+                diagram = MappedDiagram.open(new File(path), size, modified);
+                files.put(path, diagram);
+            }
+            aClass = diagram.openClass(name, location, pending[0], pending[1]);
+        }
+        aClass.setLocation(location);
+        if(pending == null || pending[0] < 0)
+        {
+            int fieldCount = readVarint(in);
+            for(int count = 0; count < fieldCount; count++)
+            {
+                String access = readString(in);
+                String type = readString(in);
+                aClass.getFields().add(new Field(type, readString(in), access));
+            }
+            int methodCount = readVarint(in);
+            for(int count = 0; count < methodCount; count++)
+            {
+                String access = readString(in);
+                String type = readString(in);
+                String methodName = readString(in);
+                int paramCount = readVarint(in);
+                ArrayList<Parameter> params = new ArrayList<Parameter>(paramCount);
+                for(int param = 0; param < paramCount; param++)
+                {
+                    String paramType = readString(in);
+                    params.add(new Parameter(paramType, readString(in)));
+                }
+                aClass.getMethods().add(new Method(type, methodName, params, access));
+            }
+        }
+        if(pending == null || pending[1] < 0)
+        {
+            readRelationships(in, aClass.getRelationshipsToOther());
+            readRelationships(in, aClass.getRelationshipsFromOther());
+        }
+        return aClass;
+    }
+
+    private static void readRelationships(ByteBuffer in, Map<String, RelationshipType> relationships)
+    {
+        int count = readVarint(in);
+        for(int relation = 0; relation < count; relation++)
+        {
+            String other = readString(in);
+            relationships.put(other, RelationshipType.values()[in.get()]);
+        }
+    }
+
+    private static ArrayList<String> readStrings(ByteBuffer in)
+    {
+        int count = readVarint(in);
+        ArrayList<String> strings = new ArrayList<String>(count);
+        for(int string = 0; string < count; string++)
+            strings.add(readString(in));
+        return strings;
+    }
+
+    private static String readString(ByteBuffer in)
+    {
+        byte[] bytes = new byte[readVarint(in)];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a zigzag encoded number that may be negative.
+     */
+    private static int readSigned(ByteBuffer in)
+    {
+        int value = readVarint(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Reads a number written seven bits at a time, low bits first.
+     */
+    private static int readVarint(ByteBuffer in)
+    {
+        int value = 0;
+        for(int shift = 0; shift < 32; shift += 7)
+        {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if(b >= 0)
+                return value;
+        }
+        throw new IllegalArgumentException("A number in the edit journal is too long.");
+    }
+
+//================================================================================================================================================
+//Recording each change
+//================================================================================================================================================
+
+    /**
+     * A record being encoded. Each method adds to it and returns it.
+     */
+    private static class Record extends ByteArrayOutputStream
+    {
+        Record()
+        {
+            super(32);
+        }
+
+        Record(int operation)
+        {
+            this();
+            write(operation);
+        }
+
+        Record string(String string)
+        {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            varint(this, bytes.length);
+            write(bytes, 0, bytes.length);
+            return this;
+        }
+
+        Record strings(ArrayList<String> strings)
+        {
+            varint(this, strings.size());
+            for(String string : strings)
+                string(string);
+            return this;
+        }
+
+        Record number(int value)
+        {
+            varint(this, (value << 1) ^ (value >> 31));
+            return this;
+        }
+
+        Record longValue(long value)
+        {
+            for(int shift = 56; shift >= 0; shift -= 8)
+                write((int)(value >>> shift));
+            return this;
+        }
+
+        Record classes(ArrayList<Class> classes)
+        {
+            varint(this, classes.size());
+            for(Class aClass : classes)
+                aClass(aClass);
+            return this;
+        }
+
+        /**
+         * Adds a whole class, with its location, members and both relationship maps. The parts of a class
+         * opened from a mapped file that haven't been loaded yet are added as where they are in the file
+         * instead, so recording the class doesn't load them.
+         */
+        Record aClass(Class aClass)
+        {
+            string(aClass.getName());
+            number((int)aClass.getLocation().getWidth());
+            number((int)aClass.getLocation().getHeight());
+            ClassSource source = aClass.getSource();
+            int[] pending = source instanceof MappedDiagram ? ((MappedDiagram)source).pendingOffsets(aClass) : null;
+            if(pending == null)
+                write(0);
+            else
+            {
+                MappedDiagram diagram = (MappedDiagram)source;
+                write(1);
+                string(diagram.getFile().getPath()).longValue(diagram.getFileSize()).longValue(diagram.getFileModified());
+                number(pending[0]).number(pending[1]);
+            }
+            if(pending == null || pending[0] < 0)
+            {
+                varint(this, aClass.getFields().size());
+                for(Field f : aClass.getFields())
+                    string(f.getAccessString()).string(f.getType()).string(f.getName());
+                varint(this, aClass.getMethods().size());
+                for(Method m : aClass.getMethods())
+                {
+                    string(m.getAccessString()).string(m.getType()).string(m.getName());
+                    varint(this, m.getParams().size());
+                    for(Parameter p : m.getParams())
+                        string(p.getType()).string(p.getName());
+                }
+            }
+            if(pending == null || pending[1] < 0)
+            {
+                relationships(aClass.getRelationshipsToOther());
+                relationships(aClass.getRelationshipsFromOther());
+            }
+            return this;
+        }
+
+        private void relationships(Map<String, RelationshipType> relationships)
+        {
+            varint(this, relationships.size());
+            for(Map.Entry<String, RelationshipType> relation : relationships.entrySet())
+            {
+                string(relation.getKey());
+                write(relation.getValue().ordinal());
+            }
+        }
+
+        /**
+         * Writes a number seven bits at a time, low bits first, with the top bit set on all but the last byte.
+         */
+        static void varint(ByteArrayOutputStream out, int value)
+        {
+            while((value & ~0x7F) != 0)
+            {
+                out.write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.write(value);
+        }
+    }
+
+    @Override
+    public boolean addClass(String name)
+    {
+        append(new Record(ADD_CLASS).string(name));
+        return true;
+    }
+
+    @Override
+    public boolean deleteClass(String name)
+    {
+        append(new Record(DELETE_CLASS).string(name));
+        return true;
+    }
+
+    @Override
+    public boolean renameClass(String oldName, String newName)
+    {
+        append(new Record(RENAME_CLASS).string(oldName).string(newName));
+        return true;
+    }
+
+    @Override
+    public boolean moveClass(String name, int x, int y)
+    {
+        append(new Record(MOVE_CLASS).string(name).number(x).number(y));
+        return true;
+    }
+
+    @Override
+    public boolean addClasses(ArrayList<Class> classes)
+    {
+        append(new Record(ADD_CLASSES).classes(classes));
+        return true;
+    }
+
+    @Override
+    public boolean restoreClass(Class aClass, int index)
+    {
+        append(new Record(RESTORE_CLASS).aClass(aClass).number(index));
+        return true;
+    }
+
+    @Override
+    public void setClassStore(ArrayList<Class> newStore)
+    {
+        append(new Record(SET_CLASSES).classes(newStore));
+    }
+
+    @Override
+    public boolean addField(String className, String type, String name, String access)
+    {
+        append(new Record(ADD_FIELD).string(className).string(type).string(name).string(access));
+        return true;
+    }
+
+    @Override
+    public boolean renameField(String className, String oldName, String newName)
+    {
+        append(new Record(RENAME_FIELD).string(className).string(oldName).string(newName));
+        return true;
+    }
+
+    @Override
+    public boolean deleteField(String className, String name)
+    {
+        append(new Record(DELETE_FIELD).string(className).string(name));
+        return true;
+    }
+
+    @Override
+    public boolean changeFieldType(String className, String name, String newType)
+    {
+        append(new Record(CHANGE_FIELD_TYPE).string(className).string(name).string(newType));
+        return true;
+    }
+
+    @Override
+    public boolean changeFieldAccess(String className, String name, String newAccess)
+    {
+        append(new Record(CHANGE_FIELD_ACCESS).string(className).string(name).string(newAccess));
+        return true;
+    }
+
+    @Override
+    public boolean addMethod(String className, String type, String name, ArrayList<String> params, String access)
+    {
+        append(new Record(ADD_METHOD).string(className).string(type).string(name).strings(params).string(access));
+        return true;
+    }
+
+    @Override
+    public boolean deleteMethod(String className, String type, String name, ArrayList<String> params, String access)
+    {
+        append(new Record(DELETE_METHOD).string(className).string(type).string(name).strings(params).string(access));
+        return true;
+    }
+
+    @Override
+    public boolean renameMethod(String className, String type, String name, ArrayList<String> params, String access, String newName)
+    {
+        append(new Record(RENAME_METHOD).string(className).string(type).string(name).strings(params).string(access).string(newName));
+        return true;
+    }
+
+    @Override
+    public boolean changeMethodType(String className, String type, String name, ArrayList<String> params, String access, String newType)
+    {
+        append(new Record(CHANGE_METHOD_TYPE).string(className).string(type).string(name).strings(params).string(access).string(newType));
+        return true;
+    }
+
+    @Override
+    public boolean changeMethodAccess(String className, String type, String name, ArrayList<String> params, String access, String newAccess)
+    {
+        append(new Record(CHANGE_METHOD_ACCESS).string(className).string(type).string(name).strings(params).string(access).string(newAccess));
+        return true;
+    }
+
+    @Override
+    public boolean addParam(String className, String methodType, String methodName, ArrayList<String> params, String access, String paramType, String paramName)
+    {
+        append(new Record(ADD_PARAM).string(className).string(methodType).string(methodName).strings(params).string(access).string(paramType).string(paramName));
+        return true;
+    }
+
+    @Override
+    public boolean deleteParam(String className, String methodType, String methodName, ArrayList<String> params, String access, String paramType, String paramName)
+    {
+        append(new Record(DELETE_PARAM).string(className).string(methodType).string(methodName).strings(params).string(access).string(paramType).string(paramName));
+        return true;
+    }
+
+    @Override
+    public boolean addRelationship(String classFrom, String classTo, RelationshipType relation)
+    {
+        Record record = new Record(ADD_RELATIONSHIP).string(classFrom).string(classTo);
+        record.write(relation.ordinal());
+        append(record);
+        return true;
+    }
+
+    @Override
+    public boolean deleteRelationship(String classFrom, String classTo)
+    {
+        append(new Record(DELETE_RELATIONSHIP).string(classFrom).string(classTo));
+        return true;
+    }
+
+    @Override
+    public void removeRelationships(Class aClass)
+    {
+        append(new Record(REMOVE_RELATIONSHIPS).string(aClass.getName()));
+    }
+}
@@ -9,8 +9,6 @@ import UML.views.*;
 
 import UML.model.Store;
 import java.io.File;
-import java.io.IOException;
-import org.json.simple.parser.ParseException;
 
 public class FileClickController implements ActionListener {
 	private Store store;
@@ -26,56 +24,42 @@ public class FileClickController implements ActionListener {
 	public void actionPerformed(ActionEvent e)
 	{
 		String cmd = e.getActionCommand();
+		//Saving and loading run in the background, with their progress shown in the file menu.
 		if (cmd.equals("Save")) 
 		{
-			try
+			File currentLoadedFile = store.getCurrentLoadedFile();
+		
+			// If there is a currently loaded file.
+			if (currentLoadedFile != null) 
 			{
-				File currentLoadedFile = store.getCurrentLoadedFile();
-			
-				// Save contents to file...will require JSON save.
-				// If there is a currently loaded file.
-				if (currentLoadedFile != null) 
-				{
-					controller.save(currentLoadedFile.getName());
-				} 
-				else 
-				{
-					String fileName = view.save();
-					controller.save(fileName);
-				}
-			}
-			catch(IOException io)
+				controller.saveInBackground(currentLoadedFile.getName());
+			} 
+			else 
 			{
-				view.showError("IOException found");
+				saveAs();
 			}
 		} 
 		else if (cmd.equals("SaveAs")) 
 		{
-			try
-			{
-				String fileName = view.save();
-				controller.save(fileName);
-			}
-			catch(IOException io)
-			{
-				view.showError("IOException found");
-			}
+			saveAs();
 		} 
 		else if (cmd.equals("Load")) 
 		{
-			try
-			{
-				String fileName = view.load();
-				controller.load(fileName);
-			}
-			catch(IOException io)
-			{
-				view.showError("IOException found");
-			}
-			catch(ParseException pe)
-			{
-				view.showError("IOException found");
-			}
+			String fileName = view.load();
+			controller.loadInBackground(fileName);
+		}
+		else if (cmd.equals("Cancel"))
+		{
+			controller.cancelBackground();
 		}
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Saves under a name the user picks.
+	 */
+	private void saveAs()
+	{
+		String fileName = view.save();
+		controller.saveInBackground(fileName);
+	}
+}
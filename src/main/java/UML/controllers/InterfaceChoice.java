@@ -80,6 +80,7 @@ public class InterfaceChoice
                     View v = new CommandlineView();
                     Controller c = new Controller(s, v);
                     window.setVisible(false);
+                    c.openJournal(EditJournal.defaultFile());
                     CLI cli = new CLI(s, v, c);
                 }
                 else
@@ -90,6 +91,7 @@ public class InterfaceChoice
                     window.setVisible(false);
                     v.start();
                     c.addListeners();
+                    c.openJournal(EditJournal.defaultFile());
                 }
             }
             else 
@@ -36,6 +36,7 @@ public class InterfaceChoiceClickController implements ActionListener
                 Store s = new Store();
                 CommandlineView v = new CommandlineView();
                 Controller c = new Controller(s, v);
+                c.openJournal(EditJournal.defaultFile());
                 //Opens the CLI version of the app.
                 CLI cli = new CLI(s, v, c);
              }
@@ -48,6 +49,7 @@ public class InterfaceChoiceClickController implements ActionListener
                 //Opens the CLI version of the app.
                 v.start();
                 c.addListeners();
+                c.openJournal(EditJournal.defaultFile());
                 controller.setGUIExists();
             }
         }
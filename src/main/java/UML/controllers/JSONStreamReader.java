@@ -0,0 +1,216 @@
+package UML.controllers;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/17/2026
+    Purpose: Loads a diagram saved in the Classes format one token at a time. Each class is built as soon
+    as its object ends, so the whole document is never held in memory. The classes then go into the store in one batch.
+ */
+import org.json.simple.parser.ContentHandler;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.awt.Dimension;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import UML.model.Class;
+import UML.model.Field;
+import UML.model.Method;
+import UML.model.Parameter;
+import UML.model.RelationshipType;
+import UML.model.Store;
+import UML.model.Symbols;
+
+public class JSONStreamReader implements ContentHandler
+{
+    // The store the classes are loaded into.
+    private Store store;
+    // How many objects deep the parser is. The document is 1 and each class is 2.
+    private int depth;
+    // True while the parser is inside the top level Classes array.
+    private boolean inClasses;
+    // The key of the class entry being read.
+    private String key;
+    // The name of the class being read.
+    private String className;
+    // The strings of each array in the class being read, keyed by the array name.
+    private Map<String, ArrayList<String>> values;
+    // The classes read so far, added to the store together at the end.
+    private ArrayList<Class> classes;
+
+    /**
+     * Constructs a reader that loads into the given store.
+     */
+    public JSONStreamReader(Store store)
+    {
+        this.store = store;
+        values = new HashMap<String, ArrayList<String>>();
+        classes = new ArrayList<Class>();
+    }
+
+    /**
+     * Reads a whole document from the reader into the store.
+     */
+    public void read(Reader in) throws IOException, ParseException
+    {
+        new JSONParser().parse(in, this);
+    }
+
+    @Override
+    public void startJSON()
+    {
+        depth = 0;
+        inClasses = false;
+        classes.clear();
+    }
+
+    @Override
+    public void endJSON()
+    {
+        //The store checks for duplicates and links the relationships in one go.
+        store.addClasses(classes);
+        classes.clear();
+    }
+
+    @Override
+    public boolean startObject()
+    {
+        depth++;
+        if(depth == 2 && inClasses)
+        {
+            className = null;
+            values.clear();
+        }
+        return true;
+    }
+
+    @Override
+    public boolean endObject()
+    {
+        if(depth == 2 && inClasses)
+        {
+            loadClass();
+        }
+        depth--;
+        return true;
+    }
+
+    @Override
+    public boolean startObjectEntry(String key)
+    {
+        if(depth == 1)
+            inClasses = key.equals("Classes");
+        else if(depth == 2)
+            this.key = key;
+        return true;
+    }
+
+    @Override
+    public boolean endObjectEntry()
+    {
+        return true;
+    }
+
+    @Override
+    public boolean startArray()
+    {
+        return true;
+    }
+
+    @Override
+    public boolean endArray()
+    {
+        return true;
+    }
+
+    @Override
+    public boolean primitive(Object value)
+    {
+        if(depth == 2 && inClasses)
+        {
+            if(key.equals("ClassName"))
+                className = (String)value;
+            else
+                values.computeIfAbsent(key, k -> new ArrayList<String>()).add((String)value);
+        }
+        return true;
+    }
+
+    /**
+     * Builds the class that was just read, with its fields, methods, relationships and location.
+     */
+    private void loadClass()
+    {
+        Class aClass = new Class(className);
+        for(String field : get("Fields"))
+        {
+            aClass.getFields().add(parseField(field));
+        }
+        for(String method : get("Methods"))
+        {
+            aClass.getMethods().add(parseMethod(method));
+        }
+        for(String relationship : get("RelationshipToOthers"))
+        {
+            String[] parts = relationship.split(" ");
+            aClass.getRelationshipsToOther().put(Symbols.intern(parts[1]), RelationshipType.valueOf(parts[0]));
+        }
+        for(String relationship : get("RelationshipFromOthers"))
+        {
+            String[] parts = relationship.split(" ");
+            aClass.getRelationshipsFromOther().put(Symbols.intern(parts[1]), RelationshipType.valueOf(parts[0]));
+        }
+        ArrayList<String> location = get("Location");
+        if(location.size() == 2)
+            aClass.setLocation(new Dimension(Integer.parseInt(location.get(0)), Integer.parseInt(location.get(1))));
+        classes.add(aClass);
+    }
+
+    /**
+     * Returns the strings of an array in the class being read, or an empty list if it wasn't there.
+     */
+    private ArrayList<String> get(String arrayName)
+    {
+        ArrayList<String> list = values.get(arrayName);
+        return list == null ? new ArrayList<String>() : list;
+    }
+
+    /**
+     * Turns the saved access character into the access name.
+     */
+    private static String accessName(String access)
+    {
+        if(access.equals("-"))
+            return "private";
+        else if(access.equals("*"))
+            return "protected";
+        else
+            return "public";
+    }
+
+    /**
+     * Turns a field saved as "access type name" back into a field.
+     */
+    private static Field parseField(String fieldString)
+    {
+        String[] field = fieldString.split(" ");
+        return new Field(field[1], field[2], accessName(field[0]));
+    }
+
+    /**
+     * Turns a method saved as "access type name[ type name ... ]" back into a method.
+     */
+    private static Method parseMethod(String methodString)
+    {
+        String[] method = methodString.replace("[", "").split(" ");
+        ArrayList<Parameter> params = new ArrayList<Parameter>();
+        for(int count = 3; count < method.length - 1; count += 2)
+        {
+            params.add(new Parameter(method[count], method[count + 1]));
+        }
+        return new Method(method[1], method[2], params, accessName(method[0]));
+    }
+}
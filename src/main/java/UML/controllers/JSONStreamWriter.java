@@ -0,0 +1,144 @@
+package UML.controllers;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/17/2026
+    Purpose: Writes the store in the Classes format straight to a writer, one class at a time,
+    rather than building the whole document as JSON objects first.
+ */
+import org.json.simple.JSONValue;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+
+import UML.model.Field;
+import UML.model.Method;
+import UML.model.Parameter;
+import UML.model.ReadableClass;
+import UML.model.RelationshipType;
+import UML.model.Store;
+
+public class JSONStreamWriter
+{
+    // Where the JSON text goes.
+    private Writer out;
+    // True until the first value of the current array is written, so commas go in the right places.
+    private boolean first;
+    // Advanced once per class written, if anything is following the save.
+    private Progress progress;
+
+    /**
+     * Constructs a writer around the given output. The caller should buffer and close it.
+     */
+    public JSONStreamWriter(Writer out)
+    {
+        this.out = out;
+    }
+
+    /**
+     * Sets what follows how many of the classes have been written.
+     */
+    public void setProgress(Progress progress)
+    {
+        this.progress = progress;
+    }
+
+    /**
+     * Writes every class in the store as one document.
+     */
+    public void write(Store store) throws IOException
+    {
+        write(store.getClassStore());
+    }
+
+    /**
+     * Writes the classes as one document, such as the classes of a snapshot of the store.
+     */
+    public void write(List<? extends ReadableClass> classes) throws IOException
+    {
+        out.write("{\"Classes\":[");
+        boolean firstClass = true;
+        if(progress != null)
+            progress.setTotal(classes.size());
+        for(ReadableClass aClass : classes)
+        {
+            if(!firstClass)
+                out.write(',');
+            firstClass = false;
+            writeClass(aClass);
+            if(progress != null)
+                progress.advance(1);
+        }
+        out.write("]}");
+        out.flush();
+    }
+
+    /**
+     * Writes one class object.
+     */
+    private void writeClass(ReadableClass aClass) throws IOException
+    {
+        out.write("{\"Location\":[");
+        first = true;
+        writeString(Integer.toString((int)aClass.getLocation().getWidth()));
+        writeString(Integer.toString((int)aClass.getLocation().getHeight()));
+
+        out.write("],\"RelationshipFromOthers\":[");
+        writeRelationships(aClass.getRelationshipsFromOther());
+
+        out.write("],\"RelationshipToOthers\":[");
+        writeRelationships(aClass.getRelationshipsToOther());
+
+        out.write("],\"Methods\":[");
+        first = true;
+        for(Method m : aClass.getMethods())
+        {
+            StringBuilder method = new StringBuilder();
+            method.append(m.getAccessChar()).append(' ').append(m.getType()).append(' ').append(m.getName()).append("[ ");
+            for(Parameter p : m.getParams())
+            {
+                method.append(p.getType()).append(' ').append(p.getName()).append(' ');
+            }
+            method.append(']');
+            writeString(method.toString());
+        }
+
+        out.write("],\"Fields\":[");
+        first = true;
+        for(Field f : aClass.getFields())
+        {
+            writeString(f.getAccessChar() + " " + f.getType() + " " + f.getName());
+        }
+
+        out.write("],\"ClassName\":");
+        out.write('"');
+        out.write(JSONValue.escape(aClass.getName()));
+        out.write("\"}");
+    }
+
+    /**
+     * Writes each relationship as "TYPE Class".
+     */
+    private void writeRelationships(Map<String, RelationshipType> relationships) throws IOException
+    {
+        first = true;
+        for(Map.Entry<String, RelationshipType> relation : relationships.entrySet())
+        {
+            writeString(relation.getValue() + " " + relation.getKey());
+        }
+    }
+
+    /**
+     * Writes one string value of an array.
+     */
+    private void writeString(String value) throws IOException
+    {
+        if(!first)
+            out.write(',');
+        first = false;
+        out.write('"');
+        out.write(JSONValue.escape(value));
+        out.write('"');
+    }
+}
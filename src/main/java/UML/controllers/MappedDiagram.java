@@ -0,0 +1,355 @@
+package UML.controllers;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/17/2026
+    Purpose: Opens a version 2 binary diagram, usually memory mapped, reading only the class directory.
+    Each class starts with just its name and location, and decodes its members or relationships from
+    the file the first time they are used. See BinaryDiagramWriter for the layout. A file is mapped through
+    a private copy, since some systems, such as Windows, won't let a mapped file be saved over.
+ */
+import java.awt.Dimension;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import UML.model.Class;
+import UML.model.ClassSource;
+import UML.model.Field;
+import UML.model.Method;
+import UML.model.Parameter;
+import UML.model.RelationshipType;
+import UML.model.Symbols;
+
+public class MappedDiagram implements ClassSource
+{
+    // The whole file. Only absolute gets and duplicates are used, so its position never changes.
+    private ByteBuffer file;
+    // Where the file starts in the buffer, which the offsets in it count from.
+    private int base;
+    private int stringCount;
+    private int classCount;
+    // The strings decoded so far, by number, so classes that share a name or type share the String.
+    private String[] strings;
+    // Where each opened class's records start, as its members offset then its relationships offset.
+    // Each is set to -1 once loaded, and the class is dropped once both are.
+    private Map<Class, int[]> offsets;
+    // The file the bytes were mapped from, with its size and time as they were then, or null if not known.
+    private File source;
+    private long sourceSize;
+    private long sourceModified;
+
+    /**
+     * Constructs a diagram over the bytes of a version 2 file, from the buffer's position on.
+     * The buffer must not change while any class opened from it is still unloaded.
+     */
+    public MappedDiagram(ByteBuffer file) throws IOException
+    {
+        this(file, null);
+    }
+
+    /**
+     * Constructs a diagram over the bytes of a version 2 file mapped from source, so that classes still
+     * waiting to be loaded can be found in the file again by where they are in it.
+     */
+    public MappedDiagram(ByteBuffer file, File source) throws IOException
+    {
+        if(source != null)
+        {
+            this.source = source.getAbsoluteFile();
+            sourceSize = source.length();
+            sourceModified = source.lastModified();
+        }
+        this.file = file;
+        base = file.position();
+        if(file.remaining() < BinaryDiagramWriter.HEADER_SIZE || file.get(base + 4) != 2)
+            throw new IOException("Not a version 2 binary diagram file.");
+        stringCount = file.getInt(base + 5);
+        classCount = file.getInt(base + 9);
+        long tablesEnd = BinaryDiagramWriter.HEADER_SIZE + 4L * stringCount
+            + (long)BinaryDiagramWriter.DIRECTORY_ENTRY_SIZE * classCount;
+        if(stringCount < 0 || classCount < 0 || tablesEnd > file.remaining())
+            throw new IOException("The diagram file is damaged.");
+        strings = new String[stringCount];
+        offsets = new IdentityHashMap<Class, int[]>();
+    }
+
+    /**
+     * Returns every class in the file with only its name and location read.
+     */
+    public synchronized ArrayList<Class> openClasses() throws IOException
+    {
+        ArrayList<Class> classes = new ArrayList<Class>(classCount);
+        int size = file.limit() - base;
+        int entry = base + BinaryDiagramWriter.HEADER_SIZE + 4 * stringCount;
+        try
+        {
+            for(int count = 0; count < classCount; count++)
+            {
+                String name = string(file.getInt(entry));
+                Dimension location = new Dimension(file.getInt(entry + 4), file.getInt(entry + 8));
+                int membersOffset = file.getInt(entry + 12);
+                int relationshipsOffset = file.getInt(entry + 16);
+                if(membersOffset < 0 || membersOffset >= size || relationshipsOffset < 0 || relationshipsOffset >= size)
+                    throw new IOException("The diagram file is damaged.");
+                Class aClass = new Class(name, location, this);
+                offsets.put(aClass, new int[] {membersOffset, relationshipsOffset});
+                classes.add(aClass);
+                entry += BinaryDiagramWriter.DIRECTORY_ENTRY_SIZE;
+            }
+        }
+        catch(IndexOutOfBoundsException | IllegalArgumentException e)
+        {
+            throw new IOException("The diagram file is damaged.", e);
+        }
+        return classes;
+    }
+
+    /**
+     * Maps a version 2 file again to open classes from it by where they are in it, as pendingOffsets gave.
+     * Throws an IOException if the file is no longer the same size or from the same time.
+     */
+    public static MappedDiagram open(File source, long size, long modified) throws IOException
+    {
+        if(!source.isFile() || source.length() != size || source.lastModified() != modified)
+            throw new IOException("The diagram file " + source + " has changed.");
+        ByteBuffer bytes = map(source);
+        if(!BinaryDiagramReader.isBinary(bytes))
+            throw new IOException("Not a binary diagram file.");
+        return new MappedDiagram(bytes, source);
+    }
+
+    /**
+     * Maps a copy of a file, leaving the file itself free to be saved over while classes still load from
+     * the copy. The copy is deleted once mapped where the system allows it, and when the program ends if not.
+     */
+    public static ByteBuffer map(File source) throws IOException
+    {
+        File copy = File.createTempFile("diagram", SaveAndLoad.BINARY_EXTENSION);
+        try
+        {
+            Files.copy(source.toPath(), copy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            try(FileChannel channel = FileChannel.open(copy.toPath(), StandardOpenOption.READ))
+            {
+                //The mapping stays valid after the channel is closed.
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        }
+        finally
+        {
+            if(!copy.delete())
+                copy.deleteOnExit();
+        }
+    }
+
+    /**
+     * Returns the file the diagram was mapped from, or null if it isn't known.
+     */
+    public File getFile()
+    {
+        return source;
+    }
+
+    /**
+     * Returns the size the file had when it was mapped.
+     */
+    public long getFileSize()
+    {
+        return sourceSize;
+    }
+
+    /**
+     * Returns when the file had last been changed when it was mapped.
+     */
+    public long getFileModified()
+    {
+        return sourceModified;
+    }
+
+    /**
+     * Returns where the parts of a class opened from here that are still waiting to be loaded are in the
+     * file, as its members offset then its relationships offset, with -1 for a part already loaded.
+     * Returns null if the class has loaded everything or the file isn't known.
+     */
+    public synchronized int[] pendingOffsets(Class aClass)
+    {
+        int[] offset = offsets.get(aClass);
+        if(offset == null || source == null)
+            return null;
+        return offset.clone();
+    }
+
+    /**
+     * Opens one class with the parts at the given offsets, as pendingOffsets gave them, still to be loaded.
+     * A part at -1 is left empty for the caller to fill in.
+     */
+    public synchronized Class openClass(String name, Dimension location, int membersOffset, int relationshipsOffset) throws IOException
+    {
+        int size = file.limit() - base;
+        if(membersOffset >= size || relationshipsOffset >= size || membersOffset < -1 || relationshipsOffset < -1
+            || membersOffset < 0 && relationshipsOffset < 0)
+            throw new IOException("The diagram file is damaged.");
+        Class aClass = new Class(name, location, this);
+        offsets.put(aClass, new int[] {membersOffset, relationshipsOffset});
+        return aClass;
+    }
+
+    @Override
+    public synchronized void loadMembers(Class target)
+    {
+        int[] offset = offsets.get(target);
+        //A class opened with its members kept elsewhere has nothing to read here.
+        if(offset[0] < 0)
+            return;
+        ByteBuffer in = at(offset[0]);
+        try
+        {
+            int fieldCount = readVarint(in);
+            for(int count = 0; count < fieldCount; count++)
+            {
+                String access = accessName(in.get());
+                String type = readString(in);
+                target.getFields().add(new Field(type, readString(in), access));
+            }
+
+            int methodCount = readVarint(in);
+            for(int count = 0; count < methodCount; count++)
+            {
+                String access = accessName(in.get());
+                String type = readString(in);
+                String name = readString(in);
+                int paramCount = readVarint(in);
+                ArrayList<Parameter> params = new ArrayList<Parameter>(paramCount);
+                for(int param = 0; param < paramCount; param++)
+                {
+                    String paramType = readString(in);
+                    params.add(new Parameter(paramType, readString(in)));
+                }
+                target.getMethods().add(new Method(type, name, params, access));
+            }
+        }
+        catch(BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e)
+        {
+            throw new IllegalStateException("The members of " + target.getName() + " are damaged in the diagram file.", e);
+        }
+        offset[0] = -1;
+        forgetIfLoaded(target, offset);
+    }
+
+    @Override
+    public synchronized void loadRelationships(Class target)
+    {
+        int[] offset = offsets.get(target);
+        if(offset[1] < 0)
+            return;
+        ByteBuffer in = at(offset[1]);
+        try
+        {
+            readRelationships(in, target.getRelationshipsToOther());
+            readRelationships(in, target.getRelationshipsFromOther());
+        }
+        catch(BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e)
+        {
+            throw new IllegalStateException("The relationships of " + target.getName() + " are damaged in the diagram file.", e);
+        }
+        offset[1] = -1;
+        forgetIfLoaded(target, offset);
+    }
+
+    /**
+     * Drops a class's offsets once it has loaded everything, so the class can be freed.
+     */
+    private void forgetIfLoaded(Class target, int[] offset)
+    {
+        if(offset[0] < 0 && offset[1] < 0)
+            offsets.remove(target);
+    }
+
+    /**
+     * Reads one relationship map.
+     */
+    private void readRelationships(ByteBuffer in, Map<String, RelationshipType> relationships)
+    {
+        RelationshipType[] types = RelationshipType.values();
+        int count = readVarint(in);
+        for(int relation = 0; relation < count; relation++)
+        {
+            String other = readString(in);
+            relationships.put(other, types[in.get()]);
+        }
+    }
+
+    /**
+     * Returns a view of the file starting at an offset, with its own position to read from.
+     */
+    private ByteBuffer at(int offset)
+    {
+        ByteBuffer in = file.duplicate();
+        in.position(base + offset);
+        return in;
+    }
+
+    /**
+     * Returns a string from the table, decoding it the first time.
+     */
+    private String string(int id)
+    {
+        if(id < 0 || id >= stringCount)
+            throw new IllegalArgumentException("No string " + id + " in the diagram file.");
+        String string = strings[id];
+        if(string == null)
+        {
+            ByteBuffer in = at(file.getInt(base + BinaryDiagramWriter.HEADER_SIZE + 4 * id));
+            byte[] bytes = new byte[readVarint(in)];
+            in.get(bytes);
+            string = Symbols.intern(new String(bytes, StandardCharsets.UTF_8));
+            strings[id] = string;
+        }
+        return string;
+    }
+
+    /**
+     * Reads the number of a string and returns the string.
+     */
+    private String readString(ByteBuffer in)
+    {
+        return string(readVarint(in));
+    }
+
+    /**
+     * Turns the saved access character into the access name.
+     */
+    private static String accessName(byte access)
+    {
+        if(access == '-')
+            return "private";
+        else if(access == '*')
+            return "protected";
+        else
+            return "public";
+    }
+
+    /**
+     * Reads a number written seven bits at a time, low bits first.
+     */
+    private static int readVarint(ByteBuffer in)
+    {
+        int value = 0;
+        for(int shift = 0; shift < 32; shift += 7)
+        {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if(b >= 0)
+                return value;
+        }
+        throw new IllegalArgumentException("A number in the diagram file is too long.");
+    }
+}
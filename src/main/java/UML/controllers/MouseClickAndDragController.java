@@ -7,18 +7,24 @@ package UML.controllers;
 
 import javax.swing.*;
 import UML.model.Store;
+import UML.views.DrawPanel;
+import UML.views.GraphicalView;
 import UML.views.View;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
 import java.awt.event.MouseEvent;
-import javax.swing.JLabel;
 import java.awt.Dimension;
+import java.awt.Rectangle;
 import java.awt.Color;
 import javax.swing.JColorChooser;
 
 public class MouseClickAndDragController implements MouseListener, MouseMotionListener
 {
     private int startDragX, startDragY;
+    //Where the dragged panel was when the drag started.
+    private int startPanelX, startPanelY;
+    //The panel the current drag started on.
+    private JPanel dragged;
     private Store store;
 	private View view;
     private Controller controller;
@@ -32,20 +38,35 @@ public class MouseClickAndDragController implements MouseListener, MouseMotionLi
 	@Override
     public void mousePressed(MouseEvent e) 
     {
+        //Nothing can be moved while a diagram is being saved or loaded.
+        if(controller.isBusy())
+            return;
         //If the user left clicks get the panels X and Y pos.
         if(MouseEvent.BUTTON1 == e.getButton())
         {
             startDragX = e.getX();
             startDragY = e.getY();
+            dragged = findPanel(e);
+            if(dragged != null)
+            {
+                startPanelX = dragged.getX();
+                startPanelY = dragged.getY();
+                if(view instanceof GraphicalView)
+                    ((GraphicalView) view).selectClass(dragged.getName());
+            }
         }
         //If the user right clicks open a color chooser. 
         else if (MouseEvent.BUTTON3 == e.getButton())
         {
-            Object source = e.getSource();
-            if(source instanceof JPanel)
+            JPanel found = findPanel(e);
+            //Classes drawn by the draw panel have one shared menu, which has the color in it.
+            if(found != null && view instanceof GraphicalView && ((GraphicalView) view).hasClassBox(found.getName()))
+            {
+                ((GraphicalView) view).showClassMenu(found.getName(), e.getX(), e.getY());
+            }
+            else if(found != null)
             {
                 //Bring up color chooser for the panel.
-                JPanel found = (JPanel)source;
                 JPanel panel = (JPanel)found.getComponent(1);
                 JColorChooser cc = new JColorChooser();
                 Color color = cc.showDialog(view.getMainWindow(),"Choose a panel color", Color.lightGray);
@@ -57,28 +78,59 @@ public class MouseClickAndDragController implements MouseListener, MouseMotionLi
     @Override
     public void mouseDragged(MouseEvent e) 
     {
+        if(controller.isBusy())
+            return;
         Object source = e.getSource();
-        if(source instanceof JPanel)
+        JPanel found = source instanceof DrawPanel ? dragged : findPanel(e);
+        if(found != null)
         {
-            JPanel found = (JPanel)source;
-            JPanel panel = (JPanel)found.getComponent(1);
-            JLabel text = (JLabel)panel.getComponent(0);
-            //Get the class name from the test on the top panel.
-            String className = text.getText().trim();
-
-            UML.model.Class c = store.findClass(className);
+            //Each class panel is named after its class.
+            UML.model.Class c = store.findClass(found.getName());
 
             //Get new location.
-            int newX = found.getX() + (e.getX() - startDragX);
-            int newY = found.getY() + (e.getY() - startDragY);
+            int newX, newY;
+            if(source instanceof DrawPanel)
+            {
+                //The mouse moves over the zoomed drawing, so its movement is scaled back to the diagram.
+                double zoom = ((DrawPanel)source).getZoom();
+                newX = startPanelX + (int)Math.round((e.getX() - startDragX) / zoom);
+                newY = startPanelY + (int)Math.round((e.getY() - startDragY) / zoom);
+            }
+            else
+            {
+                newX = found.getX() + (e.getX() - startDragX);
+                newY = found.getY() + (e.getY() - startDragY);
+            }
             c.setLocation(new Dimension(newX, newY));
 
             //Set the location of the panel.
+            Rectangle oldBounds = found.getBounds();
             found.setLocation(newX, newY);
-            view.getMainWindow().repaint();
+            if(view instanceof GraphicalView)
+            {
+                //Only the panel's old and new area and its lines need painting, at most once a frame.
+                DrawPanel dp = ((GraphicalView) view).getDrawPanel();
+                dp.repaintLater(dp.panelMoved(found.getName(), oldBounds));
+            }
+            else
+                view.getMainWindow().repaint();
         }
     }
 
+    /**
+     * Returns the class panel the event is for. Events on the draw panel come while it is zoomed, or for
+     * classes it draws itself, and are for the class drawn under the mouse, if any.
+     */
+    private JPanel findPanel(MouseEvent e)
+    {
+        Object source = e.getSource();
+        if(source instanceof DrawPanel)
+            return ((DrawPanel)source).panelAt(e.getPoint());
+        if(source instanceof JPanel)
+            return (JPanel)source;
+        return null;
+    }
+
     @Override
     public void mouseExited(MouseEvent e) {
         // Do nothing
@@ -100,7 +152,17 @@ public class MouseClickAndDragController implements MouseListener, MouseMotionLi
     }
 
     @Override
-    public void mouseReleased(MouseEvent e) {
-       // Do nothing
+    public void mouseReleased(MouseEvent e) 
+    {
+        JPanel found = e.getSource() instanceof DrawPanel ? dragged : findPanel(e);
+        if(MouseEvent.BUTTON1 == e.getButton() && found != null && !controller.isBusy())
+        {
+            //Record the whole drag as a single move that can be undone.
+            if(found.getX() != startPanelX || found.getY() != startPanelY)
+            {
+                controller.moveClass(found.getName(), startPanelX, startPanelY, found.getX(), found.getY());
+            }
+            dragged = null;
+        }
     }
 }
@@ -0,0 +1,111 @@
+package UML.controllers;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/18/2026
+    Purpose: Writes a listing to the command line a line at a time, so nothing has to be built up before it is
+    shown. After each screenful it waits for a key: q stops the listing and any other key shows the next page.
+ */
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.function.IntSupplier;
+
+import org.jline.terminal.Attributes;
+import org.jline.terminal.Terminal;
+
+public class Pager
+{
+    //Shown while waiting for a key at the end of a page.
+    static final String PROMPT = "-- More (q to stop) --";
+
+    private final PrintWriter out;
+    //The lines on a page, or 0 to write everything without stopping.
+    private final int pageLines;
+    //Waits for a key and returns it, or -1 when there are no more.
+    private final IntSupplier keys;
+    private int linesOnPage;
+    private boolean stopped;
+
+    /**
+     * Makes a pager that writes to out, waiting for a key from keys after every pageLines lines.
+     */
+    public Pager(PrintWriter out, int pageLines, IntSupplier keys)
+    {
+        this.out = out;
+        this.pageLines = pageLines;
+        this.keys = keys;
+    }
+
+    /**
+     * Makes a pager for a terminal with a page a line shorter than its screen, to leave room for the prompt.
+     * A terminal that doesn't know its size, such as one reading from a pipe, isn't paged.
+     */
+    public static Pager forTerminal(Terminal terminal, boolean paged)
+    {
+        int height = paged ? terminal.getHeight() - 1 : 0;
+        return new Pager(terminal.writer(), Math.max(height, 0), () -> readKey(terminal));
+    }
+
+    /**
+     * Waits for one key without it being echoed or needing enter.
+     */
+    private static int readKey(Terminal terminal)
+    {
+        Attributes saved = terminal.enterRawMode();
+        try
+        {
+            return terminal.reader().read();
+        }
+        catch(IOException e)
+        {
+            return -1;
+        }
+        finally
+        {
+            terminal.setAttributes(saved);
+        }
+    }
+
+    /**
+     * Writes a line, first waiting for a key if the page is full. Returns false, writing nothing, once the
+     * listing has been stopped.
+     */
+    public boolean println(String line)
+    {
+        if(stopped)
+            return false;
+        if(pageLines > 0 && linesOnPage == pageLines)
+        {
+            out.print(PROMPT);
+            out.flush();
+            int key = keys.getAsInt();
+            //Rubs out the prompt.
+            out.print("\r" + " ".repeat(PROMPT.length()) + "\r");
+            if(key == 'q' || key == 'Q' || key < 0)
+            {
+                stopped = true;
+                out.flush();
+                return false;
+            }
+            linesOnPage = 0;
+        }
+        out.println(line);
+        linesOnPage++;
+        return true;
+    }
+
+    /**
+     * Returns true if the listing was stopped at a page.
+     */
+    public boolean isStopped()
+    {
+        return stopped;
+    }
+
+    /**
+     * Shows whatever has been written but not yet shown.
+     */
+    public void flush()
+    {
+        out.flush();
+    }
+}
@@ -0,0 +1,54 @@
+package UML.controllers;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/17/2026
+    Purpose: How far a save or load running in the background has got. The code doing the work says how much
+    there is and advances it as it goes, and the percent done is passed on each time it changes. Advancing
+    also throws an InterruptedIOException once the thread has been interrupted, which is how the work is
+    cancelled.
+ */
+import java.io.InterruptedIOException;
+import java.util.function.IntConsumer;
+
+public class Progress
+{
+    // Told the percent done each time it changes.
+    private IntConsumer listener;
+    private long total;
+    private long done;
+    private int percent;
+
+    /**
+     * Constructs a progress that passes the percent done to the given listener.
+     */
+    public Progress(IntConsumer listener)
+    {
+        this.listener = listener;
+        percent = -1;
+    }
+
+    /**
+     * Starts counting again towards the given amount of work.
+     */
+    public void setTotal(long total)
+    {
+        this.total = total;
+        done = 0;
+    }
+
+    /**
+     * Counts some of the work as done. Throws an InterruptedIOException if the work has been cancelled.
+     */
+    public void advance(long amount) throws InterruptedIOException
+    {
+        if(Thread.currentThread().isInterrupted())
+            throw new InterruptedIOException("Cancelled.");
+        done += amount;
+        int now = total <= 0 ? 100 : (int)Math.min(100, done * 100 / total);
+        if(now != percent)
+        {
+            percent = now;
+            listener.accept(now);
+        }
+    }
+}
@@ -3,7 +3,7 @@ package UML.controllers;
     Author: Chris, Tyler, Drew.
     Date: 09/17/2020
     Purpose: This is a static class with static methods. Handles the saving and 
-    loading of user created classes using simple JSON. 
+    loading of user created classes using simple JSON, or the binary format for files ending in .umlb. 
     JSON files will be saved in the following format which is a JSONObject that is an array
     of jsonobjects representing classes and there values.
     * {Classes: [
@@ -21,41 +21,48 @@ package UML.controllers;
     *      }
     * ]} 
 */
-import org.json.simple.JSONObject;
-import org.json.simple.JSONArray;
-import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Map;
-import java.util.Set;
-
-import java.util.Iterator;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 
 import UML.views.View;
 
-import UML.model.Class;
-import UML.model.Field;
-import UML.model.Method;
+import UML.model.Snapshot;
 import UML.model.Store;
-import UML.model.RelationshipType;
-import java.awt.Dimension;
-
 
 public class SaveAndLoad
 {
 
-    private static Store store;
+    //The extensions that pick the file format.
+    public static final String JSON_EXTENSION = ".json";
+    public static final String BINARY_EXTENSION = ".umlb";
+
+    private Store store;
     
     private View view;
 
     private Controller controller;
 
+    //Follows how far a save or load has got, or null if nothing is.
+    private Progress progress;
+
+    //What is saved instead of the store, or null to save the store.
+    private Snapshot snapshot;
+
     public SaveAndLoad(Store s, View v, Controller c)
     {
         this.store = s;
@@ -63,6 +70,23 @@ public class SaveAndLoad
         this.controller = c;
     }
 
+    /**
+     * Sets what follows how far the saves and loads have got, and can cancel them.
+     */
+    public void setProgress(Progress progress)
+    {
+        this.progress = progress;
+    }
+
+    /**
+     * Sets a snapshot of the store to save instead of the store itself, so the save can run on another
+     * thread while the store is edited. Null saves the store again.
+     */
+    public void setSnapshot(Snapshot snapshot)
+    {
+        this.snapshot = snapshot;
+    }
+
     //To save a file with proper format
     //A single JSONObject should be written to file..i.e the object should look like the following:
     /*
@@ -85,339 +109,156 @@ public class SaveAndLoad
     */
     public File save(String fileName) throws IOException, FileNotFoundException
     {
-        //the json file
-        File jsonFile;
-        //build the json object to be saved
-        JSONObject toBeSaved = buildObjectToSave();
-        //Write that to a file
-        jsonFile = writeToFile(fileName, toBeSaved);
-  
-        return jsonFile;
-    }
-
-    public File load(String fileName) throws IOException, ParseException
-    {
-        File fileToLoad = new File(fileName);
+        if(isBinaryFile(fileName))
+            return saveBinary(fileName);
+        //Write each class straight to the file so large diagrams don't need the whole document in memory.
+        //It goes to a temporary file that replaces the old one once complete, so a crash can't leave half a file.
+        File jsonFile = new File(fileName);
+        File temp = File.createTempFile(jsonFile.getName() + ".save", ".tmp", jsonFile.getAbsoluteFile().getParentFile());
         try
         {
-            FileReader fr = new FileReader(fileToLoad);
-            JSONParser parser = new JSONParser();
-            //Get the json object from the parser
-            JSONObject obj = (JSONObject)parser.parse(fr);
-            
-
-            //Get the classes array inside that json object
-            JSONArray classes = (JSONArray)obj.get("Classes");
-
-            //tell the main controller to create all the classes we need in the store
-            Object[] className = classObjectsToStore(classes);
-        
-            int i = 0;
-            for (Object jsonObject : classes) 
+            try(BufferedWriter bw = new BufferedWriter(new FileWriter(temp)))
             {
-                loadFields(jsonObject, (String)className[i]);
-                loadMethods(jsonObject, (String)className[i]);
-                loadRelationsTo(jsonObject, (String)className[i]);
-                loadRelationsFrom(jsonObject, (String)className[i]);
-                loadLocation(jsonObject, (String)className[i]);
-                i++;
-            }  
+                JSONStreamWriter writer = new JSONStreamWriter(bw);
+                writer.setProgress(progress);
+                if(snapshot != null)
+                    writer.write(snapshot.getClasses());
+                else
+                    writer.write(store);
+            }
+            Files.move(temp.toPath(), jsonFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
         }
-        catch(ParseException p)
+        finally
         {
-            p.printStackTrace();
+            temp.delete();
         }
-        return fileToLoad;
+        return jsonFile;
     }
 
-    private Object[] classObjectsToStore(JSONArray classes)
+    public File load(String fileName) throws IOException, ParseException
     {
-        Object[] className = new Object[classes.size()];
-        int i = 0;
-        for(Object jsonObject : classes)
+        if(isBinaryFile(fileName))
+            return loadBinary(fileName);
+        File fileToLoad = new File(fileName);
+        InputStream in = new FileInputStream(fileToLoad);
+        if(progress != null)
         {
-            //Get the current json object, lots of casting ahead.
-            JSONObject jobct = (JSONObject)jsonObject;
-            className[i] = (String)jobct.get("ClassName");
-            //create the class from the name
-            store.addClass((String)className[i]);
-            i++;
+            progress.setTotal(fileToLoad.length());
+            in = new ProgressStream(in, progress);
         }
-
-        return className;
-    }
-
-    /**
-     * Gets the JSON array of fields to be added to the class details object. 
-     */
-    private JSONArray getFieldArray(Class aClass)
-    {
-        Set<Field> fields = aClass.getFields();
-        //Create a JSONArray of the fields to be stored
-        JSONArray fieldsToBeAdded = new JSONArray();
-
-        for (Field f : fields) 
+        //Read token by token, adding each class as soon as it has been read.
+        try(BufferedReader br = new BufferedReader(new InputStreamReader(in)))
         {
-            //Get the current fields and put in the JSONObject
-            String nameAndType = f.getAccessChar() + " " + f.getType() + " " + f.getName();
-            fieldsToBeAdded.add(nameAndType);
+            new JSONStreamReader(store).read(br);
         }
-
-        return fieldsToBeAdded;
+        return fileToLoad;
     }
-    /**
-     * Get the array of methods to be added to the class details object
-     */
-    private JSONArray getMethodArray(Class aClass)
-    {
-        Set<Method> methods = aClass.getMethods();
-        //Create a JSONArray of the fields to be stored
-        JSONArray methodsToBeAdded = new JSONArray();
-
-        //Add the methods to the json object
-        for (Method m : methods) 
-        {
-            JSONObject methObject = new JSONObject();
-            //Get the current fields and put in the JSONObject
-            String access = String.valueOf(m.getAccessChar());
-            String methodName = m.getName();
-            String methodType = m.getType();
-            ArrayList<String> params  = store.getMethodParamString(aClass.getName(), m.toString());
 
-            String methodString = access + " " + methodType + " " + methodName + "[ ";
-            for(String s : params)
-            {
-                methodString += s;
-                methodString += " ";
-            }
-            methodString += "]";
-            methodsToBeAdded.add(methodString);
-        }
-        return methodsToBeAdded;
-    }
     /**
-     * Gets the JSON array of relationships to other classes to be added to the class details object. 
+     * Returns whether a file name has the binary format's extension. Any other name is saved and loaded as JSON.
      */
-    private JSONArray getRelationToArray(Class aClass)
+    public static boolean isBinaryFile(String fileName)
     {
-        //Add the relations to others
-        Map<String,RelationshipType> relationToOthers = aClass.getRelationshipsToOther();
-            
-        JSONArray relationsTo = new JSONArray();
- 
-        for (Map.Entry<String, RelationshipType> relation : relationToOthers.entrySet()) 
-        {
-            String relationship = relation.getValue() + " " + relation.getKey();
-            relationsTo.add(relationship);
-        }
-        
-        return relationsTo;
+        return fileName.toLowerCase().endsWith(BINARY_EXTENSION);
     }
+
     /**
-     * Gets the JSON array of relationships from other classes to be added to the class details object. 
+     * Returns whether a file name has an extension diagrams can be saved and loaded with.
      */
-    private JSONArray getRelationFromArray(Class aClass)
+    public static boolean isDiagramFile(String fileName)
     {
-        Map<String,RelationshipType> relationFromOthers = aClass.getRelationshipsFromOther();
-            
-        JSONArray relationsFrom = new JSONArray();
-        
-        for (Map.Entry<String, RelationshipType> relation : relationFromOthers.entrySet()) 
-        {
-            String relationship = relation.getValue() + " " + relation.getKey();
-            relationsFrom.add(relationship);
-        }
-        return relationsFrom;
-    }
-    /**
-     * Writes the json contents to file
-     */
-    private File writeToFile(String fileName, JSONObject toBeSaved) throws IOException
-    {
-        //Attempt to write the json data to passed in file name. IOExcetion on failure. 
-        //Append the .json format to name
-        //ensures we are not adding it if we don't need to
-        File jsonFile = new File(fileName);
-        FileWriter fw = new FileWriter(jsonFile);
-        fw.write(toBeSaved.toJSONString());
-        fw.flush();
-        fw.close();
-
-        return jsonFile;
+        return fileName.toLowerCase().endsWith(JSON_EXTENSION) || isBinaryFile(fileName);
     }
 
     /**
-     * Builds the json object to be written to file
+     * Saves in the binary format, whatever the file name. The file is written under another name and then
+     * moved over the old one, so a save that fails part way leaves the old file whole. Classes still waiting
+     * to load from the old file read them from the private copy it was mapped through, so the old file is
+     * never mapped itself and can be replaced on any system.
      */
-    private JSONObject buildObjectToSave()
+    public File saveBinary(String fileName) throws IOException
     {
-        ArrayList<Class> classesToSave = store.getClassStore();
-        JSONObject toBeSaved = new JSONObject();
-
-        //Store an arraylist of JSONObjects to be written to the file
-        ArrayList<JSONObject> classesToBeSaved = new ArrayList<JSONObject>();
-        
-        //Build the JSONObject from the elements of a class
-        for(Class aClass : classesToSave)
+        File binaryFile = new File(fileName);
+        File parent = binaryFile.getAbsoluteFile().getParentFile();
+        File temp = File.createTempFile(binaryFile.getName() + ".save", ".tmp", parent);
+        try
         {
-            //Get the deails about the class    
-            JSONObject classDetails = new JSONObject();
-
-            //Add location of the class
-
-            Dimension location = aClass.getLocation();
-            JSONArray locationArray = new JSONArray();
-            locationArray.add(Integer.toString((int)location.getWidth()));
-            locationArray.add(Integer.toString((int)location.getHeight()));
-            classDetails.put("Location", locationArray);
-            
-            //Add the relations from others
-            JSONArray relationsFrom = getRelationFromArray(aClass);
-            classDetails.put("RelationshipFromOthers", relationsFrom);
-
-            //Add the relations to other  
-            JSONArray relationsTo = getRelationToArray(aClass);
-            classDetails.put("RelationshipToOthers",relationsTo);
-
-            //Create a JSONArray of the fields to be stored
-            JSONArray methodsToBeAdded = getMethodArray(aClass);
-            classDetails.put("Methods", methodsToBeAdded);
-
-            //Get the field array and add it to class details.
-            JSONArray fieldsToBeAdded = getFieldArray(aClass);
-            classDetails.put("Fields", fieldsToBeAdded);
-
-            //Get the current class name and put it in the JSONObject
-            String className = aClass.getName();
-            classDetails.put("ClassName", className); 
-
-            //Add the JSONArray to the JSONObject
-            classesToBeSaved.add(classDetails);
+            try(OutputStream out = new BufferedOutputStream(new FileOutputStream(temp)))
+            {
+                BinaryDiagramWriter writer = new BinaryDiagramWriter(out);
+                writer.setProgress(progress);
+                if(snapshot != null)
+                    writer.write(snapshot.getClasses());
+                else
+                    writer.write(store);
+            }
+            Files.move(temp.toPath(), binaryFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
         }
-        toBeSaved.put("Classes",classesToBeSaved);
-
-        return toBeSaved;
+        finally
+        {
+            temp.delete();
+        }
+        return binaryFile;
     }
 
     /**
-     * Loads fields from the JSON file.
+     * Loads a file in the binary format, whatever its name. A copy of the file is memory mapped, and for
+     * version 2 files only the class directory is read now. Each class's fields, methods and relationships
+     * are read from the mapping the first time they are used.
      */
-    private void loadFields(Object jsonObject, String className)
+    public File loadBinary(String fileName) throws IOException
     {
-        JSONObject jobct = (JSONObject)jsonObject;
-        Class aClass = store.findClass(className);
-        JSONArray jsonAttr = (JSONArray)jobct.get("Fields");
-        Iterator<String> it = jsonAttr.iterator();
-
-        while(it.hasNext())
+        File fileToLoad = new File(fileName);
+        new BinaryDiagramReader(store).read(MappedDiagram.map(fileToLoad), fileToLoad);
+        //Only the class directory is read, which is quick, so it counts as one step.
+        if(progress != null)
         {
-            String[] field = it.next().split(" ");
-            String access = "";
-            if(field[0].equals("+"))
-                access = "public";
-            else if(field[0].equals("-"))
-                access = "private";
-            else if(field[0].equals("*"))
-                access = "protected";
-            else
-                access = "public";
-            
-            aClass.addField(field[1], field[2], access);
+            progress.setTotal(1);
+            progress.advance(1);
         }
+        return fileToLoad;
     }
 
     /**
-     * Loads methods from the JSON file.
+     * Counts the bytes read from a file towards the progress of the load.
      */
-    private void loadMethods(Object jsonObject, String className)
+    private static class ProgressStream extends FilterInputStream
     {
-        JSONObject jobct = (JSONObject)jsonObject;
-        Class aClass = store.findClass(className);
+        private Progress progress;
 
-        JSONArray jsonMethods = (JSONArray)jobct.get("Methods");
-        Iterator<String> it = jsonMethods.iterator();
-        
-        while(it.hasNext())
+        ProgressStream(InputStream in, Progress progress)
         {
-            String nextElement = it.next().replace("[", "");
-            String[] methodString = nextElement.split(" ");
-            String access = methodString[0];
-            String accessStr = "";
-            if(methodString[0].equals("+"))
-                accessStr = "public";
-            else if(methodString[0].equals("-"))
-                accessStr = "private";
-            else if(methodString[0].equals("*"))
-                accessStr = "protected";
-            else
-                accessStr = "public";
-
-            String type = methodString[1];
-            String name = methodString[2];
-
-            ArrayList<String> params = new ArrayList<String>();
-            
-            for(int count = 3; count < methodString.length - 1; count += 2)
-            {
-                params.add(methodString[count] + " " + methodString[count + 1]);    
-            }
-            store.addMethod(className, type, name, params, accessStr);
+            super(in);
+            this.progress = progress;
         }
-    }
 
-    /**
-     * Loads the relationships to other classes from the JSON file.
-     */
-    private void loadRelationsTo(Object jsonObject, String className)
-    {
-        JSONObject jobct = (JSONObject)jsonObject;
-        //Get the relationships to other class and add it to the correct class
-        JSONArray jsonRelationToOthers = (JSONArray)jobct.get("RelationshipToOthers");
-        Iterator<String> it = jsonRelationToOthers.iterator();
-        Class aClass = store.findClass(className);
-        while(it.hasNext())
+        @Override
+        public int read() throws IOException
         {
-            String[] relationship = it.next().split(" ");
-            String relatedClassName = relationship[1];
-            Class relatedClass = store.findClass(relatedClassName);
-            aClass.addRelationshipToOther(RelationshipType.valueOf(relationship[0]), relatedClass);
+            int b = super.read();
+            if(b >= 0)
+                progress.advance(1);
+            return b;
         }
-    }
 
-    /**
-     * Loads relationships from other classes from the JSON file.
-     */
-    private void loadRelationsFrom(Object jsonObject, String className)
-    {
-        JSONObject jobct = (JSONObject)jsonObject;
-        //Get the relationships to other class and add it to the correct class
-        JSONArray jsonRelationFromOthers = (JSONArray)jobct.get("RelationshipFromOthers");
-        Iterator<String> it = jsonRelationFromOthers.iterator();
-        Class aClass = store.findClass(className);
-        while(it.hasNext())
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException
         {
-            String[] relationship = it.next().split(" ");
-            String relatedClassName = relationship[1];
-            Class relatedClass = store.findClass(relatedClassName);
-            relatedClass.addRelationshipToOther(RelationshipType.valueOf(relationship[0]), aClass);
+            int count = super.read(bytes, offset, length);
+            if(count > 0)
+                progress.advance(count);
+            return count;
         }
     }
 
     /**
-     * Loads location of a class.
+     * Copies a diagram from one file to another, each in the format its extension picks,
+     * such as a .json file to a .umlb file or back.
      */
-    public void loadLocation(Object jsonObject, String className)
+    public static File convert(String fromFile, String toFile) throws IOException, ParseException
     {
-        JSONObject jobct = (JSONObject)jsonObject;
-        JSONArray arr = (JSONArray)jobct.get("Location");
-        Iterator<String> it = arr.iterator();
-        int[] toAdd = new int[2];
-        Class aClass = store.findClass(className);
-        for(int count = 0; count < 2; count++)
-        {
-            String str = it.next();
-            toAdd[count] = Integer.parseInt(str);
-        }
-        aClass.setLocation(new Dimension(toAdd[0], toAdd[1]));
+        Store converted = new Store();
+        new SaveAndLoad(converted, null, null).load(fromFile);
+        return new SaveAndLoad(converted, null, null).save(toFile);
     }
-}
\ No newline at end of file
+}
@@ -31,12 +31,12 @@ public class StateClickController implements ActionListener {
         if(cmd.equals("Undo"))
         {
             //Undo one action.
-            controller.undo();
+            controller.undoInBackground();
         }
         else if(cmd.equals("Redo"))
         {
             //Redo one action.
-            controller.redo();
+            controller.redoInBackground();
         }
         else if(cmd.equals("CLI"))
         {
@@ -44,11 +44,12 @@ public class StateClickController implements ActionListener {
             controller.setGUIInvisible();
             View v = new CommandlineView();
             StateController stateController = controller.getStateController();
-            Stack<Store> undoState = stateController.getUndoStack();
-            Stack<Store> redoState = stateController.getRedoStack();
+            Stack<Edit> undoState = stateController.getUndoStack();
+            Stack<Edit> redoState = stateController.getRedoStack();
             Store currentState = stateController.getCurrentState();
             Controller c = new Controller(store, v);
             StateController state = new StateController(currentState, undoState, redoState);
+            c.setStateController(state);
             CLI cli = new CLI(store, v, c);
         }
         else if(cmd.equals("Color"))
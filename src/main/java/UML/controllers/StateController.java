@@ -9,11 +9,11 @@ import UML.model.Store;
 
  public class StateController
  {
-    // The stack of all states to undo to.
-    private Stack<Store> undoStack;
-    // The stack of all states to redo to.
-    private Stack<Store> redoStack;  
-    // The file representing the current state.
+    // The stack of all edits to undo.
+    private Stack<Edit> undoStack;
+    // The stack of all edits to redo.
+    private Stack<Edit> redoStack;
+    // The store the edits are applied to.
     private Store currentState;
 
     /**
@@ -22,13 +22,13 @@ import UML.model.Store;
     public StateController(Store s)
     {
         this.currentState = s;
-        undoStack = new Stack<Store>();
-        redoStack = new Stack<Store>();
+        undoStack = new Stack<Edit>();
+        redoStack = new Stack<Edit>();
     }
     /**
-     * 
+     * Constructs a state controller that carries on with existing undo and redo history.
      */
-    public StateController(Store s, Stack<Store> undo, Stack<Store> redo)
+    public StateController(Store s, Stack<Edit> undo, Stack<Edit> redo)
     {
         currentState = s;
         undoStack = undo;
@@ -36,11 +36,11 @@ import UML.model.Store;
     }
 
     //Getters
-    public Stack<Store> getUndoStack() {
+    public Stack<Edit> getUndoStack() {
         return undoStack;
     }
 
-    public Stack<Store> getRedoStack() {
+    public Stack<Edit> getRedoStack() {
         return redoStack;
     }
 
@@ -49,46 +49,57 @@ import UML.model.Store;
     }
 
     //Setters
-    public void setRedoStack(Stack<Store> redoStack) {
+    public void setRedoStack(Stack<Edit> redoStack) {
         this.redoStack = redoStack;
     }
-    
+
     public void setCurrentState(Store currentState) {
         this.currentState = currentState;
     }
 
-    public void setUndoStack(Stack<Store> undoStack) {
+    public void setUndoStack(Stack<Edit> undoStack) {
         this.undoStack = undoStack;
     }
 
-    public void addStateToRedo(Store state)
+    public void addStateToRedo(Edit edit)
+    {
+        redoStack.push(edit);
+    }
+
+    public void addStateToUndo(Edit edit)
     {
-        redoStack.push(state);
+        undoStack.push(edit);
     }
 
-    public void addStateToUndo(Store state)
+    /**
+     * Records a new edit. Anything that could have been redone is dropped.
+     */
+    public void addEdit(Edit edit)
     {
-        undoStack.push(state);
+        redoStack.clear();
+        undoStack.push(edit);
     }
 
     /**
-     * Pops the undo stack and sets the current state. Returns poped state.
+     * Pops the undo stack, reverses that edit on the current state and moves it to the redo stack. Returns the edit.
      */
-    public Store Undo()
+    public Edit Undo()
     {
-        Store newState = undoStack.pop();
-        currentState = newState;
-        return newState;
+        Edit edit = undoStack.pop();
+        edit.undo(currentState);
+        redoStack.push(edit);
+        return edit;
     }
 
     /**
-     * Pops the redo stack and sets the current state. Returns poped state.
+     * Pops the redo stack, reapplies that edit on the current state and moves it to the undo stack. Returns the edit.
      */
-    public Store Redo()
+    public Edit Redo()
     {
-        Store newState = redoStack.pop();
-        currentState = newState;
-        return newState;
+        Edit edit = redoStack.pop();
+        edit.redo(currentState);
+        undoStack.push(edit);
+        return edit;
     }
 
     /**
@@ -110,7 +121,7 @@ import UML.model.Store;
     /**
      * Clears the passed in stack
      */
-    private void stackClear(Stack<Store> stack)
+    private void stackClear(Stack<Edit> stack)
     {
         while(!stack.empty())
         {
@@ -5,17 +5,19 @@ package UML.model;
     Purpose: This class defines how classes the user creates will function. A class 
     needs at least a name to be created and allows for the addition of attributes that are
     stored in a set. Relationships to the this class, as well as relationships to other classes
-    are stored in maps. 
+    are stored in maps. Once the class is in a store its relationships are kept in the store's
+    relationship graph, and the maps are views of it.
 */
 import java.util.HashSet;
 import java.util.Set;
 import java.util.ArrayList;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.Map;
+import java.util.function.Predicate;
 import java.awt.Dimension;
 
 
-public class Class {
+public class Class implements ReadableClass {
 
     // The name of the class object.
     private String name;
@@ -25,10 +27,46 @@ public class Class {
     private ConcurrentHashMap<String, RelationshipType> relationshipsToOther;
     // The relationships from another class object to this one.
     private ConcurrentHashMap<String, RelationshipType> relationshipsFromOther;
-    // A set containing the class's methods.
-    private Set<Method> methods;
+    // A set containing the class's methods, keyed by signature.
+    private MethodSet methods;
     //The position of the class to be used in the GUI.
     Dimension location;
+    //The string from toString(), built on first use and dropped whenever this class changes.
+    private String rendered;
+    //Where the fields and methods, and the relationships, are loaded from on first use. Null once they are loaded.
+    //Volatile, since a save in the background and a paint can both be the first to use them.
+    private volatile ClassSource memberSource;
+    private volatile ClassSource relationshipSource;
+    //The relationship graph of the store the class is in, and its node number there. Null while the class
+    //isn't in a store, when the relationship maps above are used instead.
+    volatile RelationshipGraph graph;
+    int id;
+    //Where snapshots taken before the fields and methods were loaded find them, or null if none was taken. The
+    //class lets go of it once they are loaded, so the copy in it lives only as long as those snapshots do.
+    private Unloaded unloaded;
+
+    /**
+     * The fields and methods a class read from its file, for the snapshots taken before it read them.
+     */
+    static final class Unloaded
+    {
+        final Class owner;
+        Field[] fields;
+        Method[] methods;
+
+        Unloaded(Class owner)
+        {
+            this.owner = owner;
+        }
+
+        /**
+         * Loads the class's fields and methods if it hasn't yet, so they are filled in here.
+         */
+        void load()
+        {
+            owner.loadMembers();
+        }
+    }
 
 
     /**
@@ -44,14 +82,98 @@ public class Class {
         if (name.contains(" ")) {
             throw new IllegalArgumentException("The class name cannot cantain a space.");
         }
-        this.name = name;
+        this.name = Symbols.intern(name);
         this.fields = new HashSet<Field>();
         this.relationshipsToOther = new ConcurrentHashMap<String, RelationshipType>();
         this.relationshipsFromOther = new ConcurrentHashMap<String, RelationshipType>();
-        this.methods = new HashSet<Method>();
+        this.methods = new MethodSet();
         this.location = new Dimension(0, 0);
     }
 
+    /**
+     * Constructs a class opened from a file with only its name and location. Its fields, methods and
+     * relationships are loaded from the source the first time anything uses them. The name was checked
+     * when the class was first made, so it isn't checked again.
+     */
+    public Class(String name, Dimension location, ClassSource source)
+    {
+        this.name = Symbols.intern(name);
+        this.location = location;
+        this.memberSource = source;
+        this.relationshipSource = source;
+    }
+
+    /**
+     * Returns true once the fields, methods and relationships are all loaded.
+     */
+    public boolean isLoaded()
+    {
+        return memberSource == null && relationshipSource == null;
+    }
+
+    /**
+     * Returns where the parts of the class not yet loaded will be loaded from, or null once it is all loaded.
+     */
+    public ClassSource getSource()
+    {
+        ClassSource source = memberSource;
+        return source != null ? source : relationshipSource;
+    }
+
+    /**
+     * Loads the fields and methods if they haven't been yet.
+     */
+    private void loadMembers()
+    {
+        ClassSource source = memberSource;
+        //The source adds the members through getFields() and getMethods(), which come back here holding its lock.
+        if (source != null && !Thread.holdsLock(source))
+        {
+            synchronized (source)
+            {
+                //Cleared last, so another thread only sees it cleared once the members are all in.
+                if (memberSource != null)
+                {
+                    fields = new HashSet<Field>();
+                    methods = new MethodSet();
+                    source.loadMembers(this);
+                    if (unloaded != null)
+                    {
+                        unloaded.fields = fields.toArray(new Field[0]);
+                        unloaded.methods = methods.toArray(new Method[0]);
+                        unloaded = null;
+                    }
+                    memberSource = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads the relationships if they haven't been yet.
+     */
+    void loadRelationships()
+    {
+        ClassSource source = relationshipSource;
+        if (source != null && !Thread.holdsLock(source))
+        {
+            synchronized (source)
+            {
+                if (relationshipSource != null)
+                {
+                    relationshipsToOther = new ConcurrentHashMap<String, RelationshipType>();
+                    relationshipsFromOther = new ConcurrentHashMap<String, RelationshipType>();
+                    source.loadRelationships(this);
+                    //A related class that was loaded first has already put their relationship in the graph,
+                    //or it was deleted since, so only classes still waiting to be loaded are related here.
+                    if (graph != null)
+                        moveRelationshipsToGraph(other -> other.relationshipSource != null);
+                    relationshipSource = null;
+                }
+            }
+        }
+    }
+
 
 //================================================================================================================================================
 //Getters.
@@ -71,6 +193,7 @@ public class Class {
      */
     public Set<Field> getFields() 
     {
+        loadMembers();
         return this.fields;
     }
 
@@ -79,14 +202,29 @@ public class Class {
      */
     public Set<Method> getMethods() 
     {
+        loadMembers();
         return this.methods;
     }
 
+    /**
+     * Returns the method with the given signature (see Method.getSignature()), or null if there isn't one.
+     */
+    public Method getMethod(String signature) 
+    {
+        loadMembers();
+        return this.methods.get(signature);
+    }
+
     /**
      * Returns the relationships from this class object to another.
      */
     public Map<String, RelationshipType> getRelationshipsToOther() 
     {
+        loadRelationships();
+        RelationshipGraph inGraph = graph;
+        //While the relationships are being loaded they go into the class's own maps first.
+        if (inGraph != null && relationshipSource == null)
+            return inGraph.outgoing(this);
         return this.relationshipsToOther;
     }
 
@@ -95,6 +233,10 @@ public class Class {
      */
     public Map<String, RelationshipType> getRelationshipsFromOther() 
     {
+        loadRelationships();
+        RelationshipGraph inGraph = graph;
+        if (inGraph != null && relationshipSource == null)
+            return inGraph.incoming(this);
         return this.relationshipsFromOther;
     }
 
@@ -124,7 +266,8 @@ public class Class {
         {
             throw new IllegalArgumentException("The class name cannot contains spaces.");
         }
-        this.name = name;
+        this.name = Symbols.intern(name);
+        changed();
     }
 
     /**
@@ -146,6 +289,7 @@ public class Class {
      */
     public boolean addField(String type, String name, String access) throws IllegalArgumentException 
     {
+        loadMembers();
         // If name is found, return false...atrribute already created
         for (Field f : fields) 
         {
@@ -156,6 +300,7 @@ public class Class {
         }
         Field newField = new Field(type, name, access);
         fields.add(newField);
+        changed();
         return true;
     }
 
@@ -163,9 +308,11 @@ public class Class {
      * Deletes a field from the class object.  If the field isn't found, return false.
      */
     public boolean deleteField(String name) {
+        loadMembers();
         for (Field f : fields) {
             if (f.getName().equals(name)) {
                 fields.remove(f);
+                changed();
                 return true;
             }
         }
@@ -177,6 +324,7 @@ public class Class {
      */
     public boolean renameField(String oldName, String newName) throws IllegalArgumentException 
     {
+        loadMembers();
         for (Field a : fields) 
         {
             //If the new name name already exists, return false.
@@ -194,6 +342,7 @@ public class Class {
                 Field toAdd = new Field(type, newName, access);
                 this.fields.remove(f);
                 this.fields.add(toAdd);
+                changed();
                 return true;
             }
         }
@@ -206,6 +355,7 @@ public class Class {
      */
     public boolean changeFieldType(String name, String newType) throws IllegalArgumentException 
     {
+        loadMembers();
         for (Field f : fields) 
         {
             if (f.getName().equals(name)) 
@@ -215,6 +365,7 @@ public class Class {
                 Field toAdd = new Field(newType, name, access);
                 this.fields.remove(f);
                 this.fields.add(toAdd);
+                changed();
                 return true;
             }
         }
@@ -226,6 +377,7 @@ public class Class {
      */
     public boolean changeFieldAccess(String fieldName, String newAccessString)
     {
+        loadMembers();
         for(Field f : fields)
         {
             if (f.getName().equals(fieldName))
@@ -235,6 +387,7 @@ public class Class {
                 Field toAdd = new Field(type, fieldName, newAccessString);
                 this.fields.remove(f);
                 this.fields.add(toAdd);
+                changed();
                 return true;
             }
         }
@@ -253,50 +406,25 @@ public class Class {
      */
     public boolean addMethod(String type, String name, ArrayList<Parameter> params, String access) throws IllegalArgumentException 
     {
+        loadMembers();
         Method newMethod = new Method(type, name, params, access);
-        for (Method m : methods) 
-        {
-            // If the number of parameters doesn't match, no need to check if the parameters are equal.
-            if ((params.size() == m.getParams().size())) 
-            {
-                //If the return type and method name are equal, check if parameters are equal.
-                if (m.getType().equals(newMethod.getType()) && m.getName().equals(newMethod.getName())) 
-                {
-                    boolean typesMatch = true;
-                    //Iterate through parameters to check if they are equal.
-                    for (int count = 0; count < params.size(); count++) 
-                    {
-                        if (!params.get(count).getType().equals(m.getParams().get(count).getType())) 
-                        {
-                            typesMatch = false;
-                        }
-                    }
-                    //If the method to be added is exactly equal to another, don't add and return false.
-                    if (typesMatch)
-                        return false;
-                }
-            }
-        }
-        methods.add(newMethod);
-        return true;
+        //The set refuses a method whose return type, name and parameter types are already used.
+        boolean added = methods.add(newMethod);
+        if (added)
+            changed();
+        return added;
     }
 
     /**
      * Deletes a method from the class.  If it is not deleted, return false.
      */
-    //////////Can rewrite in one line as long as method.equals() works correctly.
     public boolean deleteMethod(String type, String name, ArrayList<Parameter> params, String access) 
     {
-        Method method = new Method(type, name, params, access);
-        for (Method m : methods) 
-        {
-            if (m.getType().equals(type) && m.getName().equals(name) && m.getParams().equals(params)) 
-            {
-                //This should always be true in this case.
-                return methods.remove(method);
-            }
-        }
-        return false;
+        loadMembers();
+        boolean removed = methods.remove(new Method(type, name, params, access));
+        if (removed)
+            changed();
+        return removed;
     }
 
     /**
@@ -305,22 +433,8 @@ public class Class {
     public boolean renameMethod(String type, String oldName, ArrayList<Parameter> params, String access, String newName) throws IllegalArgumentException 
     {
         Method methodNew = new Method(type, newName, params, access);
-        for (Method m : methods) 
-        {
-            //If that exact method already exists, return false.
-            if (m.equals(methodNew)) 
-            {
-                return false;
-            }
-        }
-        Method method = new Method(type, oldName, params, access);
-        boolean deleted = methods.remove(method);
-        if (deleted) 
-        {
-            addMethod(type, newName, params, access);
-        }
         //Returns false if method wasn't found in methods, true if it was found and renamed.
-        return deleted;
+        return replaceMethod(new Method(type, oldName, params, access), methodNew);
     }
 
     /**
@@ -329,22 +443,8 @@ public class Class {
     public boolean changeMethodType(String oldType, String methodName, ArrayList<Parameter> params, String access, String newType) throws IllegalArgumentException 
     {
         Method methodNew = new Method(newType, methodName, params, access);
-        for (Method m : methods) 
-        {
-            //If that exact method already exists, return false.
-            if (m.equals(methodNew)) 
-            {
-                return false;
-            }
-        }
-        Method method = new Method(oldType, methodName, params, access);
-        boolean deleted = methods.remove(method);
-        if (deleted) 
-        {
-            addMethod(newType, methodName, params, access);
-        }
         //Returns false if method wasn't found in methods, true if it was found and retyped.
-        return deleted;
+        return replaceMethod(new Method(oldType, methodName, params, access), methodNew);
     }
     /**
      * Changes the access type of a method.  If it cannot be changed, return false.
@@ -354,21 +454,29 @@ public class Class {
         if(!newAccess.equals("public") && !newAccess.equals("private") && !newAccess.equals("protected"))
             return false;
         Method methodNew = new Method(type, methodName, params, newAccess);
-        for (Method m : methods) 
+        return replaceMethod(new Method(type, methodName, params, access), methodNew);
+    }
+
+    /**
+     * Swaps a method for a changed copy of it.  Returns false if the method isn't in the class, or if another
+     * method already has the signature of the changed copy.
+     */
+    private boolean replaceMethod(Method oldMethod, Method newMethod)
+    {
+        loadMembers();
+        if (!methods.contains(oldMethod))
         {
-            //If that exact method already exists, return false.
-            if (m.equals(methodNew)) 
-            {
-                return false;
-            }
+            return false;
         }
-        Method method = new Method(type, methodName, params, access);
-        boolean deleted = methods.remove(method);
-        if (deleted) 
+        Method existing = methods.get(newMethod.getSignature());
+        if (existing != null && !existing.equals(oldMethod))
         {
-            addMethod(type, methodName, params, newAccess);
+            return false;
         }
-        return deleted;
+        methods.remove(oldMethod);
+        methods.add(newMethod);
+        changed();
+        return true;
     }
 
 
@@ -382,24 +490,18 @@ public class Class {
  */
 public boolean addParameter(String returnType, String methodName, ArrayList<Parameter> params, String access, String paramType, String paramName)
 {
-    ArrayList<Parameter> params2 = (ArrayList<Parameter>)params.clone();
-    params2.add(new Parameter(paramType, paramName));
-    Method methodNew = new Method(returnType, methodName, params2, access);
-    for (Method m : methods) 
+    //A method can't have two parameters with the same name.
+    for (Parameter p : params) 
     {
-        //If that exact method already exists, return false.
-        if (m.equals(methodNew)) 
+        if (p.getName().equals(paramName)) 
         {
             return false;
         }
     }
-    Method method = new Method(returnType, methodName, params, access);
-    boolean deleted = methods.remove(method);
-    if (deleted) 
-    {
-        addMethod(returnType, methodName, params2, access);
-    }
-    return deleted;
+    ArrayList<Parameter> params2 = (ArrayList<Parameter>)params.clone();
+    params2.add(new Parameter(paramType, paramName));
+    Method methodNew = new Method(returnType, methodName, params2, access);
+    return replaceMethod(new Method(returnType, methodName, params, access), methodNew);
 }
 
 
@@ -411,21 +513,7 @@ public boolean deleteParameter(String methodType, String methodName, ArrayList<P
     ArrayList<Parameter> params2 = (ArrayList<Parameter>)params.clone();
     params2.remove(new Parameter(paramType, paramName));
     Method methodNew = new Method(methodType, methodName, params2, access);
-    for (Method m : methods) 
-    {
-        //If that exact method already exists, return false.
-        if (m.equals(methodNew)) 
-        {
-            return false;
-        }
-    }
-    Method method = new Method(methodType, methodName, params, access);
-    boolean deleted = methods.remove(method);
-    if (deleted) 
-    {
-        addMethod(methodType, methodName, params2, access);
-    }
-    return deleted;
+    return replaceMethod(new Method(methodType, methodName, params, access), methodNew);
 }
 
 
@@ -440,17 +528,31 @@ public boolean deleteParameter(String methodType, String methodName, ArrayList<P
      */
     public boolean addRelationshipToOther(RelationshipType relation, Class aClass) throws IllegalArgumentException 
     {
+        loadRelationships();
+        aClass.loadRelationships();
         // If trying to create a relationship with a class and itself, throw exception.
         if (this.equals(aClass)) 
         {
             throw new IllegalArgumentException("A class cannot have a relationship with itself.");
 
         }
+        RelationshipGraph inGraph = graph;
+        if (inGraph != null || aClass.graph != null)
+        {
+            //Classes in different stores, or only one in a store, can't be related.
+            if (inGraph != aClass.graph || !inGraph.relate(this, aClass, relation))
+                return false;
+            changed();
+            aClass.changed();
+            return true;
+        }
         // If relationship already exists between the two classes, don't overwrite.
         if (!relationshipsToOther.containsKey(aClass.name) && !relationshipsFromOther.containsKey(aClass.name)) 
         {
             relationshipsToOther.put(aClass.name, relation);
             aClass.relationshipsFromOther.put(this.name, relation);
+            changed();
+            aClass.changed();
             return true;
         }
         //This will occur if there is already a relationship between the two classes.
@@ -462,16 +564,29 @@ public boolean deleteParameter(String methodType, String methodName, ArrayList<P
      */
     public boolean addRelationshipFromOther(RelationshipType relation, Class aClass) throws IllegalArgumentException 
     {
+        loadRelationships();
+        aClass.loadRelationships();
         // If trying to create a relationship with a class and itself, throw exception.
         if (this.equals(aClass)) 
         {
             throw new IllegalArgumentException("A class cannot have a relationship with itself.");
         }
+        RelationshipGraph inGraph = graph;
+        if (inGraph != null || aClass.graph != null)
+        {
+            if (inGraph != aClass.graph || !inGraph.relate(aClass, this, relation))
+                return false;
+            changed();
+            aClass.changed();
+            return true;
+        }
         // If relationship already exists between the two classes, don't overwrite.
         if (!relationshipsFromOther.containsKey(aClass.name) && !relationshipsToOther.containsKey(aClass.name)) 
         {
             relationshipsFromOther.put(aClass.name, relation);
             aClass.relationshipsToOther.put(this.name, relation);
+            changed();
+            aClass.changed();
             return true;
         }
         //This will occur if there is already a relationship between the two classes.
@@ -483,10 +598,22 @@ public boolean deleteParameter(String methodType, String methodName, ArrayList<P
      */
     public boolean deleteRelationshipToOther(RelationshipType relation, Class aClass) 
     {
+        loadRelationships();
+        aClass.loadRelationships();
+        RelationshipGraph inGraph = graph;
+        if (inGraph != null)
+        {
+            boolean removed = inGraph.unrelate(this, aClass, relation);
+            changed();
+            aClass.changed();
+            return removed;
+        }
         //Remove relationship this class has to another.
         boolean removedToOther = relationshipsToOther.remove(aClass.name, relation);
         //Remove a relationship another class has from this one.
         boolean removedFromOther = aClass.relationshipsFromOther.remove(this.name, relation);
+        changed();
+        aClass.changed();
         //True if both cases above were true.
         return removedToOther && removedFromOther;
     }
@@ -496,10 +623,22 @@ public boolean deleteParameter(String methodType, String methodName, ArrayList<P
      */
     public boolean deleteRelationshipFromOther(RelationshipType relation, Class aClass) 
     {
+        loadRelationships();
+        aClass.loadRelationships();
+        RelationshipGraph inGraph = graph;
+        if (inGraph != null)
+        {
+            boolean removed = inGraph.unrelate(aClass, this, relation);
+            changed();
+            aClass.changed();
+            return removed;
+        }
         //Remove a relationship this class has from another.
         boolean removedFromOther = relationshipsFromOther.remove(aClass.name, relation);
         //Remove relationship another class has to this one.
         boolean removedToOther = aClass.relationshipsToOther.remove(this.name, relation);
+        changed();
+        aClass.changed();
         //True if both cases above were true.
         return removedFromOther && removedToOther;
     }
@@ -525,6 +664,10 @@ public boolean deleteParameter(String methodType, String methodName, ArrayList<P
             result = false;
         } else {
             Class object = (Class) other;
+            loadMembers();
+            loadRelationships();
+            object.loadMembers();
+            object.loadRelationships();
             boolean fieldEqual = true;
             // Check if both sets contain the same objects since equals() won't work
             for (Field att : this.fields) 
@@ -558,8 +701,8 @@ public boolean deleteParameter(String methodType, String methodName, ArrayList<P
                 }
             }
             if (object.name.equals(this.name) && fieldEqual && methodEqual
-                    && object.relationshipsToOther.equals(this.relationshipsToOther)
-                    && object.relationshipsFromOther.equals(this.relationshipsFromOther)) 
+                    && object.getRelationshipsToOther().equals(this.getRelationshipsToOther())
+                    && object.getRelationshipsFromOther().equals(this.getRelationshipsFromOther())) 
             {
                 result = true;
             }
@@ -568,31 +711,87 @@ public boolean deleteParameter(String methodType, String methodName, ArrayList<P
     }
 
     /**
-     * Returns a string representation of a class object.
+     * Puts the relationships in the class's own maps into the graph it was just added to, then drops the maps.
+     * A relationship is kept if the other class is in the graph too and passes the test.
+     */
+    void moveRelationshipsToGraph(Predicate<Class> keep)
+    {
+        graph.relateByName(this, relationshipsToOther, relationshipsFromOther, keep);
+        relationshipsToOther = null;
+        relationshipsFromOther = null;
+    }
+
+    /**
+     * Gives the class empty relationship maps of its own again, once it is taken out of a graph.
+     */
+    void leftGraph()
+    {
+        relationshipsToOther = new ConcurrentHashMap<String, RelationshipType>();
+        relationshipsFromOther = new ConcurrentHashMap<String, RelationshipType>();
+    }
+
+    /**
+     * Returns where a snapshot taken now finds the fields and methods once they are loaded, or null if they
+     * already are, in which case the snapshot copies them itself.
+     */
+    Unloaded unloadedMembers()
+    {
+        ClassSource source = memberSource;
+        if (source == null)
+            return null;
+        synchronized (source)
+        {
+            if (memberSource == null)
+                return null;
+            if (unloaded == null)
+                unloaded = new Unloaded(this);
+            return unloaded;
+        }
+    }
+
+    /**
+     * Returns true while the class's relationships are still waiting to be loaded from its file.
+     */
+    boolean relationshipsPending()
+    {
+        return relationshipSource != null;
+    }
+
+    /**
+     * Drops the cached string. The class's own mutators call this. Anything in the package that edits the
+     * field set, method set or relationship maps directly must call it too.
+     */
+    void changed()
+    {
+        rendered = null;
+    }
+
+    /**
+     * Returns a string representation of a class object. It is built once and reused until the class changes,
+     * since the views ask for it on every rebuild and zoom.
      */
     public String toString() {
-        String result = "";
-        result += "Class name: " + this.name + "\n";
-        result += "------------------------------\n";
-        result += "Field Names: \n";
-        if (!fields.isEmpty()) {
+        if (rendered == null) {
+            loadMembers();
+            loadRelationships();
+            StringBuilder result = new StringBuilder();
+            result.append("Class name: ").append(this.name).append('\n');
+            result.append("------------------------------\n");
+            result.append("Field Names: \n");
             for (Field field : fields) {
-                result += field.toString();
-                result += "\n";
+                result.append(field.toString()).append('\n');
             }
-        }
-        result += "------------------------------\n";
+            result.append("------------------------------\n");
 
-        result += "Methods:  \n";
-        if (!methods.isEmpty()) {
+            result.append("Methods:  \n");
             for (Method m : methods) {
-                result += m.toString();
-                result += "\n";
+                result.append(m.toString()).append('\n');
             }
+            result.append("\n------------------------------\n");
+            result.append("Relationships To Others: \n").append(getRelationshipsToOther().toString()).append('\n');
+            result.append("Relationships From Others: \n").append(getRelationshipsFromOther().toString());
+            rendered = result.toString();
         }
-        result += "\n------------------------------\n";
-        result += "Relationships To Others: \n" + relationshipsToOther.toString() + "\n";
-        result += "Relationships From Others: \n" + relationshipsFromOther.toString();
-        return result;
+        return rendered;
     }
 }
\ No newline at end of file
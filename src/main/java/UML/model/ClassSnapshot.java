@@ -0,0 +1,190 @@
+package UML.model;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/17/2026
+    Purpose: A class as it was when a snapshot of the store was taken. It never changes, so any thread can
+    read it while the class itself goes on being edited.
+ */
+import java.awt.Dimension;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+public final class ClassSnapshot implements ReadableClass
+{
+    private final String name;
+    private final int x;
+    private final int y;
+    //Where the class comes in the store's list. Only the order matters, not the numbers.
+    final long order;
+    private final PersistentMap<String, RelationshipType> toOther;
+    private final PersistentMap<String, RelationshipType> fromOther;
+    //Where to find the fields and methods of a class whose file hadn't been read yet when this was taken. Null otherwise.
+    private final Class.Unloaded unloaded;
+    //The fields and methods. Null until they are first needed if the class was unloaded.
+    private volatile Members members;
+    //The text for toString(), built on first use.
+    private volatile String rendered;
+
+    /**
+     * The fields and methods, in the order the class had them.
+     */
+    private static final class Members
+    {
+        final Field[] fields;
+        final Method[] methods;
+
+        Members(Field[] fields, Method[] methods)
+        {
+            this.fields = fields;
+            this.methods = methods;
+        }
+
+        Members(Class aClass)
+        {
+            this(aClass.getFields().toArray(new Field[0]), aClass.getMethods().toArray(new Method[0]));
+        }
+    }
+
+    private ClassSnapshot(String name, int x, int y, long order, PersistentMap<String, RelationshipType> toOther,
+            PersistentMap<String, RelationshipType> fromOther, Class.Unloaded unloaded, Members members)
+    {
+        this.name = name;
+        this.x = x;
+        this.y = y;
+        this.order = order;
+        this.toOther = toOther;
+        this.fromOther = fromOther;
+        this.unloaded = unloaded;
+        this.members = members;
+    }
+
+    /**
+     * Takes a snapshot of a class. Its relationships are loaded if they were still in its file, but its
+     * fields and methods are left there until something reads them. They can't have changed in the meantime,
+     * since changing them loads them first, and the class hands what it loaded to the snapshots waiting for it.
+     */
+    static ClassSnapshot of(Class aClass, long order)
+    {
+        Dimension location = aClass.getLocation();
+        Class.Unloaded waiting = aClass.unloadedMembers();
+        return new ClassSnapshot(aClass.getName(), (int)location.getWidth(), (int)location.getHeight(), order,
+                PersistentMap.of(aClass.getRelationshipsToOther()), PersistentMap.of(aClass.getRelationshipsFromOther()),
+                waiting, waiting != null ? null : new Members(aClass));
+    }
+
+    /**
+     * Returns a copy with the fields and methods the class has now.
+     */
+    ClassSnapshot withMembers(Class aClass)
+    {
+        return new ClassSnapshot(name, x, y, order, toOther, fromOther, null, new Members(aClass));
+    }
+
+    /**
+     * Returns a copy with one relationship set, or taken away if the type is null.
+     */
+    ClassSnapshot withRelationship(String other, RelationshipType type, boolean outgoing)
+    {
+        PersistentMap<String, RelationshipType> changed = outgoing ? toOther : fromOther;
+        changed = type == null ? changed.minus(other) : changed.plus(other, type);
+        return new ClassSnapshot(name, x, y, order, outgoing ? changed : toOther, outgoing ? fromOther : changed, unloaded, members);
+    }
+
+    /**
+     * Returns a copy at another location.
+     */
+    ClassSnapshot moved(int x, int y)
+    {
+        return new ClassSnapshot(name, x, y, order, toOther, fromOther, unloaded, members);
+    }
+
+    private Members members()
+    {
+        Members found = members;
+        if (found == null)
+        {
+            unloaded.load();
+            found = new Members(unloaded.fields, unloaded.methods);
+            members = found;
+        }
+        return found;
+    }
+
+    @Override
+    public String getName()
+    {
+        return name;
+    }
+
+    @Override
+    public Dimension getLocation()
+    {
+        return new Dimension(x, y);
+    }
+
+    @Override
+    public Collection<Field> getFields()
+    {
+        return Collections.unmodifiableList(Arrays.asList(members().fields));
+    }
+
+    @Override
+    public Collection<Method> getMethods()
+    {
+        return Collections.unmodifiableList(Arrays.asList(members().methods));
+    }
+
+    @Override
+    public Map<String, RelationshipType> getRelationshipsToOther()
+    {
+        return toOther.asMap();
+    }
+
+    @Override
+    public Map<String, RelationshipType> getRelationshipsFromOther()
+    {
+        return fromOther.asMap();
+    }
+
+    /**
+     * Returns the text Class.toString() had when the snapshot was taken, though the relationships of each
+     * kind may be listed in another order.
+     */
+    @Override
+    public String toString()
+    {
+        String text = rendered;
+        if (text == null)
+        {
+            text = render(members());
+            rendered = text;
+        }
+        return text;
+    }
+
+    /**
+     * Builds the text the way Class.toString() does.
+     */
+    private String render(Members found)
+    {
+        StringBuilder result = new StringBuilder();
+        result.append("Class name: ").append(name).append('\n');
+        result.append("------------------------------\n");
+        result.append("Field Names: \n");
+        for (Field field : found.fields) {
+            result.append(field.toString()).append('\n');
+        }
+        result.append("------------------------------\n");
+
+        result.append("Methods:  \n");
+        for (Method m : found.methods) {
+            result.append(m.toString()).append('\n');
+        }
+        result.append("\n------------------------------\n");
+        result.append("Relationships To Others: \n").append(toOther.asMap().toString()).append('\n');
+        result.append("Relationships From Others: \n").append(fromOther.asMap().toString());
+        return result.toString();
+    }
+}
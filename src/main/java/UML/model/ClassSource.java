@@ -0,0 +1,18 @@
+package UML.model;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/17/2026
+    Purpose: Where a class opened without its details gets them from, the first time they are used.
+ */
+public interface ClassSource
+{
+    /**
+     * Adds the fields and methods of a class that was opened without them.
+     */
+    void loadMembers(Class target);
+
+    /**
+     * Adds the relationships of a class that was opened without them, both to and from other classes.
+     */
+    void loadRelationships(Class target);
+}
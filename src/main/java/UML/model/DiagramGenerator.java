@@ -0,0 +1,234 @@
+package UML.model;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/17/2026
+    Purpose: Builds large made-up diagrams for load and stress testing. The same seed and settings
+    always give the same diagram, so a slow case can be shared as a seed instead of a file.
+ */
+import java.awt.Dimension;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+public class DiagramGenerator
+{
+    //The types fields, methods and parameters are given.
+    private static final String[] TYPES = {"int", "String", "double", "boolean", "long", "char", "float"};
+    private static final String[] ACCESSES = {"public", "private", "protected"};
+
+    //How far apart the classes are laid out.
+    private static final int COLUMN_WIDTH = 250;
+    private static final int ROW_HEIGHT = 400;
+
+    private long seed;
+    private int classCount;
+    private int fieldsPerClass = 5;
+    private int methodsPerClass = 5;
+    private int minParams = 0;
+    private int maxParams = 3;
+    //The average number of relationships each class starts.
+    private double relationshipsPerClass = 1.0;
+    //How likely each relationship type is, relative to the others.
+    private Map<RelationshipType, Integer> typeWeights;
+    //How many classes a row of the diagram has.
+    private int columns = 100;
+
+    /**
+     * Constructs a generator for a diagram of the given number of classes, with every relationship type equally likely.
+     */
+    public DiagramGenerator(long seed, int classCount)
+    {
+        this.seed = seed;
+        setClassCount(classCount);
+        typeWeights = new EnumMap<RelationshipType, Integer>(RelationshipType.class);
+        for(RelationshipType type : RelationshipType.values())
+        {
+            typeWeights.put(type, 1);
+        }
+    }
+
+    /**
+     * Sets the seed the diagram is made from.
+     */
+    public void setSeed(long seed)
+    {
+        this.seed = seed;
+    }
+
+    /**
+     * Sets the number of classes.
+     */
+    public void setClassCount(int classCount)
+    {
+        if(classCount < 0)
+            throw new IllegalArgumentException("The class count cannot be negative.");
+        this.classCount = classCount;
+    }
+
+    /**
+     * Sets the number of fields each class has.
+     */
+    public void setFieldsPerClass(int fieldsPerClass)
+    {
+        if(fieldsPerClass < 0)
+            throw new IllegalArgumentException("The number of fields cannot be negative.");
+        this.fieldsPerClass = fieldsPerClass;
+    }
+
+    /**
+     * Sets the number of methods each class has.
+     */
+    public void setMethodsPerClass(int methodsPerClass)
+    {
+        if(methodsPerClass < 0)
+            throw new IllegalArgumentException("The number of methods cannot be negative.");
+        this.methodsPerClass = methodsPerClass;
+    }
+
+    /**
+     * Sets the fewest and most parameters a method can have.
+     */
+    public void setParamRange(int minParams, int maxParams)
+    {
+        if(minParams < 0 || maxParams < minParams)
+            throw new IllegalArgumentException("The parameter range must be from zero or more up to at least the minimum.");
+        this.minParams = minParams;
+        this.maxParams = maxParams;
+    }
+
+    /**
+     * Sets the average number of relationships each class starts. Pairs that are already related are skipped,
+     * so very dense diagrams end up with a few less.
+     */
+    public void setRelationshipsPerClass(double relationshipsPerClass)
+    {
+        if(relationshipsPerClass < 0)
+            throw new IllegalArgumentException("The relationship density cannot be negative.");
+        this.relationshipsPerClass = relationshipsPerClass;
+    }
+
+    /**
+     * Sets how likely a relationship type is, relative to the weights of the others. A weight of zero leaves it out.
+     */
+    public void setTypeWeight(RelationshipType type, int weight)
+    {
+        if(weight < 0)
+            throw new IllegalArgumentException("A relationship weight cannot be negative.");
+        typeWeights.put(type, weight);
+    }
+
+    /**
+     * Sets how many classes a row of the diagram has.
+     */
+    public void setColumns(int columns)
+    {
+        if(columns < 1)
+            throw new IllegalArgumentException("There must be at least one column.");
+        this.columns = columns;
+    }
+
+    /**
+     * Returns the name the class at the given position gets.
+     */
+    public static String className(int index)
+    {
+        return "Class" + index;
+    }
+
+    /**
+     * Makes a new store holding the diagram.
+     */
+    public Store generate()
+    {
+        Store store = new Store();
+        generate(store);
+        return store;
+    }
+
+    /**
+     * Adds the diagram's classes and relationships to a store, which should not already hold classes of the same names.
+     */
+    public void generate(Store store)
+    {
+        Random random = new Random(seed);
+        ArrayList<Class> classes = new ArrayList<Class>(classCount);
+        for(int index = 0; index < classCount; index++)
+        {
+            classes.add(makeClass(index, random));
+        }
+        store.addClasses(classes);
+
+        if(classCount < 2)
+            return;
+        int totalWeight = 0;
+        for(int weight : typeWeights.values())
+        {
+            totalWeight += weight;
+        }
+        if(totalWeight == 0)
+            return;
+        int whole = (int)relationshipsPerClass;
+        double fraction = relationshipsPerClass - whole;
+        for(int index = 0; index < classCount; index++)
+        {
+            int count = whole + (random.nextDouble() < fraction ? 1 : 0);
+            for(int made = 0; made < count; made++)
+            {
+                //Pick any other class, so no class is related to itself.
+                int other = random.nextInt(classCount - 1);
+                if(other >= index)
+                    other++;
+                store.addRelationship(className(index), className(other), pickType(random, totalWeight));
+            }
+        }
+    }
+
+    /**
+     * Makes one class with its fields and methods, placed on the grid by its position.
+     */
+    private Class makeClass(int index, Random random)
+    {
+        Class aClass = new Class(className(index));
+        aClass.setLocation(new Dimension((index % columns) * COLUMN_WIDTH, (index / columns) * ROW_HEIGHT));
+        for(int field = 0; field < fieldsPerClass; field++)
+        {
+            aClass.addField(pick(TYPES, random), "field" + field, pick(ACCESSES, random));
+        }
+        for(int method = 0; method < methodsPerClass; method++)
+        {
+            int paramCount = minParams + random.nextInt(maxParams - minParams + 1);
+            ArrayList<Parameter> params = new ArrayList<Parameter>(paramCount);
+            for(int param = 0; param < paramCount; param++)
+            {
+                params.add(new Parameter(pick(TYPES, random), "param" + param));
+            }
+            //Method names are numbered, so no two methods of a class can clash.
+            aClass.addMethod(pick(TYPES, random), "method" + method, params, pick(ACCESSES, random));
+        }
+        return aClass;
+    }
+
+    /**
+     * Picks a relationship type by the weights.
+     */
+    private RelationshipType pickType(Random random, int totalWeight)
+    {
+        int roll = random.nextInt(totalWeight);
+        for(Map.Entry<RelationshipType, Integer> entry : typeWeights.entrySet())
+        {
+            roll -= entry.getValue();
+            if(roll < 0)
+                return entry.getKey();
+        }
+        return RelationshipType.AGGREGATION;
+    }
+
+    /**
+     * Picks one of the given strings.
+     */
+    private static String pick(String[] options, Random random)
+    {
+        return options[random.nextInt(options.length)];
+    }
+}
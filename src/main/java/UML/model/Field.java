@@ -8,6 +8,8 @@ public class Field extends Formal
 {   
     //Stores public +, private -, or protected *
     private char access;
+    //The string from toString(), built on first use and dropped when the field changes.
+    private String rendered;
     
     /**
      * Contructs a new field object.
@@ -44,6 +46,7 @@ public class Field extends Formal
             this.access = '+';
             isSet = false;
         }
+        changed();
         return isSet;
     }
 
@@ -119,12 +122,25 @@ public class Field extends Formal
         return result;
     }
 
+    /**
+     * Drops the cached string after the field changes.
+     */
+    @Override
+    void changed()
+    {
+        rendered = null;
+    }
+
     /**
      * Returns a string reppresentation of a formal parameter.
      */
     @Override
     public String toString()
     {
-        return this.getAccessChar() + " " + this.getType() + " " + this.getName();
+        if (rendered == null)
+        {
+            rendered = new StringBuilder().append(this.getAccessChar()).append(' ').append(this.getType()).append(' ').append(this.getName()).toString();
+        }
+        return rendered;
     }
 } 
\ No newline at end of file
@@ -28,8 +28,9 @@ abstract class Formal {
         if(type.contains(" ")) {
             throw new IllegalArgumentException("The attribute type cannot contain a space.");
         }
-        this.type = type;
-        this.name = name;
+        //Names and types are shared through the symbol table, as most of them repeat across the diagram.
+        this.type = Symbols.intern(type);
+        this.name = Symbols.intern(name);
     }
 
     /**
@@ -53,7 +54,8 @@ abstract class Formal {
         if(name.trim().isEmpty()) {
             throw new IllegalArgumentException("The name type cannot be blank.");
         }
-        this.name = name;
+        this.name = Symbols.intern(name);
+        changed();
     }
 
     /**
@@ -63,7 +65,15 @@ abstract class Formal {
         if(type.trim().isEmpty()) {
             throw new IllegalArgumentException("The attribute type cannot be blank.");
         }
-        this.type = type;
+        this.type = Symbols.intern(type);
+        changed();
+    }
+
+    /**
+     * Called after the type or name changes. Subclasses that cache their strings drop them here.
+     */
+    void changed()
+    {
     }
 
     /**
@@ -8,6 +8,10 @@ public interface IStore
     boolean addClass(String name);
     boolean deleteClass(String name);
     boolean renameClass(String oldName, String newName);
+    boolean moveClass(String name, int x, int y);
+    boolean addClasses(ArrayList<Class> classes);
+    boolean restoreClass(Class aClass, int index);
+    void setClassStore(ArrayList<Class> newStore);
  
     //Field methods.
     boolean addField(String className, String type, String name, String access);
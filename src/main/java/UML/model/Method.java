@@ -12,6 +12,9 @@ public class Method extends Formal
     private ArrayList<Parameter> params;
     //Stores public +, private -, or protected *
     private char access;
+    //The strings from toString() and getSignature(), built on first use and dropped when the method changes.
+    private String rendered;
+    private String signature;
 
     /**
      * Contructs a method object.
@@ -19,7 +22,8 @@ public class Method extends Formal
     public Method(String type, String name, ArrayList<Parameter> params, String access) throws IllegalArgumentException
     {
         super(type, name);
-        this.params = params;
+        //Keep a copy so the caller's list can't change the method behind its cached strings.
+        this.params = new ArrayList<Parameter>(params);
         this.access = getCharFromString(access);
     }
 
@@ -47,6 +51,7 @@ public class Method extends Formal
         }
         else
             isSet = false;
+        changed();
         return isSet;
     }
 
@@ -100,7 +105,8 @@ public class Method extends Formal
     }
 
     /**
-     * Returns an ArrayList of the method's parameters.
+     * Returns an ArrayList of the method's parameters. Change them with addParam and deleteParam,
+     * not through this list, so the method's cached strings stay current.
      */
     public ArrayList<Parameter> getParams() 
     {
@@ -112,7 +118,8 @@ public class Method extends Formal
      */
     public void setParams(ArrayList<Parameter> parameters)
     {
-        this.params = parameters;
+        this.params = new ArrayList<Parameter>(parameters);
+        changed();
     }
     
     /**
@@ -127,6 +134,7 @@ public class Method extends Formal
         }
 
         this.params.add(param);
+        changed();
         return true;
     }
     
@@ -135,7 +143,10 @@ public class Method extends Formal
      */    
     public boolean deleteParam(Parameter param) 
     {
-        return this.params.remove(param);
+        boolean removed = this.params.remove(param);
+        if(removed)
+            changed();
+        return removed;
     }
 
     /**
@@ -155,43 +166,64 @@ public class Method extends Formal
         }
         else {
             Method object = (Method) other;
-            boolean equal = true;
-            //Check if both ArrayLists contain the same objects since equals() won't work
-            for(Parameter att : this.params) {
-                if(!object.params.contains(att)) {
-                    equal = false;
-                }
-            }
-            for(Parameter att : object.params) {
-                if(!this.params.contains(att)) {
-                    equal = false;
-                }
-            }
-            if(object.getName().equals(this.getName()) && object.getType().equals(this.getType()) && object.getAccessChar() == this.getAccessChar() && equal) {
+            //Parameters are compared in order, the same way hashCode() sees them.
+            if(object.getName().equals(this.getName()) && object.getType().equals(this.getType()) && object.getAccessChar() == this.getAccessChar() && object.params.equals(this.params)) {
                 result = true;
             }
         }
         return result;
     }
 
+    /**
+     * Returns the key that identifies this method within a class: return type, name and the parameter types in order.
+     * Two methods with the same signature can't be in the same class, whatever their access or parameter names.
+     */
+    public String getSignature()
+    {
+        if(signature == null)
+        {
+            StringBuilder builder = new StringBuilder();
+            builder.append(this.getType()).append(' ').append(this.getName()).append('(');
+            for(Parameter p : params)
+            {
+                builder.append(p.getType()).append(',');
+            }
+            signature = builder.append(')').toString();
+        }
+        return signature;
+    }
+
+    /**
+     * Drops the cached strings after the method changes.
+     */
+    @Override
+    void changed()
+    {
+        rendered = null;
+        signature = null;
+    }
+
     /**
      * Returns a string representation of a method.
      */
     @Override
     public String toString() 
     {
-        String result = "";
-        result += this.getAccessChar() + " " + this.getType() + " " + this.getName();
-        result += " ( ";
-
-        for(int counter = 0; counter < params.size() - 1; counter++)
+        if(rendered == null)
         {
-            result += params.get(counter).toString() + " , ";
+            StringBuilder result = new StringBuilder();
+            result.append(this.getAccessChar()).append(' ').append(this.getType()).append(' ').append(this.getName());
+            result.append(" ( ");
+            for(int counter = 0; counter < params.size(); counter++)
+            {
+                if(counter > 0)
+                    result.append(" , ");
+                result.append(params.get(counter).toString());
+            }
+            result.append(" )");
+            rendered = result.toString();
         }
-        if(params.size() > 0)
-            result += params.get(params.size() - 1).toString();
-        result += " )";
-        return result;
+        return rendered;
     }
 
     @Override
@@ -0,0 +1,83 @@
+package UML.model;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/17/2026
+    Purpose: Holds the methods of a class keyed by signature, so a method can be found, added or removed
+    without looping over the others. Only one method per signature is kept.
+ */
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+class MethodSet extends AbstractSet<Method>
+{
+    // The methods keyed by their signature, in the order they were added.
+    private LinkedHashMap<String, Method> methods;
+
+    /**
+     * Constructs an empty method set.
+     */
+    public MethodSet()
+    {
+        methods = new LinkedHashMap<String, Method>();
+    }
+
+    /**
+     * Returns the method with the given signature, or null if there isn't one.
+     */
+    public Method get(String signature)
+    {
+        return methods.get(signature);
+    }
+
+    /**
+     * Adds a method. Returns false if a method with the same signature is already there.
+     */
+    @Override
+    public boolean add(Method m)
+    {
+        return methods.putIfAbsent(m.getSignature(), m) == null;
+    }
+
+    /**
+     * Returns true if this exact method is in the set.
+     */
+    @Override
+    public boolean contains(Object o)
+    {
+        if (!(o instanceof Method))
+            return false;
+        Method m = (Method) o;
+        return m.equals(methods.get(m.getSignature()));
+    }
+
+    /**
+     * Removes this exact method. Returns false if it wasn't in the set.
+     */
+    @Override
+    public boolean remove(Object o)
+    {
+        if (!contains(o))
+            return false;
+        methods.remove(((Method) o).getSignature());
+        return true;
+    }
+
+    @Override
+    public Iterator<Method> iterator()
+    {
+        return methods.values().iterator();
+    }
+
+    @Override
+    public int size()
+    {
+        return methods.size();
+    }
+
+    @Override
+    public void clear()
+    {
+        methods.clear();
+    }
+}
@@ -0,0 +1,441 @@
+package UML.model;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/17/2026
+    Purpose: A map that never changes. Adding or removing a key returns a new map that shares everything but
+    the path to that key with the old one, so both can be kept and read by any thread without copying.
+    The keys are kept in a trie of their hashes, five bits per level, and keys whose hashes are equal share
+    a node that is searched in order.
+ */
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+public final class PersistentMap<K, V> implements Iterable<Map.Entry<K, V>>
+{
+    private static final PersistentMap<Object, Object> EMPTY = new PersistentMap<Object, Object>(null, 0);
+
+    //Null when the map is empty.
+    private final Node root;
+    private final int size;
+
+    private PersistentMap(Node root, int size)
+    {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Returns the empty map.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentMap<K, V> empty()
+    {
+        return (PersistentMap<K, V>)EMPTY;
+    }
+
+    /**
+     * Returns a map with the same entries as the given one.
+     */
+    public static <K, V> PersistentMap<K, V> of(Map<K, V> entries)
+    {
+        PersistentMap<K, V> map = empty();
+        for(Map.Entry<K, V> entry : entries.entrySet())
+        {
+            map = map.plus(entry.getKey(), entry.getValue());
+        }
+        return map;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Returns the value of a key, or null if the map doesn't have it.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(Object key)
+    {
+        if(root == null || key == null)
+            return null;
+        return (V)root.find(0, hash(key), key);
+    }
+
+    public boolean containsKey(Object key)
+    {
+        return get(key) != null;
+    }
+
+    /**
+     * Returns a map with the key set to the value. Neither can be null.
+     */
+    public PersistentMap<K, V> plus(K key, V value)
+    {
+        if(key == null || value == null)
+            throw new NullPointerException();
+        boolean[] added = new boolean[1];
+        Node start = root == null ? BitmapNode.EMPTY : root;
+        Node changed = start.with(0, hash(key), key, value, added);
+        if(changed == root)
+            return this;
+        return new PersistentMap<K, V>(changed, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * Returns a map without the key.
+     */
+    public PersistentMap<K, V> minus(Object key)
+    {
+        if(root == null || key == null)
+            return this;
+        Node changed = root.without(0, hash(key), key);
+        if(changed == root)
+            return this;
+        return changed == null ? empty() : new PersistentMap<K, V>(changed, size - 1);
+    }
+
+    /**
+     * Goes through the entries in no particular order.
+     */
+    @Override
+    public Iterator<Map.Entry<K, V>> iterator()
+    {
+        return new Entries<K, V>(root);
+    }
+
+    /**
+     * Returns the map as an unmodifiable java.util.Map, without copying it.
+     */
+    public Map<K, V> asMap()
+    {
+        return new AbstractMap<K, V>()
+        {
+            @Override
+            public V get(Object key)
+            {
+                return PersistentMap.this.get(key);
+            }
+
+            @Override
+            public boolean containsKey(Object key)
+            {
+                return PersistentMap.this.containsKey(key);
+            }
+
+            @Override
+            public int size()
+            {
+                return size;
+            }
+
+            @Override
+            public Set<Map.Entry<K, V>> entrySet()
+            {
+                return new AbstractSet<Map.Entry<K, V>>()
+                {
+                    @Override
+                    public Iterator<Map.Entry<K, V>> iterator()
+                    {
+                        return PersistentMap.this.iterator();
+                    }
+
+                    @Override
+                    public int size()
+                    {
+                        return size;
+                    }
+                };
+            }
+        };
+    }
+
+    private static int hash(Object key)
+    {
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * A node of the trie. Its entries are kept in pairs in one array: a key and its value, or null and a
+     * node further down.
+     */
+    private abstract static class Node
+    {
+        final Object[] array;
+
+        Node(Object[] array)
+        {
+            this.array = array;
+        }
+
+        abstract Object find(int shift, int hash, Object key);
+
+        /**
+         * Returns the node with the key set, or this node if it already had that value.
+         */
+        abstract Node with(int shift, int hash, Object key, Object value, boolean[] added);
+
+        /**
+         * Returns the node without the key, this node if it didn't have it, or null if it is left empty.
+         */
+        abstract Node without(int shift, int hash, Object key);
+    }
+
+    /**
+     * A node with up to 32 entries, one for each value of the next five bits of the hash.
+     */
+    private static final class BitmapNode extends Node
+    {
+        static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        //Which of the 32 places have an entry.
+        final int bitmap;
+
+        BitmapNode(int bitmap, Object[] array)
+        {
+            super(array);
+            this.bitmap = bitmap;
+        }
+
+        private int index(int bit)
+        {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key)
+        {
+            int bit = 1 << ((hash >>> shift) & 31);
+            if((bitmap & bit) == 0)
+                return null;
+            int index = index(bit);
+            Object found = array[2 * index];
+            if(found == null)
+                return ((Node)array[2 * index + 1]).find(shift + 5, hash, key);
+            return key.equals(found) ? array[2 * index + 1] : null;
+        }
+
+        @Override
+        Node with(int shift, int hash, Object key, Object value, boolean[] added)
+        {
+            int bit = 1 << ((hash >>> shift) & 31);
+            int index = index(bit);
+            if((bitmap & bit) == 0)
+            {
+                added[0] = true;
+                Object[] grown = new Object[array.length + 2];
+                System.arraycopy(array, 0, grown, 0, 2 * index);
+                grown[2 * index] = key;
+                grown[2 * index + 1] = value;
+                System.arraycopy(array, 2 * index, grown, 2 * index + 2, array.length - 2 * index);
+                return new BitmapNode(bitmap | bit, grown);
+            }
+            Object found = array[2 * index];
+            Object current = array[2 * index + 1];
+            if(found == null)
+            {
+                Node child = (Node)current;
+                Node changed = child.with(shift + 5, hash, key, value, added);
+                return changed == child ? this : replace(index, null, changed);
+            }
+            if(key.equals(found))
+                return current == value ? this : replace(index, found, value);
+            //Two keys in one place: they move down to a node of their own.
+            added[0] = true;
+            return replace(index, null, pair(shift + 5, found, current, hash, key, value));
+        }
+
+        @Override
+        Node without(int shift, int hash, Object key)
+        {
+            int bit = 1 << ((hash >>> shift) & 31);
+            if((bitmap & bit) == 0)
+                return this;
+            int index = index(bit);
+            Object found = array[2 * index];
+            if(found == null)
+            {
+                Node child = (Node)array[2 * index + 1];
+                Node changed = child.without(shift + 5, hash, key);
+                if(changed == child)
+                    return this;
+                if(changed != null)
+                    return replace(index, null, changed);
+            }
+            else if(!key.equals(found))
+                return this;
+            if(bitmap == bit)
+                return null;
+            Object[] shrunk = new Object[array.length - 2];
+            System.arraycopy(array, 0, shrunk, 0, 2 * index);
+            System.arraycopy(array, 2 * index + 2, shrunk, 2 * index, shrunk.length - 2 * index);
+            return new BitmapNode(bitmap & ~bit, shrunk);
+        }
+
+        private BitmapNode replace(int index, Object key, Object value)
+        {
+            Object[] copy = array.clone();
+            copy[2 * index] = key;
+            copy[2 * index + 1] = value;
+            return new BitmapNode(bitmap, copy);
+        }
+
+        /**
+         * Returns a node holding two keys that ended up in the same place.
+         */
+        private static Node pair(int shift, Object firstKey, Object firstValue, int secondHash, Object secondKey, Object secondValue)
+        {
+            int firstHash = hash(firstKey);
+            if(firstHash == secondHash)
+                return new CollisionNode(firstHash, new Object[] {firstKey, firstValue, secondKey, secondValue});
+            boolean[] added = new boolean[1];
+            return EMPTY.with(shift, firstHash, firstKey, firstValue, added).with(shift, secondHash, secondKey, secondValue, added);
+        }
+    }
+
+    /**
+     * The keys that have the same hash, searched one by one.
+     */
+    private static final class CollisionNode extends Node
+    {
+        final int hash;
+
+        CollisionNode(int hash, Object[] array)
+        {
+            super(array);
+            this.hash = hash;
+        }
+
+        private int indexOf(Object key)
+        {
+            for(int index = 0; index < array.length; index += 2)
+            {
+                if(key.equals(array[index]))
+                    return index;
+            }
+            return -1;
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key)
+        {
+            int index = indexOf(key);
+            return index < 0 ? null : array[index + 1];
+        }
+
+        @Override
+        Node with(int shift, int hash, Object key, Object value, boolean[] added)
+        {
+            if(hash != this.hash)
+            {
+                //A key with another hash: put this node under a bitmap node, where the two can be told apart.
+                int bit = 1 << ((this.hash >>> shift) & 31);
+                return new BitmapNode(bit, new Object[] {null, this}).with(shift, hash, key, value, added);
+            }
+            int index = indexOf(key);
+            if(index >= 0)
+            {
+                if(array[index + 1] == value)
+                    return this;
+                Object[] copy = array.clone();
+                copy[index + 1] = value;
+                return new CollisionNode(hash, copy);
+            }
+            added[0] = true;
+            Object[] grown = Arrays.copyOf(array, array.length + 2);
+            grown[array.length] = key;
+            grown[array.length + 1] = value;
+            return new CollisionNode(hash, grown);
+        }
+
+        @Override
+        Node without(int shift, int hash, Object key)
+        {
+            int index = indexOf(key);
+            if(index < 0)
+                return this;
+            if(array.length == 2)
+                return null;
+            Object[] shrunk = new Object[array.length - 2];
+            System.arraycopy(array, 0, shrunk, 0, index);
+            System.arraycopy(array, index + 2, shrunk, index, shrunk.length - index);
+            return new CollisionNode(hash, shrunk);
+        }
+    }
+
+    /**
+     * Goes down the trie keeping the arrays it is partway through on a stack.
+     */
+    private static final class Entries<K, V> implements Iterator<Map.Entry<K, V>>
+    {
+        //A trie of 32 bit hashes is at most seven bitmap nodes deep, with a collision node under them.
+        private Object[][] arrays = new Object[8][];
+        private int[] positions = new int[8];
+        private int depth = -1;
+        private Map.Entry<K, V> next;
+
+        Entries(Node root)
+        {
+            if(root != null)
+            {
+                depth = 0;
+                arrays[0] = root.array;
+            }
+            advance();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void advance()
+        {
+            next = null;
+            while(depth >= 0)
+            {
+                Object[] array = arrays[depth];
+                int position = positions[depth];
+                if(position >= array.length)
+                {
+                    positions[depth] = 0;
+                    depth--;
+                    continue;
+                }
+                positions[depth] = position + 2;
+                if(array[position] == null)
+                {
+                    depth++;
+                    arrays[depth] = ((Node)array[position + 1]).array;
+                    positions[depth] = 0;
+                    continue;
+                }
+                next = new AbstractMap.SimpleImmutableEntry<K, V>((K)array[position], (V)array[position + 1]);
+                return;
+            }
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<K, V> next()
+        {
+            if(next == null)
+                throw new NoSuchElementException();
+            Map.Entry<K, V> found = next;
+            advance();
+            return found;
+        }
+    }
+}
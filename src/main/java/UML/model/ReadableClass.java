@@ -0,0 +1,25 @@
+package UML.model;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/17/2026
+    Purpose: What a class offers to code that only reads it, such as saving and displaying. Both a class in
+    the store and a class in a snapshot of the store can be read this way.
+ */
+import java.awt.Dimension;
+import java.util.Collection;
+import java.util.Map;
+
+public interface ReadableClass
+{
+    String getName();
+
+    Dimension getLocation();
+
+    Collection<Field> getFields();
+
+    Collection<Method> getMethods();
+
+    Map<String, RelationshipType> getRelationshipsToOther();
+
+    Map<String, RelationshipType> getRelationshipsFromOther();
+}
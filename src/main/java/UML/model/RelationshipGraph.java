@@ -0,0 +1,507 @@
+package UML.model;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/17/2026
+    Purpose: The relationships of every class in a store. Each class is a node with a number, and each node
+    keeps the numbers of the classes it is related to in one list per direction and relationship type, so
+    deleting or renaming a class only touches its own relationships. Every relationship is also kept by
+    its pair of node numbers, so one can be found without looking through either list.
+ */
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+public class RelationshipGraph
+{
+    /**
+     * Told about each relationship by forEachEdge.
+     */
+    public interface EdgeVisitor
+    {
+        void visit(Class from, Class to, RelationshipType type);
+    }
+
+    private static final RelationshipType[] TYPES = RelationshipType.values();
+    //Where the lists of relationships from a node start in its array of lists. The lists of relationships to it follow.
+    private static final int OUT = 0;
+    private static final int IN = TYPES.length;
+
+    //The class of each node, by number. Null where a node was removed and its number not yet reused.
+    private Class[] nodes;
+    //The lists of related nodes of each node, by direction and type. Null until the node has a relationship.
+    private IntList[][] adjacency;
+    //One past the highest number given to a node.
+    private int nodeCount;
+    //Numbers of removed nodes, given to the next nodes added.
+    private IntList freeIds;
+    //Every relationship, keyed by the numbers of the nodes it goes from and to.
+    private HashMap<Long, Edge> edges;
+    //Finds a class of the store by name.
+    private Function<String, Class> classes;
+
+    /**
+     * Constructs an empty graph for the classes that the given function finds by name.
+     */
+    RelationshipGraph(Function<String, Class> classes)
+    {
+        this.classes = classes;
+        nodes = new Class[16];
+        adjacency = new IntList[16][];
+        freeIds = new IntList();
+        edges = new HashMap<Long, Edge>();
+    }
+
+//================================================================================================================================================
+//Reading the graph.
+//================================================================================================================================================
+
+    /**
+     * Returns how many relationships there are.
+     */
+    public synchronized int edgeCount()
+    {
+        return edges.size();
+    }
+
+    /**
+     * Returns how many relationships a class has, to and from other classes.
+     */
+    public synchronized int degree(Class aClass)
+    {
+        if(!contains(aClass))
+            return 0;
+        int degree = 0;
+        IntList[] lists = adjacency[aClass.id];
+        if(lists != null)
+        {
+            for(IntList list : lists)
+            {
+                if(list != null)
+                    degree += list.size;
+            }
+        }
+        return degree;
+    }
+
+    /**
+     * Returns the classes a class has a relationship with, in either direction.
+     */
+    public synchronized ArrayList<Class> related(Class aClass)
+    {
+        ArrayList<Class> related = new ArrayList<Class>();
+        if(!contains(aClass) || adjacency[aClass.id] == null)
+            return related;
+        for(IntList list : adjacency[aClass.id])
+        {
+            for(int index = 0; list != null && index < list.size; index++)
+            {
+                related.add(nodes[list.items[index]]);
+            }
+        }
+        return related;
+    }
+
+    /**
+     * Returns the type of the relationship from one class to another, or null if there isn't one that way.
+     */
+    public synchronized RelationshipType getType(Class from, Class to)
+    {
+        if(!contains(from) || !contains(to))
+            return null;
+        Edge edge = edges.get(key(from.id, to.id));
+        return edge == null ? null : edge.type;
+    }
+
+    /**
+     * Passes every relationship to the visitor, in no particular order. Classes whose relationships haven't
+     * been loaded from their file yet are loaded first.
+     */
+    public void forEachEdge(EdgeVisitor visitor)
+    {
+        for(Class aClass : classes())
+        {
+            aClass.getRelationshipsToOther();
+        }
+        ArrayList<Object[]> found = new ArrayList<Object[]>();
+        synchronized(this)
+        {
+            found.ensureCapacity(edges.size());
+            for(Map.Entry<Long, Edge> entry : edges.entrySet())
+            {
+                long key = entry.getKey();
+                found.add(new Object[] {nodes[(int)(key >>> 32)], nodes[(int)key], entry.getValue().type});
+            }
+        }
+        //The visitor is called without holding the graph, so it can use the store.
+        for(Object[] edge : found)
+        {
+            visitor.visit((Class)edge[0], (Class)edge[1], (RelationshipType)edge[2]);
+        }
+    }
+
+    /**
+     * Passes the relationships from a class that are in the graph so far to the visitor, without loading any.
+     */
+    synchronized void forEachLoadedEdgeFrom(Class aClass, EdgeVisitor visitor)
+    {
+        if(!contains(aClass) || adjacency[aClass.id] == null)
+            return;
+        for(int type = 0; type < TYPES.length; type++)
+        {
+            IntList list = adjacency[aClass.id][OUT + type];
+            for(int index = 0; list != null && index < list.size; index++)
+            {
+                visitor.visit(aClass, nodes[list.items[index]], TYPES[type]);
+            }
+        }
+    }
+
+    /**
+     * Returns a live map of the relationships from a class to others, keyed by the other class's name.
+     * It can't be changed directly; change the relationships through the store.
+     */
+    Map<String, RelationshipType> outgoing(Class aClass)
+    {
+        return new Neighbours(aClass, OUT);
+    }
+
+    /**
+     * Returns a live map of the relationships from other classes to a class, keyed by the other class's name.
+     */
+    Map<String, RelationshipType> incoming(Class aClass)
+    {
+        return new Neighbours(aClass, IN);
+    }
+
+//================================================================================================================================================
+//Changing the graph.
+//================================================================================================================================================
+
+    /**
+     * Adds a class as a node with no relationships.
+     */
+    synchronized void add(Class aClass)
+    {
+        int id;
+        if(freeIds.size > 0)
+            id = freeIds.removeLast();
+        else
+        {
+            id = nodeCount++;
+            if(id == nodes.length)
+            {
+                nodes = Arrays.copyOf(nodes, id * 2);
+                adjacency = Arrays.copyOf(adjacency, id * 2);
+            }
+        }
+        nodes[id] = aClass;
+        aClass.id = id;
+        aClass.graph = this;
+    }
+
+    /**
+     * Removes a class's relationships, then the class itself. Takes time in proportion to how many
+     * relationships it had.
+     */
+    synchronized void remove(Class aClass)
+    {
+        if(!contains(aClass))
+            return;
+        isolate(aClass);
+        nodes[aClass.id] = null;
+        adjacency[aClass.id] = null;
+        freeIds.add(aClass.id);
+        aClass.leftGraph();
+        aClass.graph = null;
+    }
+
+    /**
+     * Removes every relationship a class has and returns the classes it was related to.
+     */
+    synchronized ArrayList<Class> isolate(Class aClass)
+    {
+        ArrayList<Class> related = new ArrayList<Class>();
+        if(!contains(aClass))
+            return related;
+        IntList[] lists = adjacency[aClass.id];
+        if(lists == null)
+            return related;
+        for(int list = 0; list < lists.length; list++)
+        {
+            //Removing a relationship shortens the list from the end, so the last one is taken each time.
+            while(lists[list] != null && lists[list].size > 0)
+            {
+                Class other = nodes[lists[list].items[lists[list].size - 1]];
+                related.add(other);
+                if(list < IN)
+                    unrelate(aClass, other);
+                else
+                    unrelate(other, aClass);
+            }
+        }
+        return related;
+    }
+
+    /**
+     * Relates one class to another. Returns false if either isn't a node of this graph, if they are the same
+     * class, or if they are already related in either direction.
+     */
+    synchronized boolean relate(Class from, Class to, RelationshipType type)
+    {
+        if(!contains(from) || !contains(to) || from == to || type == null)
+            return false;
+        Long key = key(from.id, to.id);
+        if(edges.containsKey(key) || edges.containsKey(key(to.id, from.id)))
+            return false;
+        Edge edge = new Edge(type);
+        edge.fromSlot = list(from.id, OUT + type.ordinal()).add(to.id);
+        edge.toSlot = list(to.id, IN + type.ordinal()).add(from.id);
+        edges.put(key, edge);
+        return true;
+    }
+
+    /**
+     * Removes the relationship from one class to another. Returns its type, or null if there wasn't one.
+     */
+    synchronized RelationshipType unrelate(Class from, Class to)
+    {
+        if(!contains(from) || !contains(to))
+            return null;
+        Edge edge = edges.remove(key(from.id, to.id));
+        if(edge == null)
+            return null;
+        int ordinal = edge.type.ordinal();
+        //The last entry of each list fills the gap, so that entry's relationship is told where it now is.
+        int moved = adjacency[from.id][OUT + ordinal].removeAt(edge.fromSlot);
+        if(moved >= 0)
+            edges.get(key(from.id, moved)).fromSlot = edge.fromSlot;
+        moved = adjacency[to.id][IN + ordinal].removeAt(edge.toSlot);
+        if(moved >= 0)
+            edges.get(key(moved, to.id)).toSlot = edge.toSlot;
+        return edge.type;
+    }
+
+    /**
+     * Removes the relationship from one class to another if it has the given type. Returns true if it was removed.
+     */
+    synchronized boolean unrelate(Class from, Class to, RelationshipType type)
+    {
+        if(type == null || getType(from, to) != type)
+            return false;
+        return unrelate(from, to) != null;
+    }
+
+    /**
+     * Relates a class to the ones named in its own maps, which were filled before it was added. A related class
+     * is skipped if it isn't in the graph, or if takeFrom says the relationship is already there or was left out
+     * on purpose.
+     */
+    synchronized void relateByName(Class aClass, Map<String, RelationshipType> to, Map<String, RelationshipType> from, Predicate<Class> takeFrom)
+    {
+        for(Map.Entry<String, RelationshipType> entry : to.entrySet())
+        {
+            Class other = classes.apply(entry.getKey());
+            if(other != null && takeFrom.test(other) && relate(aClass, other, entry.getValue()))
+                other.changed();
+        }
+        for(Map.Entry<String, RelationshipType> entry : from.entrySet())
+        {
+            Class other = classes.apply(entry.getKey());
+            if(other != null && takeFrom.test(other) && relate(other, aClass, entry.getValue()))
+                other.changed();
+        }
+    }
+
+//================================================================================================================================================
+//Helpers.
+//================================================================================================================================================
+
+    /**
+     * Returns true if the class is a node of this graph.
+     */
+    private boolean contains(Class aClass)
+    {
+        return aClass != null && aClass.graph == this && nodes[aClass.id] == aClass;
+    }
+
+    /**
+     * Returns the classes of every node.
+     */
+    private synchronized ArrayList<Class> classes()
+    {
+        ArrayList<Class> found = new ArrayList<Class>(nodeCount);
+        for(int id = 0; id < nodeCount; id++)
+        {
+            if(nodes[id] != null)
+                found.add(nodes[id]);
+        }
+        return found;
+    }
+
+    /**
+     * Returns one of a node's lists, making it if it doesn't exist yet.
+     */
+    private IntList list(int id, int index)
+    {
+        if(adjacency[id] == null)
+            adjacency[id] = new IntList[IN + TYPES.length];
+        if(adjacency[id][index] == null)
+            adjacency[id][index] = new IntList();
+        return adjacency[id][index];
+    }
+
+    private static Long key(int from, int to)
+    {
+        return ((long)from << 32) | (to & 0xFFFFFFFFL);
+    }
+
+    /**
+     * One relationship: its type and where it is in the lists of the two nodes.
+     */
+    private static class Edge
+    {
+        private RelationshipType type;
+        private int fromSlot;
+        private int toSlot;
+
+        private Edge(RelationshipType type)
+        {
+            this.type = type;
+        }
+    }
+
+    /**
+     * A growing list of node numbers.
+     */
+    private static class IntList
+    {
+        private int[] items = new int[2];
+        private int size;
+
+        /**
+         * Adds a number to the end and returns where it was put.
+         */
+        private int add(int item)
+        {
+            if(size == items.length)
+                items = Arrays.copyOf(items, size * 2);
+            items[size] = item;
+            return size++;
+        }
+
+        private int removeLast()
+        {
+            return items[--size];
+        }
+
+        /**
+         * Removes the number at a position by moving the last one into it. Returns the moved number, or -1
+         * if the removed one was last.
+         */
+        private int removeAt(int index)
+        {
+            int last = items[--size];
+            if(index == size)
+                return -1;
+            items[index] = last;
+            return last;
+        }
+    }
+
+    /**
+     * The relationships of one class in one direction, as a map from the other class's name to the type.
+     * Names are read from the classes each time, so renaming a class changes nothing here.
+     */
+    private class Neighbours extends AbstractMap<String, RelationshipType>
+    {
+        private Class owner;
+        private int direction;
+
+        private Neighbours(Class owner, int direction)
+        {
+            this.owner = owner;
+            this.direction = direction;
+        }
+
+        @Override
+        public RelationshipType get(Object key)
+        {
+            if(!(key instanceof String))
+                return null;
+            Class other = classes.apply((String)key);
+            return direction == OUT ? getType(owner, other) : getType(other, owner);
+        }
+
+        @Override
+        public boolean containsKey(Object key)
+        {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size()
+        {
+            synchronized(RelationshipGraph.this)
+            {
+                if(!contains(owner) || adjacency[owner.id] == null)
+                    return 0;
+                int size = 0;
+                for(int type = 0; type < TYPES.length; type++)
+                {
+                    IntList list = adjacency[owner.id][direction + type];
+                    if(list != null)
+                        size += list.size;
+                }
+                return size;
+            }
+        }
+
+        @Override
+        public Set<Map.Entry<String, RelationshipType>> entrySet()
+        {
+            return new AbstractSet<Map.Entry<String, RelationshipType>>()
+            {
+                @Override
+                public Iterator<Map.Entry<String, RelationshipType>> iterator()
+                {
+                    return snapshot().iterator();
+                }
+
+                @Override
+                public int size()
+                {
+                    return Neighbours.this.size();
+                }
+            };
+        }
+
+        /**
+         * Copies the relationships out, so they can be looked through while the graph changes.
+         */
+        private ArrayList<Map.Entry<String, RelationshipType>> snapshot()
+        {
+            synchronized(RelationshipGraph.this)
+            {
+                ArrayList<Map.Entry<String, RelationshipType>> entries = new ArrayList<Map.Entry<String, RelationshipType>>();
+                if(!contains(owner) || adjacency[owner.id] == null)
+                    return entries;
+                for(int type = 0; type < TYPES.length; type++)
+                {
+                    IntList list = adjacency[owner.id][direction + type];
+                    for(int index = 0; list != null && index < list.size; index++)
+                    {
+                        entries.add(new AbstractMap.SimpleImmutableEntry<String, RelationshipType>(nodes[list.items[index]].getName(), TYPES[type]));
+                    }
+                }
+                return entries;
+            }
+        }
+    }
+}
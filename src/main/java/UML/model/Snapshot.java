@@ -0,0 +1,187 @@
+package UML.model;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/17/2026
+    Purpose: The classes of a store as they were after one change. The store makes a new snapshot after each
+    change by replacing only the classes it touched, so taking one costs nothing and any thread can read it,
+    such as a save in the background, while the store goes on being edited.
+ */
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public final class Snapshot
+{
+    //The space left between the order numbers of classes added one after another, so a class can be put
+    //back between two others without numbering the rest again.
+    static final long GAP = 1L << 20;
+
+    static final Snapshot EMPTY = new Snapshot(PersistentMap.<String, ClassSnapshot>empty(), 0);
+
+    private final PersistentMap<String, ClassSnapshot> classes;
+    //The order number the next class added at the end gets.
+    private final long nextOrder;
+    //The classes in the store's order, sorted the first time they are asked for.
+    private volatile List<ClassSnapshot> ordered;
+
+    private Snapshot(PersistentMap<String, ClassSnapshot> classes, long nextOrder)
+    {
+        this.classes = classes;
+        this.nextOrder = nextOrder;
+    }
+
+    /**
+     * Takes a snapshot of every class in the list, in its order. Fields and methods still waiting to be
+     * loaded from a file aren't loaded to do it.
+     */
+    static Snapshot of(List<Class> classList)
+    {
+        PersistentMap<String, ClassSnapshot> classes = PersistentMap.empty();
+        long order = 0;
+        for (Class aClass : classList)
+        {
+            classes = classes.plus(aClass.getName(), ClassSnapshot.of(aClass, order));
+            order += GAP;
+        }
+        return new Snapshot(classes, order);
+    }
+
+    /**
+     * Returns the class with the given name, or null if there wasn't one.
+     */
+    public ClassSnapshot findClass(String name)
+    {
+        return classes.get(name);
+    }
+
+    /**
+     * Returns the number of classes.
+     */
+    public int size()
+    {
+        return classes.size();
+    }
+
+    /**
+     * Returns the classes in the order the store had them.
+     */
+    public List<ClassSnapshot> getClasses()
+    {
+        List<ClassSnapshot> found = ordered;
+        if (found == null)
+        {
+            ArrayList<ClassSnapshot> sorted = new ArrayList<ClassSnapshot>(classes.size());
+            for (Map.Entry<String, ClassSnapshot> entry : classes)
+            {
+                sorted.add(entry.getValue());
+            }
+            sorted.sort((one, other) -> Long.compare(one.order, other.order));
+            found = Collections.unmodifiableList(sorted);
+            ordered = found;
+        }
+        return found;
+    }
+
+    /**
+     * Returns the names of the classes in the order the store had them.
+     */
+    public ArrayList<String> getClassList()
+    {
+        ArrayList<String> names = new ArrayList<String>(classes.size());
+        for (ClassSnapshot aClass : getClasses())
+        {
+            names.add(aClass.getName());
+        }
+        return names;
+    }
+
+    /**
+     * Returns a snapshot with a new snapshot of a class that was already in this one, under its current name.
+     */
+    Snapshot refreshed(Class aClass)
+    {
+        ClassSnapshot old = classes.get(aClass.getName());
+        if (old == null)
+            return this;
+        return new Snapshot(classes.plus(aClass.getName(), ClassSnapshot.of(aClass, old.order)), nextOrder);
+    }
+
+    /**
+     * Returns a snapshot with the fields and methods a class has now.
+     */
+    Snapshot refreshedMembers(Class aClass)
+    {
+        ClassSnapshot old = classes.get(aClass.getName());
+        if (old == null)
+            return this;
+        return new Snapshot(classes.plus(aClass.getName(), old.withMembers(aClass)), nextOrder);
+    }
+
+    /**
+     * Returns a snapshot with the relationship from one class to another set, or taken away if the type is null.
+     */
+    Snapshot related(Class from, Class to, RelationshipType type)
+    {
+        ClassSnapshot oldFrom = classes.get(from.getName());
+        ClassSnapshot oldTo = classes.get(to.getName());
+        if (oldFrom == null || oldTo == null)
+            return this;
+        return new Snapshot(classes.plus(from.getName(), oldFrom.withRelationship(to.getName(), type, true))
+                .plus(to.getName(), oldTo.withRelationship(from.getName(), type, false)), nextOrder);
+    }
+
+    /**
+     * Returns a snapshot with a class that was renamed, still in its place.
+     */
+    Snapshot renamed(String oldName, Class aClass)
+    {
+        ClassSnapshot old = classes.get(oldName);
+        if (old == null)
+            return this;
+        return new Snapshot(classes.minus(oldName).plus(aClass.getName(), ClassSnapshot.of(aClass, old.order)), nextOrder);
+    }
+
+    /**
+     * Returns a snapshot with a class that was moved.
+     */
+    Snapshot moved(String name, int x, int y)
+    {
+        ClassSnapshot old = classes.get(name);
+        if (old == null)
+            return this;
+        return new Snapshot(classes.plus(name, old.moved(x, y)), nextOrder);
+    }
+
+    /**
+     * Returns a snapshot with a class added at the end.
+     */
+    Snapshot added(Class aClass)
+    {
+        return new Snapshot(classes.plus(aClass.getName(), ClassSnapshot.of(aClass, nextOrder)), nextOrder + GAP);
+    }
+
+    /**
+     * Returns a snapshot with a class put between two others, either of which is null at the ends of the
+     * list, or null if their order numbers have no room left between them.
+     */
+    Snapshot inserted(Class aClass, Class before, Class after)
+    {
+        if (after == null)
+            return added(aClass);
+        long high = classes.get(after.getName()).order;
+        long low = before == null ? high - GAP : classes.get(before.getName()).order;
+        if (high - low < 2)
+            return null;
+        return new Snapshot(classes.plus(aClass.getName(), ClassSnapshot.of(aClass, low + (high - low) / 2)), nextOrder);
+    }
+
+    /**
+     * Returns a snapshot without a class.
+     */
+    Snapshot without(String name)
+    {
+        PersistentMap<String, ClassSnapshot> changed = classes.minus(name);
+        return changed == classes ? this : new Snapshot(changed, nextOrder);
+    }
+}
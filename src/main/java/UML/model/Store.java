@@ -5,24 +5,73 @@ package UML.model;
     Date: 10/06/2020
     Purpose: Stores all the classes and saved files being used in the UML diagram editor.
  */
+import java.awt.Dimension;
 import java.io.File;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Set;
-
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 public class Store implements Cloneable, IStore 
 {
 
+	// The number of locks the classes share for edits to one or two of them. A power of two.
+	private static final int STRIPES = 64;
+
 	// An array list to store the current classes.
-	private ArrayList<Class> classStore;
+	private volatile ArrayList<Class> classStore;
+	// The same classes keyed by name so findClass doesn't have to scan classStore.
+	private volatile ConcurrentHashMap<String, Class> classIndex;
+	// The relationships between the classes.
+	private volatile RelationshipGraph graph;
 	// The currently loaded file. Null if there is none.
 	private File currentLoadedFile;
+	// Told about every change that succeeds, such as the edit journal. Null if nothing is listening.
+	private volatile IStore journal;
+	// Also told about every change that succeeds, after the journal, such as the command line's completions.
+	private final CopyOnWriteArrayList<IStore> listeners;
+	// The classes as they were after the last change, for reading on other threads. Null when the class list
+	// has been replaced since one was last asked for, so loading a file doesn't build one nobody reads.
+	private final AtomicReference<Snapshot> snapshot;
+	// How many edits found no snapshot to change, so getSnapshot() knows if one went by while it was building.
+	private final AtomicLong unpublished;
+	// How many edits to one or two classes are changing them right now, and how many have ever started to, so
+	// getSnapshot() can tell a class that changed while it was read from one that really can't be read.
+	private final AtomicInteger changing;
+	private final AtomicLong started;
+	// Held for reading by edits to one or two classes, and for writing by changes to the class list, the
+	// names or the relationships of many classes at once.
+	private final ReentrantReadWriteLock lock;
+	// Edits to one or two classes also hold the lock of each class's stripe, so edits to different classes
+	// can be made on different threads at once.
+	private final Object[] stripes;
 
 	public Store() 
 	{
 		classStore = new ArrayList<Class>();
+		classIndex = new ConcurrentHashMap<String, Class>();
+		graph = new RelationshipGraph(this::findClass);
 		currentLoadedFile = null;
+		snapshot = new AtomicReference<Snapshot>(Snapshot.EMPTY);
+		unpublished = new AtomicLong();
+		changing = new AtomicInteger();
+		started = new AtomicLong();
+		listeners = new CopyOnWriteArrayList<IStore>();
+		lock = new ReentrantReadWriteLock();
+		stripes = new Object[STRIPES];
+		for (int index = 0; index < STRIPES; index++) {
+			stripes[index] = new Object();
+		}
 	}
 
 	/**
@@ -41,9 +90,64 @@ public class Store implements Cloneable, IStore
 		this.currentLoadedFile = fileToSet;
 	}
 
+	/**
+	 * Sets what is told about each change to the store after it succeeds, by calling the same method on it.
+	 * Null stops it being told.
+	 */
+	public void setJournal(IStore journal) 
+	{
+		this.journal = journal;
+	}
+
+	/**
+	 * Returns what is told about each change to the store, or null if nothing is.
+	 */
+	public IStore getJournal() 
+	{
+		return this.journal;
+	}
+
+	/**
+	 * Adds something else to tell about each change to the store after it succeeds. Unlike the journal,
+	 * listeners are told about every change, including the class list being replaced by a load.
+	 */
+	public void addListener(IStore listener) 
+	{
+		listeners.add(listener);
+	}
+
+	/**
+	 * Stops telling a listener about changes.
+	 */
+	public void removeListener(IStore listener) 
+	{
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Tells the journal and then each listener about a change by calling the same method on them.
+	 */
+	private void tell(Consumer<IStore> change) 
+	{
+		IStore current = journal;
+		if (current != null)
+			change.accept(current);
+		for (IStore listener : listeners) {
+			change.accept(listener);
+		}
+	}
+
+	@Override
 	public void setClassStore(ArrayList<Class> newStore) 
 	{
-		this.classStore = newStore;
+		lock.writeLock().lock();
+		try {
+			this.classStore = newStore;
+			reindex();
+			tell(listener -> listener.setClassStore(newStore));
+		} finally {
+			lock.writeLock().unlock();
+		}
 	}
 
 	// ================================================================================================================================================
@@ -51,7 +155,58 @@ public class Store implements Cloneable, IStore
 	// ===============================================================================================================================================
 
 	/**
-	 * Returns ArrayList of classes in the store.
+	 * Returns the graph of the relationships between the classes in the store.
+	 */
+	public RelationshipGraph getRelationshipGraph() 
+	{
+		return this.graph;
+	}
+
+	/**
+	 * Returns the classes as they were after the last change. It never changes, so it can be read on any
+	 * thread while the store is edited, and can be asked for on any thread. Changes made straight to a class
+	 * rather than through the store only show up in a later snapshot if the store changes that class too.
+	 */
+	public Snapshot getSnapshot() 
+	{
+		Snapshot current = snapshot.get();
+		while (current == null)
+		{
+			// The read lock can't be upgraded, so a listener told about an edit builds it under the read lock it
+			// already holds while edits to other classes go on. Anything else holds off every edit while it builds.
+			boolean inEdit = lock.getReadHoldCount() > 0 && !lock.isWriteLockedByCurrentThread();
+			Lock held = inEdit ? lock.readLock() : lock.writeLock();
+			long missed = unpublished.get();
+			long startedBefore = started.get();
+			boolean changingBefore = changing.get() > 0;
+			Snapshot built = null;
+			held.lock();
+			try
+			{
+				built = Snapshot.of(classStore);
+			}
+			catch (RuntimeException e)
+			{
+				// Reading a class while another edit changes it can fail in any way the collections do, so it is
+				// built again, unless no other edit was changing a class meanwhile and the failure is real.
+				if (!inEdit || !changingBefore && started.get() == startedBefore)
+					throw e;
+			}
+			finally
+			{
+				held.unlock();
+			}
+			// An edit that went by while it was built isn't in it, so it is dropped and built again.
+			if (built != null && snapshot.compareAndSet(null, built) && unpublished.get() != missed)
+				snapshot.set(null);
+			current = snapshot.get();
+		}
+		return current;
+	}
+
+	/**
+	 * Returns ArrayList of classes in the store. The list is not safe to read while other threads edit the
+	 * store; read getSnapshot() there instead.
 	 */
 	public ArrayList<Class> getClassStore() 
 	{
@@ -66,8 +221,13 @@ public class Store implements Cloneable, IStore
 	{
 		ArrayList<String> names = new ArrayList<String>();
 
-		for (Class aClass : classStore) {
-			names.add(aClass.getName());
+		lock.readLock().lock();
+		try {
+			for (Class aClass : classStore) {
+				names.add(aClass.getName());
+			}
+		} finally {
+			lock.readLock().unlock();
 		}
 		return names;
 	}
@@ -123,13 +283,22 @@ public class Store implements Cloneable, IStore
 	 */
 	@Override
 	public boolean addClass(String name) throws IllegalArgumentException {
-		Class temp = findClass(name);
-		if (temp == null) {
-			Class newClass = new Class(name);
-			classStore.add(newClass);
-			return true;
+		lock.writeLock().lock();
+		try {
+			Class temp = findClass(name);
+			if (temp == null) {
+				Class newClass = new Class(name);
+				classStore.add(newClass);
+				classIndex.put(name, newClass);
+				attach(newClass);
+				publish(current -> current.added(newClass));
+				tell(listener -> listener.addClass(name));
+				return true;
+			}
+			return false;
+		} finally {
+			lock.writeLock().unlock();
 		}
-		return false;
 	}
 
 	/**
@@ -137,14 +306,23 @@ public class Store implements Cloneable, IStore
 	 */
 	@Override
 	public boolean deleteClass(String name) {
-		Class temp = findClass(name);
-		if (findClass(name) != null) {
-			// Delete relationships before deleting class.
-			removeRelationships(temp);
-			classStore.remove(temp);
-			return true;
+		lock.writeLock().lock();
+		try {
+			Class temp = findClass(name);
+			if (temp != null) {
+				// Delete relationships before deleting class.
+				removeRelationships(temp);
+				graph.remove(temp);
+				classStore.remove(temp);
+				classIndex.remove(name);
+				publish(current -> current.without(name));
+				tell(listener -> listener.deleteClass(name));
+				return true;
+			}
+			return false;
+		} finally {
+			lock.writeLock().unlock();
 		}
-		return false;
 	}
 
 	/**
@@ -153,34 +331,255 @@ public class Store implements Cloneable, IStore
 	@Override
 	public boolean renameClass(String oldName, String newName) throws IllegalArgumentException 
 	{
-		if (findClass(newName) == null && findClass(oldName) != null) {
-			Class temp = findClass(oldName);
-			Map<String, RelationshipType> from = temp.getRelationshipsFromOther();
-			for (Map.Entry<String, RelationshipType> relate : from.entrySet()) {
-				Class c = findClass(relate.getKey());
-				Map<String, RelationshipType> inner = c.getRelationshipsToOther();
-				for (Map.Entry<String, RelationshipType> relate2 : inner.entrySet()) {
-					if (relate2.getKey().equals(oldName)) {
-						inner.remove(relate2.getKey());
-						inner.put(newName, relate2.getValue());
-					}
+		lock.writeLock().lock();
+		try {
+			//The new name is the key of other classes' relationships too, so they all share the one copy.
+			newName = Symbols.intern(newName);
+			if (findClass(newName) == null && findClass(oldName) != null) {
+				Class temp = findClass(oldName);
+				// The graph reads names from the classes, so only the related classes' strings need building again.
+				// Their files still know this class by its old name, so its relationships are loaded first.
+				temp.loadRelationships();
+				ArrayList<Class> related = graph.related(temp);
+				for (Class aClass : related) {
+					aClass.changed();
 				}
+				temp.setName(newName);
+				classIndex.remove(oldName);
+				classIndex.put(newName, temp);
+				publish(current -> refreshed(current.renamed(oldName, temp), related));
+				tell(listener -> listener.renameClass(oldName, temp.getName()));
+				return true;
+			}
+			return false;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Moves a class to a new location.
+	 */
+	@Override
+	public boolean moveClass(String name, int x, int y) {
+		lock.readLock().lock();
+		try {
+			Class toMove = findClass(name);
+			if (toMove == null) {
+				return false;
+			}
+			synchronized (stripe(toMove)) {
+				toMove.setLocation(new Dimension(x, y));
+				publish(current -> current.moved(name, x, y));
+				tell(listener -> listener.moveClass(name, x, y));
 			}
-			Map<String, RelationshipType> to = temp.getRelationshipsToOther();
-			for (Map.Entry<String, RelationshipType> relate : to.entrySet()) {
-				Class c = findClass(relate.getKey());
-				Map<String, RelationshipType> inner = c.getRelationshipsFromOther();
-				for (Map.Entry<String, RelationshipType> relate2 : inner.entrySet()) {
-					if (relate2.getKey().equals(oldName)) {
-						inner.remove(relate2.getKey());
-						inner.put(newName, relate2.getValue());
-					}
+			return true;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Adds a batch of already built classes at once, such as when loading a file. Each class keeps its
+	 * fields, methods, location and relationship maps. Duplicates are dropped using hashed lookups instead of
+	 * the scans that addClass, addField and addMethod do. Relationships are linked once every class is in.
+	 * Returns false if a class was skipped because its name was already taken.
+	 * Classes opened from a file with their details still unloaded are added as they are, and their
+	 * relationships go into the graph when they are loaded.
+	 */
+	@Override
+	public boolean addClasses(ArrayList<Class> classes) {
+		lock.writeLock().lock();
+		try {
+			boolean allAdded = true;
+			ArrayList<Class> added = new ArrayList<Class>();
+			// First pass: add the classes without their relationships, since the other end may not exist yet.
+			for (Class aClass : classes) {
+				if (findClass(aClass.getName()) != null) {
+					allAdded = false;
+					continue;
+				}
+				if (aClass.isLoaded()) {
+					removeDuplicateMembers(aClass);
+				}
+				classStore.add(aClass);
+				classIndex.put(aClass.getName(), aClass);
+				graph.add(aClass);
+				added.add(aClass);
+			}
+			// Second pass: link both ends of every relationship.
+			for (Class aClass : added) {
+				if (!aClass.relationshipsPending()) {
+					aClass.moveRelationshipsToGraph(other -> true);
+					aClass.changed();
 				}
 			}
-			temp.setName(newName);
+			// A batch is usually a whole file, so the snapshot is built again when it is next asked for.
+			snapshot.set(null);
+			tell(listener -> listener.addClasses(added));
+			return allAdded;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Drops fields that reuse a name. Methods need no check, since a class's method set is keyed by signature.
+	 */
+	private void removeDuplicateMembers(Class aClass) {
+		HashSet<String> fieldNames = new HashSet<String>();
+		aClass.getFields().removeIf(f -> !fieldNames.add(f.getName()));
+	}
+
+	/**
+	 * Puts a new snapshot of a class whose fields or methods changed into the store's snapshot.
+	 */
+	private void refreshMembers(Class aClass) {
+		publish(current -> current.refreshedMembers(aClass));
+	}
+
+	/**
+	 * Returns the snapshot with new snapshots of classes whose relationships changed. A change to several
+	 * classes is published as one, so readers never see one end of a relationship without the other.
+	 */
+	private static Snapshot refreshed(Snapshot current, ArrayList<Class> classes) {
+		for (Class aClass : classes) {
+			current = current.refreshed(aClass);
+		}
+		return current;
+	}
+
+	/**
+	 * Replaces the snapshot with a changed copy, unless there is none to change. A change that returns null
+	 * leaves the next getSnapshot() to build one from the classes.
+	 */
+	private void publish(UnaryOperator<Snapshot> change) {
+		// Edits to different classes publish at the same time, so a change is made again if another got in first.
+		while (true) {
+			Snapshot current = snapshot.get();
+			if (current == null) {
+				// Tells getSnapshot() that one it is building may be missing this change, then makes the change to
+				// any it has put in place since.
+				unpublished.incrementAndGet();
+				if (snapshot.get() == null)
+					return;
+			} else if (snapshot.compareAndSet(current, change.apply(current))) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Returns which stripe a class is in.
+	 */
+	private static int stripeOf(Class aClass) {
+		int hash = System.identityHashCode(aClass);
+		return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+	}
+
+	/**
+	 * Returns the lock of the stripe a class is in.
+	 */
+	private Object stripe(Class aClass) {
+		return stripes[stripeOf(aClass)];
+	}
+
+	/**
+	 * Makes a change to the fields or methods of a class, returning false if there is no such class. Only the
+	 * class's stripe is held besides the read lock, so edits to classes in other stripes go on at the same time.
+	 * The listener is told while the stripe is still held, so it gets each class's changes in the order they were made.
+	 */
+	private boolean editClass(String className, Predicate<Class> edit, Consumer<IStore> record) {
+		lock.readLock().lock();
+		try {
+			Class aClass = findClass(className);
+			if (aClass == null) {
+				return false;
+			}
+			synchronized (stripe(aClass)) {
+				boolean changed;
+				changing.incrementAndGet();
+				started.incrementAndGet();
+				try {
+					changed = edit.test(aClass);
+					if (changed)
+						refreshMembers(aClass);
+				} finally {
+					changing.decrementAndGet();
+				}
+				if (changed)
+					tell(record);
+				return changed;
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Makes a change to the relationship between two classes holding both their stripes, taken in the same
+	 * order by every thread so two edits to the same pair can't each wait for the other. The listener is told
+	 * while they are still held.
+	 */
+	private boolean editPair(Class one, Class other, BooleanSupplier edit, Consumer<IStore> record) {
+		int first = Math.min(stripeOf(one), stripeOf(other));
+		int second = Math.max(stripeOf(one), stripeOf(other));
+		synchronized (stripes[first]) {
+			synchronized (stripes[second]) {
+				boolean changed;
+				changing.incrementAndGet();
+				started.incrementAndGet();
+				try {
+					changed = edit.getAsBoolean();
+				} finally {
+					changing.decrementAndGet();
+				}
+				if (changed)
+					tell(record);
+				return changed;
+			}
+		}
+	}
+
+	/**
+	 * Puts a class into the relationship graph, along with the relationships in its own maps to classes
+	 * already in the store.
+	 */
+	private void attach(Class aClass) {
+		graph.add(aClass);
+		if (!aClass.relationshipsPending()) {
+			aClass.moveRelationshipsToGraph(other -> true);
+		}
+	}
+
+	/**
+	 * Puts a previously deleted class back into the store at the given position in the class list.
+	 * Relationships are not restored, since a deleted class has none left; add them again with addRelationship.
+	 */
+	@Override
+	public boolean restoreClass(Class aClass, int index) {
+		lock.writeLock().lock();
+		try {
+			if (findClass(aClass.getName()) != null) {
+				return false;
+			}
+			int position = Math.min(index, classStore.size());
+			classStore.add(position, aClass);
+			classIndex.put(aClass.getName(), aClass);
+			attach(aClass);
+			Class before = position > 0 ? classStore.get(position - 1) : null;
+			Class after = position + 1 < classStore.size() ? classStore.get(position + 1) : null;
+			// Numbered again, by the next getSnapshot(), once classes have been put in the same place about twenty times.
+			ArrayList<Class> related = graph.related(aClass);
+			publish(current -> {
+				Snapshot changed = current.inserted(aClass, before, after);
+				return changed == null ? null : refreshed(changed, related);
+			});
+			tell(listener -> listener.restoreClass(aClass, index));
 			return true;
+		} finally {
+			lock.writeLock().unlock();
 		}
-		return false;
 	}
 
 	// ================================================================================================================================================
@@ -192,8 +591,8 @@ public class Store implements Cloneable, IStore
 	 */
 	@Override
 	public boolean addField(String className, String type, String name, String access) throws IllegalArgumentException {
-		Class classToAddAttrTo = findClass(className);
-		return classToAddAttrTo.addField(type, name, access);
+		return editClass(className, classToAddAttrTo -> classToAddAttrTo.addField(type, name, access),
+				listener -> listener.addField(className, type, name, access));
 	}
 
 	/**
@@ -201,8 +600,8 @@ public class Store implements Cloneable, IStore
 	 */
 	@Override
 	public boolean deleteField(String className, String name) {
-		Class classToDeleteFrom = findClass(className);
-		return classToDeleteFrom.deleteField(name);
+		return editClass(className, classToDeleteFrom -> classToDeleteFrom.deleteField(name),
+				listener -> listener.deleteField(className, name));
 	}
 
 	/**
@@ -211,8 +610,8 @@ public class Store implements Cloneable, IStore
 	 */
 	@Override
 	public boolean renameField(String className, String oldName, String newName) throws IllegalArgumentException {
-		Class toBeRenamed = findClass(className);
-		return toBeRenamed.renameField(oldName, newName);
+		return editClass(className, toBeRenamed -> toBeRenamed.renameField(oldName, newName),
+				listener -> listener.renameField(className, oldName, newName));
 	}
 
 	/**
@@ -220,9 +619,8 @@ public class Store implements Cloneable, IStore
 	 */
 	@Override
 	public boolean changeFieldType(String className, String name, String newType) throws IllegalArgumentException {
-		// Class always exists if this method is called; guarenteed by controller.
-		Class toChange = findClass(className);
-		return toChange.changeFieldType(name, newType);
+		return editClass(className, toChange -> toChange.changeFieldType(name, newType),
+				listener -> listener.changeFieldType(className, name, newType));
 	}
 
 	/**
@@ -230,8 +628,8 @@ public class Store implements Cloneable, IStore
 	 */
 	@Override
 	public boolean changeFieldAccess(String className, String fieldName, String access) {
-		Class toChange = findClass(className);
-		return toChange.changeFieldAccess(fieldName, access);
+		return editClass(className, toChange -> toChange.changeFieldAccess(fieldName, access),
+				listener -> listener.changeFieldAccess(className, fieldName, access));
 	}
 
 	// ================================================================================================================================================
@@ -244,8 +642,6 @@ public class Store implements Cloneable, IStore
 	@Override
 	public boolean addMethod(String className, String type, String name, ArrayList<String> params, String access)
 			throws IllegalArgumentException {
-		Class toAdd = findClass(className);
-
 		ArrayList<Parameter> newParams = new ArrayList<Parameter>();
 
 		for (String param : params) {
@@ -254,7 +650,8 @@ public class Store implements Cloneable, IStore
 			newParams.add(newParam);
 		}
 
-		return toAdd.addMethod(type, name, newParams, access);
+		return editClass(className, toAdd -> toAdd.addMethod(type, name, newParams, access),
+				listener -> listener.addMethod(className, type, name, params, access));
 	}
 
 	/**
@@ -262,8 +659,6 @@ public class Store implements Cloneable, IStore
 	 */
 	@Override
 	public boolean deleteMethod(String className, String type, String name, ArrayList<String> params, String access) {
-		Class toDelete = findClass(className);
-
 		ArrayList<Parameter> newParams = new ArrayList<Parameter>();
 
 		for (String param : params) {
@@ -272,7 +667,8 @@ public class Store implements Cloneable, IStore
 			newParams.add(newParam);
 		}
 
-		return toDelete.deleteMethod(type, name, newParams, access);
+		return editClass(className, toDelete -> toDelete.deleteMethod(type, name, newParams, access),
+				listener -> listener.deleteMethod(className, type, name, params, access));
 	}
 
 	/**
@@ -281,8 +677,6 @@ public class Store implements Cloneable, IStore
 	@Override
 	public boolean renameMethod(String className, String type, String oldName, ArrayList<String> params, String access,
 			String newName) throws IllegalArgumentException {
-		Class toRename = findClass(className);
-
 		ArrayList<Parameter> newParams = new ArrayList<Parameter>();
 
 		for (String param : params) {
@@ -291,7 +685,8 @@ public class Store implements Cloneable, IStore
 			newParams.add(newParam);
 		}
 
-		return toRename.renameMethod(type, oldName, newParams, access, newName);
+		return editClass(className, toRename -> toRename.renameMethod(type, oldName, newParams, access, newName),
+				listener -> listener.renameMethod(className, type, oldName, params, access, newName));
 	}
 
 	/**
@@ -300,8 +695,6 @@ public class Store implements Cloneable, IStore
 	@Override
 	public boolean changeMethodType(String className, String oldType, String methodName, ArrayList<String> params,
 			String access, String newType) {
-		Class aClass = findClass(className);
-
 		ArrayList<Parameter> newParams = new ArrayList<Parameter>();
 
 		for (String param : params) {
@@ -310,7 +703,8 @@ public class Store implements Cloneable, IStore
 			newParams.add(newParam);
 		}
 
-		return aClass.changeMethodType(oldType, methodName, newParams, access, newType);
+		return editClass(className, aClass -> aClass.changeMethodType(oldType, methodName, newParams, access, newType),
+				listener -> listener.changeMethodType(className, oldType, methodName, params, access, newType));
 	}
 
 	/**
@@ -319,8 +713,6 @@ public class Store implements Cloneable, IStore
 	@Override
 	public boolean changeMethodAccess(String className, String type, String methodName, ArrayList<String> params,
 			String access, String newAccess) {
-		Class aClass = findClass(className);
-
 		ArrayList<Parameter> newParams = new ArrayList<Parameter>();
 
 		for (String param : params) {
@@ -329,7 +721,8 @@ public class Store implements Cloneable, IStore
 			newParams.add(newParam);
 		}
 
-		return aClass.changeMethodAccess(type, methodName, newParams, access, newAccess);
+		return editClass(className, aClass -> aClass.changeMethodAccess(type, methodName, newParams, access, newAccess),
+				listener -> listener.changeMethodAccess(className, type, methodName, params, access, newAccess));
 	}
 
 	// ================================================================================================================================================
@@ -350,8 +743,8 @@ public class Store implements Cloneable, IStore
 			theParams.add(newParam);
 		}
 
-		Class theClass = findClass(className);
-		return theClass.addParameter(methodType, methodName, theParams, access, paramType, paramName);
+		return editClass(className, theClass -> theClass.addParameter(methodType, methodName, theParams, access, paramType, paramName),
+				listener -> listener.addParam(className, methodType, methodName, params, access, paramType, paramName));
 	}
 
 	/**
@@ -367,8 +760,8 @@ public class Store implements Cloneable, IStore
 			theParams.add(toBeDeleted);
 		}
 
-		Class theClass = findClass(className);
-		return theClass.deleteParameter(methodType, methodName, theParams, access, paramType, paramName);
+		return editClass(className, theClass -> theClass.deleteParameter(methodType, methodName, theParams, access, paramType, paramName),
+				listener -> listener.deleteParam(className, methodType, methodName, params, access, paramType, paramName));
 	}
 
 	// ================================================================================================================================================
@@ -380,12 +773,21 @@ public class Store implements Cloneable, IStore
 	 */
 	@Override
 	public boolean addRelationship(String classFrom, String classTo, RelationshipType relation) {
-		Class class1 = findClass(classFrom);
-		Class class2 = findClass(classTo);
-		if (class1 == null || class2 == null)
-			return false;
-		else
-			return class1.addRelationshipToOther(relation, class2);
+		lock.readLock().lock();
+		try {
+			Class class1 = findClass(classFrom);
+			Class class2 = findClass(classTo);
+			if (class1 == null || class2 == null)
+				return false;
+			return editPair(class1, class2, () -> {
+				boolean changed = class1.addRelationshipToOther(relation, class2);
+				if (changed)
+					publish(current -> current.related(class1, class2, relation));
+				return changed;
+			}, listener -> listener.addRelationship(classFrom, classTo, relation));
+		} finally {
+			lock.readLock().unlock();
+		}
 	}
 
 	/**
@@ -393,13 +795,25 @@ public class Store implements Cloneable, IStore
 	 */
 	@Override
 	public boolean deleteRelationship(String classFrom, String classTo) {
-		Class class1 = findClass(classFrom);
-		Class class2 = findClass(classTo);
-		if (class1 == null || class2 == null)
-			return false;
-		else {
-			RelationshipType relation = class1.getRelationshipsToOther().get(classTo);
-			return class1.deleteRelationshipToOther(relation, class2);
+		lock.readLock().lock();
+		try {
+			Class class1 = findClass(classFrom);
+			Class class2 = findClass(classTo);
+			if (class1 == null || class2 == null)
+				return false;
+			return editPair(class1, class2, () -> {
+				class1.loadRelationships();
+				class2.loadRelationships();
+				boolean changed = graph.unrelate(class1, class2) != null;
+				if (changed) {
+					class1.changed();
+					class2.changed();
+					publish(current -> current.related(class1, class2, null));
+				}
+				return changed;
+			}, listener -> listener.deleteRelationship(classFrom, classTo));
+		} finally {
+			lock.readLock().unlock();
 		}
 	}
 
@@ -408,20 +822,20 @@ public class Store implements Cloneable, IStore
 	 */
 	@Override
 	public void removeRelationships(Class aClass) {
-		// Find the classes that the class in question has a relationship with
-		Map<String, RelationshipType> tempTo = aClass.getRelationshipsToOther();
-		Map<String, RelationshipType> tempFrom = aClass.getRelationshipsFromOther();
-		for (Map.Entry<String, RelationshipType> entry : tempTo.entrySet()) {
-			// Go to those classes and get rid of relationships to and from the class in
-			// question.
-			Class temp = findClass(entry.getKey());
-			temp.deleteRelationshipFromOther(entry.getValue(), aClass);
-		}
-		for (Map.Entry<String, RelationshipType> entry : tempFrom.entrySet()) {
-			// Go to those classes and get rid of relationships to and from the class in
-			// question.
-			Class temp = findClass(entry.getKey());
-			temp.deleteRelationshipToOther(entry.getValue(), aClass);
+		lock.writeLock().lock();
+		try {
+			// Only the class's own relationships are looked at, however many classes the store has.
+			aClass.loadRelationships();
+			ArrayList<Class> related = graph.isolate(aClass);
+			for (Class other : related) {
+				other.changed();
+			}
+			aClass.changed();
+			ArrayList<Class> changed = new ArrayList<Class>(related);
+			changed.add(aClass);
+			publish(current -> refreshed(current, changed));
+		} finally {
+			lock.writeLock().unlock();
 		}
 	}
 
@@ -433,12 +847,78 @@ public class Store implements Cloneable, IStore
 	 * Finds a class in the storage and returns it. Returns null if nothing found.
 	 */
 	public Class findClass(String name) {
-		for (Class aClass : classStore) {
-			if (aClass.getName().equals(name)) {
-				return aClass;
+		if (name == null)
+			return null;
+		Class found = classIndex.get(name);
+		// The list can still be edited through getClassStore(), so rebuild the index if it has drifted.
+		if (drifted(name, found)) {
+			if (lock.getReadHoldCount() > 0 && !lock.isWriteLockedByCurrentThread()) {
+				// The write lock can't be taken while holding the read lock, so the list is searched instead.
+				for (Class aClass : classStore) {
+					if (aClass.getName().equals(name))
+						return aClass;
+				}
+				return null;
+			}
+			// Another thread changing the store keeps the index up to date as it goes, so it is trusted until that
+			// thread is done. Waiting here could wait on a thread that is waiting on the graph this came from.
+			if (!lock.writeLock().tryLock())
+				return found;
+			try {
+				if (drifted(name, classIndex.get(name)))
+					reindex();
+				found = classIndex.get(name);
+			} finally {
+				lock.writeLock().unlock();
 			}
 		}
-		return null;
+		return found;
+	}
+
+	/**
+	 * Returns true if the name index no longer matches the class list.
+	 */
+	private boolean drifted(String name, Class found) {
+		return classIndex.size() != classStore.size() || (found != null && !found.getName().equals(name));
+	}
+
+	/**
+	 * Rebuilds the name index and the relationship graph from the class list, and drops the snapshot.
+	 */
+	private void reindex() {
+		classIndex = new ConcurrentHashMap<String, Class>(classStore.size() * 2);
+		for (Class aClass : classStore) {
+			classIndex.put(aClass.getName(), aClass);
+		}
+		relink();
+		snapshot.set(null);
+	}
+
+	/**
+	 * Builds a new relationship graph for the classes in the list. Classes from another graph bring the
+	 * relationships they have there, and classes not in a graph bring the ones in their own maps. Only
+	 * relationships between classes in the list are kept, and none are loaded from a file to do it.
+	 */
+	private void relink() {
+		ArrayList<Object[]> edges = new ArrayList<Object[]>();
+		ArrayList<Class> detached = new ArrayList<Class>();
+		for (Class aClass : classStore) {
+			RelationshipGraph from = aClass.graph;
+			if (from != null)
+				from.forEachLoadedEdgeFrom(aClass, (one, other, type) -> edges.add(new Object[] {one, other, type}));
+			else if (!aClass.relationshipsPending())
+				detached.add(aClass);
+		}
+		graph = new RelationshipGraph(this::findClass);
+		for (Class aClass : classStore) {
+			graph.add(aClass);
+		}
+		for (Object[] edge : edges) {
+			graph.relate((Class)edge[0], (Class)edge[1], (RelationshipType)edge[2]);
+		}
+		for (Class aClass : detached) {
+			aClass.moveRelationshipsToGraph(other -> true);
+		}
 	}
 
 	/**
@@ -448,12 +928,8 @@ public class Store implements Cloneable, IStore
 	public Method findMethod(String className, String methodType, String methodName, ArrayList<Parameter> params, String access) {
 		Method newMethod = new Method(methodType, methodName, params, access);
 		Class foundClass = findClass(className);
-		for (Method method : foundClass.getMethods()) {
-			if (method.equals(newMethod)) {
-				return method;
-			}
-		}
-		return null;
+		Method found = foundClass.getMethod(newMethod.getSignature());
+		return newMethod.equals(found) ? found : null;
 	}
 
 	// ===============================================================================================================================================
@@ -511,11 +987,16 @@ public class Store implements Cloneable, IStore
 	 * Returns an array list with the toStrings
 	 */
 	public ArrayList<String> stringOfClasses() {
-		ArrayList<String> result = new ArrayList<String>();
-		for (Class c : classStore) {
-			result.add(c.toString());
+		lock.readLock().lock();
+		try {
+			ArrayList<String> result = new ArrayList<String>();
+			for (Class c : classStore) {
+				result.add(c.toString());
+			}
+			return result;
+		} finally {
+			lock.readLock().unlock();
 		}
-		return result;
 	}
 
 	// ===============================================================================================================================================
@@ -542,57 +1023,48 @@ public class Store implements Cloneable, IStore
 	@Override
 	public Object clone() 
 	{
-		//The clone
-		Store clone = new Store();
-		clone.setCurrentLoadedFile(this.getCurrentLoadedFile());
-		//will hold the new copy of the classStore
-		ArrayList<Class> storeCopy = clone.getClassStore();
-		for(Class c : classStore)
-		{
-			//For each class, add all relevant field.
-			//Make new class (use name and location).
-			Class aClass = new Class(c.getName());
-			aClass.setLocation(c.getLocation());
-			//Add fields.
-			Set<Field> fields = c.getFields();
-			for (Field f : fields)
+		lock.writeLock().lock();
+		try {
+			//The clone
+			Store clone = new Store();
+			clone.setCurrentLoadedFile(this.getCurrentLoadedFile());
+			//will hold the new copy of the classStore
+			ArrayList<Class> storeCopy = clone.getClassStore();
+			for(Class c : classStore)
 			{
-				aClass.addField(f.getType(), f.getName(), f.getAccessString());	
-			}
+				//For each class, add all relevant field.
+				//Make new class (use name and location).
+				Class aClass = new Class(c.getName());
+				aClass.setLocation(c.getLocation());
+				//Add fields.
+				Set<Field> fields = c.getFields();
+				for (Field f : fields)
+				{
+					aClass.addField(f.getType(), f.getName(), f.getAccessString());	
+				}
 			
-			//Add methods.
-			Set<Method> methods = c.getMethods();
-			for (Method m : methods) 
-			{
-				String access = m.getAccessString();
-				String methodName = m.getName();
-				String methodType = m.getType();
-				ArrayList<Parameter> params  = m.getParams();
-				aClass.addMethod(methodType, methodName, params, access);
-			}
-			//Add the class to the store.
-			storeCopy.add(aClass);
-		}
-		//Add all relationships in.
-		for(Class aClass : this.getClassStore())
-		{
-			Class newClass = clone.findClass(aClass.getName());
-			//Add the relations to others.
-			Map<String,RelationshipType> relationToOthers = aClass.getRelationshipsToOther();
-	
-			for (Map.Entry<String, RelationshipType> relation : relationToOthers.entrySet()) 
-			{
-				newClass.addRelationshipToOther(relation.getValue(), clone.findClass(relation.getKey()));
-			}
-			//Add the relations from otehrs
-			Map<String,RelationshipType> relationFromOthers = aClass.getRelationshipsFromOther();
-
-			for (Map.Entry<String, RelationshipType> relation : relationFromOthers.entrySet()) 
-			{
-				newClass.addRelationshipFromOther(relation.getValue(), clone.findClass(relation.getKey()));
+				//Add methods.
+				Set<Method> methods = c.getMethods();
+				for (Method m : methods) 
+				{
+					String access = m.getAccessString();
+					String methodName = m.getName();
+					String methodType = m.getType();
+					ArrayList<Parameter> params  = m.getParams();
+					aClass.addMethod(methodType, methodName, params, access);
+				}
+				//Add the class to the store.
+				storeCopy.add(aClass);
+				clone.classIndex.put(aClass.getName(), aClass);
+				clone.attach(aClass);
 			}
+			//Add all relationships in.
+			graph.forEachEdge((from, to, type) -> clone.graph.relate(clone.findClass(from.getName()), clone.findClass(to.getName()), type));
+			clone.snapshot.set(null);
+			return clone;
+		} finally {
+			lock.writeLock().unlock();
 		}
-		return clone;
 	}
 
 	/**
@@ -0,0 +1,42 @@
+package UML.model;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/17/2026
+    Purpose: The model's table of names. Class names, member names and types are swapped for the one copy
+    of each kept here as they enter the model, so a type used by thousands of fields is one string rather
+    than thousands of equal ones.
+ */
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class Symbols
+{
+    //Every name seen so far, mapped to itself.
+    private static final ConcurrentHashMap<String, String> table = new ConcurrentHashMap<String, String>();
+
+    private Symbols()
+    {
+    }
+
+    /**
+     * Returns the table's copy of the given string, adding it if the table doesn't have one yet. Null is returned as is.
+     */
+    public static String intern(String symbol)
+    {
+        if(symbol == null)
+            return null;
+        //Most names are already in the table, and looking one up doesn't lock.
+        String canonical = table.get(symbol);
+        if(canonical != null)
+            return canonical;
+        canonical = table.putIfAbsent(symbol, symbol);
+        return canonical == null ? symbol : canonical;
+    }
+
+    /**
+     * Returns how many different names are in the table. Names stay in it for as long as the program runs.
+     */
+    public static int size()
+    {
+        return table.size();
+    }
+}
@@ -0,0 +1,256 @@
+package UML.views;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/17/2026
+    Purpose: A class drawn straight onto the draw panel, keeping its lines of text and their measurements
+    so painting it is only a few fills and drawString calls.
+ */
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.util.ArrayList;
+import java.util.function.Supplier;
+
+import javax.swing.JPanel;
+
+class ClassBox
+{
+    //The room left around the text, the same the Swing class panels leave.
+    private static final int WIDTH_PADDING = 35;
+    private static final int NAME_PADDING = 9;
+    private static final int SECTION_PADDING = 10;
+
+    //The size a box is given until its text is first needed.
+    static final int UNMEASURED_WIDTH = 150;
+    static final int UNMEASURED_HEIGHT = 100;
+
+    //The bare panel holding the box's name and where it is.
+    private JPanel holder;
+
+    //Makes the text the first time it is needed, or null once the box has its text.
+    private Supplier<String> pendingText;
+
+    private String name;
+    private String[] fieldLines;
+    private String[] methodLines;
+
+    private Color background = Color.LIGHT_GRAY;
+
+    //Where the box is in the drawing order, boxes with higher numbers being drawn over lower ones.
+    private long order;
+
+    //The fonts the measurements below were made with, or null if the text changed since.
+    private Font nameFont;
+    private Font textFont;
+
+    private int width;
+    private int height;
+    private int nameWidth;
+    private int nameHeight;
+    private int fieldHeight;
+    private int nameAscent;
+    private int textAscent;
+    private int lineHeight;
+
+    /**
+     * Constructs a box from the toString() of a class, placed by the bounds of the holder panel.
+     */
+    public ClassBox(String classText, JPanel holder)
+    {
+        this.holder = holder;
+        setText(classText);
+    }
+
+    /**
+     * Constructs a box whose text is made the first time the box is measured, so a class that is
+     * never shown never builds its text.
+     */
+    public ClassBox(Supplier<String> classText, JPanel holder)
+    {
+        this.holder = holder;
+        name = holder.getName();
+        fieldLines = new String[0];
+        methodLines = new String[0];
+        pendingText = classText;
+    }
+
+    /**
+     * Returns whether the box has its text yet.
+     */
+    public boolean hasText()
+    {
+        return pendingText == null;
+    }
+
+    /**
+     * Makes the box's text now if it was put off.
+     */
+    public void loadText()
+    {
+        if(pendingText != null)
+            setText(pendingText.get());
+    }
+
+    /**
+     * Returns the panel holding the box's name and bounds.
+     */
+    public JPanel getHolder()
+    {
+        return holder;
+    }
+
+    /**
+     * Returns where the box is in the drawing order.
+     */
+    public long getOrder()
+    {
+        return order;
+    }
+
+    /**
+     * Sets where the box is in the drawing order.
+     */
+    public void setOrder(long order)
+    {
+        this.order = order;
+    }
+
+    /**
+     * Sets the text from the toString() of a class. The box is measured again before it is next used.
+     */
+    public void setText(String classText)
+    {
+        pendingText = null;
+        name = ClassPanelBuilder.getClassName(classText).trim();
+        fieldLines = lines(ClassPanelBuilder.getClassFields(classText));
+        methodLines = lines(ClassPanelBuilder.getClassMethods(classText));
+        nameFont = null;
+    }
+
+    /**
+     * Splits text into lines, leaving off the empty ones at the end.
+     */
+    private String[] lines(String text)
+    {
+        ArrayList<String> result = new ArrayList<String>();
+        for(String line : text.split("\n"))
+        {
+            result.add(line);
+        }
+        while(!result.isEmpty() && result.get(result.size() - 1).trim().isEmpty())
+        {
+            result.remove(result.size() - 1);
+        }
+        return result.toArray(new String[0]);
+    }
+
+    /**
+     * Measures the box for the given fonts, unless it was already measured with them.
+     */
+    public void layout(Font nameFont, FontMetrics nameMetrics, Font textFont, FontMetrics textMetrics)
+    {
+        loadText();
+        if(nameFont == this.nameFont && textFont == this.textFont)
+            return;
+        nameWidth = nameMetrics.stringWidth(name);
+        nameAscent = nameMetrics.getAscent();
+        nameHeight = nameMetrics.getHeight() + NAME_PADDING;
+        textAscent = textMetrics.getAscent();
+        lineHeight = textMetrics.getHeight();
+        fieldHeight = fieldLines.length * lineHeight + SECTION_PADDING;
+        int methodHeight = methodLines.length * lineHeight + SECTION_PADDING;
+
+        int widest = nameWidth;
+        for(String line : fieldLines)
+        {
+            widest = Math.max(widest, textMetrics.stringWidth(line));
+        }
+        for(String line : methodLines)
+        {
+            widest = Math.max(widest, textMetrics.stringWidth(line));
+        }
+        width = widest + WIDTH_PADDING;
+        height = nameHeight + fieldHeight + methodHeight;
+        this.nameFont = nameFont;
+        this.textFont = textFont;
+    }
+
+    /**
+     * Returns the width the box was last measured at.
+     */
+    public int getWidth()
+    {
+        return width;
+    }
+
+    /**
+     * Returns the height the box was last measured at.
+     */
+    public int getHeight()
+    {
+        return height;
+    }
+
+    /**
+     * Returns the color behind the text.
+     */
+    public Color getBackground()
+    {
+        return background;
+    }
+
+    /**
+     * Sets the color behind the text.
+     */
+    public void setBackground(Color background)
+    {
+        this.background = background;
+    }
+
+    /**
+     * Draws the box where its holder is. A selected box gets a thicker border.
+     */
+    public void paint(Graphics g, boolean selected)
+    {
+        if(nameFont == null)
+            return;
+        int x = holder.getX();
+        int y = holder.getY();
+        g.setColor(background);
+        g.fillRect(x, y, width, height);
+
+        //The name, centered above the fields and methods.
+        g.setColor(Color.BLACK);
+        g.setFont(nameFont);
+        g.drawString(name, x + (width - nameWidth) / 2, y + NAME_PADDING / 2 + nameAscent);
+        g.setFont(textFont);
+        int top = y + nameHeight;
+        drawLines(g, fieldLines, x, top);
+        drawLines(g, methodLines, x, top + fieldHeight);
+
+        //The border and the lines between the sections.
+        g.setColor(Color.DARK_GRAY);
+        g.drawLine(x, top, x + width - 1, top);
+        g.drawLine(x, top + fieldHeight, x + width - 1, top + fieldHeight);
+        g.drawRect(x, y, width - 1, height - 1);
+        if(selected)
+        {
+            g.setColor(Color.BLUE);
+            g.drawRect(x + 1, y + 1, width - 3, height - 3);
+        }
+    }
+
+    /**
+     * Draws a section's lines from the top of the section down.
+     */
+    private void drawLines(Graphics g, String[] lines, int x, int top)
+    {
+        int baseline = top + SECTION_PADDING / 2 + textAscent;
+        for(String line : lines)
+        {
+            g.drawString(line, x + WIDTH_PADDING / 2, baseline);
+            baseline += lineHeight;
+        }
+    }
+}
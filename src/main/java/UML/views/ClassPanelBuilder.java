@@ -22,6 +22,13 @@ import javax.swing.JMenuItem;
 
 public class ClassPanelBuilder implements PanelBuilder
 {
+    //The items of a class's menu, their tooltips, and the start of their commands, which end with the class name.
+    static final String[] MENU_ITEMS = { "Create field", "Edit Field", "Create method", "Edit method", "Create relationship",
+        "Delete relationship", "Edit Class" };
+    static final String[] MENU_TIPS = { "Create new field", "Edit a field", "Create a method", "Edit a method", "Create a relationship",
+        "Delete a relationship", "Rename a classs" };
+    static final String[] MENU_COMMANDS = { "CreateField ", "EditField ", "CreateMethod ", "EditMethod ", "CreateRelationship ",
+        "DeleteRelationship ", "EditClass " };
     
     private String classData;
     private JPanel panel;
@@ -117,7 +124,7 @@ public class ClassPanelBuilder implements PanelBuilder
     /**
      * Returns class name.
      */
-    private String getClassName(String data)
+    static String getClassName(String data)
     {
         int start = data.indexOf("name: ") + 6;
         int stop = data.indexOf("Field ");
@@ -127,7 +134,7 @@ public class ClassPanelBuilder implements PanelBuilder
     /**
      * Returns fields string.
      */
-    private String getClassFields(String data)
+    static String getClassFields(String data)
     {
         int start = data.indexOf("Field Names: ");
         int stop = data.indexOf("Methods: ");
@@ -137,7 +144,7 @@ public class ClassPanelBuilder implements PanelBuilder
     /**
      * Returns methods string.
      */
-    private String getClassMethods(String data)
+    static String getClassMethods(String data)
     {
         int start = data.indexOf("Methods: ");
         int stop = data.indexOf("Relationships To Others: ");
@@ -153,9 +160,9 @@ public class ClassPanelBuilder implements PanelBuilder
 
         name.setHorizontalAlignment(JLabel.CENTER);
 
-        JLabel fields = new JLabel("<html>" + getClassFields(classData).replaceAll("<", "&lt;").replaceAll(">", "&gt;").replaceAll("\n", "<br/>") + "<html>");
+        JLabel fields = new JLabel(toHtml(getClassFields(classData)));
 
-        JLabel methods = new JLabel("<html>" + getClassMethods(classData).replaceAll("<", "&lt;").replaceAll(">", "&gt;").replaceAll("\n", "<br/>") + "<html>");
+        JLabel methods = new JLabel(toHtml(getClassMethods(classData)));
 
         //Concat used to know which class is being changed in listeners.
         String concat = name.getText().trim();
@@ -195,6 +202,38 @@ public class ClassPanelBuilder implements PanelBuilder
         return panel;
     }
 
+    /**
+     * Updates the labels and menu commands of the existing panel to match the class data.
+     */
+    public JPanel updateClassPanel()
+    {
+        JPanel centerPanel = (JPanel) panel.getComponent(1);
+        JLabel name = (JLabel) centerPanel.getComponent(0);
+        JLabel fields = (JLabel) centerPanel.getComponent(1);
+        JLabel methods = (JLabel) centerPanel.getComponent(2);
+        name.setText(getClassName(classData));
+        fields.setText(toHtml(getClassFields(classData)));
+        methods.setText(toHtml(getClassMethods(classData)));
+
+        //The commands carry the class name, so they change when the class is renamed.
+        String concat = name.getText().trim();
+        JMenu miniMenu = ((JMenuBar) panel.getComponent(0)).getMenu(0);
+        for (int count = 0; count < miniMenu.getItemCount(); ++count) {
+            JMenuItem item = miniMenu.getItem(count);
+            String command = item.getActionCommand();
+            item.setActionCommand(command.substring(0, command.indexOf(' ') + 1) + concat);
+        }
+        return panel;
+    }
+
+    /**
+     * Escapes the text and turns it into html so the line breaks show in a label.
+     */
+    private String toHtml(String text)
+    {
+        return "<html>" + text.replaceAll("<", "&lt;").replaceAll(">", "&gt;").replaceAll("\n", "<br/>") + "<html>";
+    }
+
     /**
      * Creates the menubar for the class panel.
      */
@@ -204,31 +243,11 @@ public class ClassPanelBuilder implements PanelBuilder
         JMenu miniMenu = new JMenu("+"); 
         miniMenu.setBackground(Color.darkGray);
         
-        //Field.
-        JMenuItem crtField = new JMenuItem("Create field");
-        JMenuItem editField = new JMenuItem("Edit Field");
-
-        //Method.
-        JMenuItem crtMethod = new JMenuItem("Create method");
-        JMenuItem editMethod = new JMenuItem("Edit method");
-        
-        //Relationship.
-        JMenuItem crtRelationship = new JMenuItem("Create relationship");
-        JMenuItem delRelationship = new JMenuItem("Delete relationship");
-
-        //Class.
-        JMenuItem editClass = new JMenuItem("Edit Class");
-      
-        JMenuItem[] arr = { crtField, editField, crtMethod, editMethod, crtRelationship, delRelationship, editClass};
-        String[] text = { "Create new field", "Edit a field", "Create a method", "Edit a method", "Create a relationship", "Delete a relationship",
-                          "Rename a classs", "Delete a class" };
-        String[] command = { "CreateField " + concat, "EditField " + concat, "CreateMethod " + concat, "EditMethod " + concat, 
-            "CreateRelationship " + concat, "DeleteRelationship " + concat, "EditClass " + concat };
-
-        for (int count = 0; count < 7; ++count) {
-            miniMenu.add(arr[count]);
-            arr[count].setToolTipText(text[count]);
-            arr[count].setActionCommand(command[count]);
+        for (int count = 0; count < MENU_ITEMS.length; ++count) {
+            JMenuItem item = new JMenuItem(MENU_ITEMS[count]);
+            miniMenu.add(item);
+            item.setToolTipText(MENU_TIPS[count]);
+            item.setActionCommand(MENU_COMMANDS[count] + concat);
         }
         
         miniBar.add(miniMenu);
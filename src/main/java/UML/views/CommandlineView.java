@@ -24,13 +24,22 @@ public class CommandlineView implements View {
      * Print new class.
      */
     @Override
-    public void createClass(String name, int x, int y) 
+    public void createClass(String name, String classText, int x, int y) 
     {
-        int stop = name.toString().indexOf("Relationships To Others: ");
-        String s = name.toString().substring(0, stop - 32);
+        int stop = classText.indexOf("Relationships To Others: ");
+        String s = classText.substring(0, stop - 32);
         System.out.println("\n" + s);
     }
 
+    /**
+     * Print the class again after it was edited.
+     */
+    @Override
+    public void updateClass(String oldName, String name, String classText) 
+    {
+        createClass(name, classText, 0, 0);
+    }
+
     /**
      * Print deleted class message.
      */
@@ -148,9 +157,13 @@ public class CommandlineView implements View {
         System.out.println(
                 "load [fileName]:                                                                                            Loads the passed in file name");
         System.out.println(
-                "display [(Optional) className]:                                                                             Displays all classes or a single class");
+                "generate [fileName] [classCount] [(Optional) seed fields methods maxParams relationsPerClass]:              Writes a made-up diagram to a file");
         System.out.println(
-                "displayr:                                                                                                   Displays all relationships");
+                "convert [fromFile] [toFile]:                                                                                Copies a diagram between .json and .umlb");
+        System.out.println(
+                "display [(Optional) className or pattern] [--full] [--limit n] [--nopage]:                                  Displays all classes or a single class");
+        System.out.println(
+                "displayr [(Optional) className or pattern] [--type relType] [--limit n] [--nopage]:                         Displays all relationships");
         System.out.println(
                 "undo:                                                                                                       Reverts to a previous state");
         System.out.println(
@@ -176,23 +189,13 @@ public class CommandlineView implements View {
     @Override
     public void addRelationship(String from, String to, String type) 
     {
-        int stop = from.toString().indexOf("Relationships To Others: ");
-        String s = from.toString().substring(0, stop - 32);
-
-        int stop2 = to.toString().indexOf("Relationships To Others: ");
-        String s2 = to.toString().substring(0, stop2 - 32);
-
-        System.out.println("\nAdded " + type + " between:\n" + s + "\n\n and \n\n" + s2);
+        //The classes themselves were just printed by updateClass, so only their names are shown here.
+        System.out.println("\nAdded " + type + " between:\n" + from + "\n\n and \n\n" + to);
     }
 
     @Override
     public void deleteRelationship(String from, String to) {
-        int stop = from.toString().indexOf("Relationships To Others: ");
-        String s = from.toString().substring(0, stop - 32);
-
-        int stop2 = to.toString().indexOf("Relationships To Others: ");
-        String s2 = to.toString().substring(0, stop2 - 32);
-        System.out.println("\nDeleted relationship between:\n" + s + "\n\n and \n\n" + s2);
+        System.out.println("\nDeleted relationship between:\n" + from + "\n\n and \n\n" + to);
     }
 
     /**
@@ -360,7 +363,7 @@ public class CommandlineView implements View {
     }
 
     @Override
-    public void addListener(MouseClickAndDragController mouseListener, String classText) {
+    public void addListener(MouseClickAndDragController mouseListener, String className) {
         // Do nothing.
     }
 
@@ -414,7 +417,7 @@ public class CommandlineView implements View {
     }
 
     @Override
-    public void addPanelListener(ActionListener listener, String classText) 
+    public void addPanelListener(ActionListener listener, String className) 
     {
         //Do nothing.
     }
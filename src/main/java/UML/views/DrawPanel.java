@@ -2,50 +2,458 @@ package UML.views;
 /*
     Author: Chris, Dominic, Tyler, Cory and Drew
     Date: 10/25/2020
-    Purpose: Handles drawing lines and shapes for relationships.
+    Purpose: Handles drawing lines and shapes for relationships, and zooming the diagram.
  */
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.Map;
 import javax.swing.JPanel;
+import javax.swing.JViewport;
+import javax.swing.Timer;
 import java.awt.Color;
+import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.BasicStroke;
 import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.RenderingHints;
 
 public class DrawPanel extends JPanel
 {
+    //How far the shape at the end of a relationship line can reach past the line.
+    private static final int SHAPE_SIZE = 31;
+
+    //The shortest time between repaints scheduled by repaintLater, about one frame at 60 per second.
+    private static final int FRAME_MILLIS = 16;
+
+    //How much one zoom level scales the diagram, and how far it can be zoomed out and in.
+    private static final double ZOOM_STEP = 1.1;
+    private static final int MIN_ZOOM_LEVEL = -20;
+    private static final int MAX_ZOOM_LEVEL = 10;
+
+    //Orders the classes the panel draws itself in the order they are drawn.
+    private static final Comparator<ClassBox> BOTTOM_FIRST = Comparator.comparingLong(ClassBox::getOrder);
+
     private View view;
 
+    //The zoom level, where 0 is the real size and each level is ZOOM_STEP times the one below it.
+    private int zoomLevel;
+
+    //The scale the diagram is drawn at, ZOOM_STEP to the power of the zoom level.
+    private double zoom = 1;
+
+    //The preferred size of the panel at the real size.
+    private Dimension unzoomedSize;
+
+    //Where each relationship line is, so a repaint only draws the ones inside the clip.
+    private EdgeIndex edgeIndex;
+
+    //Where each class the panel draws itself is, keyed by class name.
+    private GridIndex<String> boxIndex;
+
+    //True when relationships were added or removed since the index was last built.
+    private boolean relationshipsChanged;
+
+    //The area waiting for the next scheduled repaint, or null if none is scheduled.
+    private Rectangle pendingRepaint;
+
+    //Fires once per frame at most to repaint everything that changed since the last one.
+    private Timer repaintTimer;
+
+    //How many times the panel was painted, and how long that took in total and at most.
+    private long frameCount;
+    private long totalFrameNanos;
+    private long longestFrameNanos;
+
     public DrawPanel(View v)
     {
         this.view = v;
+        edgeIndex = new EdgeIndex();
+        boxIndex = new GridIndex<String>();
+        relationshipsChanged = true;
+        repaintTimer = new Timer(FRAME_MILLIS, e -> flushRepaint());
+        repaintTimer.setRepeats(false);
+    }
+
+    /**
+     * Tells the panel the set of relationships changed, so its index is rebuilt before the next paint.
+     */
+    public void relationshipsChanged()
+    {
+        relationshipsChanged = true;
+    }
+
+    /**
+     * Places the line of one relationship that was just added, rather than rebuilding the whole index.
+     * If the index is being rebuilt before the next paint anyway, there is nothing to do.
+     */
+    public void relationshipAdded(ArrayList<String> edge)
+    {
+        if(!relationshipsChanged)
+            placeEdge(edge, view.getPanels());
+    }
+
+    /**
+     * Takes the line of one relationship that was just removed out of the index.
+     */
+    public void relationshipRemoved(ArrayList<String> edge)
+    {
+        edgeIndex.remove(edge);
+    }
+
+    /**
+     * Tells the panel every class and relationship was removed. An empty index is already up to date,
+     * so what is added next is placed a piece at a time instead of in one rebuild.
+     */
+    public void cleared()
+    {
+        edgeIndex.clear();
+        boxIndex.clear();
+        relationshipsChanged = false;
+    }
+
+    /**
+     * Returns the zoom level, 0 being the real size.
+     */
+    public int getZoomLevel()
+    {
+        return zoomLevel;
+    }
+
+    /**
+     * Returns the scale the diagram is drawn at.
+     */
+    public double getZoom()
+    {
+        return zoom;
+    }
+
+    /**
+     * Returns true when the diagram is drawn at any size but the real one.
+     */
+    public boolean isZoomed()
+    {
+        return zoomLevel != 0;
+    }
+
+    /**
+     * Zooms to a level, keeping the given point of the panel under the mouse, or just the scroll position if it is null.
+     * Only the drawing is scaled. The class panels keep their bounds, and while zoomed they are hidden and drawn
+     * by this panel, so a zoom costs one repaint however many classes there are.
+     */
+    public void setZoomLevel(int level, Point anchor)
+    {
+        level = Math.max(MIN_ZOOM_LEVEL, Math.min(MAX_ZOOM_LEVEL, level));
+        if(level == zoomLevel)
+            return;
+        if(!isZoomed())
+            unzoomedSize = getPreferredSize();
+        double oldZoom = zoom;
+        zoomLevel = level;
+        zoom = Math.pow(ZOOM_STEP, level);
+
+        //The panels only show or hide when zooming starts or stops, not on every level.
+        boolean visible = !isZoomed();
+        for(JPanel panel : view.getPanels().values())
+        {
+            if(panel.isVisible() != visible)
+                panel.setVisible(visible);
+        }
+
+        setPreferredSize(new Dimension((int)Math.ceil(unzoomedSize.width * zoom), (int)Math.ceil(unzoomedSize.height * zoom)));
+        if(getParent() instanceof JViewport)
+        {
+            JViewport viewport = (JViewport)getParent();
+            setSize(getPreferredSize());
+            Point position = viewport.getViewPosition();
+            Point point = anchor == null ? position : anchor;
+            double ratio = zoom / oldZoom;
+            int x = (int)Math.round(point.x * ratio) - (point.x - position.x);
+            int y = (int)Math.round(point.y * ratio) - (point.y - position.y);
+            viewport.setViewPosition(new Point(Math.max(0, x), Math.max(0, y)));
+        }
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * Turns a point on the panel into the diagram coordinates the class panels use.
+     */
+    public Point toModel(Point point)
+    {
+        return new Point((int)Math.floor(point.x / zoom), (int)Math.floor(point.y / zoom));
+    }
+
+    /**
+     * Turns an area of the diagram into the area of the panel it is drawn on.
+     */
+    public Rectangle toView(Rectangle area)
+    {
+        int left = (int)Math.floor(area.x * zoom);
+        int top = (int)Math.floor(area.y * zoom);
+        int right = (int)Math.ceil((area.x + area.width) * zoom);
+        int bottom = (int)Math.ceil((area.y + area.height) * zoom);
+        return new Rectangle(left, top, right - left + 1, bottom - top + 1);
+    }
+
+    /**
+     * Returns the topmost class panel drawn under a point on the panel, or null if there is none.
+     */
+    public JPanel panelAt(Point point)
+    {
+        Point model = toModel(point);
+
+        //Classes the panel draws itself are on top, the last one drawn topmost.
+        if(view instanceof GraphicalView)
+        {
+            updateIndex(view.getPanels(), view.getRelationships());
+            ArrayList<ClassBox> boxes = boxesIn(new Rectangle(model.x, model.y, 1, 1), (GraphicalView)view);
+            for(int count = boxes.size() - 1; count >= 0; count--)
+            {
+                JPanel holder = boxes.get(count).getHolder();
+                if(holder.getBounds().contains(model))
+                    return holder;
+            }
+        }
+
+        JPanel found = null;
+        for(JPanel panel : view.getPanels().values())
+        {
+            if(panel.getParent() == this && panel.getBounds().contains(model)
+                && (found == null || getComponentZOrder(panel) < getComponentZOrder(found)))
+                found = panel;
+        }
+        return found;
+    }
+
+    /**
+     * Updates the lines of a class panel that was just placed, moved or resized. Every change to a panel's
+     * bounds has to be reported here, since a paint doesn't check them. Returns the area that needs
+     * repainting: the panel's old and new bounds and where its lines were and now are.
+     */
+    public Rectangle panelMoved(String name, Rectangle oldBounds)
+    {
+        Map<String, JPanel> panels = view.getPanels();
+        JPanel panel = panels.get(name);
+        if(panel == null)
+            return new Rectangle(oldBounds);
+        //Without an up to date index there is no telling where the lines are, so repaint it all.
+        if(relationshipsChanged || edgeIndex.size() != view.getRelationships().size())
+            return new Rectangle(0, 0, (int)Math.ceil(getWidth() / zoom), (int)Math.ceil(getHeight() / zoom));
+
+        Rectangle dirty = oldBounds.union(panel.getBounds());
+        for(ArrayList<String> edge : new ArrayList<ArrayList<String>>(edgeIndex.edgesOf(name)))
+        {
+            Rectangle before = edgeIndex.getArea(edge);
+            if(before != null)
+                dirty.add(before);
+            placeEdge(edge, panels);
+            Rectangle after = edgeIndex.getArea(edge);
+            if(after != null)
+                dirty.add(after);
+        }
+        panelPlaced(name, panel);
+        return dirty;
+    }
+
+    /**
+     * Repaints the area of the diagram at the next frame. Areas asked for before then are joined and painted together,
+     * so fast mouse events don't cause more than one repaint per frame.
+     */
+    public void repaintLater(Rectangle area)
+    {
+        if(pendingRepaint == null)
+            pendingRepaint = new Rectangle(area);
+        else
+            pendingRepaint.add(area);
+        if(!repaintTimer.isRunning())
+            repaintTimer.start();
+    }
+
+    /**
+     * Repaints everything scheduled by repaintLater.
+     */
+    private void flushRepaint()
+    {
+        if(pendingRepaint != null)
+        {
+            repaint(toView(pendingRepaint));
+            pendingRepaint = null;
+        }
+    }
+
+    /**
+     * Paints the panel and its class panels, timing how long it takes.
+     */
+    @Override
+    public void paint(Graphics g)
+    {
+        long start = System.nanoTime();
+        super.paint(g);
+        long time = System.nanoTime() - start;
+        frameCount++;
+        totalFrameNanos += time;
+        longestFrameNanos = Math.max(longestFrameNanos, time);
+    }
+
+    /**
+     * Returns how many times the panel was painted since the frame times were last reset.
+     */
+    public long getFrameCount()
+    {
+        return frameCount;
+    }
+
+    /**
+     * Returns the average time a paint took in milliseconds, or 0 if there were none.
+     */
+    public double getAverageFrameMillis()
+    {
+        return frameCount == 0 ? 0 : totalFrameNanos / (frameCount * 1000000.0);
+    }
+
+    /**
+     * Returns the longest time a paint took in milliseconds.
+     */
+    public double getLongestFrameMillis()
+    {
+        return longestFrameNanos / 1000000.0;
+    }
+
+    /**
+     * Starts counting frame times again.
+     */
+    public void resetFrameTimes()
+    {
+        frameCount = 0;
+        totalFrameNanos = 0;
+        longestFrameNanos = 0;
     }
 
     public void paintComponent(Graphics g)
     {
         super.paintComponent(g);
+        //The diagram is drawn in its own coordinates, scaled to the zoom.
+        Graphics2D scaled = (Graphics2D)g.create();
+        scaled.scale(zoom, zoom);
+        updateIndex(view.getPanels(), view.getRelationships());
+        if(view instanceof GraphicalView)
+            measureClassBoxes(scaled.getClipBounds(), (GraphicalView)view);
+        paintRelationships(scaled);
+        if(isZoomed())
+            paintHiddenPanels(scaled);
+        if(view instanceof GraphicalView)
+            paintClassBoxes(scaled, (GraphicalView)view);
+        scaled.dispose();
+    }
+
+    /**
+     * Gives the classes about to be drawn their text and real size, if they haven't been drawn before.
+     * Their lines move to the new size before they are drawn, and anything the new size uncovers is repainted.
+     */
+    private void measureClassBoxes(Rectangle clip, GraphicalView graphicalView)
+    {
+        Map<String, ClassBox> boxes = graphicalView.getClassBoxes();
+        if(boxes.isEmpty())
+            return;
+        Collection<ClassBox> shown = clip == null ? new ArrayList<ClassBox>(boxes.values()) : boxesIn(clip, graphicalView);
+        for(ClassBox box : shown)
+        {
+            if(!box.hasText())
+            {
+                JPanel holder = box.getHolder();
+                box.loadText();
+                graphicalView.resizePanel(holder.getName(), holder.getX(), holder.getY());
+            }
+        }
+    }
+
+    /**
+     * Draws the classes that aren't Swing panels, skipping the ones outside the clip.
+     */
+    private void paintClassBoxes(Graphics2D g, GraphicalView graphicalView)
+    {
+        Map<String, ClassBox> boxes = graphicalView.getClassBoxes();
+        if(boxes.isEmpty())
+            return;
+        String selected = graphicalView.getSelectedClass();
+        Rectangle clip = g.getClipBounds();
+        ArrayList<ClassBox> visible;
+        if(clip == null)
+        {
+            visible = new ArrayList<ClassBox>(boxes.values());
+            visible.sort(BOTTOM_FIRST);
+        }
+        else
+            visible = boxesIn(clip, graphicalView);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        for(ClassBox box : visible)
+        {
+            box.paint(g, box.getHolder().getName().equals(selected));
+        }
+    }
+
+    /**
+     * Returns the classes drawn by the panel that overlap an area, bottom one first.
+     */
+    private ArrayList<ClassBox> boxesIn(Rectangle area, GraphicalView graphicalView)
+    {
+        Map<String, ClassBox> boxes = graphicalView.getClassBoxes();
+        ArrayList<ClassBox> found = new ArrayList<ClassBox>();
+        for(String name : boxIndex.query(area))
+        {
+            ClassBox box = boxes.get(name);
+            //Deleted or renamed classes leave their old name behind until they are dropped here.
+            if(box == null || !name.equals(box.getHolder().getName()))
+                boxIndex.remove(name);
+            else
+                found.add(box);
+        }
+        found.sort(BOTTOM_FIRST);
+        return found;
+    }
+
+    /**
+     * Draws the class panels, which are hidden while zoomed, bottom one first like Swing does.
+     */
+    private void paintHiddenPanels(Graphics2D g)
+    {
+        Rectangle clip = g.getClipBounds();
+        for(int count = getComponentCount() - 1; count >= 0; count--)
+        {
+            Component panel = getComponent(count);
+            if(panel.isVisible() || (clip != null && !panel.getBounds().intersects(clip)))
+                continue;
+            Graphics panelGraphics = g.create(panel.getX(), panel.getY(), panel.getWidth(), panel.getHeight());
+            //Printing paints a component straight onto the graphics, without needing it to be showing.
+            panel.print(panelGraphics);
+            panelGraphics.dispose();
+        }
+    }
+
+    /**
+     * Draws the relationship lines inside the clip.
+     */
+    private void paintRelationships(Graphics g)
+    {
         g.setColor(Color.BLACK);
-        for(Map.Entry<ArrayList<String>, String> relationship : view.getRelationships().entrySet())
-        {
-            //Get the locations of the two related panels.
-            Dimension fromLoc = view.getLoc(relationship.getKey().get(0));
-            Dimension toLoc = view.getLoc(relationship.getKey().get(1));
-            
-            //Get the panels from the view to get the sizes.
-            Map<String, JPanel> panels = view.getPanels();
-            Dimension fromSize = panels.get(relationship.getKey().get(0)).getSize();
-            Dimension toSize = panels.get(relationship.getKey().get(1)).getSize();
-
-            //Find the points that make up a line that connects the closesst points on the two panels in question.
-            int[] line = getClosest((int)fromLoc.getWidth(), (int)(fromLoc.getWidth() + fromSize.getWidth()), 
-                                                (int)fromLoc.getHeight(), (int)(fromLoc.getHeight() + fromSize.getHeight()), 
-                                                (int)toLoc.getWidth(), (int)(toLoc.getWidth() + toSize.getWidth()),
-                                                (int)toLoc.getHeight(), (int)(toLoc.getHeight() + toSize.getHeight()));                
-
-            if(relationship.getValue().equals("REALIZATION"))
+        Map<ArrayList<String>, String> relationships = view.getRelationships();
+
+        //Only the lines crossing the area being painted need drawing.
+        Rectangle clip = g.getClipBounds();
+        Collection<ArrayList<String>> visible = clip == null ? relationships.keySet() : edgeIndex.query(clip);
+        for(ArrayList<String> edge : visible)
+        {
+            String type = relationships.get(edge);
+            int[] line = edgeIndex.getLine(edge);
+            if(type == null || line == null)
+                continue;
+
+            if(type.equals("REALIZATION"))
             {
                 //Do a dotted line for realizatioon.
                 g.setColor(Color.BLACK);
@@ -63,19 +471,74 @@ public class DrawPanel extends JPanel
                 g.drawLine(line[0], line[1], line[2], line[3]);
                 //Set back to basic stroke
                 g2d.setStroke(defaultStroke);
-                drawCorrectShape(g2d, line[0], line[1], line[2], line[3], relationship.getValue());
+                drawCorrectShape(g2d, line[0], line[1], line[2], line[3], type);
             }
             else
             {
                 //Do a basic line for all other types of relationships.
                 g.setColor(Color.BLACK);
                 g.drawLine(line[0], line[1], line[2], line[3]);
-                drawCorrectShape(g, line[0], line[1], line[2], line[3], relationship.getValue());
+                drawCorrectShape(g, line[0], line[1], line[2], line[3], type);
             }
         }
     
     }
 
+    /**
+     * Rebuilds the index if relationships changed since it was last built. Panels that move or are resized
+     * report it through panelMoved, so otherwise there is nothing to do and a paint doesn't look at every panel.
+     */
+    private void updateIndex(Map<String, JPanel> panels, Map<ArrayList<String>, String> relationships)
+    {
+        //A line whose class had no panel yet was left out, so the index is built again once it has one.
+        if(!relationshipsChanged && edgeIndex.size() == relationships.size())
+            return;
+        edgeIndex.clear();
+        boxIndex.clear();
+        for(Map.Entry<String, JPanel> entry : panels.entrySet())
+        {
+            panelPlaced(entry.getKey(), entry.getValue());
+        }
+        for(ArrayList<String> edge : relationships.keySet())
+        {
+            placeEdge(edge, panels);
+        }
+        relationshipsChanged = false;
+    }
+
+    /**
+     * Records where a class's box is if the panel draws the class itself.
+     */
+    private void panelPlaced(String name, JPanel panel)
+    {
+        if(view instanceof GraphicalView && ((GraphicalView)view).hasClassBox(name))
+            boxIndex.put(name, panel.getBounds());
+    }
+
+    /**
+     * Works out the line of one relationship and puts it in the index.
+     */
+    private void placeEdge(ArrayList<String> edge, Map<String, JPanel> panels)
+    {
+        //Get the two related panels for their locations and sizes.
+        JPanel from = panels.get(edge.get(0));
+        JPanel to = panels.get(edge.get(1));
+        if(from == null || to == null)
+        {
+            edgeIndex.remove(edge);
+            return;
+        }
+
+        //Find the points that make up a line that connects the closesst points on the two panels in question.
+        int[] line = getClosest(from.getX(), from.getX() + from.getWidth(), 
+                                            from.getY(), from.getY() + from.getHeight(), 
+                                            to.getX(), to.getX() + to.getWidth(),
+                                            to.getY(), to.getY() + to.getHeight());
+        Rectangle area = new Rectangle(Math.min(line[0], line[2]), Math.min(line[1], line[3]), Math.abs(line[2] - line[0]), Math.abs(line[3] - line[1]));
+        area.grow(SHAPE_SIZE, SHAPE_SIZE);
+        edgeIndex.put(edge, line, area);
+    }
+
     /**
      * Draws the correct shape based on the relationship.
      */
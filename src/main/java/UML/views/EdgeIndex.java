@@ -0,0 +1,113 @@
+package UML.views;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/17/2026
+    Purpose: Remembers where each relationship line is, in a grid over the draw panel,
+    so a repaint only has to draw the lines inside the area being painted.
+ */
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+class EdgeIndex
+{
+    //The area each relationship covers, including the shape at the end of its line.
+    private GridIndex<ArrayList<String>> grid;
+    //The line of each relationship as fromX, fromY, toX, toY.
+    private Map<ArrayList<String>, int[]> lines;
+    //The relationships touching each class panel, keyed by class name.
+    private Map<String, Set<ArrayList<String>>> panelEdges;
+
+    /**
+     * Constructs an empty index.
+     */
+    public EdgeIndex()
+    {
+        grid = new GridIndex<ArrayList<String>>();
+        lines = new HashMap<ArrayList<String>, int[]>();
+        panelEdges = new HashMap<String, Set<ArrayList<String>>>();
+    }
+
+    /**
+     * Removes every relationship.
+     */
+    public void clear()
+    {
+        grid.clear();
+        lines.clear();
+        panelEdges.clear();
+    }
+
+    /**
+     * Returns how many relationships are in the index.
+     */
+    public int size()
+    {
+        return lines.size();
+    }
+
+    /**
+     * Returns the relationships that touch a class panel.
+     */
+    public Set<ArrayList<String>> edgesOf(String name)
+    {
+        Set<ArrayList<String>> edges = panelEdges.get(name);
+        return edges == null ? new HashSet<ArrayList<String>>() : edges;
+    }
+
+    /**
+     * Returns the line of a relationship, or null if it isn't in the index.
+     */
+    public int[] getLine(ArrayList<String> edge)
+    {
+        return lines.get(edge);
+    }
+
+    /**
+     * Returns the area a relationship covers, or null if it isn't in the index.
+     */
+    public Rectangle getArea(ArrayList<String> edge)
+    {
+        return grid.get(edge);
+    }
+
+    /**
+     * Adds a relationship, or moves it if it is already there. The area is the line plus the room its end shape
+     * needs on every side.
+     */
+    public void put(ArrayList<String> edge, int[] line, Rectangle area)
+    {
+        remove(edge);
+        lines.put(edge, line);
+        grid.putLine(edge, line, area);
+        panelEdges.computeIfAbsent(edge.get(0), k -> new HashSet<ArrayList<String>>()).add(edge);
+        panelEdges.computeIfAbsent(edge.get(1), k -> new HashSet<ArrayList<String>>()).add(edge);
+    }
+
+    /**
+     * Removes a relationship.
+     */
+    public void remove(ArrayList<String> edge)
+    {
+        if(lines.remove(edge) == null)
+            return;
+        grid.remove(edge);
+        for(String name : edge)
+        {
+            Set<ArrayList<String>> edges = panelEdges.get(name);
+            if(edges != null)
+                edges.remove(edge);
+        }
+    }
+
+    /**
+     * Returns the relationships whose area overlaps the given rectangle.
+     */
+    public Set<ArrayList<String>> query(Rectangle clip)
+    {
+        return grid.query(clip);
+    }
+}
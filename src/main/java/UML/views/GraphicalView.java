@@ -4,10 +4,19 @@ import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Component;
 import java.awt.Dimension;
+import java.awt.FontMetrics;
+import java.awt.Rectangle;
 import java.awt.event.ActionListener;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import javax.swing.JColorChooser;
 import javax.swing.JFileChooser;
@@ -18,6 +27,7 @@ import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JPopupMenu;
 import javax.swing.JScrollBar;
 import javax.swing.JScrollPane;
 import javax.swing.filechooser.FileNameExtensionFilter;
@@ -31,6 +41,7 @@ import UML.controllers.EditFieldController;
 import UML.controllers.EditMethodController;
 import UML.controllers.MouseClickAndDragController;
 import UML.controllers.ScrollWheelController;
+import java.awt.event.MouseListener;
 import java.awt.event.MouseWheelListener;
 import java.awt.Font;
 
@@ -39,7 +50,7 @@ public class GraphicalView implements View {
     //Holds menu bar used to navigate program.
     private JMenuBar mb;
 
-    //Displays each individual class.
+    //Displays each individual class, keyed by class name.
     private Map<String, JPanel> classPanels;
 
     //The window for the GUI.
@@ -48,6 +59,9 @@ public class GraphicalView implements View {
     //The file menu used to save and load.
     private JMenu fileMenu;
 
+    // Cancels the save or load running in the background.
+    private JMenuItem cancelItem;
+
     //The menu used to create a class.
     private JMenu classMenu;
 
@@ -60,16 +74,44 @@ public class GraphicalView implements View {
     //The pane that allows scrolling.
     private JScrollPane jsp;
 
-    //A map containing the relationships in the view.
+    //A map containing the relationships in the view, keyed by the from and to class names.
     private ConcurrentHashMap<ArrayList<String>, String> relationships;
 
+    //The same relationships by the name of each class they touch, so deleting or renaming a class only looks at its own.
+    private Map<String, Set<ArrayList<String>>> relationshipsOf;
+
     //The current font size for the class panels.
     private int fontSize;
 
+    //The fonts for class names and the rest of the class text at the current font size, and their measurements.
+    private Font nameFont;
+    private Font textFont;
+    private FontMetrics nameMetrics;
+    private FontMetrics textMetrics;
+
+    //True when new classes are drawn by the draw panel instead of being built as Swing panels.
+    private boolean retainedMode;
+
+    //The classes drawn by the draw panel, keyed by class name.
+    //Each also has a bare panel in classPanels that only holds its name and bounds.
+    private Map<String, ClassBox> classBoxes;
+
+    //The drawing order the next box put on top gets.
+    private long nextBoxOrder;
+
+    //The class last clicked on, drawn with a highlighted border if it is drawn by the draw panel.
+    private String selectedClass;
+
+    //The one menu shared by every class drawn by the draw panel, and the color item at its end.
+    private JPopupMenu boxMenu;
+    private JMenuItem boxColorItem;
+
 
     public GraphicalView() {
         this.classPanels = new ConcurrentHashMap<String, JPanel>();
         this.relationships = new ConcurrentHashMap<ArrayList<String>, String>();
+        this.relationshipsOf = new HashMap<String, Set<ArrayList<String>>>();
+        this.classBoxes = new ConcurrentHashMap<String, ClassBox>();
         fontSize = 10;
         
     }
@@ -99,6 +141,65 @@ public class GraphicalView implements View {
         return this.fontSize;
     }
 
+    /**
+     * Chooses whether classes are drawn straight onto the draw panel, with one shared menu, instead of
+     * each being a tree of Swing components. Only classes created afterwards are affected, so it is set
+     * before the diagram is built.
+     */
+    public void setRetainedMode(boolean retainedMode)
+    {
+        this.retainedMode = retainedMode;
+    }
+
+    /**
+     * Returns true if new classes are drawn straight onto the draw panel.
+     */
+    public boolean isRetainedMode()
+    {
+        return retainedMode;
+    }
+
+    /**
+     * Returns true if the class is drawn straight onto the draw panel rather than being a Swing panel.
+     */
+    public boolean hasClassBox(String name)
+    {
+        return classBoxes.containsKey(name);
+    }
+
+    /**
+     * Returns the classes drawn by the draw panel, keyed by name.
+     */
+    Map<String, ClassBox> getClassBoxes()
+    {
+        return classBoxes;
+    }
+
+    /**
+     * Returns the name of the selected class, or null if there is none.
+     */
+    public String getSelectedClass()
+    {
+        return selectedClass;
+    }
+
+    /**
+     * Selects a class. A class drawn by the draw panel is also brought to the top.
+     */
+    public void selectClass(String name)
+    {
+        String old = selectedClass;
+        selectedClass = name;
+        ClassBox box = classBoxes.get(name);
+        if (box != null) {
+            box.setOrder(nextBoxOrder++);
+            dp.repaint(dp.toView(classPanels.get(name).getBounds()));
+        }
+        if (old != null && !old.equals(name) && classBoxes.containsKey(old)) {
+            dp.repaint(dp.toView(classPanels.get(old).getBounds()));
+        }
+    }
+
     /**
      * Returns the JScrollPane. 
      */
@@ -140,14 +241,37 @@ public class GraphicalView implements View {
     // ================================================================================================================================================
 
     /**
-     * Creates a class panel to be displayed.
+     * Creates a class panel to be displayed. The panel is named after the class so listeners can tell which one it is.
+     */
+    @Override
+    public void createClass(String name, String classText, int x, int y) {
+        createClass(name, () -> classText, x, y);
+    }
+
+    /**
+     * Creates a class to be displayed. A class the draw panel draws itself only makes its text when it is
+     * first painted, so opening a large diagram doesn't build the text of classes that are never looked at.
      */
     @Override
-    public void createClass(String classToString, int x, int y) {
-        ClassPanelBuilder classPanelBuilder = new ClassPanelBuilder(classToString, dp);
+    public void createClass(String name, Supplier<String> classText, int x, int y) {
+        if (retainedMode) {
+            //The panel is never added to the draw panel, it only holds the name and bounds of the box.
+            JPanel holder = new JPanel(null);
+            holder.setName(name);
+            classPanels.put(name, holder);
+            ClassBox box = new ClassBox(classText, holder);
+            box.setOrder(nextBoxOrder++);
+            classBoxes.put(name, box);
+            resizePanel(name, x, y);
+            return;
+        }
+        ClassPanelBuilder classPanelBuilder = new ClassPanelBuilder(classText.get(), dp);
         JPanel newClassPanel = classPanelBuilder.makeNewClassPanel();
-        classPanels.put(classToString, newClassPanel);
-        resizePanel(classToString, x, y);
+        newClassPanel.setName(name);
+        classPanels.put(name, newClassPanel);
+        resizePanel(name, x, y);
+        //While zoomed the draw panel draws the class panels itself.
+        newClassPanel.setVisible(!dp.isZoomed());
         dp.add(newClassPanel);
     }
 
@@ -160,6 +284,50 @@ public class GraphicalView implements View {
         deleteRelationships(name);
     }
 
+    /**
+     * Updates the panel of a class that was edited in place, so its location and listeners are kept.
+     */
+    @Override
+    public void updateClass(String oldName, String name, String classText) {
+        JPanel panel = classPanels.get(oldName);
+        if (panel == null) {
+            return;
+        }
+        ClassBox box = classBoxes.get(oldName);
+        if (box != null) {
+            box.setText(classText);
+        }
+        else {
+            ClassPanelBuilder classPanelBuilder = new ClassPanelBuilder(classText, dp);
+            classPanelBuilder.setPanel(panel);
+            classPanelBuilder.updateClassPanel();
+        }
+
+        //Only a rename changes the key, so only then do the panel and its relationships move.
+        if (!oldName.equals(name)) {
+            classPanels.remove(oldName);
+            panel.setName(name);
+            classPanels.put(name, panel);
+            if (box != null) {
+                classBoxes.remove(oldName);
+                classBoxes.put(name, box);
+            }
+            if (oldName.equals(selectedClass)) {
+                selectedClass = name;
+            }
+            Set<ArrayList<String>> edges = relationshipsOf.remove(oldName);
+            if (edges != null) {
+                for (ArrayList<String> classes : edges) {
+                    String type = removeRelationship(classes);
+                    ArrayList<String> renamed = new ArrayList<String>(classes);
+                    renamed.replaceAll(key -> key.equals(oldName) ? name : key);
+                    addRelationship(renamed.get(0), renamed.get(1), type);
+                }
+            }
+        }
+        resizePanel(name, panel.getX(), panel.getY());
+    }
+
     /**
      * Returns the map containing all the information about relationships in the view.
      */
@@ -176,6 +344,35 @@ public class GraphicalView implements View {
         toAdd.add(from);
         toAdd.add(to);
         relationships.put(toAdd, type);
+        relationshipsOf.computeIfAbsent(from, key -> new HashSet<ArrayList<String>>()).add(toAdd);
+        relationshipsOf.computeIfAbsent(to, key -> new HashSet<ArrayList<String>>()).add(toAdd);
+        //Only the new line is placed, so a diagram can be shown a few relationships at a time.
+        if (dp != null) {
+            dp.relationshipAdded(toAdd);
+        }
+    }
+
+    /**
+     * Removes every class panel and relationship at once. Deleting the classes one at a time would look
+     * through every relationship for each of them.
+     */
+    @Override
+    public void clearClasses() {
+        Set<Component> panels = Collections.newSetFromMap(new IdentityHashMap<Component, Boolean>());
+        panels.addAll(classPanels.values());
+        //The class panels were added last, so removing from the end leaves nothing to shift down.
+        for (int index = dp.getComponentCount() - 1; index >= 0; index--) {
+            if (panels.contains(dp.getComponent(index))) {
+                dp.remove(index);
+            }
+        }
+        classPanels.clear();
+        classBoxes.clear();
+        relationships.clear();
+        relationshipsOf.clear();
+        selectedClass = null;
+        dp.cleared();
+        refresh();
     }
 
     /**
@@ -184,25 +381,41 @@ public class GraphicalView implements View {
      */
     @Override
     public void deleteRelationship(String from, String to) {
-        for (ArrayList<String> classes : getRelationships().keySet()) {
-            if (classes.get(0).equals(from) && classes.get(1).equals(to)) {
-                relationships.remove(classes);
-            }
-        }
+        removeRelationship(new ArrayList<String>(Arrays.asList(from, to)));
     }
 
     /**
      * Deletes all relationships from or a to a specified class.
      */
     private void deleteRelationships(String name) {
-        for (ArrayList<String> classes : getRelationships().keySet()) {
-            if (classes.get(0).equals(name)) {
-                relationships.remove(classes);
-            } else if (classes.get(1).equals(name)) {
-                relationships.remove(classes);
+        Set<ArrayList<String>> edges = relationshipsOf.remove(name);
+        if (edges != null) {
+            for (ArrayList<String> classes : edges) {
+                removeRelationship(classes);
             }
         }
     }
+
+    /**
+     * Removes one relationship, along with its line. Returns its type, or null if there wasn't one.
+     */
+    private String removeRelationship(ArrayList<String> classes) {
+        String type = relationships.remove(classes);
+        if (type == null) {
+            return null;
+        }
+        for (String name : classes) {
+            Set<ArrayList<String>> edges = relationshipsOf.get(name);
+            if (edges != null && edges.remove(classes) && edges.isEmpty()) {
+                relationshipsOf.remove(name);
+            }
+        }
+        if (dp != null) {
+            dp.relationshipRemoved(classes);
+        }
+        return type;
+    }
+
     
     // ================================================================================================================================================
     // Getting user input.
@@ -248,8 +461,9 @@ public class GraphicalView implements View {
         //Filter to only show .json files. 
         FileNameExtensionFilter filter = new FileNameExtensionFilter("JSON files","json");
         
-        //set the filechooser to use the created filter.
+        //set the filechooser to use the created filter, with the binary format as the other choice.
         fc.setFileFilter(filter);
+        fc.addChoosableFileFilter(new FileNameExtensionFilter("Binary diagram files", "umlb"));
         // Bring up file panel for the user to save as(automatically will choose file
         // type though in saveandload).
         int returnValue = fc.showSaveDialog(dp);
@@ -281,8 +495,9 @@ public class GraphicalView implements View {
         //Filter to only show .json files. 
         FileNameExtensionFilter filter = new FileNameExtensionFilter("JSON files","json");
         
-        //set the filechooser to use the created filter.
+        //set the filechooser to use the created filter, with the binary format as the other choice.
         fc.setFileFilter(filter);
+        fc.addChoosableFileFilter(new FileNameExtensionFilter("Binary diagram files", "umlb"));
 
         int returnValue = fc.showOpenDialog(dp);
         // If the user selected to open this file, open it.
@@ -361,12 +576,9 @@ public class GraphicalView implements View {
         createMenu();
         window.add(mb);
         window.setJMenuBar(mb);
-        dp = new DrawPanel(this);
+        makeDrawPanel();
         window.add(dp);
         window.setVisible(true);
-        dp.setVisible(true);
-        dp.setPreferredSize(new Dimension(10000, 10000));
-        dp.setLayout(null);
 
         //Initialize the scroll pane.
         jsp = new JScrollPane(dp);
@@ -391,6 +603,16 @@ public class GraphicalView implements View {
         jBar.setUnitIncrement(10);
     }
 
+    /**
+     * Creates the draw panel that holds the class panels. Works without a window, so it can be used headless.
+     */
+    public void makeDrawPanel() {
+        dp = new DrawPanel(this);
+        dp.setVisible(true);
+        dp.setPreferredSize(new Dimension(10000, 10000));
+        dp.setLayout(null);
+    }
+
     /**
      * Creates the menubar.
      */
@@ -420,21 +642,24 @@ public class GraphicalView implements View {
         JMenuItem save = new JMenuItem("Save");
         JMenuItem saveAs = new JMenuItem("Save as...");
         JMenuItem load = new JMenuItem("Load...");
+        cancelItem = new JMenuItem("Cancel");
         JMenuItem exit = new JMenuItem("Exit");
 
-        JMenuItem[] arr = { save, saveAs, load, exit };
-        String[] text = { "Save edited file", "Save newly created file", "Load selected projectLoad selected project",
-                "Exit application", "Exit application" };
-        String[] command = { "Save", "SaveAs", "Load" };
+        JMenuItem[] arr = { save, saveAs, load, cancelItem, exit };
+        String[] text = { "Save edited file", "Save newly created file", "Load selected project",
+                "Cancel the save or load in progress", "Exit application" };
+        String[] command = { "Save", "SaveAs", "Load", "Cancel" };
 
-        for (int count = 0; count < 4; ++count) {
+        for (int count = 0; count < 5; ++count) {
             fileMenu.add(arr[count]);
             arr[count].setToolTipText(text[count]);
-            if (count < 3) {
+            if (count < 4) {
                 arr[count].setActionCommand(command[count]);
             } else
                 arr[count].addActionListener((event) -> System.exit(0));
         }
+        //There is only something to cancel while a save or load is running.
+        cancelItem.setEnabled(false);
         mb.add(fileMenu);
     }
 
@@ -491,14 +716,35 @@ public class GraphicalView implements View {
         JPanel panel = classPanels.get(aClass);
         dp.remove(panel);
         classPanels.remove(aClass);
+        classBoxes.remove(aClass);
+        if (aClass.equals(selectedClass)) {
+            selectedClass = null;
+        }
         refresh();
     }
 
     /**
      * Resizes panels to adjust to text of panel.
      */
-    public void resizePanel(String classToString, int x, int y) {
-        JPanel panel = classPanels.get(classToString);
+    public void resizePanel(String className, int x, int y) {
+        JPanel panel = classPanels.get(className);
+        updateFonts();
+        ClassBox box = classBoxes.get(className);
+        //The draw panel is told where every panel goes, so it never has to check them all when it paints.
+        Rectangle oldBounds = panel.getBounds();
+        if (box != null) {
+            //Only the box's old and new area and its lines need repainting.
+            if (box.hasText()) {
+                box.layout(nameFont, nameMetrics, textFont, textMetrics);
+                panel.setBounds(x, y, box.getWidth(), box.getHeight());
+            }
+            else {
+                //Measured when the draw panel first paints it.
+                panel.setBounds(x, y, ClassBox.UNMEASURED_WIDTH, ClassBox.UNMEASURED_HEIGHT);
+            }
+            dp.repaint(dp.toView(dp.panelMoved(className, oldBounds)));
+            return;
+        }
         panel.setLocation(x, y);
 
         //Get the JLabels.
@@ -508,9 +754,9 @@ public class GraphicalView implements View {
         JLabel methods = (JLabel) innerPanel.getComponent(2);
 
         //Set the font size based on the field.
-        name.setFont(new Font("Ariel", 0, fontSize + 4));
-        fields.setFont(new Font("Ariel", 0, fontSize));
-        methods.setFont(new Font("Ariel", 0, fontSize));
+        name.setFont(nameFont);
+        fields.setFont(textFont);
+        methods.setFont(textFont);
 
         //Get the preferred height for each JLabel.
         int nameHeight = (int) (name.getPreferredSize().getHeight() + 9);
@@ -533,10 +779,24 @@ public class GraphicalView implements View {
 
         methods.setBounds(innerPanel.getX(), innerPanel.getY() + nameHeight + fieldHeight, width, methodHeight);
 
+        dp.panelMoved(className, oldBounds);
         refresh();
     }
 
 
+    /**
+     * Makes the fonts for the current font size, if they aren't made already.
+     */
+    private void updateFonts()
+    {
+        if (textFont == null || textFont.getSize() != fontSize) {
+            nameFont = new Font("Ariel", 0, fontSize + 4);
+            textFont = new Font("Ariel", 0, fontSize);
+            nameMetrics = dp.getFontMetrics(nameFont);
+            textMetrics = dp.getFontMetrics(textFont);
+        }
+    }
+
     /**
      * Refreshes the window.
      */
@@ -555,6 +815,50 @@ public class GraphicalView implements View {
         JOptionPane.showMessageDialog(new JFrame(), error, "Error", JOptionPane.ERROR_MESSAGE);
     }
 
+    /**
+     * Shows how far a save or load has got in the title of the file menu. Until it is hidden again the
+     * diagram can't be edited, saved or loaded, and the cancel item works if the task can be cancelled.
+     */
+    @Override
+    public void showProgress(String task, int percent, boolean cancellable)
+    {
+        if (fileMenu == null) {
+            return;
+        }
+        fileMenu.setText("File - " + task + " " + percent + "%");
+        cancelItem.setEnabled(cancellable);
+        setEditable(false);
+    }
+
+    /**
+     * Puts the file menu back once a save or load has finished.
+     */
+    @Override
+    public void hideProgress()
+    {
+        if (fileMenu == null) {
+            return;
+        }
+        fileMenu.setText("File");
+        cancelItem.setEnabled(false);
+        setEditable(true);
+    }
+
+    /**
+     * Turns the menus that change the diagram on or off.
+     */
+    private void setEditable(boolean editable)
+    {
+        classMenu.setEnabled(editable);
+        stateMenu.setEnabled(editable);
+        for (Component item : fileMenu.getMenuComponents()) {
+            String command = ((JMenuItem) item).getActionCommand();
+            if (command.equals("Save") || command.equals("SaveAs") || command.equals("Load")) {
+                item.setEnabled(editable);
+            }
+        }
+    }
+
     // ================================================================================================================================================
     // Listener adding.
     // ================================================================================================================================================
@@ -615,15 +919,20 @@ public class GraphicalView implements View {
      * Adds listener for specified class panel.
      */
     @Override
-    public void addListener(MouseClickAndDragController mouseListener, String classText) 
+    public void addListener(MouseClickAndDragController mouseListener, String className) 
     {
-        JPanel panel = classPanels.get(classText);
+        //Classes drawn by the draw panel are dragged through the draw panel's own listener.
+        if (classBoxes.containsKey(className)) {
+            return;
+        }
+        JPanel panel = classPanels.get(className);
         panel.addMouseListener(mouseListener);
         panel.addMouseMotionListener(mouseListener);
     }
 
     /**
-     * Adds ScrollWheelController to the panel.
+     * Adds ScrollWheelController to the panel, along with the drag listener used while zoomed,
+     * when the class panels are hidden and the draw panel gets their mouse events.
      */
     @Override
     public void addListener(ScrollWheelController mouseWheelListener) 
@@ -634,15 +943,43 @@ public class GraphicalView implements View {
             dp.removeMouseWheelListener(listener);
         }
         dp.addMouseWheelListener(mouseWheelListener);       
+
+        for(MouseListener listener : dp.getMouseListeners())
+        {
+            if(listener instanceof MouseClickAndDragController)
+            {
+                dp.removeMouseListener(listener);
+                dp.removeMouseMotionListener((MouseClickAndDragController)listener);
+            }
+        }
+        MouseClickAndDragController dragListener = new MouseClickAndDragController(mouseWheelListener.store, this, mouseWheelListener.controller);
+        dp.addMouseListener(dragListener);
+        dp.addMouseMotionListener(dragListener);
     }
 
     /**
      * Adds listener for editing a class panel.
      */
     @Override
-    public void addPanelListener(ActionListener listener, String classText) 
+    public void addPanelListener(ActionListener listener, String className) 
     {
-        JPanel panel = classPanels.get(classText);
+        int index = menuIndexOf(listener);
+        if(index < 0)
+            return;
+
+        //Classes drawn by the draw panel share one menu, so each item keeps only the newest listener.
+        if(classBoxes.containsKey(className))
+        {
+            JMenuItem menuItem = (JMenuItem) getBoxMenu().getComponent(index);
+            for(ActionListener old : menuItem.getActionListeners())
+            {
+                menuItem.removeActionListener(old);
+            }
+            menuItem.addActionListener(listener);
+            return;
+        }
+
+        JPanel panel = classPanels.get(className);
         JMenuBar menuBar = null;
         for(Component c : panel.getComponents())
         {
@@ -654,41 +991,83 @@ public class GraphicalView implements View {
         JMenu menu = (JMenu) menuBar.getMenu(0);
         
         //Add the listener to the correct MenuItem.
+        JMenuItem menuItem = (JMenuItem) menu.getItem(index);
+        menuItem.addActionListener(listener);
+    }
+
+    /**
+     * Returns which item of a class's menu the listener is for, or -1 if it is for none of them.
+     */
+    private int menuIndexOf(ActionListener listener)
+    {
         if(listener instanceof CreateFieldController)
-        {
-            JMenuItem menuItem = (JMenuItem) menu.getItem(0);
-            menuItem.addActionListener(listener);
-        }
+            return 0;
         else if(listener instanceof EditFieldController)
-        {
-            JMenuItem menuItem = (JMenuItem) menu.getItem(1);
-            menuItem.addActionListener(listener);
-        }
+            return 1;
         else if(listener instanceof CreateMethodController)
-        {
-            JMenuItem menuItem = (JMenuItem) menu.getItem(2);
-            menuItem.addActionListener(listener);
-        }
+            return 2;
         else if(listener instanceof EditMethodController)
-        {
-            JMenuItem menuItem = (JMenuItem) menu.getItem(3);
-            menuItem.addActionListener(listener);
-        }
+            return 3;
         else if(listener instanceof CreateRelationshipController)
-        {
-            JMenuItem menuItem = (JMenuItem) menu.getItem(4);
-            menuItem.addActionListener(listener);
-        }
+            return 4;
         else if(listener instanceof DeleteRelationshipController)
+            return 5;
+        else if(listener instanceof EditClassController)
+            return 6;
+        return -1;
+    }
+
+    /**
+     * Returns the menu shared by the classes drawn by the draw panel, set up for the named class.
+     */
+    public JPopupMenu getClassMenu(String className)
+    {
+        JPopupMenu menu = getBoxMenu();
+        for(int count = 0; count < ClassPanelBuilder.MENU_COMMANDS.length; count++)
         {
-            JMenuItem menuItem = (JMenuItem) menu.getItem(5);
-            menuItem.addActionListener(listener);
+            ((JMenuItem) menu.getComponent(count)).setActionCommand(ClassPanelBuilder.MENU_COMMANDS[count] + className);
         }
-        else if(listener instanceof EditClassController)
+        boxColorItem.setActionCommand(className);
+        return menu;
+    }
+
+    /**
+     * Shows the shared menu for a class drawn by the draw panel, at a point on the draw panel.
+     */
+    public void showClassMenu(String className, int x, int y)
+    {
+        getClassMenu(className).show(dp, x, y);
+    }
+
+    /**
+     * Makes the shared class menu the first time it is needed.
+     */
+    private JPopupMenu getBoxMenu()
+    {
+        if(boxMenu == null)
         {
-            JMenuItem menuItem = (JMenuItem) menu.getItem(6);
-            menuItem.addActionListener(listener);
+            boxMenu = new JPopupMenu();
+            for(int count = 0; count < ClassPanelBuilder.MENU_ITEMS.length; count++)
+            {
+                JMenuItem item = new JMenuItem(ClassPanelBuilder.MENU_ITEMS[count]);
+                item.setToolTipText(ClassPanelBuilder.MENU_TIPS[count]);
+                boxMenu.add(item);
+            }
+            //The Swing panels change color on a right click, which opens this menu instead.
+            boxColorItem = new JMenuItem("Change color");
+            boxColorItem.setToolTipText("Change the color of a class");
+            boxColorItem.addActionListener(e -> {
+                ClassBox box = classBoxes.get(e.getActionCommand());
+                Color color = JColorChooser.showDialog(window, "Choose a panel color", Color.lightGray);
+                if(box != null && color != null)
+                {
+                    box.setBackground(color);
+                    dp.repaint(dp.toView(classPanels.get(e.getActionCommand()).getBounds()));
+                }
+            });
+            boxMenu.add(boxColorItem);
         }
+        return boxMenu;
     }
     
     // ================================================================================================================================================
@@ -0,0 +1,184 @@
+package UML.views;
+/*
+    Author: Chris, Cory, Dominic, Drew, Tyler.
+    Date: 10/17/2026
+    Purpose: A grid over the draw panel that remembers which things lie in each cell,
+    so the ones inside an area can be found without looking at all of them.
+ */
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+class GridIndex<K>
+{
+    //The width and height of a grid cell in pixels.
+    private static final int CELL_SIZE = 256;
+
+    //How far apart the points are that a line is followed by, to find the cells it passes through.
+    private static final int LINE_STEP = CELL_SIZE / 2;
+
+    //The things in each cell, keyed by the cell's packed column and row.
+    private Map<Long, Set<K>> cells;
+    //The area each thing covers.
+    private Map<K, Rectangle> bounds;
+    //The line of each thing that was put in as one, which is only in the cells along the line.
+    private Map<K, int[]> lines;
+
+    /**
+     * Constructs an empty grid.
+     */
+    public GridIndex()
+    {
+        cells = new HashMap<Long, Set<K>>();
+        bounds = new HashMap<K, Rectangle>();
+        lines = new HashMap<K, int[]>();
+    }
+
+    /**
+     * Removes everything.
+     */
+    public void clear()
+    {
+        cells.clear();
+        bounds.clear();
+        lines.clear();
+    }
+
+    /**
+     * Returns how many things are in the grid.
+     */
+    public int size()
+    {
+        return bounds.size();
+    }
+
+    /**
+     * Returns the area a thing covers, or null if it isn't in the grid.
+     */
+    public Rectangle get(K key)
+    {
+        return bounds.get(key);
+    }
+
+    /**
+     * Adds a thing, or moves it if it is already there.
+     */
+    public void put(K key, Rectangle area)
+    {
+        remove(key);
+        bounds.put(key, area);
+        for(long cell : cellsOf(area))
+        {
+            cells.computeIfAbsent(cell, k -> new HashSet<K>()).add(key);
+        }
+    }
+
+    /**
+     * Adds a line as fromX, fromY, toX, toY, or moves it if it is already there. The area is the line's
+     * bounds grown the same amount on every side, and the line is only put in the cells that much of it
+     * touches, so a long diagonal line isn't in every cell of its bounds.
+     */
+    public void putLine(K key, int[] line, Rectangle area)
+    {
+        remove(key);
+        bounds.put(key, area);
+        lines.put(key, line);
+        for(long cell : cellsOf(line, area))
+        {
+            cells.computeIfAbsent(cell, k -> new HashSet<K>()).add(key);
+        }
+    }
+
+    /**
+     * Removes a thing.
+     */
+    public void remove(K key)
+    {
+        Rectangle area = bounds.remove(key);
+        if(area == null)
+            return;
+        int[] line = lines.remove(key);
+        for(long cell : line == null ? cellsOf(area) : cellsOf(line, area))
+        {
+            Set<K> inCell = cells.get(cell);
+            inCell.remove(key);
+            if(inCell.isEmpty())
+                cells.remove(cell);
+        }
+    }
+
+    /**
+     * Returns the things whose area overlaps the given rectangle.
+     */
+    public Set<K> query(Rectangle clip)
+    {
+        Set<K> found = new HashSet<K>();
+        for(long cell : cellsOf(clip))
+        {
+            Set<K> inCell = cells.get(cell);
+            if(inCell == null)
+                continue;
+            for(K key : inCell)
+            {
+                if(bounds.get(key).intersects(clip))
+                    found.add(key);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns the packed column and row of every cell the rectangle touches.
+     */
+    private ArrayList<Long> cellsOf(Rectangle area)
+    {
+        ArrayList<Long> result = new ArrayList<Long>();
+        int firstColumn = Math.floorDiv(area.x, CELL_SIZE);
+        int lastColumn = Math.floorDiv(area.x + area.width, CELL_SIZE);
+        int firstRow = Math.floorDiv(area.y, CELL_SIZE);
+        int lastRow = Math.floorDiv(area.y + area.height, CELL_SIZE);
+        for(int column = firstColumn; column <= lastColumn; column++)
+        {
+            for(int row = firstRow; row <= lastRow; row++)
+            {
+                result.add(cellKey(column, row));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the packed column and row of every cell within the area's margin of the line, or of the
+     * whole area if that is fewer cells.
+     */
+    private Collection<Long> cellsOf(int[] line, Rectangle area)
+    {
+        //Each point stands for the line half a step either side of it, as well as the margin around it.
+        int reach = Math.min(line[0], line[2]) - area.x + LINE_STEP / 2 + 1;
+        int steps = Math.max(1, (int)Math.ceil(Math.hypot(line[2] - line[0], line[3] - line[1]) / LINE_STEP));
+        Set<Long> result = new HashSet<Long>();
+        for(int step = 0; step <= steps; step++)
+        {
+            int x = line[0] + (int)((long)(line[2] - line[0]) * step / steps);
+            int y = line[1] + (int)((long)(line[3] - line[1]) * step / steps);
+            result.addAll(cellsOf(new Rectangle(x - reach, y - reach, reach * 2, reach * 2)));
+        }
+        long areaCells = (long)(Math.floorDiv(area.x + area.width, CELL_SIZE) - Math.floorDiv(area.x, CELL_SIZE) + 1)
+                        * (Math.floorDiv(area.y + area.height, CELL_SIZE) - Math.floorDiv(area.y, CELL_SIZE) + 1);
+        return areaCells <= result.size() ? cellsOf(area) : result;
+    }
+
+    /**
+     * Packs a cell's column and row into one key. Long's hash of the plain packing is column ^ row, which
+     * is the same for many cells, so the packing is multiplied by an odd number to spread it. That keeps
+     * every key different.
+     */
+    private static long cellKey(int column, int row)
+    {
+        return (((long)column << 32) | (row & 0xffffffffL)) * 0x9E3779B97F4A7C15L;
+    }
+}
@@ -74,7 +74,7 @@ public class InterfaceChoiceView implements View {
     }
 
     @Override
-    public void createClass(String name, int x, int y) {
+    public void createClass(String name, String classText, int x, int y) {
         // Do nothing.
     }
 
@@ -83,6 +83,11 @@ public class InterfaceChoiceView implements View {
         // Do nothing.
     }
 
+    @Override
+    public void updateClass(String oldName, String name, String classText) {
+        // Do nothing.
+    }
+
     /**
      * Returns string based off the user's selection.
      */
@@ -176,7 +181,7 @@ public class InterfaceChoiceView implements View {
     }
 
     @Override
-    public void addPanelListener(ActionListener listener, String classText) 
+    public void addPanelListener(ActionListener listener, String className) 
     {
         //Do nothing.
     }
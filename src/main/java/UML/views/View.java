@@ -11,15 +11,35 @@ import UML.controllers.ScrollWheelController;
 
 import java.awt.Dimension;
 import java.util.Map;
+import java.util.function.Supplier;
 import javax.swing.JFrame;
 import javax.swing.JPanel;
 import java.awt.event.ActionListener;
 
 public interface View
 {
-	//updates every part of the class, including attributes within
-	void createClass(String name, int x, int y);
+	//classes are identified by name everywhere in the view; the text is only what gets shown
+	void createClass(String name, String classText, int x, int y);
+	//the same, for views that can wait to make the text until the class is first shown
+	default void createClass(String name, Supplier<String> classText, int x, int y)
+	{
+		createClass(name, classText.get(), x, y);
+	}
 	void deleteClass(String name);
+	//updates a single class after an edit, keeping its place and listeners. oldName differs from name after a rename
+	void updateClass(String oldName, String name, String classText);
+
+	//removes every class and relationship, such as before a whole diagram is shown again
+	default void clearClasses()
+	{
+		if(getPanels() != null)
+		{
+			for(String name : new ArrayList<String>(getPanels().keySet()))
+			{
+				deleteClass(name);
+			}
+		}
+	}
 
 	void addRelationship(String from, String to, String type);
 	void deleteRelationship(String from, String to);
@@ -31,10 +51,13 @@ public interface View
 	void addListener(ActionListener listener);
 	void addListener(MouseClickAndDragController mouseListener, String className);
 	void addListener(ScrollWheelController mousWheelListener);
-	void addPanelListener(ActionListener controller, String classText);
+	void addPanelListener(ActionListener controller, String className);
 
 	void display(String str);
 	void showError(String error);
+	//shows how far a save or load running in the background has got, and whether it can be cancelled
+	default void showProgress(String task, int percent, boolean cancellable) {}
+	default void hideProgress() {}
 	String save();
 	String load();
 	void exit();
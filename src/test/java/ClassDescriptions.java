@@ -0,0 +1,52 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import UML.model.Field;
+import UML.model.Method;
+import UML.model.ReadableClass;
+import UML.model.RelationshipType;
+
+/**
+ * Describes classes as text, so tests can compare classes and snapshots of them whatever order their parts
+ * are kept in.
+ */
+final class ClassDescriptions {
+
+    private ClassDescriptions()
+    {
+    }
+
+    /**
+     * Returns everything about a class as text that doesn't depend on the order its parts are kept in.
+     */
+    static String describe(ReadableClass aClass)
+    {
+        TreeSet<String> fields = new TreeSet<String>();
+        for(Field f : aClass.getFields())
+        {
+            fields.add(f.toString());
+        }
+        TreeSet<String> methods = new TreeSet<String>();
+        for(Method m : aClass.getMethods())
+        {
+            methods.add(m.toString());
+        }
+        return aClass.getName() + " " + aClass.getLocation() + " " + fields + " " + methods + " "
+                + new TreeMap<String, RelationshipType>(aClass.getRelationshipsToOther()) + " "
+                + new TreeMap<String, RelationshipType>(aClass.getRelationshipsFromOther());
+    }
+
+    /**
+     * Returns every class in the list described, in order.
+     */
+    static List<String> describe(List<? extends ReadableClass> classes)
+    {
+        ArrayList<String> described = new ArrayList<String>();
+        for(ReadableClass aClass : classes)
+        {
+            described.add(describe(aClass));
+        }
+        return described;
+    }
+}
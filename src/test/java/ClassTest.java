@@ -358,6 +358,42 @@ public class ClassTest
         assertEquals(test1.toString(), test2.toString());
     }
 
+    @Test
+    public void testToStringFollowsChanges()
+    {
+        Class test = new Class("name");
+        Class other = new Class("other");
+        ArrayList<Parameter> params = new ArrayList<Parameter>();
+        params.add(new Parameter("int", "a"));
+        //Each change must show up even though the string was already built.
+        String before = test.toString();
+        String otherBefore = other.toString();
+        test.addField("int", "x", "public");
+        test.addMethod("void", "run", params, "public");
+        test.addRelationshipToOther(RelationshipType.AGGREGATION, other);
+        assertTrue(test.toString().contains("+ int x\n"));
+        assertTrue(test.toString().contains("+ void run ( int a )\n"));
+        assertTrue(other.toString().contains("{name=AGGREGATION}"));
+        test.renameField("x", "y");
+        test.changeMethodAccess("void", "run", params, "public", "private");
+        test.addParameter("void", "run", params, "private", "String", "b");
+        test.deleteRelationshipToOther(RelationshipType.AGGREGATION, other);
+        assertEquals(otherBefore, other.toString());
+        test.setName("renamed");
+        //The caller's list isn't shared with the method.
+        params.add(new Parameter("int", "c"));
+        assertTrue(test.toString().contains("+ int y\n"));
+        assertTrue(test.toString().contains("- void run ( int a , String b )\n"));
+        assertTrue(test.toString().startsWith("Class name: renamed\n"));
+        test.deleteField("y");
+        ArrayList<Parameter> both = new ArrayList<Parameter>();
+        both.add(new Parameter("int", "a"));
+        both.add(new Parameter("String", "b"));
+        test.deleteMethod("void", "run", both, "private");
+        test.setName("name");
+        assertEquals(before, test.toString());
+    }
+
     @Test
     public void testGetMethods()
     {
@@ -520,4 +556,37 @@ public class ClassTest
         assertFalse(test.deleteParameter("int", "att", params, "public", "int", "num"));
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testMethodOverloads()
+    {
+        Class test = new Class("name");
+        for(int count = 0; count < 300; count++)
+        {
+            ArrayList<Parameter> params = new ArrayList<Parameter>();
+            for(int param = 0; param < count; param++)
+            {
+                params.add(new Parameter("int", "p" + param));
+            }
+            assertTrue(test.addMethod("void", "run", params, "public"));
+        }
+        assertEquals(300, test.getMethods().size());
+
+        ArrayList<Parameter> one = new ArrayList<Parameter>();
+        one.add(new Parameter("int", "p0"));
+        //A rename that would clash with another overload is refused and leaves the method alone.
+        test.addMethod("void", "go", new ArrayList<Parameter>(), "public");
+        assertFalse(test.renameMethod("void", "go", new ArrayList<Parameter>(), "public", "run"));
+        assertTrue(test.getMethods().contains(new Method("void", "go", new ArrayList<Parameter>(), "public")));
+
+        //Overloads are found by their exact parameters.
+        assertTrue(test.changeMethodType("void", "run", one, "public", "int"));
+        assertTrue(test.getMethods().contains(new Method("int", "run", one, "public")));
+        assertTrue(test.deleteMethod("int", "run", one, "public"));
+        assertEquals(300, test.getMethods().size());
+
+        //Parameters can't share a name.
+        assertTrue(test.addParameter("void", "go", new ArrayList<Parameter>(), "public", "int", "p0"));
+        assertFalse(test.addParameter("void", "go", one, "public", "int", "p0"));
+    }
+}
@@ -0,0 +1,220 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import org.json.simple.parser.ParseException;
+import UML.controllers.CompletionIndex;
+import UML.controllers.CompletionTrie;
+import UML.controllers.SaveAndLoad;
+import UML.model.Class;
+import UML.model.DiagramGenerator;
+import UML.model.Parameter;
+import UML.model.Store;
+
+public class CompletionIndexTest {
+
+    /**
+     * Returns what the index offers for the last word of a line, as if tab were pressed at its end.
+     */
+    private static List<String> complete(CompletionIndex index, String line)
+    {
+        List<String> words = new ArrayList<String>(Arrays.asList(line.split(" ", -1)));
+        return index.complete(words, words.size() - 1, words.get(words.size() - 1));
+    }
+
+    @Test
+    public void testTrieMatchesAListOfWords()
+    {
+        Random random = new Random(3);
+        CompletionTrie trie = new CompletionTrie();
+        //Each word as many times as it has been added and not removed.
+        ArrayList<String> added = new ArrayList<String>();
+        for(int count = 0; count < 4000; count++)
+        {
+            String word = (random.nextBoolean() ? "ab" : "AB") + Integer.toString(random.nextInt(200), 3);
+            if(random.nextInt(3) == 0 && !added.isEmpty())
+            {
+                String removed = added.remove(random.nextInt(added.size()));
+                trie.remove(removed);
+            }
+            else
+            {
+                added.add(word);
+                trie.add(word);
+            }
+            if(count % 400 == 0)
+            {
+                TreeMap<String, String> distinct = new TreeMap<String, String>();
+                for(String word2 : added)
+                {
+                    distinct.put(word2, word2);
+                }
+                for(String prefix : new String[] {"", "a", "Ab", "ab1", "AB20", "x"})
+                {
+                    ArrayList<String> matching = new ArrayList<String>();
+                    for(String word2 : distinct.keySet())
+                    {
+                        if(word2.toLowerCase().startsWith(prefix.toLowerCase()))
+                            matching.add(word2);
+                    }
+                    List<String> found = trie.startingWith(prefix);
+                    //Words that differ only in case may come in either order, so both lists are sorted the same way.
+                    ArrayList<String> sorted = new ArrayList<String>(found);
+                    Collections.sort(sorted);
+                    assertEquals(matching, sorted);
+                    for(int at = 1; at < found.size(); at++)
+                    {
+                        assertTrue(found.get(at - 1).compareToIgnoreCase(found.get(at)) <= 0);
+                    }
+                }
+                assertEquals(distinct.size(), trie.size());
+            }
+        }
+        assertFalse(trie.contains("missing"));
+        assertFalse(trie.remove("missing"));
+    }
+
+    @Test
+    public void testTrieKeepsAWordUntilRemovedAsOftenAsAdded()
+    {
+        CompletionTrie trie = new CompletionTrie();
+        assertTrue(trie.add("int count"));
+        assertFalse(trie.add("int count"));
+        assertTrue(trie.add("Int Count"));
+        assertFalse(trie.remove("int count"));
+        assertTrue(trie.contains("int count"));
+        assertTrue(trie.remove("int count"));
+        assertFalse(trie.contains("int count"));
+        assertEquals(Arrays.asList("Int Count"), trie.startingWith("INT"));
+        trie.clear();
+        assertEquals(0, trie.size());
+        assertTrue(trie.startingWith("").isEmpty());
+    }
+
+    @Test
+    public void testIndexFollowsTheStore()
+    {
+        Store store = new Store();
+        store.addClass("Car");
+        store.addField("Car", "Engine", "engine", "private");
+        CompletionIndex index = new CompletionIndex(store);
+        store.addListener(index);
+
+        assertEquals(Arrays.asList("addc", "addf", "addm", "addp", "addr"), complete(index, "add"));
+        assertEquals(Arrays.asList("Car"), complete(index, "renamec c"));
+        assertTrue(complete(index, "addf Car public ").containsAll(Arrays.asList("Engine", "int", "String")));
+        assertEquals(Arrays.asList("private", "protected", "public"), complete(index, "addm Car p"));
+        assertEquals(Arrays.asList("Generalization"), complete(index, "addr Car Car g"));
+        assertTrue(complete(index, "addc ").isEmpty());
+
+        store.addClass("Cart");
+        store.addClass("Bus");
+        assertEquals(Arrays.asList("Car", "Cart"), complete(index, "deletec Ca"));
+        assertEquals(Arrays.asList("engine"), complete(index, "renamef Car "));
+
+        //The members of a class are gathered again after it changes.
+        store.addField("Car", "Wheel", "wheels", "private");
+        store.renameField("Car", "engine", "motor");
+        assertEquals(Arrays.asList("motor", "wheels"), complete(index, "deletef Car "));
+        assertEquals(Arrays.asList("Wheel"), complete(index, "changeft Car wheels Wh"));
+
+        ArrayList<String> params = new ArrayList<String>();
+        params.add("int speed");
+        store.addMethod("Car", "void", "drive", params, "public");
+        store.addMethod("Car", "void", "park", new ArrayList<String>(), "public");
+        assertEquals(Arrays.asList("public void drive int speed", "public void park"), complete(index, "deletem Car pub"));
+        assertEquals(Arrays.asList("int speed"), complete(index, "deletep Car drive "));
+        store.addParam("Car", "void", "drive", params, "public", "int", "gear");
+        assertEquals(Arrays.asList("int gear", "int speed"), complete(index, "deletep Car drive "));
+
+        store.renameClass("Car", "Truck");
+        assertEquals(Arrays.asList("Cart"), complete(index, "display Ca"));
+        assertEquals(Arrays.asList("motor", "wheels"), complete(index, "deletef Truck "));
+        assertTrue(complete(index, "deletef Car ").isEmpty());
+        store.deleteClass("Bus");
+        assertTrue(complete(index, "display B").isEmpty());
+
+        store.removeListener(index);
+        store.addClass("Boat");
+        assertTrue(complete(index, "display B").isEmpty());
+    }
+
+    @Test
+    public void testIndexFollowsALoad() throws IOException, ParseException
+    {
+        File file = File.createTempFile("completion", ".umlb");
+        file.deleteOnExit();
+        new SaveAndLoad(new DiagramGenerator(5, 300).generate(), null, null).save(file.getPath());
+
+        Store store = new Store();
+        store.addClass("Before");
+        CompletionIndex index = new CompletionIndex(store);
+        store.addListener(index);
+        //Loading puts the file's classes in place of the current ones, as the controller does.
+        Store loaded = new Store();
+        new SaveAndLoad(loaded, null, null).load(file.getPath());
+        store.setClassStore(loaded.getClassStore());
+
+        assertTrue(complete(index, "display Bef").isEmpty());
+        List<String> classes = complete(index, "display ");
+        assertEquals(300, classes.size());
+        assertTrue(classes.contains(DiagramGenerator.className(42)));
+
+        //Members come from the loaded class, and so do its types.
+        Class aClass = store.findClass(DiagramGenerator.className(42));
+        ArrayList<String> fields = new ArrayList<String>();
+        aClass.getFields().forEach(f -> fields.add(f.getName()));
+        Collections.sort(fields, String.CASE_INSENSITIVE_ORDER);
+        assertEquals(fields, complete(index, "deletef " + aClass.getName() + " "));
+        if(!aClass.getFields().isEmpty())
+        {
+            String type = aClass.getFields().iterator().next().getType();
+            assertTrue(complete(index, "addf Other public ").contains(type));
+        }
+    }
+
+    @Test
+    public void testTypesOfArrivingClassesAreOffered() throws IOException, ParseException
+    {
+        Store store = new Store();
+        CompletionIndex index = new CompletionIndex(store);
+        store.addListener(index);
+        //Classes added together have their types offered straight away.
+        Class car = new Class("Car");
+        car.addField("Engine", "engine", "private");
+        ArrayList<Parameter> params = new ArrayList<Parameter>();
+        params.add(new Parameter("Gear", "gear"));
+        car.addMethod("Route", "drive", params, "public");
+        ArrayList<Class> added = new ArrayList<Class>();
+        added.add(car);
+        store.addClasses(added);
+        assertTrue(complete(index, "addf Car public ").containsAll(Arrays.asList("Engine", "Gear", "Route")));
+
+        //A loaded file's types are gathered when a type is first completed, not when the file is put in place.
+        File file = File.createTempFile("completion", ".umlb");
+        file.deleteOnExit();
+        new SaveAndLoad(new DiagramGenerator(7, 200).generate(), null, null).save(file.getPath());
+        Store loaded = new Store();
+        new SaveAndLoad(loaded, null, null).load(file.getPath());
+        store.setClassStore(loaded.getClassStore());
+        assertEquals(200, complete(index, "display ").size());
+        for(Class aClass : store.getClassStore())
+        {
+            assertFalse(aClass.isLoaded());
+        }
+        List<String> types = complete(index, "addf Other public ");
+        for(Class aClass : store.getClassStore())
+        {
+            aClass.getFields().forEach(f -> assertTrue(types.contains(f.getType())));
+            aClass.getMethods().forEach(m -> assertTrue(types.contains(m.getType())));
+        }
+    }
+}
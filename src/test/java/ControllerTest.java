@@ -451,6 +451,14 @@ public class ControllerTest
         assertFalse(controller.getStore().getClassStore().get(0).getRelationshipsToOther().containsValue(RelationshipType.REALIZATION));
     }
 
+    @Test
+    public void testDeleteRelationshipWithMissingClass()
+    {
+        controller.createClass("test");
+        controller.deleteRelationship("test", "missing");
+        verify(view).showError(startsWith("Relationship could not be deleted."));
+    }
+
     @Test
     public void testUndo()
     {
@@ -476,6 +484,102 @@ public class ControllerTest
         
     }
 
+    @Test
+    public void testUndoRedoEdits()
+    {
+        ArrayList<String> params = new ArrayList<String>();
+        params.add("int a");
+        params.add("int b");
+        controller.createClass("test");
+        controller.createClass("test2");
+        controller.createField("test", "int", "num", "private");
+        controller.createMethod("test", "void", "run", params, "public");
+        controller.addRelationship("test", "test2", RelationshipType.COMPOSITION);
+        controller.moveClass("test", 0, 0, 40, 50);
+        Store before = (Store)controller.getStore().clone();
+
+        //Deleting a parameter from the middle and undoing puts it back in the same place.
+        controller.deleteParameter("test", "void", "run", params, "public", "int", "a");
+        controller.undo();
+        assertEquals("+ void run ( int a , int b )", controller.getStore().findClass("test").getMethods().iterator().next().toString());
+
+        //Deleting a class and undoing brings back its members, relationships and location.
+        controller.deleteClass("test");
+        assertEquals(null, controller.getStore().findClass("test"));
+        controller.undo();
+        assertEquals(before, controller.getStore());
+        assertEquals(RelationshipType.COMPOSITION, controller.getStore().findClass("test2").getRelationshipsFromOther().get("test"));
+        assertEquals(40, (int)controller.getStore().findClass("test").getLocation().getWidth());
+
+        //Redo deletes it again.
+        controller.redo();
+        assertEquals(null, controller.getStore().findClass("test"));
+        assertTrue(controller.getStore().findClass("test2").getRelationshipsFromOther().isEmpty());
+        controller.undo();
+
+        //Undoing the move puts the class back where it was.
+        controller.undo();
+        assertEquals(0, (int)controller.getStore().findClass("test").getLocation().getWidth());
+
+        //Undo the rest of the way back to an empty store.
+        for(int count = 0; count < 5; count++)
+        {
+            controller.undo();
+        }
+        assertTrue(controller.getStore().getClassStore().isEmpty());
+    }
+
+    @Test
+    public void testBatchIsOneUndo()
+    {
+        controller.createClass("kept");
+        controller.beginBatch();
+        controller.createClass("test");
+        controller.createClass("test2");
+        controller.createField("test", "int", "num", "private");
+        controller.addRelationship("test", "test2", RelationshipType.AGGREGATION);
+        controller.renameClass("kept", "renamed");
+        Store after = (Store)controller.getStore().clone();
+        //Nothing is shown while the batch runs.
+        verify(view, never()).updateClass(anyString(), anyString(), anyString());
+        verify(view, never()).addRelationship(anyString(), anyString(), anyString());
+        assertEquals(5, controller.endBatch(false));
+        assertEquals(2, controller.getStateController().getUndoStack().size());
+
+        controller.undo();
+        assertEquals(1, controller.getStore().getClassStore().size());
+        assertNotNull(controller.getStore().findClass("kept"));
+        controller.redo();
+        assertEquals(after, controller.getStore());
+        assertEquals(RelationshipType.AGGREGATION, controller.getStore().findClass("test").getRelationshipsToOther().get("test2"));
+        assertFalse(controller.inBatch());
+    }
+
+    @Test
+    public void testScript() throws java.io.IOException
+    {
+        String script = String.join("\n",
+                "# Comments and blank lines are skipped.",
+                "addc Shape",
+                "",
+                "addc Circle",
+                "addf Shape private double area",
+                "addm Circle public double scale double factor, int times",
+                "addr Circle Shape Generalization",
+                "addr Circle Shape NotAType",
+                "exit",
+                "addc Never");
+        new CLI(store, view, controller, new java.io.BufferedReader(new java.io.StringReader(script)));
+        assertEquals(java.util.Arrays.asList("Shape", "Circle"), store.getClassList());
+        assertEquals("+ double scale ( double factor , int times )", store.findClass("Circle").getMethods().iterator().next().toString());
+        assertEquals(RelationshipType.GENERALIZATION, store.findClass("Circle").getRelationshipsToOther().get("Shape"));
+        //The bad line is reported with its number, and the whole script is undone at once.
+        verify(view).showError(startsWith("Line 8: "));
+        assertEquals(1, controller.getStateController().getUndoStack().size());
+        controller.undo();
+        assertTrue(store.getClassStore().isEmpty());
+    }
+
     @Test
     public void testRedo()
     {
@@ -0,0 +1,85 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import java.io.File;
+import java.io.IOException;
+import org.json.simple.parser.ParseException;
+import UML.model.Class;
+import UML.model.DiagramGenerator;
+import UML.model.RelationshipType;
+import UML.model.Store;
+import UML.controllers.SaveAndLoad;
+
+public class DiagramGeneratorTest {
+
+    @Test
+    public void testSameSeedSameDiagram()
+    {
+        Store first = new DiagramGenerator(7, 200).generate();
+        Store second = new DiagramGenerator(7, 200).generate();
+        Store other = new DiagramGenerator(8, 200).generate();
+
+        assertEquals(200, first.getClassStore().size());
+        assertEquals(first.stringOfClasses(), second.stringOfClasses());
+        assertNotEquals(first.stringOfClasses(), other.stringOfClasses());
+    }
+
+    @Test
+    public void testSettings()
+    {
+        DiagramGenerator generator = new DiagramGenerator(1, 100);
+        generator.setFieldsPerClass(3);
+        generator.setMethodsPerClass(4);
+        generator.setParamRange(2, 2);
+        generator.setRelationshipsPerClass(2);
+        generator.setTypeWeight(RelationshipType.AGGREGATION, 0);
+        generator.setTypeWeight(RelationshipType.COMPOSITION, 0);
+        generator.setTypeWeight(RelationshipType.REALIZATION, 0);
+        generator.setColumns(10);
+        Store store = generator.generate();
+
+        int relationships = 0;
+        for(Class c : store.getClassStore())
+        {
+            assertEquals(3, c.getFields().size());
+            assertEquals(4, c.getMethods().size());
+            c.getMethods().forEach(m -> assertEquals(2, m.getParams().size()));
+            for(RelationshipType type : c.getRelationshipsToOther().values())
+            {
+                assertEquals(RelationshipType.GENERALIZATION, type);
+            }
+            relationships += c.getRelationshipsToOther().size();
+        }
+        //Pairs already related are skipped, so a few less than two per class are made.
+        assertTrue(relationships > 150 && relationships <= 200);
+        assertEquals(250 * 5, store.findClass("Class15").getLocation().width);
+        assertEquals(400, store.findClass("Class15").getLocation().height);
+
+        assertThrows(IllegalArgumentException.class, () -> generator.setParamRange(3, 2));
+        assertThrows(IllegalArgumentException.class, () -> generator.setClassCount(-1));
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException, ParseException
+    {
+        DiagramGenerator generator = new DiagramGenerator(3, 500);
+        generator.setRelationshipsPerClass(1.5);
+        Store generated = generator.generate();
+        File file = new SaveAndLoad(generated, null, null).save("GeneratedTest.json");
+
+        Store loaded = new Store();
+        new SaveAndLoad(loaded, null, null).load("GeneratedTest.json");
+        file.delete();
+
+        //The relationship maps may list their entries in another order, so the classes are compared rather than their strings.
+        assertEquals(generated.getClassList(), loaded.getClassList());
+        for(Class c : generated.getClassStore())
+        {
+            Class other = loaded.findClass(c.getName());
+            assertEquals(c, other);
+            assertEquals(c.getLocation(), other.getLocation());
+        }
+    }
+}
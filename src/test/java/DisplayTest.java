@@ -0,0 +1,123 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import org.junit.Test;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import UML.controllers.CLI;
+import UML.controllers.Controller;
+import UML.controllers.Pager;
+import UML.model.RelationshipType;
+import UML.model.Store;
+import UML.views.View;
+
+public class DisplayTest {
+
+    /**
+     * Runs commands as a script and returns what they printed.
+     */
+    private static String run(Store store, View view, String... commands) throws IOException
+    {
+        PrintStream original = System.out;
+        ByteArrayOutputStream printed = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(printed, true));
+        try
+        {
+            new CLI(store, view, new Controller(store, view), new BufferedReader(new StringReader(String.join("\n", commands))));
+        }
+        finally
+        {
+            System.setOut(original);
+        }
+        return printed.toString().replace(System.lineSeparator(), "\n");
+    }
+
+    private static Store diagram()
+    {
+        Store store = new Store();
+        for(String name : new String[] {"Shape", "Circle", "Square", "ShapeFactory", "Car"})
+        {
+            store.addClass(name);
+        }
+        store.addField("Circle", "double", "radius", "private");
+        store.addRelationship("Circle", "Shape", RelationshipType.GENERALIZATION);
+        store.addRelationship("Square", "Shape", RelationshipType.GENERALIZATION);
+        store.addRelationship("ShapeFactory", "Circle", RelationshipType.COMPOSITION);
+        store.addRelationship("Car", "Square", RelationshipType.AGGREGATION);
+        return store;
+    }
+
+    @Test
+    public void testPagerWaitsAfterEachPage()
+    {
+        StringWriter written = new StringWriter();
+        ArrayDeque<Integer> keys = new ArrayDeque<Integer>(Arrays.asList((int)' ', (int)'q'));
+        Pager pager = new Pager(new PrintWriter(written), 2, keys::pop);
+        int shown = 0;
+        while(pager.println("line" + shown))
+        {
+            shown++;
+        }
+        pager.flush();
+        //Two pages were shown, and q at the end of the second stopped the listing.
+        assertEquals(4, shown);
+        assertTrue(pager.isStopped());
+        assertTrue(keys.isEmpty());
+        assertFalse(pager.println("more"));
+        String text = written.toString();
+        assertTrue(text.contains("line3"));
+        assertFalse(text.contains("line4"));
+        assertFalse(text.contains("more"));
+    }
+
+    @Test
+    public void testPagerWithoutPagesWritesEverything()
+    {
+        StringWriter written = new StringWriter();
+        Pager pager = new Pager(new PrintWriter(written), 0, () -> 'q');
+        for(int count = 0; count < 1000; count++)
+        {
+            assertTrue(pager.println("line" + count));
+        }
+        pager.flush();
+        assertEquals(1000, written.toString().split(System.lineSeparator()).length);
+    }
+
+    @Test
+    public void testDisplayFilters() throws IOException
+    {
+        Store store = diagram();
+        View view = mock(View.class);
+        String printed = run(store, view, "display Shape*", "display ?ircle --full", "display * --limit 2", "display Circle");
+        assertEquals(String.join("\n", "Class Name: Shape", "Class Name: ShapeFactory",
+                "Class name: Circle", "------------------------------", "Field Names: ", "- double radius",
+                "------------------------------", "Methods:  ", "",
+                "Class Name: Shape", "Class Name: Circle", "Showed 2 of 5 classes.",
+                "Class name: Circle", "------------------------------", "Field Names: ", "- double radius",
+                "------------------------------", "Methods:  ", "", ""), printed);
+        //A single class is shown as it is printed after a change.
+        String single = store.findClass("Circle").toString();
+        assertTrue(printed.contains(single.substring(0, single.indexOf("Relationships To Others: ") - 32)));
+    }
+
+    @Test
+    public void testDisplayRelationshipFilters() throws IOException
+    {
+        Store store = diagram();
+        View view = mock(View.class);
+        String printed = run(store, view, "displayr Circle --nopage", "displayr --type generalization --limit 1",
+                "displayr --type sideways");
+        assertEquals(String.join("\n", "Circle ==GENERALIZATION==> Shape", "ShapeFactory ==COMPOSITION==> Circle",
+                "Circle ==GENERALIZATION==> Shape", "Showed 1 of 2 relationships.", ""), printed);
+        verify(view).showError("Invalid arguments for displayr, please refer to help.");
+    }
+}
@@ -0,0 +1,305 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import org.junit.Test;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import org.json.simple.parser.ParseException;
+import UML.controllers.Controller;
+import UML.controllers.EditJournal;
+import UML.controllers.SaveAndLoad;
+import UML.model.Class;
+import UML.model.DiagramGenerator;
+import UML.model.RelationshipType;
+import UML.model.Store;
+import UML.views.CommandlineView;
+import UML.views.View;
+
+public class EditJournalTest {
+
+    /**
+     * Returns a saved diagram of a few generated classes.
+     */
+    private File savedDiagram(String extension) throws IOException
+    {
+        File base = File.createTempFile("journal-base", extension);
+        base.deleteOnExit();
+        new SaveAndLoad(new DiagramGenerator(3, 20).generate(), null, null).save(base.getPath());
+        return base;
+    }
+
+    private File journalFile() throws IOException
+    {
+        File file = File.createTempFile("uml", ".journal");
+        file.deleteOnExit();
+        return file;
+    }
+
+    /**
+     * Makes one of each kind of change, returning how many succeeded.
+     */
+    private int makeChanges(Store store)
+    {
+        ArrayList<String> params = new ArrayList<String>(Arrays.asList("int count"));
+        boolean[] changes = {
+            store.addClass("Added"),
+            store.addField("Added", "int", "size", "private"),
+            store.renameField("Added", "size", "length"),
+            store.changeFieldType("Added", "length", "long"),
+            store.changeFieldAccess("Added", "length", "public"),
+            store.addMethod("Added", "void", "grow", params, "public"),
+            store.addParam("Added", "void", "grow", params, "public", "String", "why"),
+            store.renameMethod("Added", "void", "grow", new ArrayList<String>(Arrays.asList("int count", "String why")), "public", "expand"),
+            store.addRelationship("Added", "Class1", RelationshipType.COMPOSITION),
+            store.moveClass("Class2", -40, 75),
+            store.renameClass("Class3", "Renamed"),
+            store.deleteClass("Class4"),
+            store.deleteField("Class5", store.findClass("Class5").getFields().iterator().next().getName()),
+        };
+        int count = 0;
+        for(boolean changed : changes)
+        {
+            assertTrue(changed);
+            count++;
+        }
+        return count;
+    }
+
+    @Test
+    public void testRecoverReplaysOverTheSavedFile() throws IOException, ParseException
+    {
+        for(String extension : new String[] {".json", ".umlb"})
+        {
+            File base = savedDiagram(extension);
+            File file = journalFile();
+            Store store = new Store();
+            new SaveAndLoad(store, null, null).load(base.getPath());
+            EditJournal journal = new EditJournal(file);
+            journal.start(base);
+            store.setJournal(journal);
+            int changes = makeChanges(store);
+            //Nothing is saved, as if the program stopped here.
+            journal.close();
+
+            Store recovered = new Store();
+            EditJournal reopened = new EditJournal(file);
+            assertEquals(base.getAbsoluteFile(), reopened.getBaseFile());
+            assertEquals(changes, reopened.recover(recovered));
+            assertTrue(store.equals(recovered));
+            assertEquals(-40, (int)recovered.findClass("Class2").getLocation().getWidth());
+            assertNull(recovered.findClass("Class4"));
+            reopened.close();
+        }
+    }
+
+    @Test
+    public void testCutShortRecordIsDropped() throws IOException, ParseException
+    {
+        File file = journalFile();
+        Store store = new Store();
+        EditJournal journal = new EditJournal(file);
+        journal.start(null);
+        store.setJournal(journal);
+        store.addClass("Kept");
+        store.addClass("AlsoKept");
+        store.addClass("Lost");
+        journal.close();
+        try(RandomAccessFile raf = new RandomAccessFile(file, "rw"))
+        {
+            raf.setLength(raf.length() - 2);
+        }
+
+        Store recovered = new Store();
+        EditJournal reopened = new EditJournal(file);
+        assertNull(reopened.getBaseFile());
+        assertEquals(2, reopened.recover(recovered));
+        assertEquals(Arrays.asList("Kept", "AlsoKept"), recovered.getClassList());
+        //New changes go after the last good record.
+        recovered.setJournal(reopened);
+        recovered.addClass("Later");
+        reopened.close();
+        EditJournal again = new EditJournal(file);
+        Store third = new Store();
+        assertEquals(3, again.recover(third));
+        assertEquals(Arrays.asList("Kept", "AlsoKept", "Later"), third.getClassList());
+        again.close();
+    }
+
+    @Test
+    public void testChangedSavedFileIsNotReplayedOver() throws IOException, ParseException
+    {
+        File base = savedDiagram(".json");
+        File file = journalFile();
+        EditJournal journal = new EditJournal(file);
+        journal.start(base);
+        Store store = new Store();
+        store.setJournal(journal);
+        store.addClass("Lost");
+        journal.close();
+        //Saved again somewhere else, so the journal's changes belong to an older version.
+        Store other = new Store();
+        other.addClass("Other");
+        new SaveAndLoad(other, null, null).save(base.getPath());
+        base.setLastModified(base.lastModified() + 5000);
+
+        Store recovered = new Store();
+        EditJournal reopened = new EditJournal(file);
+        assertEquals(0, reopened.recover(recovered));
+        assertTrue(recovered.getClassStore().isEmpty());
+        reopened.close();
+    }
+
+    @Test
+    public void testCompactWritesTheSavedFile() throws IOException, ParseException
+    {
+        File base = savedDiagram(".umlb");
+        File file = journalFile();
+        Store store = new Store();
+        new SaveAndLoad(store, null, null).load(base.getPath());
+        EditJournal journal = new EditJournal(file);
+        journal.start(base);
+        store.setJournal(journal);
+        makeChanges(store);
+        journal.compact(store.getSnapshot());
+        journal.flush();
+        store.addClass("AfterCompact");
+        journal.close();
+
+        Store saved = new Store();
+        new SaveAndLoad(saved, null, null).load(base.getPath());
+        assertNotNull(saved.findClass("Renamed"));
+        assertNull(saved.findClass("AfterCompact"));
+        //Only the change after the compaction is left in the journal.
+        Store recovered = new Store();
+        EditJournal reopened = new EditJournal(file);
+        assertEquals(1, reopened.recover(recovered));
+        assertTrue(store.equals(recovered));
+        reopened.close();
+    }
+
+    @Test
+    public void testFailedCompactionIsShownAndJournalingGoesOn() throws IOException
+    {
+        //A save can't replace a directory, so compacting into one fails without changing it.
+        File base = Files.createTempDirectory("journal-dir").toFile();
+        File inside = new File(base, "keep");
+        assertTrue(inside.createNewFile());
+        File file = journalFile();
+        View view = mock(View.class);
+        Store store = new Store();
+        Controller controller = new Controller(store, view);
+        controller.openJournal(file);
+        EditJournal journal = controller.getJournal();
+        journal.start(base);
+        controller.createClass("First");
+        journal.compact(store.getSnapshot());
+        journal.flush();
+        long before = file.length();
+
+        //The failure is shown once, at the next edit, and the edits go on being journaled.
+        controller.createClass("Second");
+        controller.createClass("Third");
+        journal.flush();
+        verify(view, times(1)).showError(contains("could not be compacted"));
+        assertTrue(file.length() > before);
+        assertNull(journal.takeProblem());
+        controller.closeJournal();
+        inside.delete();
+        base.delete();
+    }
+
+    @Test
+    public void testControllerKeepsEditsUntilSaved() throws IOException, ParseException
+    {
+        File file = journalFile();
+        File saved = File.createTempFile("journal-saved", ".json");
+        saved.deleteOnExit();
+        Controller controller = new Controller(new Store(), new CommandlineView());
+        assertEquals(false, controller.openJournal(file));
+        controller.createClass("First");
+        controller.createField("First", "int", "x", "public");
+        controller.undo();
+        controller.save(saved.getPath());
+        //Once saved, the diagram's edits are kept beside its file.
+        File beside = EditJournal.fileFor(saved);
+        beside.deleteOnExit();
+        assertEquals(beside, controller.getJournal().getFile());
+        controller.createClass("Second");
+        controller.closeJournal();
+
+        Store store = new Store();
+        Controller restarted = new Controller(store, new CommandlineView());
+        assertFalse(restarted.openJournal(file));
+        assertTrue(store.getClassList().isEmpty());
+        //Loading the file puts back the edits made to it after it was saved.
+        restarted.load(saved.getPath());
+        assertEquals(Arrays.asList("First", "Second"), store.getClassList());
+        assertTrue(store.findClass("First").getFields().isEmpty());
+        assertEquals(saved.getAbsoluteFile(), store.getCurrentLoadedFile());
+        assertEquals(beside, restarted.getJournal().getFile());
+        //The same journal can't be used by two windows at once.
+        assertThrows(IOException.class, () -> new EditJournal(beside));
+        //Once they are saved again, there is nothing left to put back.
+        restarted.save(saved.getPath());
+        restarted.closeJournal();
+        EditJournal reopened = new EditJournal(beside);
+        assertEquals(0, reopened.recover(new Store()));
+        reopened.close();
+    }
+
+    @Test
+    public void testLoadedClassesAreJournaledWithoutLoadingThem() throws IOException, ParseException
+    {
+        File saved = savedDiagram(".umlb");
+        File file = journalFile();
+        EditJournal journal = new EditJournal(file);
+        journal.start(null);
+        Store store = new Store();
+        store.setJournal(journal);
+        //Putting in the classes of a file, as undoing or redoing a load does.
+        Store loaded = new Store();
+        new SaveAndLoad(loaded, null, null).load(saved.getPath());
+        store.setClassStore(loaded.getClassStore());
+        for(Class aClass : store.getClassStore())
+            assertFalse(aClass.isLoaded());
+        store.renameClass("Class1", "First");
+        journal.close();
+
+        //The journal kept where the classes are in the file, and they come back from there.
+        EditJournal reopened = new EditJournal(file);
+        Store recovered = new Store();
+        assertEquals(2, reopened.recover(recovered));
+        reopened.close();
+        Store expected = new Store();
+        new SaveAndLoad(expected, null, null).load(saved.getPath());
+        expected.renameClass("Class1", "First");
+        assertEquals(expected.getClassList(), recovered.getClassList());
+        for(Class aClass : expected.getClassStore())
+        {
+            Class found = recovered.findClass(aClass.getName());
+            assertEquals(aClass.getFields(), found.getFields());
+            assertEquals(aClass.getMethods(), found.getMethods());
+            assertEquals(aClass.getRelationshipsToOther(), found.getRelationshipsToOther());
+        }
+    }
+
+    @Test
+    public void testJournalIsKeptBesideTheSavedFile()
+    {
+        File saved = new File("diagrams", "shapes.json");
+        assertEquals(new File(saved.getAbsoluteFile().getParentFile(), ".shapes.json.journal"), EditJournal.fileFor(saved));
+        assertEquals(new File(System.getProperty("user.home"), ".uml-editor.journal"), EditJournal.fileFor(null));
+        assertEquals(EditJournal.fileFor(null), EditJournal.defaultFile());
+    }
+}
@@ -298,5 +298,30 @@ public class MethodTest {
         Method test2 = new Method("type", "name", params, "nonsense");
         assertEquals("public", test2.getAccessString());
     }
-}
 
+    @Test
+    public void testSignature() 
+    {
+        ArrayList<Parameter> params = new ArrayList<Parameter>();
+        params.add(new Parameter("int", "a"));
+        params.add(new Parameter("String", "b"));
+        ArrayList<Parameter> renamed = new ArrayList<Parameter>();
+        renamed.add(new Parameter("int", "x"));
+        renamed.add(new Parameter("String", "y"));
+        ArrayList<Parameter> swapped = new ArrayList<Parameter>();
+        swapped.add(new Parameter("String", "b"));
+        swapped.add(new Parameter("int", "a"));
+
+        //Access and parameter names are not part of the signature, but order of types is.
+        Method test = new Method("void", "run", params, "public");
+        assertEquals("void run(int,String,)", test.getSignature());
+        assertEquals(test.getSignature(), new Method("void", "run", renamed, "private").getSignature());
+        assertFalse(test.getSignature().equals(new Method("void", "run", swapped, "public").getSignature()));
+
+        //Equal methods have equal hash codes, and parameter order matters to both.
+        Method same = new Method("void", "run", new ArrayList<Parameter>(params), "public");
+        assertTrue(test.equals(same));
+        assertEquals(test.hashCode(), same.hashCode());
+        assertFalse(test.equals(new Method("void", "run", swapped, "public")));
+    }
+}
@@ -0,0 +1,166 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+import org.json.simple.parser.ParseException;
+import UML.controllers.SaveAndLoad;
+import UML.model.Class;
+import UML.model.DiagramGenerator;
+import UML.model.RelationshipGraph;
+import UML.model.RelationshipType;
+import UML.model.Store;
+
+public class RelationshipGraphTest {
+
+    /**
+     * Returns every relationship in the graph as "from type to".
+     */
+    private static Set<String> edges(Store store)
+    {
+        Set<String> found = new HashSet<String>();
+        store.getRelationshipGraph().forEachEdge((from, to, type) -> found.add(from.getName() + " " + type + " " + to.getName()));
+        return found;
+    }
+
+    /**
+     * Returns every relationship as "from type to", read from the maps of each class.
+     */
+    private static Set<String> edgesFromMaps(Store store)
+    {
+        Set<String> found = new HashSet<String>();
+        for(Class c : store.getClassStore())
+        {
+            c.getRelationshipsToOther().forEach((to, type) -> found.add(c.getName() + " " + type + " " + to));
+            //Each one is in the map of the class at its other end too.
+            c.getRelationshipsFromOther().forEach((from, type) -> assertEquals(type, store.findClass(from).getRelationshipsToOther().get(c.getName())));
+        }
+        return found;
+    }
+
+    @Test
+    public void testRelateAndLookUp()
+    {
+        Store store = new Store();
+        store.addClass("Hub");
+        store.addClass("A");
+        store.addClass("B");
+        store.addClass("C");
+        RelationshipGraph graph = store.getRelationshipGraph();
+        assertTrue(store.addRelationship("Hub", "A", RelationshipType.AGGREGATION));
+        assertTrue(store.addRelationship("B", "Hub", RelationshipType.COMPOSITION));
+        assertTrue(store.addRelationship("Hub", "C", RelationshipType.AGGREGATION));
+        //One relationship per pair, whichever way it goes.
+        assertFalse(store.addRelationship("A", "Hub", RelationshipType.REALIZATION));
+
+        Class hub = store.findClass("Hub");
+        assertEquals(3, graph.edgeCount());
+        assertEquals(3, graph.degree(hub));
+        assertEquals(RelationshipType.COMPOSITION, graph.getType(store.findClass("B"), hub));
+        assertNull(graph.getType(hub, store.findClass("B")));
+        assertEquals(2, hub.getRelationshipsToOther().size());
+        assertEquals(RelationshipType.COMPOSITION, hub.getRelationshipsFromOther().get("B"));
+        assertEquals(RelationshipType.AGGREGATION, store.findClass("C").getRelationshipsFromOther().get("Hub"));
+
+        //Deleting a relationship that is in the middle of the lists leaves the rest findable.
+        assertTrue(store.deleteRelationship("Hub", "A"));
+        assertFalse(store.deleteRelationship("Hub", "A"));
+        assertEquals(RelationshipType.AGGREGATION, hub.getRelationshipsToOther().get("C"));
+        assertTrue(store.deleteRelationship("Hub", "C"));
+        assertTrue(hub.getRelationshipsToOther().isEmpty());
+        assertEquals(1, graph.edgeCount());
+    }
+
+    @Test
+    public void testRenameAndDeleteOnlyTouchTheClass()
+    {
+        Store store = new Store();
+        store.addClass("Hub");
+        for(int count = 0; count < 50; count++)
+        {
+            store.addClass("Leaf" + count);
+            store.addRelationship(count % 2 == 0 ? "Hub" : "Leaf" + count, count % 2 == 0 ? "Leaf" + count : "Hub", RelationshipType.values()[count % 4]);
+        }
+        store.addRelationship("Leaf0", "Leaf1", RelationshipType.GENERALIZATION);
+        Set<String> before = edges(store);
+
+        //The related classes see the new name straight away.
+        assertTrue(store.renameClass("Hub", "Center"));
+        assertEquals(RelationshipType.AGGREGATION, store.findClass("Leaf0").getRelationshipsFromOther().get("Center"));
+        assertNull(store.findClass("Leaf0").getRelationshipsFromOther().get("Hub"));
+        assertTrue(store.findClass("Leaf1").toString().contains("Center"));
+        Set<String> renamed = new HashSet<String>();
+        for(String edge : before)
+        {
+            renamed.add(edge.replaceAll("\\bHub\\b", "Center"));
+        }
+        assertEquals(renamed, edges(store));
+        assertEquals(renamed, edgesFromMaps(store));
+
+        //Deleting the class takes its relationships from both ends and nothing else.
+        assertTrue(store.deleteClass("Center"));
+        assertEquals(1, store.getRelationshipGraph().edgeCount());
+        assertTrue(store.findClass("Leaf2").getRelationshipsFromOther().isEmpty());
+        assertEquals(RelationshipType.GENERALIZATION, store.findClass("Leaf1").getRelationshipsFromOther().get("Leaf0"));
+
+        //A new class can reuse the deleted one's node.
+        store.addClass("Center");
+        assertTrue(store.findClass("Center").getRelationshipsToOther().isEmpty());
+        assertTrue(store.addRelationship("Center", "Leaf3", RelationshipType.REALIZATION));
+        assertEquals(2, store.getRelationshipGraph().edgeCount());
+    }
+
+    @Test
+    public void testSettingClassesKeepsTheirRelationships()
+    {
+        Store store = new DiagramGenerator(5, 300).generate();
+        Set<String> generated = edges(store);
+        assertEquals(generated, edgesFromMaps(store));
+
+        //As undoing a load does: the old classes go to another store and come back.
+        ArrayList<Class> before = store.getClassStore();
+        Store other = new Store();
+        other.setClassStore(before);
+        store.setClassStore(new ArrayList<Class>());
+        assertEquals(0, store.getRelationshipGraph().edgeCount());
+        store.setClassStore(before);
+        assertEquals(generated, edges(store));
+
+        //A clone has the same relationships in a graph of its own.
+        Store clone = (Store)store.clone();
+        assertEquals(generated, edges(clone));
+        clone.deleteClass("Class0");
+        assertEquals(generated, edges(store));
+    }
+
+    @Test
+    public void testUnloadedClassesRenamedAndDeleted() throws IOException, ParseException
+    {
+        DiagramGenerator generator = new DiagramGenerator(9, 200);
+        generator.setRelationshipsPerClass(3);
+        Store generated = generator.generate();
+        File file = File.createTempFile("graph", ".umlb");
+        file.deleteOnExit();
+        new SaveAndLoad(generated, null, null).save(file.getPath());
+
+        //Classes are renamed, deleted and related before the classes around them have loaded.
+        Store opened = new Store();
+        new SaveAndLoad(opened, null, null).load(file.getPath());
+        for(Store store : new Store[] {generated, opened})
+        {
+            store.renameClass("Class3", "Renamed");
+            store.deleteClass("Class10");
+            store.deleteRelationship("Class20", store.findClass("Class20").getRelationshipsToOther().keySet().iterator().next());
+            store.addClass("Class10");
+            store.addRelationship("Class10", "Class40", RelationshipType.REALIZATION);
+        }
+        assertEquals(edges(generated), edges(opened));
+        assertEquals(edges(generated), edgesFromMaps(opened));
+        assertEquals(generated.getRelationshipGraph().edgeCount(), opened.getRelationshipGraph().edgeCount());
+    }
+}
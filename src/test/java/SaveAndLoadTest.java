@@ -27,9 +27,12 @@ import java.util.HashMap;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 import UML.model.Class;
 import UML.model.Field;
@@ -161,4 +164,210 @@ public class SaveAndLoadTest {
             counter++;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Saves the testSave diagram with the streaming writer, then checks that the streaming loader reads
+     * back the same classes.
+     */
+    @Test
+    public void testStreamingRoundTrip() throws IOException, ParseException {
+        Store s = new Store();
+        CommandlineView v = new CommandlineView();
+        Controller c = new Controller(s, v);
+
+        ArrayList<String> params = new ArrayList();
+        params.add("int num");
+        c.createClass("Test");
+        c.createField("Test", "int", "num", "public");
+        c.createMethod("Test", "void", "testMethod", params, "private");
+
+        c.createClass("TestTwo");
+        c.createField("TestTwo", "string", "aStr", "protected");
+        c.createMethod("TestTwo", "void", "testMethod", params, "private");
+        c.addRelationship("Test", "TestTwo", RelationshipType.REALIZATION);
+        s.moveClass("TestTwo", 120, 45);
+
+        File testFile = new SaveAndLoad(s, v, c).save("JSONStreamTest.json");
+
+        Store loaded = new Store();
+        new SaveAndLoad(loaded, v, c).load("JSONStreamTest.json");
+        testFile.delete();
+
+        assertEquals(s.getClassStore().size(), loaded.getClassStore().size());
+        for(Class expected : s.getClassStore())
+        {
+            Class actual = loaded.findClass(expected.getName());
+            assertEquals(expected.getFields(), actual.getFields());
+            assertEquals(expected.getMethods(), actual.getMethods());
+            assertEquals(expected.getRelationshipsToOther(), actual.getRelationshipsToOther());
+            assertEquals(expected.getRelationshipsFromOther(), actual.getRelationshipsFromOther());
+            assertEquals(expected.getLocation(), actual.getLocation());
+        }
+    }
+
+    @Test
+    public void testBinaryRoundTrip() throws IOException, ParseException {
+        DiagramGenerator generator = new DiagramGenerator(11, 300);
+        generator.setRelationshipsPerClass(1.5);
+        Store s = generator.generate();
+        s.moveClass("Class0", -40, -7);
+
+        File binaryFile = new SaveAndLoad(s, null, null).save("BinaryTest.umlb");
+        File jsonFile = new SaveAndLoad(s, null, null).save("BinaryTest.json");
+        assertTrue(binaryFile.length() < jsonFile.length());
+
+        Store loaded = new Store();
+        new SaveAndLoad(loaded, null, null).load("BinaryTest.umlb");
+        //Converting from JSON to binary and back must lose nothing either.
+        SaveAndLoad.convert("BinaryTest.json", "BinaryCopy.umlb");
+        SaveAndLoad.convert("BinaryCopy.umlb", "BinaryCopy.json");
+        Store converted = new Store();
+        new SaveAndLoad(converted, null, null).load("BinaryCopy.json");
+        binaryFile.delete();
+        jsonFile.delete();
+        new File("BinaryCopy.umlb").delete();
+        new File("BinaryCopy.json").delete();
+
+        for(Store other : new Store[] {loaded, converted})
+        {
+            assertEquals(s.getClassList(), other.getClassList());
+            for(Class expected : s.getClassStore())
+            {
+                Class actual = other.findClass(expected.getName());
+                assertEquals(expected, actual);
+                assertEquals(expected.getLocation(), actual.getLocation());
+            }
+        }
+    }
+
+    @Test
+    public void testBinaryRejectsBadFiles() throws IOException, ParseException {
+        Store s = new Store();
+        s.addClass("Test");
+        s.addField("Test", "int", "num", "public");
+        File file = new SaveAndLoad(s, null, null).save("BadTest.umlb");
+        byte[] bytes = Files.readAllBytes(file.toPath());
+
+        //A file cut short in its tables can't be opened.
+        Files.write(file.toPath(), Arrays.copyOf(bytes, 20));
+        assertThrows(IOException.class, () -> new SaveAndLoad(new Store(), null, null).load("BadTest.umlb"));
+        //One cut short in a class's records opens, since only the tables are read, but the class can't load what was cut.
+        Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length - 1));
+        Store cut = new Store();
+        new SaveAndLoad(cut, null, null).load("BadTest.umlb");
+        assertEquals(1, cut.findClass("Test").getFields().size());
+        assertThrows(IllegalStateException.class, () -> cut.findClass("Test").getRelationshipsToOther());
+        //A file from a newer version.
+        bytes[4] = 3;
+        Files.write(file.toPath(), bytes);
+        assertThrows(IOException.class, () -> new SaveAndLoad(new Store(), null, null).load("BadTest.umlb"));
+        //A JSON file given the binary extension.
+        Files.write(file.toPath(), "{\"Classes\":[]}".getBytes());
+        assertThrows(IOException.class, () -> new SaveAndLoad(new Store(), null, null).load("BadTest.umlb"));
+        file.delete();
+    }
+
+    @Test
+    public void testCorruptFileLeavesTheDiagram() throws IOException, ParseException {
+        Store s = new Store();
+        s.addClass("Kept");
+        Controller c = new Controller(s, new CommandlineView());
+        File file = new File("CorruptTest.json");
+        Files.write(file.toPath(), "{\"Classes\":[{\"ClassName\":\"Half\",\"Fields\":[".getBytes());
+        //The error reaches the caller instead of the file loading as an empty diagram.
+        assertThrows(ParseException.class, () -> c.load(file.getPath()));
+        assertEquals(Arrays.asList("Kept"), c.getStore().getClassList());
+        assertEquals(null, c.getStore().getCurrentLoadedFile());
+        file.delete();
+    }
+
+    @Test
+    public void testBinaryOpensLazily() throws IOException, ParseException {
+        DiagramGenerator generator = new DiagramGenerator(21, 200);
+        generator.setRelationshipsPerClass(1.5);
+        Store s = generator.generate();
+        new SaveAndLoad(s, null, null).save("LazyTest.umlb");
+
+        Store opened = new Store();
+        new SaveAndLoad(opened, null, null).load("LazyTest.umlb");
+        assertEquals(s.getClassList(), opened.getClassList());
+        for(Class c : opened.getClassStore())
+        {
+            assertTrue(!c.isLoaded());
+        }
+        assertEquals(s.findClass("Class7").getLocation(), opened.findClass("Class7").getLocation());
+
+        //Only the class asked for loads.
+        assertEquals(s.findClass("Class7"), opened.findClass("Class7"));
+        assertTrue(opened.findClass("Class7").isLoaded());
+        assertTrue(!opened.findClass("Class8").isLoaded());
+
+        //Edits load both ends of a relationship before changing them.
+        opened.deleteRelationship("Class8", "Class9");
+        s.deleteRelationship("Class8", "Class9");
+        assertTrue(opened.addRelationship("Class8", "Class9", RelationshipType.COMPOSITION));
+        s.addRelationship("Class8", "Class9", RelationshipType.COMPOSITION);
+        assertEquals(RelationshipType.COMPOSITION, opened.findClass("Class9").getRelationshipsFromOther().get("Class8"));
+
+        //Saving over the open file leaves the classes still loading from it intact.
+        new SaveAndLoad(opened, null, null).save("LazyTest.umlb");
+        Store reopened = new Store();
+        new SaveAndLoad(reopened, null, null).load("LazyTest.umlb");
+        new File("LazyTest.umlb").delete();
+        for(Class expected : s.getClassStore())
+        {
+            assertEquals(expected, opened.findClass(expected.getName()));
+            assertEquals(expected, reopened.findClass(expected.getName()));
+        }
+    }
+
+    @Test
+    public void testSaveOverAMappedFile() throws IOException, ParseException {
+        Store s = new DiagramGenerator(22, 100).generate();
+        File file = new File("MappedTest.umlb");
+        new SaveAndLoad(s, null, null).save(file.getPath());
+        Store opened = new Store();
+        new SaveAndLoad(opened, null, null).load(file.getPath());
+        try
+        {
+            //Windows won't replace a mapped file, so the file itself is never mapped, only a copy of it.
+            File maps = new File("/proc/self/maps");
+            if(maps.exists())
+                assertTrue(!new String(Files.readAllBytes(maps.toPath())).contains(file.getAbsolutePath()));
+
+            //Saved over while the classes are still waiting to load from it.
+            opened.addClass("Extra");
+            assertTrue(!opened.findClass("Class3").isLoaded());
+            new SaveAndLoad(opened, null, null).save(file.getPath());
+            Store reopened = new Store();
+            new SaveAndLoad(reopened, null, null).load(file.getPath());
+            assertTrue(reopened.findClass("Extra") != null);
+            for(Class expected : s.getClassStore())
+            {
+                assertEquals(expected, opened.findClass(expected.getName()));
+                assertEquals(expected, reopened.findClass(expected.getName()));
+            }
+        }
+        finally
+        {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testBinaryVersionOne() throws IOException, ParseException {
+        //Class A at (5, -1) generalizes class B, in the version 1 layout.
+        byte[] bytes = {'U', 'M', 'L', 'B', 1, 2, 1, 'A', 1, 'B', 2,
+            0, 10, 1, 0, 0, 1, 1, 2,
+            1, 0, 0, 0, 0, 0};
+        Files.write(new File("VersionOne.umlb").toPath(), bytes);
+        Store s = new Store();
+        new SaveAndLoad(s, null, null).load("VersionOne.umlb");
+        new File("VersionOne.umlb").delete();
+
+        assertEquals(5, (int)s.findClass("A").getLocation().getWidth());
+        assertEquals(-1, (int)s.findClass("A").getLocation().getHeight());
+        assertEquals(RelationshipType.GENERALIZATION, s.findClass("A").getRelationshipsToOther().get("B"));
+        assertEquals(RelationshipType.GENERALIZATION, s.findClass("B").getRelationshipsFromOther().get("A"));
+    }
+}
@@ -0,0 +1,179 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import org.junit.Test;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.json.simple.parser.ParseException;
+import UML.controllers.SaveAndLoad;
+import UML.model.Class;
+import UML.model.DiagramGenerator;
+import UML.model.PersistentMap;
+import UML.model.RelationshipType;
+import UML.model.Snapshot;
+import UML.model.Store;
+
+public class SnapshotTest {
+
+    @Test
+    public void testPersistentMapKeepsOldVersions()
+    {
+        Random random = new Random(7);
+        HashMap<String, Integer> expected = new HashMap<String, Integer>();
+        PersistentMap<String, Integer> map = PersistentMap.empty();
+        ArrayList<PersistentMap<String, Integer>> versions = new ArrayList<PersistentMap<String, Integer>>();
+        ArrayList<HashMap<String, Integer>> copies = new ArrayList<HashMap<String, Integer>>();
+        for(int count = 0; count < 5000; count++)
+        {
+            //"Aa" and "BB" have the same hash code, so some keys share a collision node.
+            String key = (random.nextBoolean() ? "Aa" : "BB") + random.nextInt(300);
+            if(random.nextInt(3) == 0)
+            {
+                map = map.minus(key);
+                expected.remove(key);
+            }
+            else
+            {
+                map = map.plus(key, count);
+                expected.put(key, count);
+            }
+            if(count % 500 == 0)
+            {
+                versions.add(map);
+                copies.add(new HashMap<String, Integer>(expected));
+            }
+        }
+        assertEquals(expected, map.asMap());
+        assertEquals(expected.size(), map.size());
+        for(int count = 0; count < versions.size(); count++)
+        {
+            assertEquals(copies.get(count), versions.get(count).asMap());
+        }
+        assertSame(map, map.minus("missing"));
+        assertNull(map.get("missing"));
+    }
+
+    @Test
+    public void testSnapshotFollowsEdits()
+    {
+        Store store = new DiagramGenerator(3, 60).generate();
+        Random random = new Random(11);
+        Snapshot first = store.getSnapshot();
+        List<String> firstDescribed = ClassDescriptions.describe(store.getClassStore());
+        for(int count = 0; count < 400; count++)
+        {
+            String name = store.getClassStore().get(random.nextInt(store.getClassStore().size())).getName();
+            String other = store.getClassStore().get(random.nextInt(store.getClassStore().size())).getName();
+            switch(random.nextInt(8))
+            {
+                case 0:
+                    store.addClass("Added" + count);
+                    break;
+                case 1:
+                    store.deleteClass(name);
+                    break;
+                case 2:
+                    store.renameClass(name, "Renamed" + count);
+                    break;
+                case 3:
+                    store.moveClass(name, count, -count);
+                    break;
+                case 4:
+                    store.addField(name, "int", "field" + count, "private");
+                    break;
+                case 5:
+                    store.addMethod(name, "void", "method" + count, new ArrayList<String>(), "public");
+                    break;
+                case 6:
+                    if(!name.equals(other))
+                        store.addRelationship(name, other, RelationshipType.values()[count % 4]);
+                    break;
+                default:
+                    store.deleteRelationship(name, other);
+                    break;
+            }
+            assertEquals(store.getClassList(), store.getSnapshot().getClassList());
+        }
+        assertEquals(ClassDescriptions.describe(store.getClassStore()), ClassDescriptions.describe(store.getSnapshot().getClasses()));
+        assertEquals(store.findClass(store.getClassList().get(5)).toString().split("Relationships")[0],
+                store.getSnapshot().findClass(store.getClassList().get(5)).toString().split("Relationships")[0]);
+        //The first snapshot is still what the store was then.
+        assertEquals(firstDescribed, ClassDescriptions.describe(first.getClasses()));
+    }
+
+    @Test
+    public void testRestoredClassesKeepTheirPlace()
+    {
+        Store store = new Store();
+        for(int count = 0; count < 5; count++)
+        {
+            store.addClass("Class" + count);
+        }
+        //Each class put in second place halves the room left there, until the classes are numbered again.
+        for(int count = 0; count < 30; count++)
+        {
+            String name = store.getClassList().get(2);
+            Class removed = store.findClass(name);
+            store.deleteClass(name);
+            store.addClass("Other" + count);
+            store.restoreClass(removed, 2);
+            store.deleteClass("Other" + count);
+            store.restoreClass(new Class("Front" + count), 0);
+            store.restoreClass(new Class("Between" + count), 1);
+            assertEquals(store.getClassList(), store.getSnapshot().getClassList());
+        }
+    }
+
+    @Test
+    public void testUnloadedClassesKeepWhatTheFileHad() throws IOException, ParseException
+    {
+        DiagramGenerator generator = new DiagramGenerator(5, 120);
+        generator.setRelationshipsPerClass(3);
+        Store generated = generator.generate();
+        List<String> original = ClassDescriptions.describe(generated.getClassStore());
+        File file = File.createTempFile("snapshot", ".umlb");
+        file.deleteOnExit();
+        new SaveAndLoad(generated, null, null).save(file.getPath());
+
+        Store opened = new Store();
+        new SaveAndLoad(opened, null, null).load(file.getPath());
+        Snapshot before = opened.getSnapshot();
+        //Edits to classes, and to the classes around them, before anything has been loaded.
+        opened.renameClass("Class3", "Renamed");
+        opened.deleteClass("Class10");
+        opened.addField("Class20", "int", "added", "public");
+        opened.deleteRelationship("Class30", opened.findClass("Class30").getRelationshipsToOther().keySet().iterator().next());
+        opened.moveClass("Class40", 1, 2);
+        assertEquals(original, ClassDescriptions.describe(before.getClasses()));
+        assertEquals(ClassDescriptions.describe(opened.getClassStore()), ClassDescriptions.describe(opened.getSnapshot().getClasses()));
+
+        //A first snapshot taken only after the edits has them too.
+        Store editedFirst = new Store();
+        new SaveAndLoad(editedFirst, null, null).load(file.getPath());
+        editedFirst.renameClass("Class3", "Renamed");
+        editedFirst.addField("Class20", "int", "added", "public");
+        Snapshot after = editedFirst.getSnapshot();
+        assertEquals(ClassDescriptions.describe(editedFirst.getClassStore()), ClassDescriptions.describe(after.getClasses()));
+
+        //A snapshot saves the same file the store would, even over the file its classes are loaded from.
+        Map<String, String> expected = new HashMap<String, String>();
+        for(String extension : new String[] {".json", ".umlb"})
+        {
+            File saved = extension.equals(".umlb") ? file : File.createTempFile("snapshot", extension);
+            saved.deleteOnExit();
+            SaveAndLoad saver = new SaveAndLoad(null, null, null);
+            saver.setSnapshot(opened.getSnapshot());
+            saver.save(saved.getPath());
+            Store loaded = new Store();
+            new SaveAndLoad(loaded, null, null).load(saved.getPath());
+            expected.put(extension, String.join("\n", ClassDescriptions.describe(loaded.getClassStore())));
+        }
+        assertEquals(String.join("\n", ClassDescriptions.describe(opened.getClassStore())), expected.get(".json"));
+        assertEquals(expected.get(".json"), expected.get(".umlb"));
+    }
+}
@@ -1,5 +1,6 @@
 
 import UML.controllers.StateController;
+import UML.controllers.Edit;
 import UML.model.Store;
 import java.util.Stack;
 import java.util.ArrayList;
@@ -18,8 +19,8 @@ public class StateControllerTest
     public void testStateController()
     {
         Store s = new Store();
-        Stack<Store> redoStack = new Stack<Store>();
-        Stack<Store> undoStack = new Stack<Store>();
+        Stack<Edit> redoStack = new Stack<Edit>();
+        Stack<Edit> undoStack = new Stack<Edit>();
 
         StateController sc = new StateController(s);
         StateController sc2 = new StateController(s, undoStack, redoStack);
@@ -35,7 +36,7 @@ public class StateControllerTest
 
         StateController sc = new StateController(s);
 
-        Stack<Store> undoStack = sc.getUndoStack();
+        Stack<Edit> undoStack = sc.getUndoStack();
 
         assertNotNull(undoStack);
         assertTrue(undoStack.empty());
@@ -45,15 +46,15 @@ public class StateControllerTest
     public void testSetUndoStack()
     {
         Store s = new Store();
-        Store cloneOne = (Store)s.clone();
+        Edit cloneOne = new Edit(store -> store.deleteClass("Test"), store -> store.addClass("Test"));
         StateController sc = new StateController(s);
 
-        Stack<Store> undoStack = new Stack<Store>();
+        Stack<Edit> undoStack = new Stack<Edit>();
         undoStack.push(cloneOne);
         sc.setUndoStack(undoStack);
 
-        Stack<Store> returnedStack = sc.getUndoStack();
-        Store returnedClone = returnedStack.pop();
+        Stack<Edit> returnedStack = sc.getUndoStack();
+        Edit returnedClone = returnedStack.pop();
 
         assertNotNull(returnedStack);
         assertEquals(undoStack, returnedStack);
@@ -67,7 +68,7 @@ public class StateControllerTest
 
         StateController sc = new StateController(s);
 
-        Stack<Store> redoStack = sc.getRedoStack();
+        Stack<Edit> redoStack = sc.getRedoStack();
 
         assertNotNull(redoStack);
         assertTrue(redoStack.empty());
@@ -77,16 +78,16 @@ public class StateControllerTest
     public void testSetRedoStack()
     {
         Store s = new Store();
-        Store cloneOne = (Store)s.clone();
+        Edit cloneOne = new Edit(store -> store.deleteClass("Test"), store -> store.addClass("Test"));
         StateController sc = new StateController(s);
 
-        Stack<Store> redoStack = new Stack<Store>();
+        Stack<Edit> redoStack = new Stack<Edit>();
         redoStack.push(cloneOne);
         sc.setRedoStack(redoStack);
 
-        Stack<Store> returnedStack = sc.getRedoStack();
+        Stack<Edit> returnedStack = sc.getRedoStack();
         assertFalse(returnedStack.empty());
-        Store returnedClone = returnedStack.pop();
+        Edit returnedClone = returnedStack.pop();
 
         assertNotNull(returnedStack);
         assertEquals(redoStack, returnedStack);
@@ -127,30 +128,44 @@ public class StateControllerTest
     public void testAddStateToRedo()
     {
         Store s = new Store();
-        Store newStore = new Store();
+        Edit newEdit = new Edit(store -> store.deleteClass("Test"), store -> store.addClass("Test"));
 
         StateController sc = new StateController(s);
-        sc.addStateToRedo(newStore);
-        Stack<Store> redoStack = sc.getRedoStack();
+        sc.addStateToRedo(newEdit);
+        Stack<Edit> redoStack = sc.getRedoStack();
         assertNotNull(redoStack);
         
-        Store returned = redoStack.pop();
-        assertEquals(newStore, returned);
+        Edit returned = redoStack.pop();
+        assertEquals(newEdit, returned);
     }
 
     @Test
     public void testAddStateToUndo()
     {
         Store s = new Store();
-        Store newStore = new Store();
+        Edit newEdit = new Edit(store -> store.deleteClass("Test"), store -> store.addClass("Test"));
 
         StateController sc = new StateController(s);
-        sc.addStateToUndo(newStore);
-        Stack<Store> undoStack = sc.getUndoStack();
+        sc.addStateToUndo(newEdit);
+        Stack<Edit> undoStack = sc.getUndoStack();
         assertNotNull(undoStack);
         
-        Store returned = undoStack.pop();
-        assertEquals(newStore, returned);
+        Edit returned = undoStack.pop();
+        assertEquals(newEdit, returned);
+    }
+
+    @Test
+    public void testAddEdit()
+    {
+        Store s = new Store();
+        StateController sc = new StateController(s);
+        sc.addStateToRedo(new Edit(store -> store.deleteClass("Test"), store -> store.addClass("Test")));
+
+        //A new edit goes on the undo stack and drops anything that could be redone.
+        Edit newEdit = new Edit(store -> store.deleteClass("Test2"), store -> store.addClass("Test2"));
+        sc.addEdit(newEdit);
+        assertEquals(newEdit, sc.getUndoStack().peek());
+        assertTrue(sc.getRedoStack().empty());
     }
 
     @Test
@@ -160,10 +175,11 @@ public class StateControllerTest
         Store s = new Store();
         StateController sc = new StateController(s);
 
-        ArrayList<Store> stores = getListOfStores(amtToTest);
-        for(Store store : stores)
+        ArrayList<Edit> edits = getListOfEdits(amtToTest);
+        for(int i = 0; i < amtToTest; i++)
         {
-            sc.addStateToUndo(store);
+            s.addClass("Test" + i);
+            sc.addStateToUndo(edits.get(i));
         }
 
         //Test that currentState = s;
@@ -172,14 +188,18 @@ public class StateControllerTest
         //The undo stack should not be empty
         assertFalse(sc.getUndoStack().empty());
 
-        for(int i = 0; i < amtToTest; i++)
+        for(int i = amtToTest - 1; i >= 0; i--)
         {
-            Store returnedStore = sc.Undo();
-            assertNotNull(returnedStore);
-            assertEquals(returnedStore, sc.getCurrentState());
+            Edit returnedEdit = sc.Undo();
+            assertEquals(edits.get(i), returnedEdit);
+            //The edit is reversed on the current state.
+            assertEquals(null, s.findClass("Test" + i));
+            assertEquals(returnedEdit, sc.getRedoStack().peek());
         }
 
         assertTrue(sc.getUndoStack().empty());
+        assertTrue(s.getClassStore().isEmpty());
+        assertEquals(amtToTest, sc.getRedoStack().size());
     }
 
     @Test
@@ -189,11 +209,11 @@ public class StateControllerTest
         Store s = new Store();
         StateController sc = new StateController(s);
 
-        ArrayList<Store> stores = getListOfStores(amtToTest);
+        ArrayList<Edit> edits = getListOfEdits(amtToTest);
 
-        for(Store store : stores)
+        for(int i = amtToTest - 1; i >= 0; i--)
         {
-            sc.addStateToRedo(store);
+            sc.addStateToRedo(edits.get(i));
         }
 
         //Test that currentState = s;
@@ -204,12 +224,15 @@ public class StateControllerTest
 
         for(int i = 0; i < amtToTest; i++)
         {
-            Store returnedStore = sc.Redo();
-            assertNotNull(returnedStore);
-            assertEquals(returnedStore, sc.getCurrentState());
+            Edit returnedEdit = sc.Redo();
+            assertEquals(edits.get(i), returnedEdit);
+            //The edit is applied again on the current state.
+            assertNotNull(s.findClass("Test" + i));
+            assertEquals(returnedEdit, sc.getUndoStack().peek());
         }
 
-        assertTrue(sc.getUndoStack().empty());
+        assertTrue(sc.getRedoStack().empty());
+        assertEquals(amtToTest, s.getClassStore().size());
     }
 
     @Test
@@ -219,11 +242,11 @@ public class StateControllerTest
         Store s = new Store();
         StateController sc = new StateController(s);
 
-        ArrayList<Store> stores = getListOfStores(amtToTest);
+        ArrayList<Edit> edits = getListOfEdits(amtToTest);
         
-        for(Store store : stores)
+        for(Edit edit : edits)
         {
-            sc.addStateToUndo(store);
+            sc.addStateToUndo(edit);
         }
         assertFalse(sc.getUndoStack().empty());
         sc.clearUndo();
@@ -237,25 +260,29 @@ public class StateControllerTest
         Store s = new Store();
         StateController sc = new StateController(s);
 
-        ArrayList<Store> stores = getListOfStores(amtToTest);
+        ArrayList<Edit> edits = getListOfEdits(amtToTest);
         
-        for(Store store : stores)
+        for(Edit edit : edits)
         {
-            sc.addStateToRedo(store);
+            sc.addStateToRedo(edit);
         }
         assertFalse(sc.getRedoStack().empty());
         sc.clearRedo();
         assertTrue(sc.getRedoStack().empty());
     }
 
-    private ArrayList<Store> getListOfStores(int amtOfStores)
+    /**
+     * Makes edits that each add the class "Test" + i.
+     */
+    private ArrayList<Edit> getListOfEdits(int amtOfEdits)
     {
-        ArrayList<Store> stores = new ArrayList<Store>();
-        for(int i = 0; i < amtOfStores; i++)
+        ArrayList<Edit> edits = new ArrayList<Edit>();
+        for(int i = 0; i < amtOfEdits; i++)
         {
-            stores.add(new Store());
+            String name = "Test" + i;
+            edits.add(new Edit(store -> store.deleteClass(name), store -> store.addClass(name)));
         }
 
-        return stores;
+        return edits;
     }
 }
@@ -0,0 +1,285 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import org.junit.Test;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.json.simple.parser.ParseException;
+import UML.controllers.EditJournal;
+import UML.model.Class;
+import UML.model.ClassSnapshot;
+import UML.model.DiagramGenerator;
+import UML.model.IStore;
+import UML.model.ReadableClass;
+import UML.model.RelationshipType;
+import UML.model.Snapshot;
+import UML.model.Store;
+
+public class StoreConcurrencyTest {
+
+    //The number of threads editing at once.
+    private static final int THREADS = 8;
+
+    /**
+     * A piece of work for one of the threads, given the thread's number.
+     */
+    private interface Work
+    {
+        void run(int thread) throws Exception;
+    }
+
+    /**
+     * Runs the work on every thread, started together, and rethrows the first failure once they are done.
+     */
+    private static void onThreads(int count, Work work) throws Throwable
+    {
+        CountDownLatch start = new CountDownLatch(1);
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<Throwable>();
+        ArrayList<Thread> threads = new ArrayList<Thread>();
+        for(int number = 0; number < count; number++)
+        {
+            int thread = number;
+            threads.add(new Thread(() -> {
+                try
+                {
+                    start.await();
+                    work.run(thread);
+                }
+                catch(Throwable failure)
+                {
+                    failures.add(failure);
+                }
+            }));
+        }
+        for(Thread thread : threads)
+        {
+            thread.start();
+        }
+        start.countDown();
+        for(Thread thread : threads)
+        {
+            thread.join();
+        }
+        if(!failures.isEmpty())
+            throw failures.peek();
+    }
+
+    /**
+     * Checks that both ends of every relationship in a snapshot agree, and returns how many there are.
+     */
+    private static int checkRelationships(Snapshot snapshot)
+    {
+        int count = 0;
+        for(ClassSnapshot aClass : snapshot.getClasses())
+        {
+            for(Map.Entry<String, RelationshipType> entry : aClass.getRelationshipsToOther().entrySet())
+            {
+                ClassSnapshot other = snapshot.findClass(entry.getKey());
+                assertNotNull(aClass.getName() + " -> " + entry.getKey(), other);
+                assertEquals(entry.getValue(), other.getRelationshipsFromOther().get(aClass.getName()));
+                count++;
+            }
+            for(String from : aClass.getRelationshipsFromOther().keySet())
+            {
+                assertTrue(snapshot.findClass(from).getRelationshipsToOther().containsKey(aClass.getName()));
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void testEditsToOneClassFromManyThreads() throws Throwable
+    {
+        Store store = new Store();
+        store.addClass("Shared");
+        store.getSnapshot();
+        onThreads(THREADS, thread -> {
+            for(int count = 0; count < 500; count++)
+            {
+                assertTrue(store.addField("Shared", "int", "field" + thread + "_" + count, "private"));
+                store.moveClass("Shared", thread, count);
+            }
+        });
+        assertEquals(THREADS * 500, store.findClass("Shared").getFields().size());
+        assertEquals(THREADS * 500, store.getSnapshot().findClass("Shared").getFields().size());
+    }
+
+    @Test
+    public void testOneThreadWinsEachRelationship() throws Throwable
+    {
+        Store store = new Store();
+        int pairs = 300;
+        for(int pair = 0; pair < pairs; pair++)
+        {
+            store.addClass("From" + pair);
+            store.addClass("To" + pair);
+        }
+        AtomicIntegerArray wins = new AtomicIntegerArray(pairs);
+        onThreads(THREADS, thread -> {
+            for(int pair = 0; pair < pairs; pair++)
+            {
+                //Half the threads try the other way round, which is the same pair of classes.
+                boolean added = thread % 2 == 0
+                        ? store.addRelationship("From" + pair, "To" + pair, RelationshipType.AGGREGATION)
+                        : store.addRelationship("To" + pair, "From" + pair, RelationshipType.GENERALIZATION);
+                if(added)
+                    wins.incrementAndGet(pair);
+            }
+        });
+        for(int pair = 0; pair < pairs; pair++)
+        {
+            assertEquals(1, wins.get(pair));
+        }
+        assertEquals(pairs, store.getRelationshipGraph().edgeCount());
+        assertEquals(pairs, checkRelationships(store.getSnapshot()));
+    }
+
+    @Test(timeout = 60000)
+    public void testListenersTakeSnapshotsDuringEdits() throws Throwable
+    {
+        Store store = new DiagramGenerator(11, 64).generate();
+        List<String> names = store.getClassList();
+        //A listener told about an edit holds the store's read lock while it asks for a snapshot.
+        IStore listener = mock(IStore.class);
+        doAnswer(call -> store.getSnapshot() != null).when(listener).addField(anyString(), anyString(), anyString(), anyString());
+        store.addListener(listener);
+        onThreads(THREADS, thread -> {
+            for(int count = 0; count < 300; count++)
+            {
+                if(thread == 0 && count % 10 == 0)
+                {
+                    //A batch leaves the snapshot to be built by whoever asks for it next.
+                    ArrayList<Class> batch = new ArrayList<Class>();
+                    batch.add(new Class("Batch" + count));
+                    store.addClasses(batch);
+                }
+                else
+                    store.addField(names.get((thread * 7 + count) % names.size()), "int", "f" + thread + "_" + count, "public");
+            }
+        });
+        assertEquals(ClassDescriptions.describe(store.getClassStore()), ClassDescriptions.describe(store.getSnapshot().getClasses()));
+    }
+
+    @Test
+    public void testMixedEditsMatchTheJournal() throws Throwable
+    {
+        DiagramGenerator generator = new DiagramGenerator(9, 100);
+        generator.setRelationshipsPerClass(2);
+        Store store = generator.generate();
+        File file = File.createTempFile("concurrent", ".journal");
+        file.deleteOnExit();
+        EditJournal journal = new EditJournal(file);
+        journal.start(null);
+        //The journal has no saved file to start from, so its changes are replayed onto the same generated diagram.
+        Store replayed = generator.generate();
+        store.setJournal(journal);
+        store.getSnapshot();
+
+        AtomicBoolean editing = new AtomicBoolean(true);
+        Thread reader = new Thread(() -> {
+            //Every snapshot published along the way holds whole changes.
+            while(editing.get())
+            {
+                Snapshot snapshot = store.getSnapshot();
+                assertEquals(snapshot.size(), snapshot.getClasses().size());
+                checkRelationships(snapshot);
+            }
+        });
+        ConcurrentLinkedQueue<Throwable> readerFailures = new ConcurrentLinkedQueue<Throwable>();
+        reader.setUncaughtExceptionHandler((thread, failure) -> readerFailures.add(failure));
+        reader.start();
+
+        onThreads(THREADS, thread -> {
+            Random random = new Random(thread);
+            //Each thread renames and deletes only classes it added, and edits the members of generated ones.
+            ArrayList<String> own = new ArrayList<String>();
+            for(int count = 0; count < 400; count++)
+            {
+                String generated = DiagramGenerator.className(random.nextInt(100));
+                String other = DiagramGenerator.className(random.nextInt(100));
+                String mine = own.isEmpty() ? null : own.get(random.nextInt(own.size()));
+                switch(random.nextInt(9))
+                {
+                    case 0:
+                        String added = "Thread" + thread + "_" + count;
+                        if(store.addClass(added))
+                            own.add(added);
+                        break;
+                    case 1:
+                        if(mine != null && store.deleteClass(mine))
+                            own.remove(mine);
+                        break;
+                    case 2:
+                        String renamed = "Thread" + thread + "_renamed" + count;
+                        if(mine != null && store.renameClass(mine, renamed))
+                            own.set(own.indexOf(mine), renamed);
+                        break;
+                    case 3:
+                        store.addField(generated, "int", "field" + thread + "_" + count, "private");
+                        break;
+                    case 4:
+                        store.addMethod(generated, "void", "method" + thread + "_" + count, new ArrayList<String>(), "public");
+                        break;
+                    case 5:
+                        store.moveClass(generated, thread, count);
+                        break;
+                    case 6:
+                        if(mine != null)
+                            store.addRelationship(mine, generated, RelationshipType.values()[count % 4]);
+                        break;
+                    case 7:
+                        if(!generated.equals(other))
+                            store.addRelationship(generated, other, RelationshipType.COMPOSITION);
+                        break;
+                    default:
+                        store.deleteRelationship(generated, other);
+                        break;
+                }
+            }
+        });
+        editing.set(false);
+        reader.join();
+        if(!readerFailures.isEmpty())
+            throw readerFailures.peek();
+        journal.close();
+
+        //The index, the graph and the snapshot all agree with the class list.
+        for(String name : store.getClassList())
+        {
+            assertEquals(name, store.findClass(name).getName());
+        }
+        int relationships = 0;
+        for(ReadableClass aClass : store.getClassStore())
+        {
+            relationships += aClass.getRelationshipsToOther().size();
+        }
+        assertEquals(relationships, store.getRelationshipGraph().edgeCount());
+        assertEquals(relationships, checkRelationships(store.getSnapshot()));
+        assertEquals(ClassDescriptions.describe(store.getClassStore()), ClassDescriptions.describe(store.getSnapshot().getClasses()));
+
+        //Each class's changes reached the journal in the order they were made, so replaying it gives the same store.
+        replayJournal(file, replayed);
+        assertEquals(ClassDescriptions.describe(store.getClassStore()), ClassDescriptions.describe(replayed.getClassStore()));
+    }
+
+    /**
+     * Replays the changes in a journal onto a store.
+     */
+    private static void replayJournal(File file, Store store) throws IOException, ParseException
+    {
+        EditJournal reopened = new EditJournal(file);
+        assertTrue(reopened.recover(store) > 0);
+        reopened.close();
+    }
+}
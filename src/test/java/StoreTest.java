@@ -89,8 +89,13 @@ public class StoreTest {
         store.addRelationship("Extra", "NewTest", RelationshipType.GENERALIZATION);
         store.addRelationship("Extra", "SecondTest", RelationshipType.COMPOSITION);
 
+        //Build the strings first so the rename has to refresh them.
+        store.findClass("Extra").toString();
+        store.findClass("SecondTest").toString();
         store.renameClass("NewTest", "TestAgain");
         assertTrue(store.getClassList().contains("TestAgain"));
+        assertTrue(store.findClass("Extra").toString().contains("TestAgain=GENERALIZATION"));
+        assertTrue(store.findClass("SecondTest").toString().contains("TestAgain=AGGREGATION"));
 
         //Check that class still has its relationships.
         Class theClass = store.findClass("TestAgain");
@@ -134,6 +139,23 @@ public class StoreTest {
         assertTrue(stringFields.contains("+ int num"));
     }
 
+    @Test
+    public void testEditMissingClass()
+    {
+        Store store = new Store();
+        store.addClass("TestClass");
+        ArrayList<String> params = new ArrayList<String>();
+
+        //Edits to a class that isn't there fail without changing anything.
+        assertFalse(store.addField("Missing", "int", "num", "public"));
+        assertFalse(store.deleteField("Missing", "num"));
+        assertFalse(store.changeFieldType("Missing", "num", "long"));
+        assertFalse(store.addMethod("Missing", "void", "run", params, "public"));
+        assertFalse(store.addParam("Missing", "void", "run", params, "public", "int", "count"));
+        assertEquals(1, store.getClassStore().size());
+        assertTrue(store.findClass("TestClass").getFields().isEmpty());
+    }
+
     @Test
     public void testGetFieldList()
     {
@@ -665,6 +687,48 @@ public class StoreTest {
         
     }
 
+    @Test
+    public void testFindClassIndex()
+    {
+        Store store = new Store();
+        store.addClass("A");
+        store.addClass("B");
+        store.addClass("C");
+
+        //Renamed classes are found by the new name only.
+        store.renameClass("B", "NewB");
+        assertEquals(null, store.findClass("B"));
+        assertEquals("NewB", store.findClass("NewB").getName());
+
+        //Deleted classes are no longer found.
+        store.deleteClass("A");
+        assertEquals(null, store.findClass("A"));
+
+        //Insertion order of the class list is kept.
+        assertEquals("NewB", store.getClassList().get(0));
+        assertEquals("C", store.getClassList().get(1));
+
+        //A clone has its own index.
+        Store clone = (Store)store.clone();
+        clone.renameClass("C", "D");
+        assertNotNull(store.findClass("C"));
+        assertEquals(null, clone.findClass("C"));
+        assertNotNull(clone.findClass("D"));
+
+        //Setting a new class list replaces the index.
+        ArrayList<Class> classAL = new ArrayList<Class>();
+        classAL.add(new Class("test"));
+        store.setClassStore(classAL);
+        assertEquals(null, store.findClass("C"));
+        assertNotNull(store.findClass("test"));
+
+        //Edits made directly to the list are still picked up.
+        store.getClassStore().add(new Class("direct"));
+        assertNotNull(store.findClass("direct"));
+        store.getClassStore().clear();
+        assertEquals(null, store.findClass("test"));
+    }
+
     @Test
     public void testGetMethodList()
     {
@@ -832,4 +896,49 @@ public class StoreTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testAddClasses()
+    {
+        Store store = new Store();
+        store.addClass("Existing");
+
+        ArrayList<Parameter> params = new ArrayList<Parameter>();
+        params.add(new Parameter("int", "a"));
+        ArrayList<Parameter> renamedParams = new ArrayList<Parameter>();
+        renamedParams.add(new Parameter("int", "b"));
+
+        Class a = new Class("A");
+        a.getFields().add(new Field("int", "x", "public"));
+        a.getFields().add(new Field("String", "x", "private"));
+        a.getMethods().add(new Method("void", "run", params, "public"));
+        a.getMethods().add(new Method("void", "run", renamedParams, "private"));
+        a.getRelationshipsToOther().put("B", RelationshipType.AGGREGATION);
+        a.getRelationshipsToOther().put("A", RelationshipType.COMPOSITION);
+        a.getRelationshipsToOther().put("Missing", RelationshipType.COMPOSITION);
+        Class b = new Class("B");
+        b.getRelationshipsFromOther().put("A", RelationshipType.AGGREGATION);
+        b.getRelationshipsFromOther().put("Existing", RelationshipType.REALIZATION);
+        Class duplicate = new Class("Existing");
+
+        ArrayList<Class> classes = new ArrayList<Class>();
+        classes.add(a);
+        classes.add(b);
+        classes.add(duplicate);
+
+        //The class that was already in the store is skipped.
+        assertFalse(store.addClasses(classes));
+        assertEquals(3, store.getClassStore().size());
+        assertEquals("B", store.getClassList().get(2));
+
+        //Duplicate field names and method signatures are dropped.
+        assertEquals(1, store.findClass("A").getFields().size());
+        assertEquals(1, store.findClass("A").getMethods().size());
+
+        //Relationships are linked at both ends, and ones to itself or a missing class are dropped.
+        assertEquals(1, store.findClass("A").getRelationshipsToOther().size());
+        assertEquals(RelationshipType.AGGREGATION, store.findClass("A").getRelationshipsToOther().get("B"));
+        assertEquals(RelationshipType.AGGREGATION, store.findClass("B").getRelationshipsFromOther().get("A"));
+        assertEquals(RelationshipType.REALIZATION, store.findClass("Existing").getRelationshipsToOther().get("B"));
+        assertTrue(store.addRelationship("Existing", "A", RelationshipType.GENERALIZATION));
+    }
+}
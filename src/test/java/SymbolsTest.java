@@ -0,0 +1,73 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import org.junit.Test;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import org.json.simple.parser.ParseException;
+import UML.controllers.SaveAndLoad;
+import UML.model.Field;
+import UML.model.RelationshipType;
+import UML.model.Store;
+import UML.model.Symbols;
+
+public class SymbolsTest {
+
+    @Test
+    public void testInternReturnsOneCopy()
+    {
+        String first = new String("SymbolsTestName");
+        String second = new String("SymbolsTestName");
+        assertSame(Symbols.intern(first), Symbols.intern(second));
+        assertSame(first, Symbols.intern(second));
+        assertNull(Symbols.intern(null));
+    }
+
+    @Test
+    public void testStoreSharesNamesAndTypes()
+    {
+        Store store = new Store();
+        store.addClass("Left");
+        store.addClass("Right");
+        //Built at run time, so only the symbol table can make them the same String.
+        String type = new StringBuilder("Sym").append("Type").toString();
+        store.addField("Left", type, "value", "private");
+        store.addField("Right", new String(type), "value", "private");
+        store.addMethod("Left", "void", "run", new ArrayList<String>(Arrays.asList("SymType count")), "public");
+        Field left = store.findClass("Left").getFields().iterator().next();
+        Field right = store.findClass("Right").getFields().iterator().next();
+        assertSame(left.getType(), right.getType());
+        assertSame(left.getName(), right.getName());
+        assertSame(left.getType(), store.findClass("Left").getMethods().iterator().next().getParams().get(0).getType());
+
+        store.addRelationship("Left", "Right", RelationshipType.AGGREGATION);
+        store.renameClass("Right", new String("Renamed"));
+        String key = store.findClass("Left").getRelationshipsToOther().keySet().iterator().next();
+        assertSame(store.findClass("Renamed").getName(), key);
+    }
+
+    @Test
+    public void testLoadedNamesAreShared() throws IOException, ParseException
+    {
+        Store store = new Store();
+        store.addClass("Loaded");
+        store.addClass("Other");
+        store.addField("Loaded", "SymLoaded", "first", "public");
+        store.addField("Other", "SymLoaded", "second", "public");
+        store.addRelationship("Loaded", "Other", RelationshipType.COMPOSITION);
+        for(String extension : new String[] {".json", ".umlb"})
+        {
+            File file = File.createTempFile("symbols", extension);
+            file.deleteOnExit();
+            new SaveAndLoad(store, null, null).save(file.getPath());
+            Store loaded = new Store();
+            new SaveAndLoad(loaded, null, null).load(file.getPath());
+            assertSame(Symbols.intern("SymLoaded"), loaded.findClass("Loaded").getFields().iterator().next().getType());
+            assertSame(loaded.findClass("Other").getFields().iterator().next().getType(), loaded.findClass("Loaded").getFields().iterator().next().getType());
+            assertSame(loaded.findClass("Other").getName(), loaded.findClass("Loaded").getRelationshipsToOther().keySet().iterator().next());
+            assertEquals(1, loaded.findClass("Other").getRelationshipsFromOther().size());
+        }
+    }
+}
@@ -46,8 +46,304 @@ public class TestGraphicalView
     {
         c.createClass("Test");
         UML.model.Class dasClass = new UML.model.Class("Test");
-        verify(gv).createClass(dasClass.toString(),0,0);
-        verify(gv, atLeastOnce()).getPanels();
+        verify(gv).createClass("Test", dasClass.toString(),0,0);
+        //Only the new panel is added, the others are left alone.
+        verify(gv, never()).deleteClass(anyString());
+    }
+
+    @Test
+    public void testEditUpdatesOnlyThatClass()
+    {
+        c.createClass("Test1");
+        c.createClass("Test2");
+        c.createField("Test1", "int", "count", "public");
+        verify(gv).updateClass("Test1", "Test1", c.getStore().findClass("Test1").toString());
+        verify(gv, never()).updateClass(eq("Test2"), anyString(), anyString());
+        verify(gv, never()).deleteClass(anyString());
+    }
+
+    @Test
+    public void testPanelKeysSurviveEdits()
+    {
+        //A real view without a window, so the panels can be checked.
+        GraphicalView view = new GraphicalView();
+        view.makeDrawPanel();
+        Controller controller = new Controller(new Store(), view);
+        controller.createClass("Test1");
+        controller.createClass("Test2");
+        controller.addRelationship("Test1", "Test2", RelationshipType.AGGREGATION);
+        javax.swing.JPanel panel = view.getPanels().get("Test1");
+        assertNotNull(panel);
+        assertEquals("Test1", panel.getName());
+
+        //An edit keeps the same panel under the same key.
+        controller.createField("Test1", "int", "count", "public");
+        assertTrue(panel == view.getPanels().get("Test1"));
+        assertEquals(2, view.getPanels().size());
+
+        //A rename moves the panel and its relationship to the new name.
+        controller.renameClass("Test1", "Renamed");
+        assertTrue(panel == view.getPanels().get("Renamed"));
+        assertEquals("Renamed", panel.getName());
+        assertEquals(2, view.getPanels().size());
+        assertEquals("AGGREGATION", view.getRelationships().get(java.util.Arrays.asList("Renamed", "Test2")));
+        assertEquals(1, view.getRelationships().size());
+    }
+
+    @Test
+    public void testLinesFollowMovedPanels()
+    {
+        GraphicalView view = new GraphicalView();
+        view.makeDrawPanel();
+        Controller controller = new Controller(new Store(), view);
+        controller.createClass("From");
+        controller.createClass("To");
+        controller.addRelationship("From", "To", RelationshipType.AGGREGATION);
+        javax.swing.JPanel from = view.getPanels().get("From");
+        javax.swing.JPanel to = view.getPanels().get("To");
+        from.setLocation(0, 0);
+        to.setLocation(600, 0);
+
+        DrawPanel dp = view.getDrawPanel();
+        dp.setSize(1000, 1000);
+        java.awt.image.BufferedImage image = new java.awt.image.BufferedImage(1000, 1000, java.awt.image.BufferedImage.TYPE_INT_RGB);
+        java.awt.Graphics2D g = image.createGraphics();
+        dp.paintComponent(g);
+        int x = (from.getWidth() + 600) / 2;
+        int firstY = dp.getClosest(0, from.getWidth(), 0, from.getHeight(), 600, 600 + to.getWidth(), 0, to.getHeight())[1];
+        assertEquals(java.awt.Color.BLACK.getRGB(), image.getRGB(x, firstY));
+
+        //Dragging a panel moves its line on the next paint, once the move is reported as a drag does.
+        java.awt.Rectangle oldBounds = to.getBounds();
+        to.setLocation(600, 20);
+        dp.panelMoved("To", oldBounds);
+        dp.paintComponent(g);
+        int secondY = dp.getClosest(0, from.getWidth(), 0, from.getHeight(), 600, 600 + to.getWidth(), 20, 20 + to.getHeight())[1];
+        assertTrue(firstY != secondY);
+        assertEquals(java.awt.Color.BLACK.getRGB(), image.getRGB(x, secondY));
+        assertTrue(image.getRGB(x, firstY) != java.awt.Color.BLACK.getRGB());
+
+        //A deleted relationship is no longer drawn.
+        controller.deleteRelationship("From", "To");
+        dp.paintComponent(g);
+        assertTrue(image.getRGB(x, secondY) != java.awt.Color.BLACK.getRGB());
+        g.dispose();
+    }
+
+    @Test
+    public void testDragRepaintsOnlyNearby()
+    {
+        GraphicalView view = new GraphicalView();
+        view.makeDrawPanel();
+        Controller controller = new Controller(new Store(), view);
+        controller.createClass("From");
+        controller.createClass("To");
+        controller.createClass("Far");
+        controller.addRelationship("From", "To", RelationshipType.AGGREGATION);
+        view.getPanels().get("From").setLocation(0, 0);
+        view.getPanels().get("To").setLocation(600, 0);
+        javax.swing.JPanel far = view.getPanels().get("Far");
+        far.setLocation(3000, 3000);
+
+        DrawPanel dp = view.getDrawPanel();
+        dp.setSize(5000, 5000);
+        java.awt.image.BufferedImage image = new java.awt.image.BufferedImage(100, 100, java.awt.image.BufferedImage.TYPE_INT_RGB);
+        java.awt.Graphics2D g = image.createGraphics();
+        dp.paint(g);
+        assertEquals(1, dp.getFrameCount());
+
+        //Moving a panel dirties where it was, where it is, and its line, but not unrelated panels.
+        javax.swing.JPanel to = view.getPanels().get("To");
+        java.awt.Rectangle oldBounds = to.getBounds();
+        to.setLocation(600, 20);
+        java.awt.Rectangle dirty = dp.panelMoved("To", oldBounds);
+        assertTrue(dirty.contains(oldBounds));
+        assertTrue(dirty.contains(to.getBounds()));
+        assertTrue(dirty.contains(view.getPanels().get("From").getWidth(), 10));
+        assertTrue(!dirty.intersects(far.getBounds()));
+
+        dp.paint(g);
+        assertEquals(2, dp.getFrameCount());
+        assertTrue(dp.getLongestFrameMillis() >= dp.getAverageFrameMillis());
+        dp.resetFrameTimes();
+        assertEquals(0, dp.getFrameCount());
+        g.dispose();
+    }
+
+    @Test
+    public void testZoomOnlyScalesTheDrawing()
+    {
+        GraphicalView view = new GraphicalView();
+        view.makeDrawPanel();
+        Store store = new Store();
+        Controller controller = new Controller(store, view);
+        controller.createClass("From");
+        controller.createClass("To");
+        controller.addRelationship("From", "To", RelationshipType.AGGREGATION);
+        controller.moveClass("To", 0, 0, 600, 0);
+        view.getPanels().get("To").setLocation(600, 0);
+        javax.swing.JPanel to = view.getPanels().get("To");
+        java.awt.Rectangle toBounds = to.getBounds();
+        DrawPanel dp = view.getDrawPanel();
+        dp.setBackground(java.awt.Color.PINK);
+        dp.setSize(1000, 1000);
+
+        //Wheel notches are saved up and applied as one zoom.
+        ScrollWheelController wheel = new ScrollWheelController(store, view, controller);
+        java.awt.event.MouseWheelEvent notch = new java.awt.event.MouseWheelEvent(dp, java.awt.event.MouseWheelEvent.MOUSE_WHEEL, 0, 0, 0, 0, 0, false,
+            java.awt.event.MouseWheelEvent.WHEEL_UNIT_SCROLL, 1, 1);
+        for(int count = 0; count < 7; count++)
+        {
+            wheel.mouseWheelMoved(notch);
+        }
+        assertEquals(0, dp.getZoomLevel());
+        wheel.applyZoom();
+        assertEquals(-7, dp.getZoomLevel());
+        double zoom = dp.getZoom();
+        assertTrue(zoom < 0.6);
+
+        //The panels and the model keep their coordinates, and the panels are hidden for the draw panel to draw.
+        assertEquals(toBounds, to.getBounds());
+        assertEquals(600, (int)store.findClass("To").getLocation().getWidth());
+        assertTrue(!to.isVisible());
+
+        java.awt.image.BufferedImage image = new java.awt.image.BufferedImage(1000, 1000, java.awt.image.BufferedImage.TYPE_INT_RGB);
+        java.awt.Graphics2D g = image.createGraphics();
+        dp.paint(g);
+        g.dispose();
+        int pink = java.awt.Color.PINK.getRGB();
+        int scaledX = (int)((toBounds.x + toBounds.width / 2) * zoom);
+        int scaledY = (int)((toBounds.y + toBounds.height / 2) * zoom);
+        assertTrue(image.getRGB(scaledX, scaledY) != pink);
+        assertEquals(pink, image.getRGB(toBounds.x + toBounds.width - 1, scaledY));
+        assertTrue(to == dp.panelAt(new java.awt.Point(scaledX, scaledY)));
+
+        //Dragging the drawn panel moves it by the mouse movement scaled back to the diagram.
+        MouseClickAndDragController drag = new MouseClickAndDragController(store, view, controller);
+        drag.mousePressed(new java.awt.event.MouseEvent(dp, java.awt.event.MouseEvent.MOUSE_PRESSED, 0, 0, scaledX, scaledY, 1, false, java.awt.event.MouseEvent.BUTTON1));
+        drag.mouseDragged(new java.awt.event.MouseEvent(dp, java.awt.event.MouseEvent.MOUSE_DRAGGED, 0, 0, scaledX + 50, scaledY, 1, false));
+        drag.mouseReleased(new java.awt.event.MouseEvent(dp, java.awt.event.MouseEvent.MOUSE_RELEASED, 0, 0, scaledX + 50, scaledY, 1, false, java.awt.event.MouseEvent.BUTTON1));
+        int movedX = 600 + (int)Math.round(50 / zoom);
+        assertEquals(movedX, to.getX());
+        assertEquals(movedX, (int)store.findClass("To").getLocation().getWidth());
+
+        //Zooming back shows the real panels again at exactly the real size.
+        dp.setZoomLevel(0, null);
+        assertEquals(1.0, dp.getZoom(), 0);
+        assertTrue(to.isVisible());
+        assertEquals(movedX, to.getX());
+    }
+
+    @Test
+    public void testRetainedModeDrawsClassBoxes()
+    {
+        GraphicalView view = new GraphicalView();
+        view.makeDrawPanel();
+        view.setRetainedMode(true);
+        Store store = new Store();
+        Controller controller = new Controller(store, view);
+        controller.createClass("From");
+        controller.createClass("To");
+        controller.createField("From", "int", "count", "public");
+        controller.addRelationship("From", "To", RelationshipType.AGGREGATION);
+        controller.moveClass("To", 0, 0, 600, 0);
+        view.getPanels().get("To").setLocation(600, 0);
+
+        //No Swing components are made for the classes, only bare panels holding their bounds.
+        DrawPanel dp = view.getDrawPanel();
+        assertEquals(0, dp.getComponentCount());
+        javax.swing.JPanel from = view.getPanels().get("From");
+        javax.swing.JPanel to = view.getPanels().get("To");
+        assertEquals(0, from.getComponentCount());
+        assertTrue(from.getWidth() > 0 && from.getHeight() > 0);
+        assertTrue(view.hasClassBox("From"));
+
+        //A field makes the box taller.
+        int height = from.getHeight();
+        controller.createField("From", "int", "total", "public");
+        assertTrue(from.getHeight() > height);
+
+        dp.setBackground(java.awt.Color.PINK);
+        dp.setSize(1000, 1000);
+        java.awt.image.BufferedImage image = new java.awt.image.BufferedImage(1000, 1000, java.awt.image.BufferedImage.TYPE_INT_RGB);
+        java.awt.Graphics2D g = image.createGraphics();
+        dp.paint(g);
+        int pink = java.awt.Color.PINK.getRGB();
+        assertTrue(image.getRGB(from.getWidth() / 2, from.getHeight() - 3) != pink);
+        assertTrue(image.getRGB(600 + to.getWidth() / 2, to.getHeight() - 3) != pink);
+        int lineY = dp.getClosest(0, from.getWidth(), 0, from.getHeight(), 600, 600 + to.getWidth(), 0, to.getHeight())[1];
+        assertEquals(java.awt.Color.BLACK.getRGB(), image.getRGB((from.getWidth() + 600) / 2, lineY));
+
+        //The draw panel finds, selects and drags the box under the mouse.
+        java.awt.Point inTo = new java.awt.Point(610, 5);
+        assertTrue(to == dp.panelAt(inTo));
+        assertEquals(null, dp.panelAt(new java.awt.Point(500, 900)));
+        MouseClickAndDragController drag = new MouseClickAndDragController(store, view, controller);
+        drag.mousePressed(new java.awt.event.MouseEvent(dp, java.awt.event.MouseEvent.MOUSE_PRESSED, 0, 0, 610, 5, 1, false, java.awt.event.MouseEvent.BUTTON1));
+        assertEquals("To", view.getSelectedClass());
+        drag.mouseDragged(new java.awt.event.MouseEvent(dp, java.awt.event.MouseEvent.MOUSE_DRAGGED, 0, 0, 640, 25, 1, false));
+        drag.mouseReleased(new java.awt.event.MouseEvent(dp, java.awt.event.MouseEvent.MOUSE_RELEASED, 0, 0, 640, 25, 1, false, java.awt.event.MouseEvent.BUTTON1));
+        assertEquals(630, to.getX());
+        assertEquals(20, to.getY());
+        assertEquals(630, (int)store.findClass("To").getLocation().getWidth());
+        g.dispose();
+
+        //Every class shares one menu, with one listener per item, whose commands name the class it is opened on.
+        javax.swing.JPopupMenu menu = view.getClassMenu("To");
+        javax.swing.JMenuItem createField = (javax.swing.JMenuItem) menu.getComponent(0);
+        assertEquals("CreateField To", createField.getActionCommand());
+        assertEquals(1, createField.getActionListeners().length);
+        assertTrue(menu == view.getClassMenu("From"));
+        assertEquals("CreateField From", createField.getActionCommand());
+
+        //A rename keeps the box and its bounds under the new name.
+        controller.renameClass("To", "Renamed");
+        assertTrue(to == view.getPanels().get("Renamed"));
+        assertTrue(view.hasClassBox("Renamed"));
+        assertTrue(!view.hasClassBox("To"));
+        assertEquals("Renamed", view.getSelectedClass());
+        controller.deleteClass("Renamed");
+        assertTrue(!view.hasClassBox("Renamed"));
+        assertEquals(null, view.getSelectedClass());
+    }
+
+    @Test
+    public void testOpenedClassesLoadWhenShown() throws Exception
+    {
+        DiagramGenerator generator = new DiagramGenerator(5, 400);
+        generator.setColumns(20);
+        new SaveAndLoad(generator.generate(), null, null).save("LazyViewTest.umlb");
+        GraphicalView view = new GraphicalView();
+        view.makeDrawPanel();
+        view.setRetainedMode(true);
+        Store store = new Store();
+        Controller controller = new Controller(store, view);
+        controller.load("LazyViewTest.umlb");
+        new java.io.File("LazyViewTest.umlb").delete();
+
+        //Building the view only reads the relationships, to draw their lines.
+        assertEquals(400, view.getPanels().size());
+        for(UML.model.Class aClass : store.getClassStore())
+        {
+            assertTrue(!aClass.isLoaded());
+        }
+
+        //Painting the top left corner loads and measures only the classes in it.
+        DrawPanel dp = view.getDrawPanel();
+        dp.setSize(5000, 8000);
+        java.awt.image.BufferedImage image = new java.awt.image.BufferedImage(600, 600, java.awt.image.BufferedImage.TYPE_INT_RGB);
+        java.awt.Graphics2D g = image.createGraphics();
+        g.setClip(0, 0, 600, 600);
+        dp.paint(g);
+        g.dispose();
+        assertTrue(store.findClass("Class0").isLoaded());
+        assertTrue(!store.findClass("Class399").isLoaded());
+        javax.swing.JPanel first = view.getPanels().get("Class0");
+        assertTrue(first.getWidth() != 150 || first.getHeight() != 100);
+
+        //Editing a class that was never shown loads it first.
+        controller.createField("Class399", "int", "added", "public");
+        assertEquals(6, store.findClass("Class399").getFields().size());
     }
 
     @Test
@@ -79,11 +375,95 @@ public class TestGraphicalView
         c.createClass("Test1");
         c.createClass("Test2");
         c.addRelationship("Test1", "Test2", UML.model.RelationshipType.GENERALIZATION);
-        //Get the created classes from the store
-        UML.model.Class chungusTest = (UML.model.Class)c.getStore().getClassStore().get(0);
-        UML.model.Class biggerChungusTest = (UML.model.Class)c.getStore().getClassStore().get(1);
-        
-        //Verify that happens in the view
-        verify(gv).addRelationship(chungusTest.toString(), biggerChungusTest.toString(), "GENERALIZATION");
-    }
-}
\ No newline at end of file
+
+        //Verify that happens in the view, by class name
+        verify(gv).addRelationship("Test1", "Test2", "GENERALIZATION");
+    }
+
+    /**
+     * Waits for the save or load running in the background, and for the view to be built, to finish.
+     */
+    private void waitUntilIdle(Controller controller) throws Exception
+    {
+        boolean[] busy = { true };
+        for(int tries = 0; busy[0] && tries < 2000; tries++)
+        {
+            javax.swing.SwingUtilities.invokeAndWait(() -> busy[0] = controller.isBusy());
+            Thread.sleep(5);
+        }
+        assertTrue(!busy[0]);
+    }
+
+    @Test
+    public void testLoadInBackground() throws Exception
+    {
+        java.io.File saved = java.io.File.createTempFile("background", ".json");
+        saved.deleteOnExit();
+        Store generated = new DiagramGenerator(5, 300).generate();
+        generated.setCurrentLoadedFile(new SaveAndLoad(generated, null, null).save(saved.getPath()));
+        int relationships = 0;
+        for(UML.model.Class aClass : generated.getClassStore())
+        {
+            relationships += aClass.getRelationshipsToOther().size();
+        }
+
+        GraphicalView view = new GraphicalView();
+        view.makeDrawPanel();
+        Controller controller = new Controller(new Store(), view);
+        controller.createClass("Before");
+        javax.swing.SwingUtilities.invokeAndWait(() -> assertTrue(controller.loadInBackground(saved.getPath())));
+        waitUntilIdle(controller);
+        assertTrue(generated.equals(controller.getStore()));
+        assertEquals(300, view.getPanels().size());
+        assertEquals(relationships, view.getRelationships().size());
+
+        //The load is undone like any other edit, with the view built again the same way.
+        javax.swing.SwingUtilities.invokeAndWait(() -> controller.undoInBackground());
+        waitUntilIdle(controller);
+        assertEquals(java.util.Arrays.asList("Before"), controller.getStore().getClassList());
+        assertEquals(java.util.Collections.singleton("Before"), view.getPanels().keySet());
+        assertTrue(view.getRelationships().isEmpty());
+    }
+
+    @Test
+    public void testCancelledLoadChangesNothing() throws Exception
+    {
+        java.io.File saved = java.io.File.createTempFile("background", ".umlb");
+        saved.deleteOnExit();
+        new SaveAndLoad(new DiagramGenerator(5, 300).generate(), null, null).save(saved.getPath());
+
+        GraphicalView view = new GraphicalView();
+        view.makeDrawPanel();
+        Controller controller = new Controller(new Store(), view);
+        controller.createClass("Before");
+        javax.swing.SwingUtilities.invokeAndWait(() -> {
+            assertTrue(controller.loadInBackground(saved.getPath()));
+            //Only one thing runs in the background at a time, and nothing can be edited meanwhile.
+            assertTrue(controller.isBusy());
+            controller.cancelBackground();
+        });
+        waitUntilIdle(controller);
+        assertEquals(java.util.Arrays.asList("Before"), controller.getStore().getClassList());
+        assertEquals(java.util.Collections.singleton("Before"), view.getPanels().keySet());
+    }
+
+    @Test
+    public void testSaveInBackground() throws Exception
+    {
+        java.io.File saved = java.io.File.createTempFile("background", ".json");
+        saved.deleteOnExit();
+        Store generated = new DiagramGenerator(5, 300).generate();
+        GraphicalView view = new GraphicalView();
+        view.makeDrawPanel();
+        Controller controller = new Controller(generated, view);
+        javax.swing.SwingUtilities.invokeAndWait(() -> {
+            assertTrue(controller.saveInBackground(saved.getPath()));
+            assertTrue(controller.isBusy());
+        });
+        waitUntilIdle(controller);
+        assertEquals(saved, generated.getCurrentLoadedFile());
+        Store loaded = new Store();
+        loaded.setCurrentLoadedFile(new SaveAndLoad(loaded, null, null).load(saved.getPath()));
+        assertTrue(generated.equals(loaded));
+    }
+}
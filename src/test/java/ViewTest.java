@@ -61,10 +61,10 @@ public class ViewTest
     {
         UML.model.Class c = new UML.model.Class("Test");
         
-        view.createClass(c.toString(), 0, 0);
+        view.createClass("Test", c.toString(), 0, 0);
         assertEquals("\n" + getOutput(c.toString()) + "\n", outContent.toString());
 
-        verify(view).createClass(c.toString(), 0, 0);
+        verify(view).createClass("Test", c.toString(), 0, 0);
         
         reset(view);
     }
@@ -73,7 +73,7 @@ public class ViewTest
     public void testDeleteClass()
     {
         UML.model.Class c = new UML.model.Class("Test");
-        view.createClass(c.toString(), 0, 0);
+        view.createClass("Test", c.toString(), 0, 0);
         outContent.reset();
         view.deleteClass("Test");
         assertEquals("Class deleted", outContent.toString().trim());
@@ -87,12 +87,12 @@ public class ViewTest
     {
         UML.model.Class c = new UML.model.Class("Test");
         UML.model.Class c2 = new UML.model.Class("Test2");
-        view.createClass(c.toString(), 0, 0);
-        view.createClass(c2.toString(), 0, 0);
+        view.createClass("Test", c.toString(), 0, 0);
+        view.createClass("Test2", c2.toString(), 0, 0);
         outContent.reset();
-        view.addRelationship(c.toString(), c2.toString(), "Realization");
-        assertEquals("\nAdded " + "Realization" + " between:\n" + getOutput(c.toString()) + "\n\n and \n\n" + getOutput(c2.toString()) + "\n", outContent.toString());
-        verify(view).addRelationship(c.toString(), c2.toString(), "Realization");
+        view.addRelationship("Test", "Test2", "Realization");
+        assertEquals("\nAdded " + "Realization" + " between:\n" + "Test" + "\n\n and \n\n" + "Test2" + "\n", outContent.toString());
+        verify(view).addRelationship("Test", "Test2", "Realization");
     }
 
     @Test
@@ -100,14 +100,14 @@ public class ViewTest
     {
         UML.model.Class c = new UML.model.Class("Test");
         UML.model.Class c2 = new UML.model.Class("Test2");
-        view.createClass(c.toString(), 0, 0);
-        view.createClass(c2.toString(), 0, 0);
-        view.addRelationship(c.toString(), c2.toString(), "Realization");
+        view.createClass("Test", c.toString(), 0, 0);
+        view.createClass("Test2", c2.toString(), 0, 0);
+        view.addRelationship("Test", "Test2", "Realization");
         outContent.reset();
-        view.deleteRelationship(c.toString(), c2.toString());
-        assertEquals("\nDeleted relationship between:\n" + getOutput(c.toString()) + "\n\n and \n\n" + getOutput(c2.toString()) + "\n", outContent.toString());
+        view.deleteRelationship("Test", "Test2");
+        assertEquals("\nDeleted relationship between:\n" + "Test" + "\n\n and \n\n" + "Test2" + "\n", outContent.toString());
 
-        verify(view).deleteRelationship(c.toString(), c2.toString());
+        verify(view).deleteRelationship("Test", "Test2");
     }
 
     @Test
@@ -135,8 +135,10 @@ public class ViewTest
         result += "deleter [classFrom] [classTo]:                                                                              Delete a relationship\n";
         result += "save [fileName]:                                                                                            Saves to passed in file name\n";
         result += "load [fileName]:                                                                                            Loads the passed in file name\n";
-        result += "display [(Optional) className]:                                                                             Displays all classes or a single class\n";
-        result += "displayr:                                                                                                   Displays all relationships\n";
+        result += "generate [fileName] [classCount] [(Optional) seed fields methods maxParams relationsPerClass]:              Writes a made-up diagram to a file\n";
+        result += "convert [fromFile] [toFile]:                                                                                Copies a diagram between .json and .umlb\n";
+        result += "display [(Optional) className or pattern] [--full] [--limit n] [--nopage]:                                  Displays all classes or a single class\n";
+        result += "displayr [(Optional) className or pattern] [--type relType] [--limit n] [--nopage]:                         Displays all relationships\n";
         result += "undo:                                                                                                       Reverts to a previous state\n";
         result += "redo:                                                                                                       Restores the latest undo\n";
         view.showHelp();